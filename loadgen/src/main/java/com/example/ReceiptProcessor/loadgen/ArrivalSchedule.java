@@ -0,0 +1,58 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import java.util.SplittableRandom;
+
+/**
+ * When each request is due, as an offset from the start of the run. The schedule is fixed in
+ * advance and never waits for responses, so a slow server cannot slow the arrivals down and hide
+ * its own latency (coordinated omission).
+ */
+public interface ArrivalSchedule {
+
+    /**
+     * Offset of the next request from the start of the run, in nanoseconds. Never decreases.
+     */
+    long nextOffsetNanos();
+
+    /**
+     * Evenly spaced requests. Offsets are computed from the request number rather than summed,
+     * so rounding does not drift over a long run.
+     */
+    static ArrivalSchedule constant(double ratePerSecond) {
+        requirePositive(ratePerSecond);
+        double interval = 1e9 / ratePerSecond;
+        return new ArrivalSchedule() {
+            private long count;
+
+            @Override
+            public long nextOffsetNanos() {
+                return Math.round(count++ * interval);
+            }
+        };
+    }
+
+    /**
+     * Independent arrivals at the given average rate, with exponentially distributed gaps, as
+     * from many users acting on their own.
+     */
+    static ArrivalSchedule poisson(double ratePerSecond, SplittableRandom random) {
+        requirePositive(ratePerSecond);
+        double meanInterval = 1e9 / ratePerSecond;
+        return new ArrivalSchedule() {
+            private double offset;
+
+            @Override
+            public long nextOffsetNanos() {
+                long next = Math.round(offset);
+                offset += -Math.log(1 - random.nextDouble()) * meanInterval;
+                return next;
+            }
+        };
+    }
+
+    private static void requirePositive(double ratePerSecond) {
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("rate must be positive, got " + ratePerSecond);
+        }
+    }
+}
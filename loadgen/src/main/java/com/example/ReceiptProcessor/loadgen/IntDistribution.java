@@ -0,0 +1,111 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import java.util.SplittableRandom;
+
+/**
+ * A distribution of positive whole numbers, such as items per receipt or retailer name length,
+ * written on the command line as one of:
+ * <ul>
+ *   <li>{@code fixed:N} - always N</li>
+ *   <li>{@code uniform:MIN-MAX} - every value from MIN to MAX equally likely</li>
+ *   <li>{@code geometric:MEAN} - 1 most likely, with a long tail averaging MEAN</li>
+ *   <li>{@code weighted:V=W,V=W,...} - value V with relative weight W, for shapes taken from real data</li>
+ * </ul>
+ */
+public interface IntDistribution {
+
+    int sample(SplittableRandom random);
+
+    static IntDistribution parse(String spec) {
+        int separator = spec.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Distribution must be kind:arguments, got " + spec);
+        }
+        String kind = spec.substring(0, separator).trim();
+        String arguments = spec.substring(separator + 1).trim();
+        try {
+            return switch (kind) {
+                case "fixed" -> fixed(positive(Integer.parseInt(arguments)));
+                case "uniform" -> {
+                    int dash = arguments.indexOf('-');
+                    if (dash < 0) {
+                        throw new IllegalArgumentException("uniform needs MIN-MAX, got " + arguments);
+                    }
+                    yield uniform(positive(Integer.parseInt(arguments.substring(0, dash).trim())),
+                            positive(Integer.parseInt(arguments.substring(dash + 1).trim())));
+                }
+                case "geometric" -> geometric(Double.parseDouble(arguments));
+                case "weighted" -> weighted(arguments);
+                default -> throw new IllegalArgumentException("Unknown distribution " + kind
+                        + "; use fixed, uniform, geometric or weighted");
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number in distribution " + spec, e);
+        }
+    }
+
+    static IntDistribution fixed(int value) {
+        return random -> value;
+    }
+
+    static IntDistribution uniform(int min, int max) {
+        if (min > max) {
+            throw new IllegalArgumentException("uniform MIN must not exceed MAX");
+        }
+        return random -> random.nextInt(min, max + 1);
+    }
+
+    /**
+     * Number of trials up to the first success when each succeeds with probability 1 / mean.
+     */
+    static IntDistribution geometric(double mean) {
+        if (mean < 1) {
+            throw new IllegalArgumentException("geometric MEAN must be at least 1");
+        }
+        if (mean == 1) {
+            return fixed(1);
+        }
+        double logFailure = Math.log(1 - 1 / mean);
+        return random -> (int) Math.min(Integer.MAX_VALUE, 1 + (long) Math.floor(Math.log(1 - random.nextDouble()) / logFailure));
+    }
+
+    private static IntDistribution weighted(String arguments) {
+        String[] entries = arguments.split(",");
+        int[] values = new int[entries.length];
+        double[] cumulative = new double[entries.length];
+        double total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] pair = entries[i].split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("weighted entries must be VALUE=WEIGHT, got " + entries[i]);
+            }
+            values[i] = positive(Integer.parseInt(pair[0].trim()));
+            double weight = Double.parseDouble(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("weights must not be negative, got " + entries[i]);
+            }
+            total += weight;
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("weighted needs at least one positive weight");
+        }
+        double sum = total;
+        return random -> {
+            double point = random.nextDouble() * sum;
+            for (int i = 0; i < cumulative.length; i++) {
+                if (point < cumulative[i]) {
+                    return values[i];
+                }
+            }
+            return values[values.length - 1];
+        };
+    }
+
+    private static int positive(int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("Values must be at least 1, got " + value);
+        }
+        return value;
+    }
+}
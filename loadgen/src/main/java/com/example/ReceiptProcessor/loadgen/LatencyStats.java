@@ -0,0 +1,170 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counts per operation, recorded in microseconds.
+ *
+ * Two latencies are kept for every request. Response time runs from when the schedule said the
+ * request was due, so time spent waiting for a connection or for the generator itself to catch up
+ * counts against the server; this is the number a user would see. Service time runs from when the
+ * request was actually handed to the HTTP client, and is what a closed-loop tool would report.
+ * A large gap between the two means requests were queueing.
+ *
+ * Recording is thread-safe. {@link #printInterval} and {@link #printSummary} must be called from
+ * one thread at a time.
+ */
+public class LatencyStats {
+
+    /**
+     * Status recorded for requests that got no response: connection failures and timeouts.
+     */
+    public static final int NO_RESPONSE = -1;
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final HistogramLogWriter logWriter;
+
+    public LatencyStats(HistogramLogWriter logWriter) {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        this.logWriter = logWriter;
+    }
+
+    /**
+     * Records one finished request. {@code expected} is false when the status was not the one the
+     * request should have produced, for example a 400 for a valid receipt or a 503.
+     */
+    public void record(Operation operation, long intendedNanos, long sentNanos, long doneNanos, int status, boolean expected) {
+        OperationStats operationStats = stats.get(operation);
+        operationStats.responseTime.recordValue(micros(doneNanos - intendedNanos));
+        operationStats.serviceTime.recordValue(micros(doneNanos - sentNanos));
+        operationStats.statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (!expected) {
+            operationStats.unexpected.increment();
+        }
+    }
+
+    /**
+     * Counts a request that was due but not sent because too many were already in flight.
+     */
+    public void dropped(Operation operation) {
+        stats.get(operation).dropped.increment();
+    }
+
+    /**
+     * Prints one line per operation for the requests finished since the last call, and folds them
+     * into the totals.
+     */
+    public void printInterval(PrintStream out, double elapsedSeconds, double intervalSeconds) {
+        for (Operation operation : Operation.values()) {
+            Histogram interval = harvest(operation);
+            out.printf("%7.1fs %-26s %8.1f req/s  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms%n",
+                    elapsedSeconds, operation.label(), interval.getTotalCount() / intervalSeconds,
+                    millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)),
+                    millis(interval.getMaxValue()));
+        }
+    }
+
+    /**
+     * Prints throughput, outcome counts and percentiles over everything recorded.
+     */
+    public void printSummary(PrintStream out, double measuredSeconds) {
+        for (Operation operation : Operation.values()) {
+            harvest(operation);
+            OperationStats operationStats = stats.get(operation);
+            Histogram responseTime = operationStats.totalResponseTime;
+            out.printf("%n%s%n", operation.label());
+            out.printf("  requests %d, throughput %.1f req/s, unexpected status %d, dropped %d%n",
+                    responseTime.getTotalCount(), responseTime.getTotalCount() / measuredSeconds,
+                    operationStats.unexpected.sum(), operationStats.dropped.sum());
+            out.printf("  statuses %s%n", statuses(operationStats));
+            printPercentiles(out, "response time (from scheduled start)", responseTime);
+            printPercentiles(out, "service time (from actual send)     ", operationStats.totalServiceTime);
+        }
+    }
+
+    /**
+     * Response times folded into the totals so far, by the last print.
+     */
+    public Histogram totalResponseTime(Operation operation) {
+        return stats.get(operation).totalResponseTime;
+    }
+
+    public Histogram totalServiceTime(Operation operation) {
+        return stats.get(operation).totalServiceTime;
+    }
+
+    public long unexpectedCount(Operation operation) {
+        return stats.get(operation).unexpected.sum();
+    }
+
+    public long droppedCount(Operation operation) {
+        return stats.get(operation).dropped.sum();
+    }
+
+    private Histogram harvest(Operation operation) {
+        OperationStats operationStats = stats.get(operation);
+        Histogram responseTime = operationStats.responseTime.getIntervalHistogram();
+        Histogram serviceTime = operationStats.serviceTime.getIntervalHistogram();
+        operationStats.totalResponseTime.add(responseTime);
+        operationStats.totalServiceTime.add(serviceTime);
+        if (logWriter != null && responseTime.getTotalCount() > 0) {
+            responseTime.setTag(operation.name());
+            logWriter.outputIntervalHistogram(responseTime);
+        }
+        return responseTime;
+    }
+
+    private static void printPercentiles(PrintStream out, String name, Histogram histogram) {
+        StringBuilder line = new StringBuilder("  ").append(name).append(" ms:");
+        for (double percentile : PERCENTILES) {
+            line.append(String.format(" p%s %.2f", format(percentile), millis(histogram.getValueAtPercentile(percentile))));
+        }
+        line.append(String.format(" max %.2f", millis(histogram.getMaxValue())));
+        out.println(line);
+    }
+
+    private static String statuses(OperationStats operationStats) {
+        Map<String, Long> counts = new TreeMap<>();
+        operationStats.statuses.forEach((status, count) ->
+                counts.put(status == NO_RESPONSE ? "no response" : String.valueOf(status), count.sum()));
+        return counts.toString();
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static long micros(long nanos) {
+        return Math.max(0, Math.min(HIGHEST_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class OperationStats {
+        final Recorder responseTime = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        final Recorder serviceTime = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        final Histogram totalResponseTime = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        final Histogram totalServiceTime = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        final LongAdder unexpected = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+    }
+}
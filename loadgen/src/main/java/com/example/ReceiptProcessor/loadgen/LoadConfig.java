@@ -0,0 +1,171 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}. Every option has a default, so a bare run
+ * drives a local server at a moderate rate.
+ */
+public class LoadConfig {
+
+    static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("url", "http://localhost:8081");
+        DEFAULTS.put("rate", "200");
+        DEFAULTS.put("arrivals", "poisson");
+        DEFAULTS.put("duration", "PT60S");
+        DEFAULTS.put("warmup", "PT10S");
+        DEFAULTS.put("points-ratio", "0.5");
+        DEFAULTS.put("items", "weighted:1=10,2=14,3=14,4=12,5=10,7=12,10=10,15=8,25=6,50=3,100=1");
+        DEFAULTS.put("retailer-length", "uniform:4-32");
+        DEFAULTS.put("description-length", "uniform:3-30");
+        DEFAULTS.put("malformed-rate", "0.02");
+        DEFAULTS.put("seed-receipts", "100");
+        DEFAULTS.put("max-in-flight", "5000");
+        DEFAULTS.put("timeout", "PT5S");
+        DEFAULTS.put("report-interval", "PT5S");
+        DEFAULTS.put("histogram-log", "");
+        DEFAULTS.put("random-seed", "42");
+    }
+
+    private final Map<String, String> values;
+
+    private LoadConfig(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadConfig parse(String... args) {
+        Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Options must be --name=value, got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+            values.put(name, arg.substring(separator + 1));
+        }
+        LoadConfig config = new LoadConfig(values);
+        config.validate();
+        return config;
+    }
+
+    public static String usage() {
+        StringBuilder usage = new StringBuilder("Options (defaults shown):\n");
+        DEFAULTS.forEach((name, value) -> usage.append("  --").append(name).append('=').append(value).append('\n'));
+        usage.append("Distributions are fixed:N, uniform:MIN-MAX, geometric:MEAN or weighted:V=W,...\n");
+        return usage.toString();
+    }
+
+    public URI url() {
+        return URI.create(values.get("url").replaceAll("/+$", ""));
+    }
+
+    public double rate() {
+        return Double.parseDouble(values.get("rate"));
+    }
+
+    public boolean poissonArrivals() {
+        return values.get("arrivals").equals("poisson");
+    }
+
+    public Duration duration() {
+        return Duration.parse(values.get("duration"));
+    }
+
+    public Duration warmup() {
+        return Duration.parse(values.get("warmup"));
+    }
+
+    public double pointsRatio() {
+        return Double.parseDouble(values.get("points-ratio"));
+    }
+
+    public IntDistribution items() {
+        return IntDistribution.parse(values.get("items"));
+    }
+
+    public IntDistribution retailerLength() {
+        return IntDistribution.parse(values.get("retailer-length"));
+    }
+
+    public IntDistribution descriptionLength() {
+        return IntDistribution.parse(values.get("description-length"));
+    }
+
+    public double malformedRate() {
+        return Double.parseDouble(values.get("malformed-rate"));
+    }
+
+    public int seedReceipts() {
+        return Integer.parseInt(values.get("seed-receipts"));
+    }
+
+    public int maxInFlight() {
+        return Integer.parseInt(values.get("max-in-flight"));
+    }
+
+    public Duration timeout() {
+        return Duration.parse(values.get("timeout"));
+    }
+
+    public Duration reportInterval() {
+        return Duration.parse(values.get("report-interval"));
+    }
+
+    /**
+     * Where to write interval histograms in HdrHistogram log format, or null for no log.
+     */
+    public String histogramLog() {
+        String path = values.get("histogram-log");
+        return path.isBlank() ? null : path;
+    }
+
+    public long randomSeed() {
+        return Long.parseLong(values.get("random-seed"));
+    }
+
+    /**
+     * Parses every option once, so a typo fails before any traffic is sent.
+     */
+    private void validate() {
+        try {
+            url();
+            if (!(rate() > 0)) {
+                throw new IllegalArgumentException("--rate must be positive");
+            }
+            if (!values.get("arrivals").equals("poisson") && !values.get("arrivals").equals("constant")) {
+                throw new IllegalArgumentException("--arrivals must be poisson or constant");
+            }
+            if (duration().isNegative() || duration().isZero() || warmup().isNegative()) {
+                throw new IllegalArgumentException("--duration must be positive and --warmup not negative");
+            }
+            if (pointsRatio() < 0 || pointsRatio() > 1) {
+                throw new IllegalArgumentException("--points-ratio must be between 0 and 1");
+            }
+            if (malformedRate() < 0 || malformedRate() > 1) {
+                throw new IllegalArgumentException("--malformed-rate must be between 0 and 1");
+            }
+            items();
+            retailerLength();
+            descriptionLength();
+            if (seedReceipts() < 0 || maxInFlight() < 1) {
+                throw new IllegalArgumentException("--seed-receipts must not be negative and --max-in-flight must be positive");
+            }
+            timeout();
+            if (reportInterval().isNegative() || reportInterval().isZero()) {
+                throw new IllegalArgumentException("--report-interval must be positive");
+            }
+            randomSeed();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid option value: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Drives {@code /receipts/process} and {@code /receipts/{id}/points} at a fixed rate with synthetic
+ * receipts and prints latency percentiles and throughput. Run with {@code --help} for the options.
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (List.of(args).contains("--help")) {
+            System.out.print(LoadConfig.usage());
+            return;
+        }
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadConfig.usage());
+            System.exit(2);
+            return;
+        }
+
+        HistogramLogWriter logWriter = openLog(config.histogramLog());
+        try {
+            LatencyStats stats = new LatencyStats(logWriter);
+            LoadRunner runner = new LoadRunner(config, stats);
+            System.out.printf("Target %s, %.0f req/s (%s arrivals), %.0f%% points lookups, %.1f%% malformed receipts%n",
+                    config.url(), config.rate(), config.poissonArrivals() ? "poisson" : "constant",
+                    config.pointsRatio() * 100, config.malformedRate() * 100);
+            System.out.printf("Seeding %d receipts, warming up for %s, measuring for %s%n",
+                    config.seedReceipts(), config.warmup(), config.duration());
+            runner.seed();
+            runner.run(System.out);
+        } finally {
+            if (logWriter != null) {
+                logWriter.close();
+            }
+        }
+    }
+
+    private static HistogramLogWriter openLog(String path) throws FileNotFoundException {
+        if (path == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        HistogramLogWriter logWriter = new HistogramLogWriter(path);
+        logWriter.setBaseTime(now);
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(now);
+        logWriter.outputLegend();
+        return logWriter;
+    }
+}
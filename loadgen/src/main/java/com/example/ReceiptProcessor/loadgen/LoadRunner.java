@@ -0,0 +1,208 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests on the arrival schedule and records what comes back.
+ *
+ * One thread walks the schedule, sleeping until each request is due and then handing it to the
+ * HTTP client without waiting for the response, so arrivals stay on schedule however slow the
+ * server gets. If this thread itself falls behind, late requests are sent at once and their
+ * response time still counts from when they were due. Responses are recorded on the client's
+ * threads. Requests due during the warmup are sent but not recorded.
+ *
+ * Points lookups use ids returned by earlier ingests, so the mix only reads receipts that exist.
+ */
+public class LoadRunner {
+
+    private static final int KNOWN_IDS = 10_000;
+
+    private final LoadConfig config;
+    private final LatencyStats stats;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SplittableRandom random;
+    private final ReceiptGenerator receiptGenerator;
+    private final KnownIds knownIds = new KnownIds(KNOWN_IDS);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadRunner(LoadConfig config, LatencyStats stats) {
+        this.config = config;
+        this.stats = stats;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(config.timeout())
+                .build();
+        this.random = new SplittableRandom(config.randomSeed());
+        this.receiptGenerator = new ReceiptGenerator(objectMapper, random.split(), config.items(),
+                config.retailerLength(), config.descriptionLength(), config.malformedRate());
+    }
+
+    /**
+     * Ingests valid receipts one at a time before the run, so points lookups have ids from the start.
+     */
+    public void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < config.seedReceipts(); i++) {
+            HttpResponse<String> response = httpClient.send(processRequest(receiptGenerator.nextValid().json()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+            knownIds.add(readId(response.body()));
+        }
+    }
+
+    public void run(PrintStream out) throws InterruptedException {
+        ArrivalSchedule schedule = config.poissonArrivals()
+                ? ArrivalSchedule.poisson(config.rate(), random.split())
+                : ArrivalSchedule.constant(config.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "loadgen-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = config.reportInterval().toNanos();
+        reporter.scheduleAtFixedRate(
+                () -> stats.printInterval(out, (System.nanoTime() - measureFrom) / 1e9, intervalNanos / 1e9),
+                measureFrom - System.nanoTime() + intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+
+        while (true) {
+            long intended = start + schedule.nextOffsetNanos();
+            if (intended - end >= 0) {
+                break;
+            }
+            sleepUntil(intended);
+            send(intended, intended - measureFrom >= 0);
+        }
+
+        long drainDeadline = System.nanoTime() + config.timeout().toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (inFlight.get() > 0 && System.nanoTime() - drainDeadline < 0) {
+            Thread.sleep(10);
+        }
+        reporter.shutdownNow();
+        reporter.awaitTermination(1, TimeUnit.SECONDS);
+        stats.printSummary(out, config.duration().toNanos() / 1e9);
+    }
+
+    private void send(long intended, boolean measured) {
+        boolean lookup = !knownIds.isEmpty() && random.nextDouble() < config.pointsRatio();
+        Operation operation = lookup ? Operation.POINTS : Operation.PROCESS;
+        if (inFlight.get() >= config.maxInFlight()) {
+            if (measured) {
+                stats.dropped(operation);
+            }
+            return;
+        }
+
+        HttpRequest request;
+        int expectedStatus;
+        if (lookup) {
+            request = HttpRequest.newBuilder(uri("/receipts/" + knownIds.pick(random) + "/points"))
+                    .timeout(config.timeout())
+                    .GET()
+                    .build();
+            expectedStatus = 200;
+        } else {
+            ReceiptGenerator.GeneratedReceipt receipt = receiptGenerator.next();
+            request = processRequest(receipt.json());
+            expectedStatus = receipt.valid() ? 200 : 400;
+        }
+
+        inFlight.incrementAndGet();
+        long sent = System.nanoTime();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, failure) -> {
+            long done = System.nanoTime();
+            inFlight.decrementAndGet();
+            int status = failure != null ? LatencyStats.NO_RESPONSE : response.statusCode();
+            if (operation == Operation.PROCESS && status == 200) {
+                knownIds.add(readId(response.body()));
+            }
+            if (measured) {
+                stats.record(operation, intended, sent, done, status, status == expectedStatus);
+            }
+        });
+    }
+
+    private HttpRequest processRequest(String json) {
+        return HttpRequest.newBuilder(uri("/receipts/process"))
+                .timeout(config.timeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(config.url() + path);
+    }
+
+    private String readId(String body) {
+        try {
+            JsonNode id = objectMapper.readTree(body).get("id");
+            return id != null ? id.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void sleepUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * The most recent ids returned by the server, overwritten oldest first.
+     */
+    static final class KnownIds {
+
+        private final AtomicReferenceArray<String> ids;
+        private final AtomicLong added = new AtomicLong();
+
+        KnownIds(int capacity) {
+            ids = new AtomicReferenceArray<>(capacity);
+        }
+
+        void add(String id) {
+            if (id != null) {
+                ids.set((int) (added.getAndIncrement() % ids.length()), id);
+            }
+        }
+
+        boolean isEmpty() {
+            return added.get() == 0;
+        }
+
+        /**
+         * A random known id. Retries slots that were claimed but not yet written.
+         */
+        String pick(SplittableRandom random) {
+            int size = (int) Math.min(added.get(), ids.length());
+            String id;
+            do {
+                id = ids.get(random.nextInt(size));
+            } while (id == null);
+            return id;
+        }
+    }
+}
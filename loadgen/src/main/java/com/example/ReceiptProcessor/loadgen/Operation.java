@@ -0,0 +1,20 @@
+package com.example.ReceiptProcessor.loadgen;
+
+/**
+ * The requests the load generator sends.
+ */
+public enum Operation {
+
+    PROCESS("POST /receipts/process"),
+    POINTS("GET /receipts/{id}/points");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Synthesizes receipt bodies for {@code /receipts/process}. Item counts and name lengths follow the
+ * configured distributions, prices are log-normal around a few dollars and the total is the sum of
+ * the items. A configurable share of receipts has exactly one field broken in a way the API must
+ * reject with 400, picked from {@link Malformation}.
+ *
+ * Not thread-safe; the load runner calls it from its scheduling thread only.
+ */
+public class ReceiptGenerator {
+
+    /**
+     * Ways a receipt can be broken. Each one alone makes the receipt invalid.
+     */
+    public enum Malformation {
+        RETAILER_CHARACTERS,
+        MISSING_RETAILER,
+        IMPOSSIBLE_DATE,
+        BAD_TIME,
+        TOTAL_FORMAT,
+        PRICE_FORMAT,
+        DESCRIPTION_CHARACTERS,
+        NO_ITEMS
+    }
+
+    /**
+     * A request body and whether it was meant to be rejected.
+     */
+    public record GeneratedReceipt(String json, Malformation malformation) {
+
+        public boolean valid() {
+            return malformation == null;
+        }
+    }
+
+    private static final String[] RETAILER_WORDS = {"Target", "Walgreens", "Costco", "Wholesale", "Corner", "Market",
+            "M&M", "Trader", "Joes", "Whole", "Foods", "Safeway", "Kroger", "Fresh", "Express", "Mart", "Pharmacy",
+            "General", "Store", "Deli", "Bakery", "Outlet", "Super", "Center", "Co-op"};
+    private static final String[] DESCRIPTION_WORDS = {"Mountain", "Dew", "12PK", "Emils", "Cheese", "Pizza",
+            "Knorr", "Creamy", "Chicken", "Doritos", "Nacho", "Klarbrunn", "12-PK", "12", "FL", "OZ", "Gatorade",
+            "Pepsi", "Dasani", "Organic", "Bananas", "Whole", "Milk", "1", "Gal", "Bread", "Eggs", "Large", "Dozen",
+            "Coffee", "Beans", "Paper", "Towels", "Dish", "Soap", "Apples", "Rice", "5LB", "Greek", "Yogurt"};
+    private static final long FIRST_DAY = LocalDate.of(2022, 1, 1).toEpochDay();
+    private static final long LAST_DAY = LocalDate.of(2024, 12, 31).toEpochDay();
+    private static final double MEDIAN_PRICE_CENTS = 350;
+    private static final long MAX_PRICE_CENTS = 500_000;
+
+    private final ObjectMapper objectMapper;
+    private final SplittableRandom random;
+    private final IntDistribution itemCounts;
+    private final IntDistribution retailerLengths;
+    private final IntDistribution descriptionLengths;
+    private final double malformedRate;
+
+    public ReceiptGenerator(ObjectMapper objectMapper, SplittableRandom random, IntDistribution itemCounts,
+                            IntDistribution retailerLengths, IntDistribution descriptionLengths, double malformedRate) {
+        if (malformedRate < 0 || malformedRate > 1) {
+            throw new IllegalArgumentException("malformed rate must be between 0 and 1, got " + malformedRate);
+        }
+        this.objectMapper = objectMapper;
+        this.random = random;
+        this.itemCounts = itemCounts;
+        this.retailerLengths = retailerLengths;
+        this.descriptionLengths = descriptionLengths;
+        this.malformedRate = malformedRate;
+    }
+
+    public GeneratedReceipt next() {
+        Malformation malformation = random.nextDouble() < malformedRate
+                ? Malformation.values()[random.nextInt(Malformation.values().length)]
+                : null;
+        return generate(malformation);
+    }
+
+    public GeneratedReceipt nextValid() {
+        return generate(null);
+    }
+
+    GeneratedReceipt generate(Malformation malformation) {
+        ObjectNode receipt = objectMapper.createObjectNode();
+        receipt.put("retailer", name(RETAILER_WORDS, retailerLengths.sample(random)));
+        receipt.put("purchaseDate", LocalDate.ofEpochDay(random.nextLong(FIRST_DAY, LAST_DAY + 1)).toString());
+        receipt.put("purchaseTime", String.format("%02d:%02d", random.nextInt(6, 24), random.nextInt(60)));
+
+        ArrayNode items = receipt.putArray("items");
+        long totalCents = 0;
+        int count = itemCounts.sample(random);
+        for (int i = 0; i < count; i++) {
+            long cents = price();
+            totalCents += cents;
+            items.addObject()
+                    .put("shortDescription", name(DESCRIPTION_WORDS, descriptionLengths.sample(random)))
+                    .put("price", formatCents(cents));
+        }
+        receipt.put("total", formatCents(totalCents));
+
+        if (malformation != null) {
+            breakField(receipt, malformation);
+        }
+        return new GeneratedReceipt(receipt.toString(), malformation);
+    }
+
+    private void breakField(ObjectNode receipt, Malformation malformation) {
+        ObjectNode firstItem = (ObjectNode) receipt.get("items").get(0);
+        switch (malformation) {
+            case RETAILER_CHARACTERS -> receipt.put("retailer", receipt.get("retailer").asText() + "'s!");
+            case MISSING_RETAILER -> receipt.remove("retailer");
+            case IMPOSSIBLE_DATE -> receipt.put("purchaseDate", "2022-02-30");
+            case BAD_TIME -> receipt.put("purchaseTime", random.nextBoolean() ? "24:05" : "2:05 PM");
+            case TOTAL_FORMAT -> receipt.put("total", receipt.get("total").asText().replace(".", ","));
+            case PRICE_FORMAT -> firstItem.put("price", "$" + firstItem.get("price").asText());
+            case DESCRIPTION_CHARACTERS -> firstItem.put("shortDescription", firstItem.get("shortDescription").asText() + " (2/$5)");
+            case NO_ITEMS -> receipt.putArray("items");
+        }
+    }
+
+    /**
+     * Words drawn at random and joined by spaces, cut to exactly {@code length} characters without
+     * a trailing space.
+     */
+    private String name(String[] words, int length) {
+        StringBuilder name = new StringBuilder(length + 16);
+        while (name.length() < length) {
+            if (name.length() > 0) {
+                name.append(' ');
+            }
+            name.append(words[random.nextInt(words.length)]);
+        }
+        name.setLength(length);
+        if (name.charAt(length - 1) == ' ') {
+            name.setCharAt(length - 1, 'X');
+        }
+        return name.toString();
+    }
+
+    private long price() {
+        double cents = MEDIAN_PRICE_CENTS * Math.exp(random.nextGaussian());
+        return Math.max(1, Math.min(MAX_PRICE_CENTS, Math.round(cents)));
+    }
+
+    private static String formatCents(long cents) {
+        return (cents / 100) + "." + String.format("%02d", cents % 100);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrivalScheduleTest {
+
+    /**
+     * Tests for constant method
+     */
+    @Test
+    void constant_spacesRequestsEvenlyWithoutDrift() {
+        ArrivalSchedule schedule = ArrivalSchedule.constant(3);
+
+        assertEquals(0, schedule.nextOffsetNanos());
+        assertEquals(333_333_333, schedule.nextOffsetNanos());
+        assertEquals(666_666_667, schedule.nextOffsetNanos());
+        long last = 0;
+        for (int i = 3; i <= 3_000; i++) {
+            last = schedule.nextOffsetNanos();
+        }
+        assertEquals(1_000_000_000_000L, last);
+    }
+
+    @Test
+    void constant_nonPositiveRate_throws() {
+        assertThrows(IllegalArgumentException.class, () -> ArrivalSchedule.constant(0));
+        assertThrows(IllegalArgumentException.class, () -> ArrivalSchedule.constant(Double.NaN));
+    }
+
+    /**
+     * Tests for poisson method
+     */
+    @Test
+    void poisson_averagesRequestedRateWithVaryingGaps() {
+        ArrivalSchedule schedule = ArrivalSchedule.poisson(1_000, new SplittableRandom(3));
+
+        long previous = schedule.nextOffsetNanos();
+        long shortGaps = 0;
+        for (int i = 1; i < 100_000; i++) {
+            long offset = schedule.nextOffsetNanos();
+            assertTrue(offset >= previous);
+            if (offset - previous < 1_000_000) {
+                shortGaps++;
+            }
+            previous = offset;
+        }
+
+        assertEquals(100.0, previous / 1e9, 2.0);
+        // With exponential gaps, about 1 - 1/e of them are shorter than the mean
+        assertEquals(0.632, shortGaps / 100_000.0, 0.01);
+    }
+}
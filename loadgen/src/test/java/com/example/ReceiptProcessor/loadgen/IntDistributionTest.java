@@ -0,0 +1,67 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntDistributionTest {
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    /**
+     * Tests for parse method
+     */
+    @Test
+    void parse_fixed_alwaysReturnsValue() {
+        IntDistribution distribution = IntDistribution.parse("fixed:5");
+
+        assertTrue(IntStream.range(0, 100).allMatch(i -> distribution.sample(random) == 5));
+    }
+
+    @Test
+    void parse_uniform_coversWholeRangeInclusive() {
+        IntDistribution distribution = IntDistribution.parse("uniform:3-6");
+
+        int[] seen = new int[7];
+        for (int i = 0; i < 10_000; i++) {
+            seen[distribution.sample(random)]++;
+        }
+
+        assertEquals(0, seen[2]);
+        for (int value = 3; value <= 6; value++) {
+            assertTrue(seen[value] > 2_000, "value " + value);
+        }
+    }
+
+    @Test
+    void parse_geometric_hasRequestedMeanAndStartsAtOne() {
+        IntDistribution distribution = IntDistribution.parse("geometric:4");
+
+        int[] samples = IntStream.range(0, 100_000).map(i -> distribution.sample(random)).toArray();
+
+        assertEquals(1, IntStream.of(samples).min().orElseThrow());
+        assertEquals(4.0, IntStream.of(samples).average().orElseThrow(), 0.1);
+    }
+
+    @Test
+    void parse_weighted_followsWeights() {
+        IntDistribution distribution = IntDistribution.parse("weighted:1=3, 10=1, 50=0");
+
+        long ones = IntStream.range(0, 100_000).map(i -> distribution.sample(random)).filter(v -> v == 1).count();
+        boolean fifty = IntStream.range(0, 10_000).anyMatch(i -> distribution.sample(random) == 50);
+
+        assertEquals(0.75, ones / 100_000.0, 0.01);
+        assertFalse(fifty);
+    }
+
+    @Test
+    void parse_invalidSpecs_throw() {
+        for (String spec : new String[]{"5", "normal:5", "fixed:0", "uniform:5", "uniform:6-3", "geometric:0.5",
+                "weighted:1", "weighted:1=0", "fixed:x"}) {
+            assertThrows(IllegalArgumentException.class, () -> IntDistribution.parse(spec), spec);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyStatsTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LatencyStats stats = new LatencyStats(null);
+
+    /**
+     * Tests for record method
+     */
+    @Test
+    void record_responseTimeCountsFromScheduledStart() {
+        // Due at 0, sent 40 ms late, answered 10 ms after sending
+        stats.record(Operation.PROCESS, 0, 40 * MS, 50 * MS, 200, true);
+
+        stats.printSummary(new PrintStream(new ByteArrayOutputStream()), 1);
+
+        assertEquals(50, stats.totalResponseTime(Operation.PROCESS).getMaxValue() / 1000, 1);
+        assertEquals(10, stats.totalServiceTime(Operation.PROCESS).getMaxValue() / 1000, 1);
+        assertEquals(0, stats.totalResponseTime(Operation.POINTS).getTotalCount());
+    }
+
+    @Test
+    void record_unexpectedStatusesAndDropsAreCounted() {
+        stats.record(Operation.PROCESS, 0, 0, MS, 400, true);
+        stats.record(Operation.PROCESS, 0, 0, MS, 503, false);
+        stats.record(Operation.POINTS, 0, 0, MS, LatencyStats.NO_RESPONSE, false);
+        stats.dropped(Operation.POINTS);
+
+        assertEquals(1, stats.unexpectedCount(Operation.PROCESS));
+        assertEquals(1, stats.unexpectedCount(Operation.POINTS));
+        assertEquals(1, stats.droppedCount(Operation.POINTS));
+    }
+
+    /**
+     * Tests for printInterval and printSummary methods
+     */
+    @Test
+    void printSummary_includesIntervalsAlreadyPrinted() {
+        for (int i = 1; i <= 100; i++) {
+            stats.record(Operation.POINTS, 0, 0, i * MS, 200, true);
+        }
+        ByteArrayOutputStream interval = new ByteArrayOutputStream();
+        stats.printInterval(new PrintStream(interval, true, StandardCharsets.UTF_8), 5, 5);
+        stats.record(Operation.POINTS, 0, 0, 500 * MS, 200, true);
+
+        ByteArrayOutputStream summary = new ByteArrayOutputStream();
+        stats.printSummary(new PrintStream(summary, true, StandardCharsets.UTF_8), 10);
+
+        assertTrue(interval.toString(StandardCharsets.UTF_8).contains("20.0 req/s"));
+        String text = summary.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("requests 101, throughput 10.1 req/s"), text);
+        assertTrue(text.contains("statuses {200=101}"), text);
+        assertTrue(text.contains("p99.9"), text);
+        assertEquals(101, stats.totalResponseTime(Operation.POINTS).getTotalCount());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadConfigTest {
+
+    /**
+     * Tests for parse method
+     */
+    @Test
+    void parse_noArgs_usesDefaults() {
+        LoadConfig config = LoadConfig.parse();
+
+        assertEquals(URI.create("http://localhost:8081"), config.url());
+        assertEquals(200, config.rate());
+        assertTrue(config.poissonArrivals());
+        assertEquals(Duration.ofSeconds(60), config.duration());
+        assertNull(config.histogramLog());
+    }
+
+    @Test
+    void parse_overridesOptions() {
+        LoadConfig config = LoadConfig.parse("--url=http://node-1:8080/", "--rate=1500", "--arrivals=constant",
+                "--duration=PT2M", "--malformed-rate=0.1", "--histogram-log=target/run.hlog");
+
+        assertEquals(URI.create("http://node-1:8080"), config.url());
+        assertEquals(1500, config.rate());
+        assertFalse(config.poissonArrivals());
+        assertEquals(Duration.ofMinutes(2), config.duration());
+        assertEquals(0.1, config.malformedRate());
+        assertEquals("target/run.hlog", config.histogramLog());
+    }
+
+    @Test
+    void parse_invalidOptions_throw() {
+        for (String arg : new String[]{"rate=5", "--rates=5", "--rate=0", "--rate=fast", "--arrivals=burst",
+                "--duration=60", "--points-ratio=2", "--items=normal:3", "--max-in-flight=0"}) {
+            assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(arg), arg);
+        }
+    }
+
+    /**
+     * Tests for usage method
+     */
+    @Test
+    void usage_listsEveryOption() {
+        String usage = LoadConfig.usage();
+
+        for (String option : LoadConfig.DEFAULTS.keySet()) {
+            assertTrue(usage.contains("--" + option + "="), option);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadRunnerTest {
+
+    private final AtomicInteger processed = new AtomicInteger();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // A server that handles one request at a time and takes 100 ms for each
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.createContext("/receipts/", exchange -> {
+            sleep(100);
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/receipts/process")) {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                processed.incrementAndGet();
+                respond(exchange, 200, "{\"id\":\"" + UUID.nameUUIDFromBytes(body.getBytes(StandardCharsets.UTF_8)) + "\"}");
+            } else {
+                lookups.incrementAndGet();
+                respond(exchange, 200, "{\"points\":28}");
+            }
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Tests for seed and run methods
+     */
+    @Test
+    void run_slowServer_keepsArrivalRateAndChargesQueueingToResponseTime() throws Exception {
+        LoadConfig config = LoadConfig.parse("--url=" + baseUrl, "--rate=40", "--arrivals=constant",
+                "--duration=PT1S", "--warmup=PT0S", "--seed-receipts=1", "--malformed-rate=0",
+                "--timeout=PT10S", "--report-interval=PT10S");
+        LatencyStats stats = new LatencyStats(null);
+        LoadRunner runner = new LoadRunner(config, stats);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        runner.seed();
+        runner.run(new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        long sent = stats.totalResponseTime(Operation.PROCESS).getTotalCount()
+                + stats.totalResponseTime(Operation.POINTS).getTotalCount();
+        // A closed-loop client waiting for each answer would only have sent about 10 requests in a second
+        assertEquals(40, sent);
+        assertEquals(41, processed.get() + lookups.get());
+        assertTrue(lookups.get() > 0);
+        assertEquals(0, stats.unexpectedCount(Operation.PROCESS) + stats.unexpectedCount(Operation.POINTS));
+        // The last request queues behind about 40 others at 100 ms each
+        long worstMillis = Math.max(stats.totalResponseTime(Operation.PROCESS).getMaxValue(),
+                stats.totalResponseTime(Operation.POINTS).getMaxValue()) / 1000;
+        assertTrue(worstMillis > 2_000, "worst response " + worstMillis + " ms");
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("response time (from scheduled start)"));
+    }
+
+    @Test
+    void run_inFlightLimitReached_countsDroppedRequests() throws Exception {
+        LoadConfig config = LoadConfig.parse("--url=" + baseUrl, "--rate=40", "--arrivals=constant",
+                "--duration=PT0.5S", "--warmup=PT0S", "--seed-receipts=0", "--points-ratio=0", "--max-in-flight=2",
+                "--timeout=PT10S", "--report-interval=PT10S");
+        LatencyStats stats = new LatencyStats(null);
+
+        new LoadRunner(config, stats).run(new PrintStream(new ByteArrayOutputStream()));
+
+        long sent = stats.totalResponseTime(Operation.PROCESS).getTotalCount();
+        assertEquals(20, sent + stats.droppedCount(Operation.PROCESS));
+        // Two slots free up every 100 ms at most, so most of the 20 due requests find none
+        assertTrue(sent <= 12, "sent " + sent);
+    }
+
+    /**
+     * Helper methods
+     */
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.ReceiptProcessor.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptGeneratorTest {
+
+    // The API's validation rules, as in ReceiptValidator
+    private static final Pattern RETAILER = Pattern.compile("^[\\w\\s\\-&]+$");
+    private static final Pattern DESCRIPTION = Pattern.compile("^[\\w\\s\\-]+$");
+    private static final Pattern AMOUNT = Pattern.compile("^\\d+\\.\\d{2}$");
+    private static final Pattern TIME = Pattern.compile("^([01]\\d|2[0-3]):[0-5]\\d$");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tests for nextValid method
+     */
+    @Test
+    void nextValid_passesApiValidationWithConfiguredShape() throws Exception {
+        ReceiptGenerator generator = generator(IntDistribution.uniform(1, 40), IntDistribution.fixed(17), 0);
+
+        for (int i = 0; i < 2_000; i++) {
+            ReceiptGenerator.GeneratedReceipt generated = generator.nextValid();
+            JsonNode receipt = objectMapper.readTree(generated.json());
+
+            assertTrue(generated.valid());
+            assertEquals(17, receipt.get("retailer").asText().length());
+            assertTrue(isValid(receipt), generated.json());
+            int items = receipt.get("items").size();
+            assertTrue(items >= 1 && items <= 40);
+            long cents = 0;
+            for (JsonNode item : receipt.get("items")) {
+                cents += Math.round(item.get("price").asDouble() * 100);
+            }
+            assertEquals(cents, Math.round(receipt.get("total").asDouble() * 100));
+        }
+    }
+
+    @Test
+    void nextValid_sameSeed_sameReceipts() {
+        ReceiptGenerator first = generator(IntDistribution.fixed(3), IntDistribution.fixed(10), 0.5);
+        ReceiptGenerator second = generator(IntDistribution.fixed(3), IntDistribution.fixed(10), 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.next(), second.next());
+        }
+    }
+
+    /**
+     * Tests for next method
+     */
+    @Test
+    void next_malformedAtConfiguredRate_breaksEveryKindOfField() throws Exception {
+        ReceiptGenerator generator = generator(IntDistribution.uniform(1, 5), IntDistribution.uniform(3, 30), 0.2);
+
+        int malformed = 0;
+        Set<ReceiptGenerator.Malformation> kinds = EnumSet.noneOf(ReceiptGenerator.Malformation.class);
+        for (int i = 0; i < 20_000; i++) {
+            ReceiptGenerator.GeneratedReceipt generated = generator.next();
+            JsonNode receipt = objectMapper.readTree(generated.json());
+            assertEquals(generated.valid(), isValid(receipt), generated.json());
+            if (!generated.valid()) {
+                malformed++;
+                kinds.add(generated.malformation());
+            }
+        }
+
+        assertEquals(0.2, malformed / 20_000.0, 0.015);
+        assertEquals(EnumSet.allOf(ReceiptGenerator.Malformation.class), kinds);
+    }
+
+    @Test
+    void constructor_malformedRateOutOfRange_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> generator(IntDistribution.fixed(1), IntDistribution.fixed(5), 1.5));
+    }
+
+    /**
+     * Helper methods
+     */
+    private ReceiptGenerator generator(IntDistribution items, IntDistribution retailerLength, double malformedRate) {
+        return new ReceiptGenerator(objectMapper, new SplittableRandom(11), items, retailerLength,
+                IntDistribution.uniform(3, 30), malformedRate);
+    }
+
+    private static boolean isValid(JsonNode receipt) {
+        if (!matches(RETAILER, receipt.get("retailer")) || !matches(TIME, receipt.get("purchaseTime"))
+                || !matches(AMOUNT, receipt.get("total")) || !isDate(receipt.get("purchaseDate"))) {
+            return false;
+        }
+        JsonNode items = receipt.get("items");
+        if (items == null || items.isEmpty()) {
+            return false;
+        }
+        for (JsonNode item : items) {
+            if (!matches(DESCRIPTION, item.get("shortDescription")) || !matches(AMOUNT, item.get("price"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(Pattern pattern, JsonNode value) {
+        return value != null && pattern.matcher(value.asText()).matches();
+    }
+
+    private static boolean isDate(JsonNode value) {
+        try {
+            return value != null && LocalDate.parse(value.asText()) != null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
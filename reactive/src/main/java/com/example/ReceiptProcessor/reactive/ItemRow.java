@@ -0,0 +1,26 @@
+package com.example.ReceiptProcessor.reactive;
+
+import com.example.ReceiptProcessor.model.Item;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("item")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemRow {
+    @Id
+    private Long id;
+
+    private String receiptId;
+
+    private String shortDescription;
+
+    private String price;
+
+    public static ItemRow of(String receiptId, Item item) {
+        return new ItemRow(null, receiptId, item.getShortDescription(), item.getPrice());
+    }
+}
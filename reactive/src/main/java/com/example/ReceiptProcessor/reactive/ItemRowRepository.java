@@ -0,0 +1,6 @@
+package com.example.ReceiptProcessor.reactive;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+public interface ItemRowRepository extends ReactiveCrudRepository<ItemRow, Long> {
+}
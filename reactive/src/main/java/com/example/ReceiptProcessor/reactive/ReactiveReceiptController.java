@@ -0,0 +1,41 @@
+package com.example.ReceiptProcessor.reactive;
+
+import com.example.ReceiptProcessor.dto.PointsResponseDto;
+import com.example.ReceiptProcessor.dto.ProcessReceiptDto;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.util.InvalidReceiptException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * The {@code /receipts/process} and {@code /receipts/{id}/points} contract of the blocking
+ * ReceiptController, served without blocking a thread on the database. A body that cannot be decoded
+ * is rejected with 400 by WebFlux before it gets here, an invalid receipt with 400 listing its field
+ * errors; database failures surface as 5xx.
+ */
+@RestController
+@RequestMapping("/receipts")
+@RequiredArgsConstructor
+public class ReactiveReceiptController {
+
+    private final ReactiveReceiptService receiptService;
+
+    @PostMapping("/process")
+    public Mono<ProcessReceiptDto> processReceipts(@RequestBody Receipt receipt) {
+        return receiptService.generateReceiptId(receipt)
+                .map(ProcessReceiptDto::new)
+                .onErrorMap(InvalidReceiptException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+    }
+
+    @GetMapping("/{id}/points")
+    public Mono<PointsResponseDto> getPoints(@PathVariable String id) {
+        return receiptService.processReceiptPoints(id)
+                .map(PointsResponseDto::new)
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Receipt not found for that ID.", e));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ReceiptProcessor.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveReceiptProcessorApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveReceiptProcessorApplication.class, args);
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.example.ReceiptProcessor.reactive;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.util.FastPointsCalculator;
+import com.example.ReceiptProcessor.util.ReceiptValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveReceiptService {
+
+    private final ReceiptRowRepository receiptRowRepository;
+    private final ItemRowRepository itemRowRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Validates and scores the receipt with the same validator and calculator as the blocking API and
+     * writes it with its items in one transaction. An invalid receipt fails with
+     * {@link com.example.ReceiptProcessor.util.InvalidReceiptException}. Validation and scoring run on
+     * the calling event loop thread; they are cheap next to the writes.
+     */
+    public Mono<String> generateReceiptId(Receipt receipt) {
+        return Mono.fromCallable(() -> {
+                    ReceiptValidator.requireValid(receipt);
+                    return ReceiptRow.of(UUID.randomUUID().toString(), receipt, FastPointsCalculator.calculatePoints(receipt));
+                })
+                .flatMap(row -> receiptRowRepository.save(row)
+                        .thenMany(itemRowRepository.saveAll(Flux.fromIterable(Optional.ofNullable(receipt.getItems()).orElse(List.of()))
+                                .map(item -> ItemRow.of(row.getId(), item))))
+                        .then(Mono.just(row.getId())))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<Integer> processReceiptPoints(String id) {
+        return receiptRowRepository.findPointsById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("No receipt found for that ID.")));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ReceiptProcessor.reactive;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("receipt")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ReceiptRow implements Persistable<String> {
+    @Id
+    private String id;
+
+    private String retailer;
+
+    private String purchaseDate;
+
+    private String purchaseTime;
+
+    private String total;
+
+    private Integer points;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newRow = true;
+
+    public static ReceiptRow of(String id, Receipt receipt, int points) {
+        ReceiptRow row = new ReceiptRow();
+        row.id = id;
+        row.retailer = receipt.getRetailer();
+        row.purchaseDate = receipt.getPurchaseDate();
+        row.purchaseTime = receipt.getPurchaseTime();
+        row.total = receipt.getTotal();
+        row.points = points;
+        return row;
+    }
+
+    /**
+     * Ids are assigned before saving, so without this Spring Data would issue an UPDATE
+     * for the new row and fail when it matches nothing.
+     */
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+}
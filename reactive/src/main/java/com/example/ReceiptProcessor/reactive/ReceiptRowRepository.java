@@ -0,0 +1,14 @@
+package com.example.ReceiptProcessor.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReceiptRowRepository extends ReactiveCrudRepository<ReceiptRow, String> {
+
+    /**
+     * Points are stored at ingest, so a lookup reads one column and never touches the items.
+     */
+    @Query("SELECT points FROM receipt WHERE id = :id")
+    Mono<Integer> findPointsById(String id);
+}
@@ -0,0 +1,15 @@
+CREATE TABLE IF NOT EXISTS receipt (
+    id            VARCHAR(36) PRIMARY KEY,
+    retailer      VARCHAR(255),
+    purchase_date VARCHAR(255),
+    purchase_time VARCHAR(255),
+    total         VARCHAR(255),
+    points        INT
+);
+
+CREATE TABLE IF NOT EXISTS item (
+    id                BIGINT AUTO_INCREMENT PRIMARY KEY,
+    receipt_id        VARCHAR(36) NOT NULL REFERENCES receipt (id),
+    short_description VARCHAR(255),
+    price             VARCHAR(255)
+);
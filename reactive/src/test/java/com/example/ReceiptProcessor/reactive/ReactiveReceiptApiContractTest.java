@@ -0,0 +1,8 @@
+package com.example.ReceiptProcessor.reactive;
+
+import com.example.ReceiptProcessor.contract.ReceiptApiContractTest;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveReceiptApiContractTest extends ReceiptApiContractTest {
+}
@@ -0,0 +1,96 @@
+package com.example.ReceiptProcessor.reactive;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.util.InvalidReceiptException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReceiptControllerTest {
+
+    @Mock
+    private ReactiveReceiptService receiptService;
+
+    @InjectMocks
+    private ReactiveReceiptController receiptController;
+
+    /**
+     * Tests for getPoints method
+     */
+    @Test
+    void getPoints_validId_returnsPointsResponse() {
+        when(receiptService.processReceiptPoints("id-1")).thenReturn(Mono.just(42));
+
+        StepVerifier.create(receiptController.getPoints("id-1"))
+                .assertNext(response -> assertEquals(42, response.getPoints()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getPoints_invalidId_returnsNotFound() {
+        when(receiptService.processReceiptPoints("missing"))
+                .thenReturn(Mono.error(new IllegalArgumentException("No receipt found for that ID.")));
+
+        StepVerifier.create(receiptController.getPoints("missing"))
+                .verifyErrorSatisfies(e -> assertEquals(HttpStatus.NOT_FOUND, ((ResponseStatusException) e).getStatusCode()));
+    }
+
+    /**
+     * Tests for processReceipts method
+     */
+    @Test
+    void processReceipts_validReceipt_returnsId() {
+        Receipt receipt = createSampleReceipt();
+        when(receiptService.generateReceiptId(receipt)).thenReturn(Mono.just("id-1"));
+
+        StepVerifier.create(receiptController.processReceipts(receipt))
+                .assertNext(response -> assertEquals("id-1", response.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void processReceipts_invalidReceipt_returnsBadRequestWithFieldErrors() {
+        Receipt receipt = createSampleReceipt();
+        when(receiptService.generateReceiptId(receipt))
+                .thenReturn(Mono.error(new InvalidReceiptException(List.of("total: must match ^\\d+\\.\\d{2}$"))));
+
+        StepVerifier.create(receiptController.processReceipts(receipt))
+                .verifyErrorSatisfies(e -> {
+                    assertEquals(HttpStatus.BAD_REQUEST, ((ResponseStatusException) e).getStatusCode());
+                    assertTrue(((ResponseStatusException) e).getReason().contains("total"));
+                });
+    }
+
+    @Test
+    void processReceipts_databaseError_isNotReportedAsBadRequest() {
+        Receipt receipt = createSampleReceipt();
+        IllegalStateException failure = new IllegalStateException("Connection refused");
+        when(receiptService.generateReceiptId(receipt)).thenReturn(Mono.error(failure));
+
+        StepVerifier.create(receiptController.processReceipts(receipt))
+                .verifyErrorSatisfies(e -> assertSame(failure, e));
+    }
+
+    private Receipt createSampleReceipt() {
+        return new ReceiptBuilder()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withTotal("6.49")
+                .build();
+    }
+}
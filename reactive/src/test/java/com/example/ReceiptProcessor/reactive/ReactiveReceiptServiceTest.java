@@ -0,0 +1,121 @@
+package com.example.ReceiptProcessor.reactive;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.util.InvalidReceiptException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReceiptServiceTest {
+
+    @Mock
+    private ReceiptRowRepository receiptRowRepository;
+
+    @Mock
+    private ItemRowRepository itemRowRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @InjectMocks
+    private ReactiveReceiptService receiptService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    /**
+     * Tests for generateReceiptId method
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateReceiptId_validReceipt_savesReceiptWithPointsAndItems() {
+        when(receiptRowRepository.save(any(ReceiptRow.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(itemRowRepository.saveAll(any(Flux.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StepVerifier.create(receiptService.generateReceiptId(createSampleReceipt()))
+                .assertNext(id -> assertTrue(id.matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}")))
+                .verifyComplete();
+
+        ArgumentCaptor<ReceiptRow> rowCaptor = ArgumentCaptor.forClass(ReceiptRow.class);
+        verify(receiptRowRepository).save(rowCaptor.capture());
+        assertEquals("Target", rowCaptor.getValue().getRetailer());
+        assertEquals(28, rowCaptor.getValue().getPoints());
+        assertTrue(rowCaptor.getValue().isNew());
+
+        ArgumentCaptor<Flux<ItemRow>> itemsCaptor = ArgumentCaptor.forClass(Flux.class);
+        verify(itemRowRepository).saveAll(itemsCaptor.capture());
+        StepVerifier.create(itemsCaptor.getValue())
+                .expectNextCount(5)
+                .verifyComplete();
+    }
+
+    @Test
+    void generateReceiptId_invalidReceipt_failsWithoutSaving() {
+        Receipt receipt = createSampleReceipt();
+        receipt.setPurchaseTime("25:00");
+
+        StepVerifier.create(receiptService.generateReceiptId(receipt))
+                .verifyError(InvalidReceiptException.class);
+        verifyNoInteractions(receiptRowRepository, itemRowRepository);
+    }
+
+    @Test
+    void generateReceiptId_saveFails_propagatesError() {
+        when(receiptRowRepository.save(any(ReceiptRow.class))).thenReturn(Mono.error(new IllegalStateException("Error saving receipt")));
+
+        StepVerifier.create(receiptService.generateReceiptId(createSampleReceipt()))
+                .verifyError(IllegalStateException.class);
+    }
+
+    /**
+     * Tests for processReceiptPoints method
+     */
+    @Test
+    void processReceiptPoints_storedReceipt_returnsStoredPoints() {
+        when(receiptRowRepository.findPointsById("id-1")).thenReturn(Mono.just(28));
+
+        StepVerifier.create(receiptService.processReceiptPoints("id-1"))
+                .expectNext(28)
+                .verifyComplete();
+    }
+
+    @Test
+    void processReceiptPoints_unknownId_failsWithIllegalArgument() {
+        when(receiptRowRepository.findPointsById("missing")).thenReturn(Mono.empty());
+
+        StepVerifier.create(receiptService.processReceiptPoints("missing"))
+                .verifyError(IllegalArgumentException.class);
+    }
+
+    private Receipt createSampleReceipt() {
+        return new ReceiptBuilder()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withItems("Emils Cheese Pizza", "12.25")
+                .withItems("Knorr Creamy Chicken", "1.26")
+                .withItems("Doritos Nacho Cheese", "3.35")
+                .withItems("   Klarbrunn 12-PK 12 FL OZ  ", "12.00")
+                .withTotal("35.35")
+                .build();
+    }
+}
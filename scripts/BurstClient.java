@@ -0,0 +1,90 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires a burst of concurrent ingest and points requests and prints throughput and latency percentiles.
+ * Usage (Java 21): java scripts/BurstClient.java http://localhost:8080 [concurrency] [requestsPerClient]
+ */
+public class BurstClient {
+
+    private static final String RECEIPT = "{\"retailer\":\"M&M Corner Market\",\"purchaseDate\":\"2022-03-21\",\"purchaseTime\":\"14:33\","
+            + "\"items\":[{\"shortDescription\":\"Gatorade\",\"price\":\"2.25\"},{\"shortDescription\":\"Emils Cheese Pizza\",\"price\":\"12.25\"}],"
+            + "\"total\":\"14.50\"}";
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int requestsPerClient = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        String id = post(client, baseUrl).replaceAll(".*\"id\":\"([^\"]+)\".*", "$1");
+
+        long[] latencies = new long[concurrency * requestsPerClient];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < concurrency; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < requestsPerClient; r++) {
+                        long begin = System.nanoTime();
+                        try {
+                            if (r % 2 == 0) {
+                                post(client, baseUrl);
+                            } else {
+                                get(client, baseUrl + "/receipts/" + id + "/points");
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("requests=%d errors=%d throughput=%.0f req/s p50=%.1fms p99=%.1fms p999=%.1fms max=%.1fms%n",
+                latencies.length, errors.get(), latencies.length / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static String post(HttpClient client, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/receipts/process"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(RECEIPT))
+                .build();
+        return check(client.send(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private static String get(HttpClient client, String url) throws Exception {
+        return check(client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private static String check(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+}
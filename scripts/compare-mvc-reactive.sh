@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Compares the blocking MVC/JPA app with the reactive WebFlux/R2DBC module under the same burst.
+# BurstClient needs Java 21+; set BURST_JAVA if `java` on the PATH is older.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CONCURRENCY=${CONCURRENCY:-500}
+REQUESTS=${REQUESTS:-40}
+PORT=${PORT:-8090}
+BURST_JAVA=${BURST_JAVA:-java}
+
+./mvnw -B -q -DskipTests package
+./mvnw -B -q -f reactive/pom.xml -DskipTests package
+MVC_JAR=$(ls target/*.jar | grep -v original | head -n 1)
+REACTIVE_JAR=$(ls reactive/target/*.jar | grep -v original | head -n 1)
+
+run_app() {
+  local name=$1 jar=$2
+  shift 2
+  java -jar "$jar" --server.port="$PORT" "$@" > "target/$name.log" 2>&1 &
+  local pid=$!
+  until curl -s -o /dev/null "http://localhost:$PORT/receipts/unknown/points"; do sleep 1; done
+  # Warm-up burst, then the measured one
+  "$BURST_JAVA" scripts/BurstClient.java "http://localhost:$PORT" "$CONCURRENCY" 10 > /dev/null
+  echo -n "$name: "
+  "$BURST_JAVA" scripts/BurstClient.java "http://localhost:$PORT" "$CONCURRENCY" "$REQUESTS"
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+}
+
+# The burst posts one receipt over and over; content deduplication would turn every MVC write into a cache hit.
+run_app mvc "$MVC_JAR" --receipts.idempotency.content-hash=false
+run_app reactive "$REACTIVE_JAR"
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Compares platform-thread and virtual-thread request handling under the same burst.
+# Requires JAVA_HOME to point at a Java 21+ JDK.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CONCURRENCY=${CONCURRENCY:-500}
+REQUESTS=${REQUESTS:-40}
+PORT=${PORT:-8090}
+
+./mvnw -B -q -Pjava21 -DskipTests package
+JAR=$(ls target/*.jar | grep -v original | head -n 1)
+
+run_mode() {
+  local mode=$1 profiles=$2
+  java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+    --receipts.idempotency.content-hash=false > "target/$mode.log" 2>&1 &
+  local pid=$!
+  until curl -s -o /dev/null "http://localhost:$PORT/receipts/unknown/points"; do sleep 1; done
+  # Warm-up burst, then the measured one
+  java scripts/BurstClient.java "http://localhost:$PORT" "$CONCURRENCY" 10 > /dev/null
+  echo -n "$mode: "
+  java scripts/BurstClient.java "http://localhost:$PORT" "$CONCURRENCY" "$REQUESTS"
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+}
+
+run_mode platform-threads default
+run_mode virtual-threads virtual-threads
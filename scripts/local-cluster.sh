@@ -0,0 +1,79 @@
+#!/usr/bin/env bash
+# Runs a sharded cluster of local JVMs for testing, without Docker.
+#   scripts/local-cluster.sh start 3    # nodes node-1..node-3 on ports 9001..9003
+#   scripts/local-cluster.sh join 4     # node-4 on port 9004 joins and takes over its shards
+#   scripts/local-cluster.sh stop
+# Logs and pid files are kept under target/cluster. The nodes share the secret in target/cluster/secret,
+# created on first start.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+BASE_PORT=${BASE_PORT:-9000}
+DIR=target/cluster
+
+members() {
+  local count=$1 nodes=""
+  for i in $(seq 1 "$count"); do
+    nodes+="${nodes:+,}node-$i=http://localhost:$((BASE_PORT + i))"
+  done
+  echo "$nodes"
+}
+
+launch() {
+  local i=$1 nodes=$2 port=$((BASE_PORT + $1))
+  java -jar "$JAR" --server.port="$port" \
+    --receipts.cluster.enabled=true \
+    --receipts.cluster.secret="$(cat "$DIR/secret")" \
+    --receipts.cluster.node-id="node-$i" \
+    --receipts.cluster.node-url="http://localhost:$port" \
+    --receipts.cluster.nodes="$nodes" > "$DIR/node-$i.log" 2>&1 &
+  echo $! > "$DIR/node-$i.pid"
+}
+
+wait_for() {
+  local port=$((BASE_PORT + $1))
+  until curl -s -o /dev/null "http://localhost:$port/actuator/health"; do sleep 1; done
+  echo "node-$1 up on port $port"
+}
+
+build() {
+  mkdir -p "$DIR"
+  if [ ! -s "$DIR/secret" ]; then
+    (umask 077 && head -c 32 /dev/urandom | od -An -tx1 | tr -d ' \n' > "$DIR/secret")
+  fi
+  if ! ls target/*.jar > /dev/null 2>&1; then
+    ./mvnw -B -q -DskipTests package
+  fi
+  JAR=$(ls target/*.jar | grep -v original | head -n 1)
+}
+
+case "${1:-}" in
+  start)
+    build
+    count=${2:-3}
+    for i in $(seq 1 "$count"); do
+      launch "$i" "$(members "$count")"
+    done
+    for i in $(seq 1 "$count"); do
+      wait_for "$i"
+    done
+    ;;
+  join)
+    build
+    i=${2:?node number to join}
+    # The seed list leaves the new node out, which is what makes it join
+    launch "$i" "$(members $((i - 1)))"
+    wait_for "$i"
+    ;;
+  stop)
+    for pid in "$DIR"/*.pid; do
+      [ -e "$pid" ] || continue
+      kill "$(cat "$pid")" 2> /dev/null || true
+      rm "$pid"
+    done
+    ;;
+  *)
+    echo "usage: $0 start [count] | join <n> | stop" >&2
+    exit 1
+    ;;
+esac
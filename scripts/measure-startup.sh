@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Measures startup time and time to first request for the plain jar, the extracted jar with a CDS
+# archive, and the extracted jar with CDS and Spring AOT. A native image is measured as well when
+# target/ReceiptProcessor exists (./mvnw -Pnative native:compile, requires GraalVM).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${RUNS:-5}
+PORT=${PORT:-8090}
+RECEIPT='{"retailer":"Target","purchaseDate":"2022-01-01","purchaseTime":"13:01","items":[{"shortDescription":"Mountain Dew 12PK","price":"6.49"}],"total":"6.49"}'
+APP_ARGS=(--server.port="$PORT")
+
+./mvnw -B -q -Paot -DskipTests package
+JAR=$(ls target/*.jar | grep -v original | head -n 1)
+
+# Extracted layout: the application jar next to lib/, which is what a CDS archive needs
+rm -rf target/extracted
+java -Djarmode=tools -jar "$JAR" extract --destination target/extracted
+APP=target/extracted/$(basename "$JAR")
+
+# Training runs: start the context, write the archive on exit
+java -XX:ArchiveClassesAtExit=target/extracted/app.jsa -Dspring.context.exit=onRefresh \
+  -jar "$APP" "${APP_ARGS[@]}" > target/cds-training.log 2>&1
+java -XX:ArchiveClassesAtExit=target/extracted/app-aot.jsa -Dspring.context.exit=onRefresh -Dspring.aot.enabled=true \
+  -jar "$APP" "${APP_ARGS[@]}" > target/cds-aot-training.log 2>&1
+
+# Prints "<startup seconds reported by Spring> <ms from launch to the first successful ingest>"
+measure() {
+  local start pid started ttfr
+  start=$(date +%s%N)
+  "$@" "${APP_ARGS[@]}" > target/startup.log 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null -H 'Content-Type: application/json' -d "$RECEIPT" \
+      "http://localhost:$PORT/receipts/process"; do sleep 0.02; done
+  ttfr=$(( ($(date +%s%N) - start) / 1000000 ))
+  started=$(grep -o 'Started ReceiptProcessorApplication in [0-9.]*' target/startup.log | awk '{print $4}')
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+  echo "$started $ttfr"
+}
+
+run_variant() {
+  local name=$1
+  shift
+  for _ in $(seq "$RUNS"); do measure "$@"; done |
+    awk -v name="$name" '{ s += $1; t += $2 } END { printf "%-16s startup %.2f s, first request %d ms\n", name, s / NR, t / NR }'
+}
+
+run_variant "jar" java -jar "$JAR"
+run_variant "cds" java -XX:SharedArchiveFile=target/extracted/app.jsa -jar "$APP"
+run_variant "cds + aot" java -XX:SharedArchiveFile=target/extracted/app-aot.jsa -Dspring.aot.enabled=true -jar "$APP"
+if [ -x target/ReceiptProcessor ]; then
+  run_variant "native" target/ReceiptProcessor
+fi
@@ -0,0 +1,47 @@
+package com.example.ReceiptProcessor.benchmark;
+
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic, realistic receipt shapes shared by the benchmarks.
+ */
+public class BenchmarkReceipts {
+
+    private static final String[] ASCII_RETAILERS = {"Target", "M&M Corner Market", "Walgreens", "Costco Wholesale"};
+    private static final String[] UNICODE_RETAILERS = {"Café Olé & Señor", "東京マート", "Bäckerei Müller", "Épicerie Zoë"};
+    private static final String[] DESCRIPTIONS = {"Mountain Dew 12PK", "Emils Cheese Pizza", "Knorr Creamy Chicken",
+            "Doritos Nacho Cheese", "   Klarbrunn 12-PK 12 FL OZ  ", "Gatorade", "Pepsi - 12-oz", "Dasani"};
+
+    public static Receipt receipt(int itemCount, boolean unicodeRetailer, long seed) {
+        Random random = new Random(seed);
+        String[] retailers = unicodeRetailer ? UNICODE_RETAILERS : ASCII_RETAILERS;
+
+        List<Item> items = new ArrayList<>(itemCount);
+        long totalCents = 0;
+        for (int i = 0; i < itemCount; i++) {
+            long cents = 25 + random.nextInt(5_000);
+            totalCents += cents;
+            Item item = new Item();
+            item.setShortDescription(DESCRIPTIONS[random.nextInt(DESCRIPTIONS.length)]);
+            item.setPrice(formatCents(cents));
+            items.add(item);
+        }
+
+        Receipt receipt = new Receipt();
+        receipt.setRetailer(retailers[random.nextInt(retailers.length)]);
+        receipt.setPurchaseDate(String.format("2022-%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        receipt.setPurchaseTime(String.format("%02d:%02d", random.nextInt(24), random.nextInt(60)));
+        receipt.setItems(items);
+        receipt.setTotal(formatCents(totalCents));
+        return receipt;
+    }
+
+    private static String formatCents(long cents) {
+        return (cents / 100) + "." + String.format("%02d", cents % 100);
+    }
+}
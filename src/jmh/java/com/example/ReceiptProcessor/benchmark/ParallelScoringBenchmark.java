@@ -0,0 +1,45 @@
+package com.example.ReceiptProcessor.benchmark;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.rules.CompiledRuleSet;
+import com.example.ReceiptProcessor.rules.DefaultRules;
+import com.example.ReceiptProcessor.rules.RuleSetCompiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serial vs fork-join scoring of one receipt, to find the item count where splitting across the
+ * common pool starts to pay off. Pick {@code points.parallel.threshold} from where the two lines cross.
+ * On a machine with one core the common pool has no spare workers and both modes run serially.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelScoringBenchmark {
+
+    @Param({"500", "1000", "2500", "5000", "10000", "50000", "100000"})
+    public int itemCount;
+
+    @Param({"serial", "parallel"})
+    public String mode;
+
+    private CompiledRuleSet ruleSet;
+    private Receipt receipt;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int threshold = mode.equals("parallel") ? 1 : Integer.MAX_VALUE;
+        ruleSet = RuleSetCompiler.compile(1, DefaultRules.all(), false, threshold, ForkJoinPool.commonPool());
+        receipt = BenchmarkReceipts.receipt(itemCount, false, 42);
+    }
+
+    @Benchmark
+    public int score() {
+        return ruleSet.score(receipt);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ReceiptProcessor.benchmark;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.util.FastPointsCalculator;
+import com.example.ReceiptProcessor.util.PointsCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores pre-built receipts so only calculator cost is measured.
+ * Run with {@code -prof gc} (the default jmh.args) to compare bytes/op between engines.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PointsCalculatorBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int itemCount;
+
+    @Param({"false", "true"})
+    public boolean unicodeRetailer;
+
+    private Receipt receipt;
+
+    @Setup
+    public void setUp() {
+        receipt = BenchmarkReceipts.receipt(itemCount, unicodeRetailer, 42L);
+    }
+
+    @Benchmark
+    public int pointsCalculator() {
+        return PointsCalculator.calculatePoints(receipt);
+    }
+
+    @Benchmark
+    public int fastPointsCalculator() {
+        return FastPointsCalculator.calculatePoints(receipt);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ReceiptProcessor.benchmark;
+
+import com.example.ReceiptProcessor.id.RandomReceiptIdGenerator;
+import com.example.ReceiptProcessor.id.ReceiptIdGenerator;
+import com.example.ReceiptProcessor.id.TimeOrderedReceiptIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of minting one receipt id, on one thread and on eight at once. {@code jdk} is
+ * {@link UUID#randomUUID()}, which every thread draws from one shared {@code SecureRandom};
+ * {@code random} and {@code time-ordered} are the two {@code receipts.id.generator} choices.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptIdBenchmark {
+
+    @Param({"jdk", "random", "time-ordered"})
+    public String generator;
+
+    private ReceiptIdGenerator idGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        idGenerator = switch (generator) {
+            case "jdk" -> UUID::randomUUID;
+            case "random" -> new RandomReceiptIdGenerator();
+            case "time-ordered" -> new TimeOrderedReceiptIdGenerator();
+            default -> throw new IllegalArgumentException(generator);
+        };
+    }
+
+    @Benchmark
+    public String next() {
+        return idGenerator.next().toString();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String nextContended() {
+        return idGenerator.next().toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ReceiptProcessor.benchmark;
+
+import com.example.ReceiptProcessor.id.RandomReceiptIdGenerator;
+import com.example.ReceiptProcessor.id.ReceiptIdGenerator;
+import com.example.ReceiptProcessor.id.TimeOrderedReceiptIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput into a file-backed H2 table keyed by receipt id, for the old key (a random
+ * UUID in a varchar(36) column) against the uuid column with random and time-ordered ids. Rows
+ * are inserted in committed batches, as the write-behind queue does, and the table keeps growing
+ * over the trial so the cost of a large, fragmented index shows. Ids are bound as strings, the
+ * way Hibernate binds them.
+ *
+ * At the end of each trial the rows and the space used by the table and its key index are
+ * printed, since the size does not depend on the benchmark mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptKeyBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"varchar-random", "uuid-random", "uuid-time-ordered"})
+    public String key;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private ReceiptIdGenerator idGenerator;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("receipt-keys");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("keys"), "sa", "");
+        connection.setAutoCommit(false);
+        String keyType = key.startsWith("varchar") ? "varchar(36)" : "uuid";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table receipt (id " + keyType + " primary key, retailer varchar(255), points int)");
+        }
+        insert = connection.prepareStatement("insert into receipt (id, retailer, points) values (?, ?, ?)");
+        idGenerator = key.endsWith("time-ordered") ? new TimeOrderedReceiptIdGenerator() : new RandomReceiptIdGenerator();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(
+                     "select count(*), disk_space_used('RECEIPT') from receipt")) {
+            result.next();
+            long rows = result.getLong(1);
+            long bytes = result.getLong(2);
+            System.out.printf("%n%s: %d rows, %d KiB, %.1f bytes/row%n", key, rows, bytes / 1024, (double) bytes / rows);
+        }
+        connection.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setString(1, idGenerator.next().toString());
+            insert.setString(2, "M&M Corner Market");
+            insert.setInt(3, next++ % 100);
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.ReceiptProcessor.benchmark;
+
+import com.example.ReceiptProcessor.ReceiptProcessorApplication;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.service.ReceiptService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingest and points lookups through the real service, repository and in-memory H2.
+ * With {@code cacheEnabled=false} every lookup goes to the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptServiceBenchmark {
+
+    private static final int STORED_RECEIPTS = 1_000;
+
+    @Param({"10"})
+    public int itemCount;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private ReceiptService receiptService;
+    private String[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ReceiptProcessorApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:receiptdb;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "receipts.points-cache.maximum-size=" + (cacheEnabled ? 100_000 : 0))
+                .run();
+        receiptService = context.getBean(ReceiptService.class);
+
+        ids = new String[STORED_RECEIPTS];
+        for (int i = 0; i < STORED_RECEIPTS; i++) {
+            ids[i] = receiptService.generateReceiptId(BenchmarkReceipts.receipt(itemCount, false, i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generateReceiptId() {
+        Receipt receipt = BenchmarkReceipts.receipt(itemCount, false, next++);
+        return receiptService.generateReceiptId(receipt);
+    }
+
+    @Benchmark
+    public int processReceiptPoints() {
+        return receiptService.processReceiptPoints(ids[next++ % STORED_RECEIPTS]);
+    }
+}
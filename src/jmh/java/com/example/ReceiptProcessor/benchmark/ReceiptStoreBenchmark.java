@@ -0,0 +1,109 @@
+package com.example.ReceiptProcessor.benchmark;
+
+import com.example.ReceiptProcessor.ReceiptProcessorApplication;
+import com.example.ReceiptProcessor.id.ReceiptIdGenerator;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.store.ReceiptStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves and lookups against each receipt store backend, bypassing the points cache.
+ * {@code jpa} is the default Hibernate and H2 path; {@code memory} and {@code memory-offheap}
+ * run with the {@code memory-store} profile and {@code log} with the {@code log-store} profile,
+ * writing segments to a temporary directory. Ids come from the configured
+ * {@code receipts.id.generator}; pass {@code -p idGenerator=random,time-ordered} to compare them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptStoreBenchmark {
+
+    private static final int STORED_RECEIPTS = 10_000;
+
+    @Param({"jpa", "memory", "memory-offheap", "log"})
+    public String store;
+
+    @Param({"10"})
+    public int itemCount;
+
+    @Param({"random"})
+    public String idGenerator;
+
+    private ConfigurableApplicationContext context;
+    private Path logDirectory;
+    private ReceiptStore receiptStore;
+    private ReceiptIdGenerator receiptIdGenerator;
+    private String[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        logDirectory = Files.createTempDirectory("receipt-log");
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ReceiptProcessorApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:receiptdb;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "receipts.id.generator=" + idGenerator,
+                        "receipts.memory-store.off-heap=" + store.equals("memory-offheap"),
+                        "receipts.log-store.directory=" + logDirectory);
+        if (store.startsWith("memory")) {
+            builder.profiles(ReceiptStore.MEMORY_PROFILE);
+        } else if (store.equals("log")) {
+            builder.profiles(ReceiptStore.LOG_PROFILE);
+        }
+        context = builder.run();
+        receiptStore = context.getBean(ReceiptStore.class);
+        receiptIdGenerator = context.getBean(ReceiptIdGenerator.class);
+
+        ids = new String[STORED_RECEIPTS];
+        for (int i = 0; i < STORED_RECEIPTS; i++) {
+            Receipt receipt = BenchmarkReceipts.receipt(itemCount, false, i);
+            receipt.setId(receiptIdGenerator.next().toString());
+            receipt.setPoints(i);
+            receiptStore.save(receipt);
+            ids[i] = receipt.getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(logDirectory);
+    }
+
+    @Benchmark
+    public Receipt save() {
+        Receipt receipt = BenchmarkReceipts.receipt(itemCount, false, next++);
+        receipt.setId(receiptIdGenerator.next().toString());
+        receipt.setPoints(0);
+        receiptStore.save(receipt);
+        return receipt;
+    }
+
+    @Benchmark
+    public Receipt findById() {
+        return receiptStore.findById(ids[next++ % STORED_RECEIPTS]).orElseThrow();
+    }
+
+    @Benchmark
+    public int findPoints() {
+        return receiptStore.findPoints(ids[next++ % STORED_RECEIPTS]).orElseThrow();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ReceiptProcessor.benchmark;
+
+import com.example.ReceiptProcessor.codec.ReceiptBinaryCodec;
+import com.example.ReceiptProcessor.dto.PointsResponseDto;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON vs the binary receipt encoding: the cost of parsing an ingest body, writing one, and writing
+ * a points response. Encoded sizes of the same receipt are printed once per trial, since the bytes
+ * on the wire do not depend on the benchmark mode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int itemCount;
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private Receipt receipt;
+    private byte[] encoded;
+    private boolean binary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        receipt = BenchmarkReceipts.receipt(itemCount, false, 42);
+        binary = format.equals("binary");
+        encoded = binary ? ReceiptBinaryCodec.encodeReceipt(receipt) : objectMapper.writeValueAsBytes(receipt);
+        int pointsBytes = binary
+                ? ReceiptBinaryCodec.encodePoints(109).length
+                : objectMapper.writeValueAsBytes(new PointsResponseDto(109)).length;
+        System.out.printf("%n%s, %d items: receipt %d bytes, points response %d bytes%n",
+                format, itemCount, encoded.length, pointsBytes);
+    }
+
+    @Benchmark
+    public Receipt parseReceipt() throws IOException {
+        return binary ? ReceiptBinaryCodec.decodeReceipt(encoded) : objectMapper.readValue(encoded, Receipt.class);
+    }
+
+    @Benchmark
+    public byte[] writeReceipt() throws IOException {
+        return binary ? ReceiptBinaryCodec.encodeReceipt(receipt) : objectMapper.writeValueAsBytes(receipt);
+    }
+
+    @Benchmark
+    public byte[] writePoints() throws IOException {
+        return binary ? ReceiptBinaryCodec.encodePoints(109) : objectMapper.writeValueAsBytes(new PointsResponseDto(109));
+    }
+}
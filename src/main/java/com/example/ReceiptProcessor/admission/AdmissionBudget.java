@@ -0,0 +1,59 @@
+package com.example.ReceiptProcessor.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One class of traffic (reads or writes): a token bucket per client and a concurrency limit shared
+ * by all clients. Buckets of clients idle for longer than it takes to refill are dropped, which
+ * loses nothing since they would be full again anyway.
+ */
+final class AdmissionBudget {
+
+    private final String name;
+    private final double rate;
+    private final int burst;
+    private final Cache<String, TokenBucket> buckets;
+    private final AimdLimiter limiter;
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder concurrencyLimited = new LongAdder();
+
+    AdmissionBudget(String name, double rate, int burst, long maxClients, AimdLimiter limiter) {
+        this.name = name;
+        this.rate = rate;
+        this.burst = burst;
+        this.limiter = limiter;
+        long refillNanos = (long) (burst / rate * 1_000_000_000L);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(Math.max(refillNanos, Duration.ofSeconds(1).toNanos())))
+                .build();
+    }
+
+    /**
+     * Takes a token from the client's bucket. Returns 0 if admitted, otherwise the nanoseconds until
+     * a token is available.
+     */
+    long tryAcquireToken(String client, long nowNanos) {
+        return buckets.get(client, c -> new TokenBucket(rate, burst, nowNanos)).tryAcquire(nowNanos);
+    }
+
+    LongAdder rateLimited() {
+        return rateLimited;
+    }
+
+    LongAdder concurrencyLimited() {
+        return concurrencyLimited;
+    }
+
+    String name() {
+        return name;
+    }
+
+    AimdLimiter limiter() {
+        return limiter;
+    }
+}
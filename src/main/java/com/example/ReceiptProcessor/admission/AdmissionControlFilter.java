@@ -0,0 +1,187 @@
+package com.example.ReceiptProcessor.admission;
+
+import com.example.ReceiptProcessor.cluster.ClusterClient;
+import com.example.ReceiptProcessor.cluster.ClusterTopology;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for the receipt endpoints, switched on with {@code receipts.admission.enabled}.
+ *
+ * Writes ({@code /receipts/process} and its batch and stream variants) and reads (points lookups and
+ * stats) have separate budgets, so an ingest storm cannot use up the capacity that keeps points
+ * lookups fast. Each budget limits every client to a token bucket rate, and all clients together to an adaptive
+ * concurrency limit that backs off when single-receipt requests exceed the budget's latency target.
+ * Rejected requests get 429 with a Retry-After header in seconds.
+ *
+ * A client is the authenticated principal, else the remote address. Only when
+ * {@code receipts.admission.client-header} is set, for deployments behind a proxy that sets that header
+ * itself, does the header name the client; otherwise any caller could pick a fresh bucket per request.
+ * Lookups forwarded by another cluster node, proven by the cluster secret, skip the per-client rate:
+ * the node that forwarded them already charged the client that sent them, and charging the peer would
+ * put every client of that node in one bucket.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String PROCESS_PATH = "/receipts/process";
+    private static final String BULK_POINTS_PATH = "/receipts/points";
+    private static final String RECEIPTS_PREFIX = "/receipts/";
+    private static final String POINTS_SUFFIX = "/points";
+
+    private final boolean enabled;
+    private final String clientHeader;
+    private final AdmissionBudget writes;
+    private final AdmissionBudget reads;
+    private final ClusterTopology clusterTopology;
+
+    public AdmissionControlFilter(@Value("${receipts.admission.enabled:false}") boolean enabled,
+                                  @Value("${receipts.admission.client-header:}") String clientHeader,
+                                  @Value("${receipts.admission.write.rate:100}") double writeRate,
+                                  @Value("${receipts.admission.write.burst:200}") int writeBurst,
+                                  @Value("${receipts.admission.write.latency-target:PT0.5S}") Duration writeLatencyTarget,
+                                  @Value("${receipts.admission.read.rate:1000}") double readRate,
+                                  @Value("${receipts.admission.read.burst:2000}") int readBurst,
+                                  @Value("${receipts.admission.read.latency-target:PT0.1S}") Duration readLatencyTarget,
+                                  @Value("${receipts.admission.initial-limit:20}") int initialLimit,
+                                  @Value("${receipts.admission.min-limit:2}") int minLimit,
+                                  @Value("${receipts.admission.max-limit:200}") int maxLimit,
+                                  @Value("${receipts.admission.max-clients:100000}") long maxClients,
+                                  ClusterTopology clusterTopology) {
+        this.enabled = enabled;
+        this.clusterTopology = clusterTopology;
+        this.clientHeader = clientHeader;
+        this.writes = new AdmissionBudget("write", writeRate, writeBurst, maxClients,
+                new AimdLimiter(writeLatencyTarget.toNanos(), initialLimit, minLimit, maxLimit));
+        this.reads = new AdmissionBudget("read", readRate, readBurst, maxClients,
+                new AimdLimiter(readLatencyTarget.toNanos(), initialLimit, minLimit, maxLimit));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || budgetFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionBudget budget = budgetFor(request);
+        long start = System.nanoTime();
+
+        long wait = isClusterPeer(request) ? 0 : budget.tryAcquireToken(clientId(request), start);
+        if (wait > 0) {
+            budget.rateLimited().increment();
+            reject(response, wait, "Rate limit exceeded for " + budget.name() + " requests.");
+            return;
+        }
+        AimdLimiter limiter = budget.limiter();
+        if (!limiter.tryAcquire()) {
+            budget.concurrencyLimited().increment();
+            reject(response, 0, "Too many concurrent " + budget.name() + " requests.");
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (isLatencySample(request)) {
+                limiter.release(start, System.nanoTime());
+            } else {
+                limiter.release();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AdmissionBudget budget : List.of(writes, reads)) {
+            FunctionCounter.builder("receipts.admission.rejected", budget.rateLimited(), LongAdder::sum)
+                    .description("Requests rejected by admission control")
+                    .tags("budget", budget.name(), "reason", "rate")
+                    .register(registry);
+            FunctionCounter.builder("receipts.admission.rejected", budget.concurrencyLimited(), LongAdder::sum)
+                    .description("Requests rejected by admission control")
+                    .tags("budget", budget.name(), "reason", "concurrency")
+                    .register(registry);
+            Gauge.builder("receipts.admission.limit", budget.limiter(), AimdLimiter::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("budget", budget.name())
+                    .register(registry);
+            Gauge.builder("receipts.admission.in-flight", budget.limiter(), AimdLimiter::inFlight)
+                    .description("Admitted requests still running")
+                    .tag("budget", budget.name())
+                    .register(registry);
+        }
+    }
+
+    private AdmissionBudget budgetFor(HttpServletRequest request) {
+        String path = path(request);
+        String method = request.getMethod();
+        if ("POST".equals(method) && path.startsWith(PROCESS_PATH)) {
+            return writes;
+        }
+        if (("GET".equals(method) && path.startsWith(RECEIPTS_PREFIX))
+                || ("POST".equals(method) && path.equals(BULK_POINTS_PATH))) {
+            return reads;
+        }
+        return null;
+    }
+
+    /**
+     * Batches, streams and bulk lookups take as long as their payload, so only single-receipt
+     * requests feed the latency-based limit.
+     */
+    private static boolean isLatencySample(HttpServletRequest request) {
+        String path = path(request);
+        return path.equals(PROCESS_PATH) || ("GET".equals(request.getMethod()) && path.endsWith(POINTS_SUFFIX));
+    }
+
+    private boolean isClusterPeer(HttpServletRequest request) {
+        return clusterTopology.isEnabled()
+                && Boolean.parseBoolean(request.getHeader(ClusterClient.FORWARDED_HEADER))
+                && clusterTopology.isMemberSecret(request.getHeader(ClusterClient.SECRET_HEADER));
+    }
+
+    private String clientId(HttpServletRequest request) {
+        if (request.getUserPrincipal() != null) {
+            return "principal:" + request.getUserPrincipal().getName();
+        }
+        if (!clientHeader.isBlank()) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return "client:" + client;
+            }
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos, String message) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), message);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ReceiptProcessor.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that adapts to observed latency: additive increase while requests finish within
+ * the target and the limit is in use, multiplicative decrease when one does not. The decrease happens
+ * at most once per window: only a slow request that started after the last decrease can trigger the
+ * next one, so a burst of requests that were all slowed by the same overload cuts the limit once rather
+ * than once each. The limit, the in-flight count and the last decrease time are updated with
+ * compare-and-set.
+ */
+final class AimdLimiter {
+
+    static final double BACKOFF_RATIO = 0.9;
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final long latencyTargetNanos;
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(NEVER);
+
+    AimdLimiter(long latencyTargetNanos, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= min <= max");
+        }
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits((double) Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+    }
+
+    /**
+     * Takes a slot if fewer requests than the current limit are in flight.
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a slot and adjusts the limit from the latency of a request that started at
+     * {@code startNanos} and finished at {@code endNanos}, both {@link System#nanoTime()} readings.
+     */
+    void release(long startNanos, long endNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (endNanos - startNanos > latencyTargetNanos) {
+            decrease(startNanos, endNanos);
+            return;
+        }
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            if (inFlightBefore * 2 < limit) {
+                // Only grow while the limit is actually what bounds concurrency
+                return;
+            }
+            double next = Math.min(maxLimit, limit + 1 / limit);
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private void decrease(long startNanos, long endNanos) {
+        long last = lastDecreaseNanos.get();
+        if (last != NEVER && startNanos - last <= 0) {
+            // Admitted under the old limit; its latency is already accounted for
+            return;
+        }
+        if (!lastDecreaseNanos.compareAndSet(last, endNanos)) {
+            // Another slow request claimed this window
+            return;
+        }
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next = Math.max(minLimit, limit * BACKOFF_RATIO);
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns a slot without a latency sample, for requests whose duration says nothing about load.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.ReceiptProcessor.cache;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.util.ReceiptHasher;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded index of recently ingested receipts, keyed by the client's Idempotency-Key header or,
+ * without one, by a hash of the receipt content. A repeated request within the window gets the
+ * original id back without writing anything.
+ *
+ * Entries expire {@code receipts.idempotency.window} after they were written and the index holds at
+ * most {@code receipts.idempotency.maximum-size} of them, so duplicates older than that are stored again.
+ */
+@Component
+public class IdempotencyIndex implements MeterBinder {
+
+    private final boolean contentHashEnabled;
+    private final Cache<String, CompletableFuture<String>> entries;
+    private final LongAdder duplicates = new LongAdder();
+
+    public IdempotencyIndex(@Value("${receipts.idempotency.content-hash:true}") boolean contentHashEnabled,
+                            @Value("${receipts.idempotency.maximum-size:100000}") long maximumSize,
+                            @Value("${receipts.idempotency.window:PT1H}") Duration window) {
+        this.contentHashEnabled = contentHashEnabled;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    /**
+     * The index key for a request, or null when it should not be deduplicated. A client key always
+     * wins over the content hash, so a retried request with the same key gets the same id even if
+     * its body changed.
+     */
+    public String keyFor(Receipt receipt, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            return "key:" + idempotencyKey;
+        }
+        return contentHashEnabled ? "sha256:" + ReceiptHasher.contentHash(receipt) : null;
+    }
+
+    /**
+     * Returns the id already recorded under the key, or runs {@code ingest} and records its id.
+     * Concurrent requests with the same key wait for the first one instead of ingesting twice;
+     * if it fails, the key is released and the next waiter ingests instead.
+     */
+    public String resolve(String key, Supplier<String> ingest) {
+        ConcurrentMap<String, CompletableFuture<String>> map = entries.asMap();
+        while (true) {
+            CompletableFuture<String> claim = new CompletableFuture<>();
+            CompletableFuture<String> existing = map.putIfAbsent(key, claim);
+            if (existing == null) {
+                try {
+                    String id = ingest.get();
+                    claim.complete(id);
+                    return id;
+                } catch (RuntimeException e) {
+                    map.remove(key, claim);
+                    claim.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            try {
+                String id = existing.join();
+                duplicates.increment();
+                return id;
+            } catch (CompletionException e) {
+                // The original request failed and released the key; try to claim it.
+            }
+        }
+    }
+
+    /**
+     * Drops every key that resolved to one of {@code ids}, so a retry of a request whose receipt was
+     * never stored ingests it again. Scans the whole index; meant for rare failures only.
+     */
+    public void forget(Collection<String> ids) {
+        Set<String> forgotten = Set.copyOf(ids);
+        entries.asMap().values().removeIf(future -> future.isDone() && !future.isCompletedExceptionally()
+                && forgotten.contains(future.join()));
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("receipts.idempotency.duplicates", duplicates, LongAdder::sum)
+                .description("Requests answered with the id of an earlier identical request")
+                .register(registry);
+        Gauge.builder("receipts.idempotency.entries", this, IdempotencyIndex::size)
+                .description("Keys held in the idempotency index")
+                .register(registry);
+    }
+
+    void cleanUp() {
+        entries.cleanUp();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ReceiptProcessor.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.OptionalInt;
+
+/**
+ * Bounded in-process cache of receipt id to points. Hit, miss and eviction counts are
+ * published as {@code cache.*} metrics tagged {@code cache=points}.
+ */
+@Component
+public class PointsCache implements MeterBinder {
+
+    private final Cache<String, Integer> cache;
+
+    public PointsCache(@Value("${receipts.points-cache.maximum-size:100000}") long maximumSize,
+                       @Value("${receipts.points-cache.expire-after-access:PT1H}") Duration expireAfterAccess) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached points for a receipt, or empty on a miss.
+     */
+    public OptionalInt get(String id) {
+        Integer points = cache.getIfPresent(id);
+        return points != null ? OptionalInt.of(points) : OptionalInt.empty();
+    }
+
+    public void put(String id, int points) {
+        cache.put(id, points);
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "points");
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.ReceiptProcessor.cluster;
+
+import com.example.ReceiptProcessor.dto.BulkPointsRequestDto;
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
+import com.example.ReceiptProcessor.dto.ClusterMemberDto;
+import com.example.ReceiptProcessor.dto.ClusterStatusDto;
+import com.example.ReceiptProcessor.dto.PointsResponseDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Calls between cluster nodes. Lookups are marked with {@link #FORWARDED_HEADER} so the receiving
+ * node answers from its own store instead of routing again, and every call carries
+ * {@code receipts.cluster.secret} in {@link #SECRET_HEADER}. Anything other than the expected
+ * answer, including a timeout after {@code receipts.cluster.timeout}, is a
+ * {@link NodeUnavailableException}.
+ */
+@Component
+public class ClusterClient {
+
+    public static final String FORWARDED_HEADER = "X-Receipt-Forwarded";
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final String secret;
+
+    public ClusterClient(@Value("${receipts.cluster.timeout:PT2S}") Duration timeout,
+                         @Value("${receipts.cluster.secret:}") String secret,
+                         ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.secret = secret;
+    }
+
+    /**
+     * Points for one receipt on another node, or empty when that node does not have it.
+     */
+    public OptionalInt fetchPoints(String baseUrl, String id) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl).path("/receipts/{id}/points").buildAndExpand(id).encode().toUri();
+        HttpResponse<byte[]> response = send(baseUrl, request(uri).GET().build());
+        if (response.statusCode() == HttpStatus.NOT_FOUND.value()) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(read(baseUrl, response, PointsResponseDto.class).getPoints());
+    }
+
+    /**
+     * Points for many receipts on another node, without blocking the caller.
+     */
+    public CompletableFuture<BulkPointsResponseDto> fetchPointsAsync(String baseUrl, List<String> ids) {
+        HttpRequest request = post(uri(baseUrl, "/receipts/points"), new BulkPointsRequestDto(ids));
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, failure) -> {
+                    if (failure != null) {
+                        throw new NodeUnavailableException(baseUrl, failure);
+                    }
+                    return read(baseUrl, response, BulkPointsResponseDto.class);
+                });
+    }
+
+    /**
+     * Hands receipts over to the node that now owns them.
+     */
+    public void transfer(String baseUrl, List<JournalEntry> entries) {
+        HttpResponse<byte[]> response = send(baseUrl, post(uri(baseUrl, "/cluster/receipts"), entries));
+        if (response.statusCode() / 100 != 2) {
+            throw new NodeUnavailableException(baseUrl, response.statusCode());
+        }
+    }
+
+    /**
+     * Tells another node about a member and returns that node's view of the cluster.
+     */
+    public ClusterStatusDto announce(String baseUrl, ClusterMemberDto member) {
+        HttpResponse<byte[]> response = send(baseUrl, post(uri(baseUrl, "/cluster/members"), member));
+        return read(baseUrl, response, ClusterStatusDto.class);
+    }
+
+    /**
+     * Tells another node that a member has been removed.
+     */
+    public void evict(String baseUrl, String node) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl).path("/cluster/members/{name}").buildAndExpand(node).encode().toUri();
+        HttpResponse<byte[]> response = send(baseUrl, request(uri).DELETE().build());
+        if (response.statusCode() / 100 != 2) {
+            throw new NodeUnavailableException(baseUrl, response.statusCode());
+        }
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header(FORWARDED_HEADER, "true")
+                .header(SECRET_HEADER, secret)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private HttpRequest post(URI uri, Object body) {
+        try {
+            return request(uri)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpResponse<byte[]> send(String baseUrl, HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new NodeUnavailableException(baseUrl, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NodeUnavailableException(baseUrl, e);
+        }
+    }
+
+    private <T> T read(String baseUrl, HttpResponse<byte[]> response, Class<T> type) {
+        if (response.statusCode() != HttpStatus.OK.value()) {
+            throw new NodeUnavailableException(baseUrl, response.statusCode());
+        }
+        try {
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new NodeUnavailableException(baseUrl, e);
+        }
+    }
+
+    private static URI uri(String baseUrl, String path) {
+        return UriComponentsBuilder.fromUriString(baseUrl).path(path).build().toUri();
+    }
+}
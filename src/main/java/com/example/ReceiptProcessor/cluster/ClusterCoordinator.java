@@ -0,0 +1,226 @@
+package com.example.ReceiptProcessor.cluster;
+
+import com.example.ReceiptProcessor.dto.ClusterMemberDto;
+import com.example.ReceiptProcessor.dto.ClusterMemberStatusDto;
+import com.example.ReceiptProcessor.dto.ClusterStatusDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.rules.RuleEngine;
+import com.example.ReceiptProcessor.store.ReceiptStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the members in step and moves receipts when the ring changes.
+ *
+ * On startup the node announces itself to every member it knows of, retrying every
+ * {@code receipts.cluster.retry-delay} until each one has answered, and learns of members they know
+ * about in return. Whenever a new member joins, receipts whose shard now belongs to another node
+ * are sent there in chunks and deleted locally once the new owner has stored them. A failed
+ * rebalance is retried after the same delay; receipts the new owner already has are skipped, so a
+ * chunk that is sent twice is harmless.
+ *
+ * A member removed with {@link #evict} is dropped from the ring at once and every other member is
+ * told, retrying after the same delay, so that none of them keeps sending it receipts.
+ */
+@Slf4j
+@Component
+public class ClusterCoordinator implements SmartLifecycle {
+
+    /**
+     * Number of receipts loaded and sent per transfer request.
+     */
+    static final int TRANSFER_CHUNK_SIZE = 500;
+
+    private final ClusterTopology clusterTopology;
+    private final ClusterClient clusterClient;
+    private final ReceiptStore receiptStore;
+    private final RuleEngine ruleEngine;
+    private final Duration retryDelay;
+    private final AtomicLong migrated = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public ClusterCoordinator(@Value("${receipts.cluster.retry-delay:PT5S}") Duration retryDelay,
+                              ClusterTopology clusterTopology,
+                              ClusterClient clusterClient,
+                              ReceiptStore receiptStore,
+                              RuleEngine ruleEngine) {
+        this.retryDelay = retryDelay;
+        this.clusterTopology = clusterTopology;
+        this.clusterClient = clusterClient;
+        this.receiptStore = receiptStore;
+        this.ruleEngine = ruleEngine;
+    }
+
+    /**
+     * Adds a member announced by another node, and starts moving receipts to it if it is new.
+     */
+    public void join(String node, String url) {
+        if (clusterTopology.join(node, url)) {
+            log.info("Node {} joined the cluster at {}; rebalancing", node, url);
+            if (running) {
+                executor.execute(this::rebalanceUntilSettled);
+            }
+        }
+    }
+
+    /**
+     * Removes a member, and tells the others about it if it was still in the ring.
+     */
+    public void evict(String node) {
+        if (clusterTopology.leave(node)) {
+            log.info("Node {} was removed from the cluster", node);
+            for (String member : clusterTopology.members().keySet()) {
+                if (!member.equals(clusterTopology.self()) && running) {
+                    executor.execute(() -> evictFrom(member, node));
+                }
+            }
+        }
+    }
+
+    public ClusterStatusDto status() {
+        List<ClusterMemberStatusDto> members = new ArrayList<>();
+        clusterTopology.members().forEach((node, url) ->
+                members.add(new ClusterMemberStatusDto(node, url, clusterTopology.ownedShardCount(node))));
+        return new ClusterStatusDto(clusterTopology.self(), clusterTopology.shardCount(), migrated.get(), members);
+    }
+
+    /**
+     * One pass over the local receipts. Returns how many were moved to other nodes.
+     */
+    int rebalance() {
+        String self = clusterTopology.self();
+        List<String> moving = new ArrayList<>();
+        receiptStore.forEachId(id -> {
+            if (!self.equals(clusterTopology.ownerOf(id))) {
+                moving.add(id);
+            }
+        });
+
+        int moved = 0;
+        for (int from = 0; from < moving.size(); from += TRANSFER_CHUNK_SIZE) {
+            List<String> chunk = moving.subList(from, Math.min(moving.size(), from + TRANSFER_CHUNK_SIZE));
+            Map<String, List<JournalEntry>> byOwner = new LinkedHashMap<>();
+            for (Receipt receipt : receiptStore.findAllById(chunk)) {
+                int points = receipt.getPoints() != null ? receipt.getPoints() : ruleEngine.score(receipt);
+                byOwner.computeIfAbsent(clusterTopology.ownerOf(receipt.getId()), node -> new ArrayList<>())
+                        .add(new JournalEntry(receipt, points));
+            }
+            for (Map.Entry<String, List<JournalEntry>> transfer : byOwner.entrySet()) {
+                List<JournalEntry> entries = transfer.getValue();
+                clusterClient.transfer(clusterTopology.urlOf(transfer.getKey()), entries);
+                receiptStore.deleteAllById(entries.stream().map(entry -> entry.getReceipt().getId()).toList());
+                moved += entries.size();
+                migrated.addAndGet(entries.size());
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Repeats passes until one finds nothing to move, which picks up receipts that were still in
+     * the write-behind queue during the previous pass.
+     */
+    void rebalanceUntilSettled() {
+        try {
+            int moved;
+            do {
+                moved = rebalance();
+                if (moved > 0) {
+                    log.info("Moved {} receipts to their new owners", moved);
+                }
+            } while (moved > 0 && running);
+        } catch (RuntimeException e) {
+            log.warn("Rebalancing failed; retrying in {}", retryDelay, e);
+            schedule(this::rebalanceUntilSettled);
+        }
+    }
+
+    void announceTo(String node) {
+        ClusterMemberDto member = new ClusterMemberDto(clusterTopology.self(), clusterTopology.urlOf(clusterTopology.self()));
+        try {
+            ClusterStatusDto status = clusterClient.announce(clusterTopology.urlOf(node), member);
+            for (ClusterMemberStatusDto known : status.getMembers()) {
+                join(known.getName(), known.getUrl());
+            }
+        } catch (RuntimeException e) {
+            log.debug("Could not announce to {}; retrying in {}", node, retryDelay, e);
+            schedule(() -> announceTo(node));
+        }
+    }
+
+    void evictFrom(String member, String node) {
+        String url = clusterTopology.urlOf(member);
+        if (url == null) {
+            return;
+        }
+        try {
+            clusterClient.evict(url, node);
+        } catch (RuntimeException e) {
+            log.debug("Could not tell {} that {} was removed; retrying in {}", member, node, retryDelay, e);
+            schedule(() -> evictFrom(member, node));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!clusterTopology.isEnabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "receipt-cluster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (String node : clusterTopology.members().keySet()) {
+            if (!node.equals(clusterTopology.self())) {
+                executor.execute(() -> announceTo(node));
+            }
+        }
+        log.info("Node {} owns {} of {} shards", clusterTopology.self(),
+                clusterTopology.ownedShardCount(clusterTopology.self()), clusterTopology.shardCount());
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the web server, so members announcing themselves always find the executor.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    private void schedule(Runnable task) {
+        if (running) {
+            executor.schedule(task, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
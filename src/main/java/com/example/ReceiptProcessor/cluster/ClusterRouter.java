@@ -0,0 +1,124 @@
+package com.example.ReceiptProcessor.cluster;
+
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
+import com.example.ReceiptProcessor.service.ReceiptService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Answers points lookups for the whole cluster. Each id is sent to the node owning its shard;
+ * when that node does not have the receipt and the ring changed recently, the previous owner is
+ * asked as well, since rebalancing may not have moved the receipt yet.
+ *
+ * Forwarded requests and lookups with clustering disabled are answered from the local store only.
+ */
+@Service
+@RequiredArgsConstructor
+public class ClusterRouter {
+
+    private final ClusterTopology clusterTopology;
+    private final ClusterClient clusterClient;
+    private final ReceiptService receiptService;
+
+    public int points(String id, boolean forwarded) {
+        if (!clusterTopology.isEnabled() || forwarded) {
+            return receiptService.processReceiptPoints(id);
+        }
+        String owner = clusterTopology.ownerOf(id);
+        OptionalInt points = pointsOn(owner, id);
+        String previous = clusterTopology.previousOwnerOf(id);
+        if (points.isEmpty() && previous != null && !previous.equals(owner)) {
+            points = pointsOn(previous, id);
+        }
+        return points.orElseThrow(() -> new IllegalArgumentException("No receipt found for that ID."));
+    }
+
+    /**
+     * Sends one bulk request per owning node, all in flight at once, and answers the local share
+     * while they run. Results keep the request order, like a single node's bulk lookup.
+     */
+    public BulkPointsResponseDto points(List<String> ids, boolean forwarded) {
+        if (!clusterTopology.isEnabled() || forwarded) {
+            return receiptService.processReceiptPoints(ids);
+        }
+        LinkedHashSet<String> uniqueIds = new LinkedHashSet<>(ids);
+        Map<String, Integer> resolved = new HashMap<>();
+
+        Map<String, List<String>> byOwner = new LinkedHashMap<>();
+        for (String id : uniqueIds) {
+            byOwner.computeIfAbsent(clusterTopology.ownerOf(id), node -> new ArrayList<>()).add(id);
+        }
+        Map<String, List<String>> byPreviousOwner = new LinkedHashMap<>();
+        for (String id : resolve(byOwner, resolved)) {
+            String previous = clusterTopology.previousOwnerOf(id);
+            if (previous != null && !previous.equals(clusterTopology.ownerOf(id))) {
+                byPreviousOwner.computeIfAbsent(previous, node -> new ArrayList<>()).add(id);
+            }
+        }
+        resolve(byPreviousOwner, resolved);
+
+        Map<String, Integer> points = new LinkedHashMap<>();
+        List<String> notFound = new ArrayList<>();
+        for (String id : uniqueIds) {
+            Integer value = resolved.get(id);
+            if (value != null) {
+                points.put(id, value);
+            } else {
+                notFound.add(id);
+            }
+        }
+        return new BulkPointsResponseDto(points, notFound);
+    }
+
+    private OptionalInt pointsOn(String node, String id) {
+        if (!node.equals(clusterTopology.self())) {
+            return clusterClient.fetchPoints(clusterTopology.urlOf(node), id);
+        }
+        try {
+            return OptionalInt.of(receiptService.processReceiptPoints(id));
+        } catch (IllegalArgumentException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    /**
+     * Looks up each node's ids, adds what was found to {@code resolved} and returns the ids no node had.
+     */
+    private List<String> resolve(Map<String, List<String>> idsByNode, Map<String, Integer> resolved) {
+        Map<String, CompletableFuture<BulkPointsResponseDto>> remote = new LinkedHashMap<>();
+        idsByNode.forEach((node, nodeIds) -> {
+            if (!node.equals(clusterTopology.self())) {
+                remote.put(node, clusterClient.fetchPointsAsync(clusterTopology.urlOf(node), nodeIds));
+            }
+        });
+
+        List<String> notFound = new ArrayList<>();
+        List<String> localIds = idsByNode.get(clusterTopology.self());
+        if (localIds != null) {
+            merge(receiptService.processReceiptPoints(localIds), resolved, notFound);
+        }
+        for (CompletableFuture<BulkPointsResponseDto> response : remote.values()) {
+            try {
+                merge(response.join(), resolved, notFound);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof NodeUnavailableException unavailable ? unavailable : e;
+            }
+        }
+        return notFound;
+    }
+
+    private static void merge(BulkPointsResponseDto response, Map<String, Integer> resolved, List<String> notFound) {
+        resolved.putAll(response.getPoints());
+        notFound.addAll(response.getNotFound());
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.ReceiptProcessor.cluster;
+
+import com.example.ReceiptProcessor.id.ReceiptIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This node's view of the cluster: the members, the hash ring over them and the ring before the
+ * last membership change, which still says where a receipt lived until rebalancing has moved it.
+ *
+ * Members come from {@code receipts.cluster.nodes} as {@code name=url} pairs. A node that is not in
+ * that list is joining: it adds itself under {@code receipts.cluster.node-url} and keeps the ring
+ * without itself as the previous one. With {@code receipts.cluster.enabled=false} (the default)
+ * receipt ids are the generator's UUIDs unchanged and everything is answered locally.
+ *
+ * Nodes prove they belong to the cluster with the shared {@code receipts.cluster.secret}, which must be
+ * set when clustering is enabled.
+ */
+@Component
+public class ClusterTopology {
+
+    private final boolean enabled;
+    private final String self;
+    private final int shardCount;
+    private final int virtualNodes;
+    private final byte[] secret;
+    private final ReceiptIdGenerator idGenerator;
+
+    private volatile State state;
+
+    public ClusterTopology(@Value("${receipts.cluster.enabled:false}") boolean enabled,
+                           @Value("${receipts.cluster.node-id:node-1}") String self,
+                           @Value("${receipts.cluster.node-url:}") String selfUrl,
+                           @Value("${receipts.cluster.nodes:}") String nodes,
+                           @Value("${receipts.cluster.secret:}") String secret,
+                           @Value("${receipts.cluster.shards:1024}") int shardCount,
+                           @Value("${receipts.cluster.virtual-nodes:64}") int virtualNodes,
+                           ReceiptIdGenerator idGenerator) {
+        if (shardCount < 1 || shardCount > ShardedIds.MAX_SHARDS) {
+            throw new IllegalArgumentException("receipts.cluster.shards must be between 1 and " + ShardedIds.MAX_SHARDS);
+        }
+        if (enabled && secret.isBlank()) {
+            throw new IllegalArgumentException("receipts.cluster.secret must be set when clustering is enabled");
+        }
+        this.enabled = enabled;
+        this.self = self;
+        this.shardCount = shardCount;
+        this.virtualNodes = virtualNodes;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.idGenerator = idGenerator;
+
+        Map<String, String> members = parseMembers(nodes);
+        HashRing previous = null;
+        if (!members.containsKey(self)) {
+            previous = members.isEmpty() ? null : new HashRing(members.keySet(), shardCount, virtualNodes);
+            members.put(self, selfUrl);
+        }
+        this.state = state(members, new HashRing(members.keySet(), shardCount, virtualNodes), previous);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String self() {
+        return self;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * True when {@code presented} is the cluster secret. The comparison takes the same time however
+     * much of it matches.
+     */
+    public boolean isMemberSecret(String presented) {
+        return presented != null && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A new receipt id on a shard this node owns, so the receipt is stored where it will be looked up.
+     * The shard only replaces random bits, so time-ordered ids stay in order.
+     */
+    public String newReceiptId() {
+        if (!enabled) {
+            return idGenerator.next().toString();
+        }
+        int[] owned = state.ownedShards();
+        if (owned.length == 0) {
+            throw new IllegalStateException("Node " + self + " owns no shards");
+        }
+        return ShardedIds.withShard(idGenerator.next(), owned[ThreadLocalRandom.current().nextInt(owned.length)]).toString();
+    }
+
+    public int shardOf(String id) {
+        return ShardedIds.shardOf(id, shardCount);
+    }
+
+    public String ownerOf(String id) {
+        return state.ring().owner(shardOf(id));
+    }
+
+    /**
+     * The owner before the last membership change, or null when there was none.
+     */
+    public String previousOwnerOf(String id) {
+        HashRing previous = state.previousRing();
+        return previous != null ? previous.owner(shardOf(id)) : null;
+    }
+
+    public String urlOf(String node) {
+        return state.members().get(node);
+    }
+
+    public Map<String, String> members() {
+        return state.members();
+    }
+
+    public int ownedShardCount(String node) {
+        return state.ring().shardsOwnedBy(node).length;
+    }
+
+    /**
+     * Adds a member, or moves a known one to a new url. Returns true only when the member is new
+     * and the ring changed.
+     */
+    public synchronized boolean join(String node, String url) {
+        State current = state;
+        if (url.equals(current.members().get(node))) {
+            return false;
+        }
+        Map<String, String> members = new LinkedHashMap<>(current.members());
+        boolean added = members.put(node, url) == null;
+        if (!added) {
+            state = state(members, current.ring(), current.previousRing());
+            return false;
+        }
+        state = state(members, new HashRing(members.keySet(), shardCount, virtualNodes), current.ring());
+        return true;
+    }
+
+    /**
+     * Removes a member. Returns true only when it was one and the ring changed. The previous ring is
+     * kept for lookups only if the removed member was not in it, since there is no one left to ask.
+     */
+    public synchronized boolean leave(String node) {
+        if (node.equals(self)) {
+            throw new IllegalArgumentException("Node " + self + " cannot remove itself");
+        }
+        State current = state;
+        if (!current.members().containsKey(node)) {
+            return false;
+        }
+        Map<String, String> members = new LinkedHashMap<>(current.members());
+        members.remove(node);
+        HashRing previous = current.previousRing();
+        if (previous != null && previous.nodes().contains(node)) {
+            previous = null;
+        }
+        state = state(members, new HashRing(members.keySet(), shardCount, virtualNodes), previous);
+        return true;
+    }
+
+    private Map<String, String> parseMembers(String nodes) {
+        Map<String, String> members = new LinkedHashMap<>();
+        for (String entry : nodes.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("receipts.cluster.nodes entries must be name=url, got " + entry);
+            }
+            members.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return members;
+    }
+
+    private State state(Map<String, String> members, HashRing ring, HashRing previousRing) {
+        return new State(Collections.unmodifiableMap(members), ring, previousRing, ring.shardsOwnedBy(self));
+    }
+
+    private record State(Map<String, String> members, HashRing ring, HashRing previousRing, int[] ownedShards) {
+    }
+}
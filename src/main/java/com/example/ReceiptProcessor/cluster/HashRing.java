@@ -0,0 +1,84 @@
+package com.example.ReceiptProcessor.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Consistent-hash ring that assigns a fixed number of shards to nodes. Each node is placed on the
+ * ring at {@code virtualNodes} points and a shard belongs to the first node point at or after the
+ * shard's own position, so adding a node only takes over the shards that now land on its points.
+ *
+ * Immutable; membership changes build a new ring. Owners are resolved once per shard up front, so
+ * a lookup is an array read.
+ */
+public final class HashRing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<String> nodes;
+    private final String[] ownerByShard;
+
+    public HashRing(Collection<String> nodes, int shardCount, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        if (shardCount < 1 || virtualNodes < 1) {
+            throw new IllegalArgumentException("Shard and virtual node counts must be positive");
+        }
+        this.nodes = List.copyOf(nodes);
+
+        TreeMap<Long, String> points = new TreeMap<>();
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the rare collision the node that sorts first keeps the point, whatever the insertion order
+                points.merge(hash(node + "#" + i), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+        this.ownerByShard = new String[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            Map.Entry<Long, String> point = points.ceilingEntry(hash("shard-" + shard));
+            ownerByShard[shard] = (point != null ? point : points.firstEntry()).getValue();
+        }
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    public int shardCount() {
+        return ownerByShard.length;
+    }
+
+    public String owner(int shard) {
+        return ownerByShard[shard];
+    }
+
+    public int[] shardsOwnedBy(String node) {
+        return IntStream.range(0, ownerByShard.length)
+                .filter(shard -> ownerByShard[shard].equals(node))
+                .toArray();
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with MurmurHash3's fmix64 so that keys differing
+     * only in a trailing digit still spread over the whole ring.
+     */
+    static long hash(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.ReceiptProcessor.cluster;
+
+/**
+ * Thrown when another node of the cluster could not be reached or did not answer as expected.
+ */
+public class NodeUnavailableException extends RuntimeException {
+
+    public NodeUnavailableException(String url, Throwable cause) {
+        super("Cluster node " + url + " is unavailable", cause);
+    }
+
+    public NodeUnavailableException(String url, int status) {
+        super("Cluster node " + url + " answered with status " + status);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ReceiptProcessor.cluster;
+
+import java.util.UUID;
+
+/**
+ * Receipt ids that carry their shard. An id is a random UUID whose last four hex digits are
+ * replaced by the shard number, so any node can tell which shard an id belongs to without a lookup
+ * and the rest of the UUID stays as unique as before.
+ *
+ * Ids that were not minted here (random UUIDs from before clustering, or anything else) still map
+ * to a stable shard: UUIDs by the same last four digits, other strings by their hash code.
+ */
+public class ShardedIds {
+
+    /**
+     * Shards are stored in 16 bits of the id.
+     */
+    public static final int MAX_SHARDS = 1 << 16;
+
+    private static final long SHARD_MASK = MAX_SHARDS - 1;
+    private static final int UUID_LENGTH = 36;
+    private static final int SHARD_DIGITS_OFFSET = UUID_LENGTH - 4;
+
+    public static String newId(int shard) {
+        return withShard(UUID.randomUUID(), shard).toString();
+    }
+
+    /**
+     * Replaces the low 16 bits of the UUID with the shard, leaving version and variant untouched.
+     */
+    public static UUID withShard(UUID uuid, int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("Shard must be between 0 and " + (MAX_SHARDS - 1));
+        }
+        return new UUID(uuid.getMostSignificantBits(), (uuid.getLeastSignificantBits() & ~SHARD_MASK) | shard);
+    }
+
+    public static int shardOf(String id, int shardCount) {
+        if (id.length() == UUID_LENGTH && id.charAt(23) == '-') {
+            int bits = hexDigits(id, SHARD_DIGITS_OFFSET, UUID_LENGTH);
+            if (bits >= 0) {
+                return bits % shardCount;
+            }
+        }
+        return Math.floorMod(id.hashCode(), shardCount);
+    }
+
+    /**
+     * Parses hex digits in [from, to) as a non-negative int, or -1 if any char is not a hex digit.
+     */
+    private static int hexDigits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(value.charAt(i), 16);
+            if (digit < 0) return -1;
+            result = result << 4 | digit;
+        }
+        return result;
+    }
+}
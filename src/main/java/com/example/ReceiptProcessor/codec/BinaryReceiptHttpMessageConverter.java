@@ -0,0 +1,98 @@
+package com.example.ReceiptProcessor.codec;
+
+import com.example.ReceiptProcessor.dto.PointsResponseDto;
+import com.example.ReceiptProcessor.dto.ProcessReceiptDto;
+import com.example.ReceiptProcessor.model.Receipt;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+/**
+ * Reads receipts and writes id and points responses in {@link ReceiptBinaryCodec}'s format for
+ * clients that send or accept {@value ReceiptBinaryCodec#MEDIA_TYPE_VALUE}. Registered after the
+ * JSON converter, so JSON stays the default.
+ *
+ * Bodies longer than the configured maximum are rejected with 413, by their Content-Length when
+ * they declare one and otherwise once that many bytes have been read.
+ */
+public class BinaryReceiptHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(ReceiptBinaryCodec.MEDIA_TYPE_VALUE);
+
+    public static final int DEFAULT_MAX_BODY_BYTES = 1024 * 1024;
+
+    private final int maxBodyBytes;
+
+    public BinaryReceiptHttpMessageConverter() {
+        this(DEFAULT_MAX_BODY_BYTES);
+    }
+
+    public BinaryReceiptHttpMessageConverter(int maxBodyBytes) {
+        super(MEDIA_TYPE);
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == Receipt.class || clazz == ProcessReceiptDto.class || clazz == PointsResponseDto.class;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == Receipt.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return (clazz == ProcessReceiptDto.class || clazz == PointsResponseDto.class) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        long contentLength = inputMessage.getHeaders().getContentLength();
+        if (contentLength > maxBodyBytes) {
+            throw tooLarge();
+        }
+        // One byte past the limit tells an oversized body without a Content-Length apart
+        byte[] body = inputMessage.getBody().readNBytes(maxBodyBytes + 1);
+        if (body.length > maxBodyBytes) {
+            throw tooLarge();
+        }
+        try {
+            return ReceiptBinaryCodec.decodeReceipt(body);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException("Malformed binary receipt: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    private ResponseStatusException tooLarge() {
+        return new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                "Binary receipts are limited to " + maxBodyBytes + " bytes.");
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        byte[] body;
+        if (value instanceof ProcessReceiptDto dto) {
+            body = ReceiptBinaryCodec.encodeId(dto.getId());
+        } else if (value instanceof PointsResponseDto dto) {
+            body = ReceiptBinaryCodec.encodePoints(dto.getPoints());
+        } else {
+            throw new HttpMessageNotWritableException("Cannot write " + value.getClass().getName() + " as binary");
+        }
+        outputMessage.getBody().write(body);
+    }
+
+    @Override
+    protected Long getContentLength(Object value, MediaType contentType) {
+        // Bodies are a few bytes; leave the length to the container rather than encoding twice
+        return null;
+    }
+}
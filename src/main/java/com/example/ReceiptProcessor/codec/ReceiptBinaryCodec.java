@@ -0,0 +1,257 @@
+package com.example.ReceiptProcessor.codec;
+
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.util.ReceiptFields;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary encoding of the receipt API, served as {@value #MEDIA_TYPE_VALUE}.
+ *
+ * <pre>
+ * receipt  := version(0x01) string(retailer) svarint(purchaseDate as epoch day)
+ *             varint(purchaseTime as minute of day) varint(total in cents) varint(itemCount) item*
+ * item     := string(shortDescription) varint(price in cents)
+ * id       := string(id)
+ * points   := svarint(points)
+ * string   := varint(byte length) UTF-8 bytes
+ * </pre>
+ *
+ * Varints are unsigned LEB128; svarints are zigzag encoded first. Every field is required, and only
+ * valid dates, {@code H:mm} times and amounts with at most two decimals can be encoded. Decoded
+ * amounts and times come back in canonical form, e.g. {@code 12.30} and {@code 09:05}.
+ */
+public class ReceiptBinaryCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-receipt-binary";
+
+    private static final byte VERSION = 1;
+
+    // Dates that print as yyyy-MM-dd
+    private static final long MIN_EPOCH_DAY = LocalDate.of(0, 1, 1).toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+
+    public static byte[] encodeReceipt(Receipt receipt) {
+        Writer writer = new Writer(64);
+        writer.buffer[writer.position++] = VERSION;
+        writer.string(required(receipt.getRetailer(), "retailer"));
+        writer.svarint(epochDay(receipt));
+        writer.varint(minuteOfDay(receipt));
+        writer.varint(cents(receipt.getTotalCents(), receipt.getTotal(), "total"));
+
+        List<Item> items = required(receipt.getItems(), "items");
+        writer.varint(items.size());
+        for (Item item : items) {
+            writer.string(required(item.getShortDescription(), "shortDescription"));
+            writer.varint(cents(item.getPriceCents(), item.getPrice(), "price"));
+        }
+        return writer.toByteArray();
+    }
+
+    public static Receipt decodeReceipt(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        int version = reader.next();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported receipt encoding version " + version);
+        }
+        Receipt receipt = new Receipt();
+        receipt.setRetailer(reader.string());
+        receipt.setPurchaseEpochDay(epochDay(reader.svarint()));
+        receipt.setPurchaseMinute(minuteOfDay(reader.varint()));
+        receipt.setTotalCents(cents(reader.varint()));
+
+        long itemCount = reader.varint();
+        // Every item takes at least two bytes, which bounds the allocation for hostile input
+        if (itemCount > reader.remaining() / 2) {
+            throw new IllegalArgumentException("Item count " + itemCount + " exceeds the payload");
+        }
+        List<Item> items = new ArrayList<>((int) itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            Item item = new Item();
+            item.setShortDescription(reader.string());
+            item.setPriceCents(cents(reader.varint()));
+            items.add(item);
+        }
+        reader.expectEnd();
+        receipt.setItems(items);
+        return receipt;
+    }
+
+    public static byte[] encodeId(String id) {
+        Writer writer = new Writer(40);
+        writer.string(id);
+        return writer.toByteArray();
+    }
+
+    public static String decodeId(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        String id = reader.string();
+        reader.expectEnd();
+        return id;
+    }
+
+    public static byte[] encodePoints(int points) {
+        Writer writer = new Writer(5);
+        writer.svarint(points);
+        return writer.toByteArray();
+    }
+
+    public static int decodePoints(byte[] bytes) {
+        Reader reader = new Reader(bytes);
+        long points = reader.svarint();
+        reader.expectEnd();
+        return Math.toIntExact(points);
+    }
+
+    private static <T> T required(T value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required in the binary encoding");
+        }
+        return value;
+    }
+
+    private static long epochDay(Receipt receipt) {
+        if (receipt.getPurchaseEpochDay() == ReceiptFields.NO_DATE) {
+            throw new IllegalArgumentException("purchaseDate is not a date: "
+                    + required(receipt.getPurchaseDate(), "purchaseDate"));
+        }
+        return receipt.getPurchaseEpochDay();
+    }
+
+    private static int minuteOfDay(Receipt receipt) {
+        if (receipt.getPurchaseMinute() < 0) {
+            throw new IllegalArgumentException("purchaseTime is not a time of day: "
+                    + required(receipt.getPurchaseTime(), "purchaseTime"));
+        }
+        return receipt.getPurchaseMinute();
+    }
+
+    private static long cents(long cents, String amount, String field) {
+        if (cents == ReceiptFields.NOT_CENTS) {
+            throw new IllegalArgumentException(field + " is not an amount in cents: " + required(amount, field));
+        }
+        return cents;
+    }
+
+    private static int epochDay(long epochDay) {
+        if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+            throw new IllegalArgumentException("Epoch day out of range: " + epochDay);
+        }
+        return (int) epochDay;
+    }
+
+    /**
+     * Varints decode as unsigned, so a ten-byte one can come back negative.
+     */
+    private static short minuteOfDay(long minuteOfDay) {
+        if (minuteOfDay < 0 || minuteOfDay >= 24 * 60) {
+            throw new IllegalArgumentException("Minute of day out of range: " + minuteOfDay);
+        }
+        return (short) minuteOfDay;
+    }
+
+    private static long cents(long cents) {
+        if (cents < 0) {
+            throw new IllegalArgumentException("Amount out of range: " + cents);
+        }
+        return cents;
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void svarint(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int next() {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Unexpected end of receipt payload");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long svarint() {
+            long value = varint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String string() {
+            long length = varint();
+            if (length > remaining()) {
+                throw new IllegalArgumentException("String length " + length + " exceeds the payload");
+            }
+            String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        int remaining() {
+            return buffer.length - position;
+        }
+
+        void expectEnd() {
+            if (position != buffer.length) {
+                throw new IllegalArgumentException((buffer.length - position) + " unexpected trailing bytes");
+            }
+        }
+    }
+}
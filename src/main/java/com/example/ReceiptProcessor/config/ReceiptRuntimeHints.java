@@ -0,0 +1,48 @@
+package com.example.ReceiptProcessor.config;
+
+import com.example.ReceiptProcessor.dto.BatchProcessResponseDto;
+import com.example.ReceiptProcessor.dto.BatchReceiptResultDto;
+import com.example.ReceiptProcessor.dto.BulkPointsRequestDto;
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
+import com.example.ReceiptProcessor.dto.ClusterMemberDto;
+import com.example.ReceiptProcessor.dto.ClusterMemberStatusDto;
+import com.example.ReceiptProcessor.dto.ClusterStatusDto;
+import com.example.ReceiptProcessor.dto.PointsResponseDto;
+import com.example.ReceiptProcessor.dto.ProcessReceiptDto;
+import com.example.ReceiptProcessor.dto.ReceiptStatsDto;
+import com.example.ReceiptProcessor.dto.ReceiptStreamResultDto;
+import com.example.ReceiptProcessor.dto.RuleSetDto;
+import com.example.ReceiptProcessor.dto.StatsTotalsDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.model.ScoringFeatures;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.Connection;
+
+/**
+ * Reachability metadata for a native image. Spring's AOT processing already covers request and
+ * response bodies of controller methods and the JPA entities; this adds the types Jackson binds
+ * outside a controller (the NDJSON stream, the write-behind journal and calls between cluster
+ * nodes) and the JDK proxy used by {@link ConnectionLimitingDataSource}. Lombok accessors are plain
+ * methods by then, so they are found like any other getter.
+ */
+public class ReceiptRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] JSON_TYPES = {
+            Receipt.class, Item.class, ScoringFeatures.class, JournalEntry.class,
+            ProcessReceiptDto.class, PointsResponseDto.class, BatchProcessResponseDto.class,
+            BatchReceiptResultDto.class, BulkPointsRequestDto.class, BulkPointsResponseDto.class,
+            ReceiptStreamResultDto.class, RuleSetDto.class, ReceiptStatsDto.class, StatsTotalsDto.class,
+            ClusterMemberDto.class, ClusterStatusDto.class, ClusterMemberStatusDto.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), JSON_TYPES);
+        hints.proxies().registerJdkProxy(Connection.class);
+    }
+}
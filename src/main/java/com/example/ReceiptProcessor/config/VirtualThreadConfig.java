@@ -0,0 +1,36 @@
+package com.example.ReceiptProcessor.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Connection limiting for the virtual-threads profile. Virtual threads themselves are switched on
+ * by {@code spring.threads.virtual.enabled} (Java 21+), see application-virtual-threads.properties.
+ */
+@Configuration
+@ConditionalOnProperty(name = "receipts.db-limiter.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    int maxConnections = environment.getProperty("receipts.db-limiter.permits", Integer.class,
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    Duration acquireTimeout = environment.getProperty("receipts.db-limiter.acquire-timeout",
+                            Duration.class, Duration.ofSeconds(5));
+                    return new ConnectionLimitingDataSource(dataSource, maxConnections, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
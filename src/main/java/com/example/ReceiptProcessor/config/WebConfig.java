@@ -0,0 +1,38 @@
+package com.example.ReceiptProcessor.config;
+
+import com.example.ReceiptProcessor.codec.BinaryReceiptHttpMessageConverter;
+import com.example.ReceiptProcessor.metrics.PayloadSizeInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final PayloadSizeInterceptor payloadSizeInterceptor;
+    private final DataSize binaryMaxBodySize;
+
+    public WebConfig(PayloadSizeInterceptor payloadSizeInterceptor,
+                     @Value("${receipts.binary.max-body-size:1MB}") DataSize binaryMaxBodySize) {
+        this.payloadSizeInterceptor = payloadSizeInterceptor;
+        this.binaryMaxBodySize = binaryMaxBodySize;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(payloadSizeInterceptor).addPathPatterns("/receipts/**");
+    }
+
+    /**
+     * Appended after the defaults, so the binary format is only used when a client asks for it.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new BinaryReceiptHttpMessageConverter(Math.toIntExact(binaryMaxBodySize.toBytes())));
+    }
+}
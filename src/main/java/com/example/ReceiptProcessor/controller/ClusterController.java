@@ -0,0 +1,79 @@
+package com.example.ReceiptProcessor.controller;
+
+import com.example.ReceiptProcessor.cluster.ClusterClient;
+import com.example.ReceiptProcessor.cluster.ClusterCoordinator;
+import com.example.ReceiptProcessor.cluster.ClusterTopology;
+import com.example.ReceiptProcessor.dto.ClusterMemberDto;
+import com.example.ReceiptProcessor.dto.ClusterStatusDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.example.ReceiptProcessor.service.ReceiptService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Node-to-node endpoints of a sharded deployment. They are meant for the cluster's private network,
+ * answer 404 when clustering is disabled and 403 to callers without the cluster secret.
+ */
+@RestController
+@RequestMapping("/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ClusterTopology clusterTopology;
+    private final ClusterCoordinator clusterCoordinator;
+    private final ReceiptService receiptService;
+
+    @GetMapping
+    public ResponseEntity<ClusterStatusDto> getStatus(@RequestHeader(value = ClusterClient.SECRET_HEADER, required = false) String secret) {
+        requireMember(secret);
+        return ResponseEntity.ok(clusterCoordinator.status());
+    }
+
+    @PostMapping("/members")
+    public ResponseEntity<ClusterStatusDto> join(@RequestHeader(value = ClusterClient.SECRET_HEADER, required = false) String secret,
+                                                 @RequestBody ClusterMemberDto member) {
+        requireMember(secret);
+        if (member == null || member.getName() == null || member.getName().isBlank()
+                || member.getUrl() == null || member.getUrl().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A member needs a name and a url.");
+        }
+        clusterCoordinator.join(member.getName(), member.getUrl());
+        return ResponseEntity.ok(clusterCoordinator.status());
+    }
+
+    @DeleteMapping("/members/{name}")
+    public ResponseEntity<ClusterStatusDto> evict(@RequestHeader(value = ClusterClient.SECRET_HEADER, required = false) String secret,
+                                                  @PathVariable String name) {
+        requireMember(secret);
+        if (name.equals(clusterTopology.self())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A node cannot remove itself.");
+        }
+        clusterCoordinator.evict(name);
+        return ResponseEntity.ok(clusterCoordinator.status());
+    }
+
+    @PostMapping("/receipts")
+    public ResponseEntity<Void> importReceipts(@RequestHeader(value = ClusterClient.SECRET_HEADER, required = false) String secret,
+                                               @RequestBody List<JournalEntry> entries) {
+        requireMember(secret);
+        if (entries == null || entries.stream().anyMatch(entry -> entry.getReceipt() == null || entry.getReceipt().getId() == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Every transferred receipt needs an ID.");
+        }
+        receiptService.importReceipts(entries);
+        return ResponseEntity.noContent().build();
+    }
+
+    private void requireMember(String secret) {
+        if (!clusterTopology.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Clustering is not enabled on this node.");
+        }
+        if (!clusterTopology.isMemberSecret(secret)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Missing or wrong cluster secret.");
+        }
+    }
+}
@@ -1,39 +1,97 @@
 package com.example.ReceiptProcessor.controller;
 
+import com.example.ReceiptProcessor.cluster.ClusterClient;
+import com.example.ReceiptProcessor.cluster.ClusterRouter;
+import com.example.ReceiptProcessor.cluster.NodeUnavailableException;
+import com.example.ReceiptProcessor.dto.BatchProcessResponseDto;
+import com.example.ReceiptProcessor.dto.BulkPointsRequestDto;
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
 import com.example.ReceiptProcessor.dto.PointsResponseDto;
 import com.example.ReceiptProcessor.dto.ProcessReceiptDto;
 import com.example.ReceiptProcessor.model.Receipt;
 import com.example.ReceiptProcessor.service.ReceiptService;
+import com.example.ReceiptProcessor.service.ReceiptStreamService;
+import com.example.ReceiptProcessor.util.InvalidReceiptException;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Objects;
+
 @RestController
 @RequestMapping("/receipts")
 @RequiredArgsConstructor
 public class ReceiptController {
 
     private final ReceiptService receiptService;
+    private final ReceiptStreamService receiptStreamService;
+    private final ClusterRouter clusterRouter;
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
 
     @PostMapping("/process")
-    public ResponseEntity<ProcessReceiptDto> processReceipts(@RequestBody Receipt receipt) {
+    public ResponseEntity<ProcessReceiptDto> processReceipts(@RequestBody Receipt receipt,
+                                                             @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The Idempotency-Key header must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters.");
+        }
         try {
-            String id = receiptService.generateReceiptId(receipt);
+            String id = receiptService.generateReceiptId(receipt, idempotencyKey);
             return ResponseEntity.ok(new ProcessReceiptDto(id));
+        } catch (InvalidReceiptException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The receipt is invalid.", e);
         }
     }
 
+    @PostMapping("/process/batch")
+    public ResponseEntity<BatchProcessResponseDto> processReceiptsBatch(@RequestBody List<Receipt> receipts) {
+        if (receipts == null || receipts.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The batch must contain at least one receipt.");
+        }
+        return ResponseEntity.ok(new BatchProcessResponseDto(receiptService.generateReceiptIds(receipts)));
+    }
+
+    @PostMapping(value = "/process/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void processReceiptStream(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        receiptStreamService.ingest(body, response.getOutputStream());
+    }
+
     @GetMapping("/{id}/points")
-    public ResponseEntity<PointsResponseDto> getPoints(@PathVariable String id) {
+    public ResponseEntity<PointsResponseDto> getPoints(@PathVariable String id,
+                                                       @RequestHeader(value = ClusterClient.FORWARDED_HEADER, required = false) boolean forwarded) {
         try {
-            int points = receiptService.processReceiptPoints(id);
+            int points = clusterRouter.points(id, forwarded);
             return ResponseEntity.ok(new PointsResponseDto(points));
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Receipt not found for that ID.", e);
+        } catch (NodeUnavailableException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "The node holding that receipt is unavailable.", e);
+        }
+    }
+
+    @PostMapping("/points")
+    public ResponseEntity<BulkPointsResponseDto> getPointsBulk(@RequestBody BulkPointsRequestDto request,
+                                                               @RequestHeader(value = ClusterClient.FORWARDED_HEADER, required = false) boolean forwarded) {
+        if (request == null || request.getIds() == null || request.getIds().isEmpty()
+                || request.getIds().stream().anyMatch(Objects::isNull)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The request must contain at least one receipt ID.");
+        }
+        try {
+            return ResponseEntity.ok(clusterRouter.points(request.getIds(), forwarded));
+        } catch (NodeUnavailableException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "A node holding some of those receipts is unavailable.", e);
         }
     }
-}
\ No newline at end of file
+}
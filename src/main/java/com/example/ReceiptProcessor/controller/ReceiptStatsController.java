@@ -0,0 +1,30 @@
+package com.example.ReceiptProcessor.controller;
+
+import com.example.ReceiptProcessor.dto.ReceiptStatsDto;
+import com.example.ReceiptProcessor.stats.ReceiptStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/receipts")
+@RequiredArgsConstructor
+public class ReceiptStatsController {
+
+    private final ReceiptStats receiptStats;
+
+    @GetMapping("/stats")
+    public ResponseEntity<ReceiptStatsDto> getStats(@RequestParam(required = false) String retailer,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to.");
+        }
+        return ResponseEntity.ok(receiptStats.query(retailer, from, to));
+    }
+}
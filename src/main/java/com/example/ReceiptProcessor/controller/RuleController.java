@@ -0,0 +1,36 @@
+package com.example.ReceiptProcessor.controller;
+
+import com.example.ReceiptProcessor.dto.RuleSetDto;
+import com.example.ReceiptProcessor.rules.CompiledRuleSet;
+import com.example.ReceiptProcessor.rules.RuleEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/rules")
+@RequiredArgsConstructor
+public class RuleController {
+
+    private final RuleEngine ruleEngine;
+
+    @GetMapping
+    public ResponseEntity<RuleSetDto> getRules() {
+        return ResponseEntity.ok(toDto(ruleEngine.activeRuleSet()));
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<RuleSetDto> reloadRules() {
+        try {
+            return ResponseEntity.ok(toDto(ruleEngine.reload()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The rule set is invalid.", e);
+        }
+    }
+
+    private RuleSetDto toDto(CompiledRuleSet ruleSet) {
+        return new RuleSetDto(ruleSet.getVersion(), ruleSet.stats());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.ReceiptProcessor.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchReceiptResultDto {
+    private String id;
+    private List<String> errors;
+}
@@ -0,0 +1,13 @@
+package com.example.ReceiptProcessor.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPointsRequestDto {
+    private List<String> ids;
+}
@@ -0,0 +1,15 @@
+package com.example.ReceiptProcessor.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPointsResponseDto {
+    private Map<String, Integer> points;
+    private List<String> notFound;
+}
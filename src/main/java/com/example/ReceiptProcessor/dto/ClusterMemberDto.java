@@ -0,0 +1,12 @@
+package com.example.ReceiptProcessor.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterMemberDto {
+    private String name;
+    private String url;
+}
@@ -0,0 +1,13 @@
+package com.example.ReceiptProcessor.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterMemberStatusDto {
+    private String name;
+    private String url;
+    private int ownedShards;
+}
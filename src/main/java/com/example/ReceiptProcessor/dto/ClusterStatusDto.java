@@ -0,0 +1,16 @@
+package com.example.ReceiptProcessor.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterStatusDto {
+    private String node;
+    private int shards;
+    private long migratedReceipts;
+    private List<ClusterMemberStatusDto> members;
+}
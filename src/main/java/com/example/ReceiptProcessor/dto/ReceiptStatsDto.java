@@ -0,0 +1,17 @@
+package com.example.ReceiptProcessor.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReceiptStatsDto {
+    private long count;
+    private long points;
+    private Map<String, Long> histogram;
+    private Map<String, StatsTotalsDto> retailers;
+    private Map<String, StatsTotalsDto> days;
+}
@@ -0,0 +1,18 @@
+package com.example.ReceiptProcessor.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReceiptStreamResultDto {
+    private Long index;
+    private String id;
+    private Integer points;
+    private List<String> errors;
+}
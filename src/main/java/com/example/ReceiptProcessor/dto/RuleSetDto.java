@@ -0,0 +1,15 @@
+package com.example.ReceiptProcessor.dto;
+
+import com.example.ReceiptProcessor.rules.RuleStats;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleSetDto {
+    private long version;
+    private List<RuleStats> rules;
+}
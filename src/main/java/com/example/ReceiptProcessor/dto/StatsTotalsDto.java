@@ -0,0 +1,12 @@
+package com.example.ReceiptProcessor.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsTotalsDto {
+    private long count;
+    private long points;
+}
@@ -0,0 +1,62 @@
+package com.example.ReceiptProcessor.id;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Unpredictable bits for ids, from a pool of independently seeded {@link SecureRandom}s. A thread
+ * always draws from the same one, so threads only contend when their ids collide on the pool size,
+ * unlike {@link java.util.UUID#randomUUID()}, which draws every id from a single shared instance.
+ * Each pool entry fetches {@value #BUFFER_SIZE} bytes at a time, since a generator call costs far
+ * more than the bytes it returns.
+ */
+final class RandomBits {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final Source[] POOL = newPool(2 * Runtime.getRuntime().availableProcessors());
+    private static final int MASK = POOL.length - 1;
+
+    private RandomBits() {
+    }
+
+    @SuppressWarnings("deprecation") // Thread.threadId() needs Java 19
+    static long nextLong() {
+        return POOL[(int) Thread.currentThread().getId() & MASK].nextLong();
+    }
+
+    private static Source[] newPool(int minSize) {
+        Source[] pool = new Source[Integer.highestOneBit(minSize - 1) << 1];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = new Source();
+        }
+        return pool;
+    }
+
+    private static final class Source {
+
+        private final SecureRandom random = newSecureRandom();
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes).position(BUFFER_SIZE);
+
+        synchronized long nextLong() {
+            if (!buffer.hasRemaining()) {
+                random.nextBytes(bytes);
+                buffer.clear();
+            }
+            return buffer.getLong();
+        }
+
+        /**
+         * DRBG seeds each instance separately and does not share a global lock, unlike NativePRNG.
+         */
+        private static SecureRandom newSecureRandom() {
+            try {
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+}
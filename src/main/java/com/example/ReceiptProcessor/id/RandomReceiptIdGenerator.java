@@ -0,0 +1,22 @@
+package com.example.ReceiptProcessor.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUIDs, as from {@link UUID#randomUUID()}, but drawn from {@link RandomBits}
+ * so concurrent requests do not queue on one random number generator.
+ */
+@Component
+@ConditionalOnProperty(name = "receipts.id.generator", havingValue = "random", matchIfMissing = true)
+public class RandomReceiptIdGenerator implements ReceiptIdGenerator {
+
+    @Override
+    public UUID next() {
+        long msb = (RandomBits.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (RandomBits.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(msb, lsb);
+    }
+}
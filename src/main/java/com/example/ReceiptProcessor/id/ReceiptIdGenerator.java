@@ -0,0 +1,12 @@
+package com.example.ReceiptProcessor.id;
+
+import java.util.UUID;
+
+/**
+ * Mints the UUIDs receipt ids are made from. Chosen with {@code receipts.id.generator}:
+ * {@code random} (the default) or {@code time-ordered}.
+ */
+public interface ReceiptIdGenerator {
+
+    UUID next();
+}
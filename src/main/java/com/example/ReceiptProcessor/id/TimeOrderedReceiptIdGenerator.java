@@ -0,0 +1,45 @@
+package com.example.ReceiptProcessor.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered (version 7) UUIDs: 48 bits of Unix milliseconds, then a 12-bit counter, then 62
+ * random bits. New ids land at the right edge of the primary key index instead of on random
+ * pages, and sort in creation order.
+ *
+ * Ids are strictly increasing on this node. The timestamp and counter are advanced together
+ * with a single compare-and-set; when more than 4096 ids are minted in one millisecond, or the
+ * clock steps back, the counter carries into the timestamp, which runs ahead of the clock until
+ * it catches up.
+ */
+@Component
+@ConditionalOnProperty(name = "receipts.id.generator", havingValue = "time-ordered")
+public class TimeOrderedReceiptIdGenerator implements ReceiptIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    private final LongSupplier clock;
+    private final AtomicLong lastStamp = new AtomicLong();
+
+    public TimeOrderedReceiptIdGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    TimeOrderedReceiptIdGenerator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public UUID next() {
+        long stamp = lastStamp.updateAndGet(last -> Math.max(clock.getAsLong() << COUNTER_BITS, last + 1));
+        long msb = (stamp >>> COUNTER_BITS) << 16 | 0x7000L | (stamp & COUNTER_MASK);
+        long lsb = (RandomBits.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ReceiptProcessor.ingest;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import lombok.*;
+
+/**
+ * One journal line. Points are kept next to the receipt because they are not part of its JSON form.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalEntry {
+    private Receipt receipt;
+    private int points;
+}
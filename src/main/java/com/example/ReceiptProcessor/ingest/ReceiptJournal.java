@@ -0,0 +1,188 @@
+package com.example.ReceiptProcessor.ingest;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only file of accepted-but-not-yet-persisted receipts, one JSON line per receipt.
+ *
+ * Entries are appended to the file at {@code path}. Once it reaches the segment size it is sealed
+ * under {@code path.N} and a new one is started. Each append returns the number of the segment it
+ * went to, and {@link #flushed(long, int)} counts entries off again once they are stored: a sealed
+ * segment is deleted when its last entry has been flushed and the active one is truncated. The
+ * journal therefore only holds segments with unflushed entries, however long the queue stays busy.
+ */
+@Slf4j
+public class ReceiptJournal implements Closeable {
+
+    private final Path path;
+    private final boolean fsync;
+    private final long segmentBytes;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Integer> unflushed = new HashMap<>();
+
+    private FileChannel channel;
+    private long activeSegment;
+
+    /**
+     * A journal that never rolls its file.
+     */
+    public ReceiptJournal(Path path, boolean fsync, ObjectMapper objectMapper) throws IOException {
+        this(path, fsync, Long.MAX_VALUE, objectMapper);
+    }
+
+    public ReceiptJournal(Path path, boolean fsync, long segmentBytes, ObjectMapper objectMapper) throws IOException {
+        this.path = path;
+        this.fsync = fsync;
+        this.segmentBytes = segmentBytes;
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = open();
+        this.activeSegment = sealedSegments().keySet().stream().mapToLong(Long::longValue).max().orElse(0) + 1;
+    }
+
+    /**
+     * Appends an entry and returns the number of the segment holding it.
+     */
+    public synchronized long append(Receipt receipt) throws IOException {
+        byte[] line = objectMapper.writeValueAsBytes(new JournalEntry(receipt, receipt.getPoints()));
+        if (channel.size() > 0 && channel.size() + line.length + 1 > segmentBytes) {
+            roll();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(line.length + 1).put(line).put((byte) '\n').flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+        unflushed.merge(activeSegment, 1, Integer::sum);
+        return activeSegment;
+    }
+
+    /**
+     * Records that {@code count} entries appended to {@code segment} have been stored. The segment is
+     * dropped once none of its entries is left.
+     */
+    public synchronized void flushed(long segment, int count) throws IOException {
+        Integer entries = unflushed.get(segment);
+        if (entries == null) {
+            return;
+        }
+        if (entries > count) {
+            unflushed.put(segment, entries - count);
+            return;
+        }
+        unflushed.remove(segment);
+        if (segment == activeSegment) {
+            truncateActive();
+        } else {
+            Files.deleteIfExists(sealed(segment));
+        }
+    }
+
+    /**
+     * Reads every complete entry, oldest segment first. A torn last line from a crash mid-append is skipped.
+     */
+    public synchronized List<Receipt> readAll() throws IOException {
+        List<Receipt> receipts = new ArrayList<>();
+        for (Path segment : sealedSegments().values()) {
+            read(segment, receipts);
+        }
+        read(path, receipts);
+        return receipts;
+    }
+
+    /**
+     * Drops every entry, in sealed and active segments alike.
+     */
+    public synchronized void truncate() throws IOException {
+        for (Path segment : sealedSegments().values()) {
+            Files.delete(segment);
+        }
+        unflushed.clear();
+        truncateActive();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    private void read(Path file, List<Receipt> receipts) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JournalEntry entry = objectMapper.readValue(line, JournalEntry.class);
+                    entry.getReceipt().setPoints(entry.getPoints());
+                    receipts.add(entry.getReceipt());
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable journal entry in {}", file);
+                }
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        channel.force(true);
+        channel.close();
+        Files.move(path, sealed(activeSegment), StandardCopyOption.ATOMIC_MOVE);
+        channel = open();
+        activeSegment++;
+    }
+
+    private void truncateActive() throws IOException {
+        channel.truncate(0);
+        if (fsync) {
+            channel.force(true);
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path sealed(long segment) {
+        return path.resolveSibling(path.getFileName() + "." + segment);
+    }
+
+    private TreeMap<Long, Path> sealedSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        String prefix = path.getFileName() + ".";
+        try (Stream<Path> files = Files.list(path.toAbsolutePath().getParent())) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(prefix) && name.length() > prefix.length()
+                        && name.substring(prefix.length()).chars().allMatch(Character::isDigit)) {
+                    segments.put(Long.parseLong(name.substring(prefix.length())), file);
+                }
+            });
+        }
+        return segments;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ReceiptProcessor.ingest;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Published when the write-behind writer gives up on receipts it had already acknowledged. Their ids
+ * were handed out but will never be stored.
+ */
+@Getter
+@AllArgsConstructor
+public class ReceiptsDeadLetteredEvent {
+    private List<Receipt> receipts;
+}
@@ -0,0 +1,412 @@
+package com.example.ReceiptProcessor.ingest;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.store.ReceiptStore;
+import com.example.ReceiptProcessor.util.ReceiptValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind ingestion: accepted receipts go into a bounded in-memory queue and are persisted
+ * by a background writer in batched transactions. Receipts stay readable through
+ * {@link #findPending(String)} until their batch commits.
+ *
+ * Enabled with {@code receipts.ingest.mode=write-behind}. With {@code receipts.ingest.durability}
+ * set to {@code journal} or {@code fsync}, each receipt is appended to a local journal before it
+ * is acknowledged and replayed on the next startup if the process dies before it was flushed.
+ * The journal rolls into segments of {@code receipts.ingest.journal-segment-size} and drops each
+ * one as soon as all its receipts are committed, so it stays small while the queue is never idle.
+ *
+ * A batch that keeps failing is split and its receipts written one at a time, so one receipt the
+ * store rejects cannot stop the writer. Receipts still failing after {@code receipts.ingest.max-attempts}
+ * are appended to the dead-letter file at {@code receipts.ingest.dead-letter-path}, in the journal format,
+ * and announced with a {@link ReceiptsDeadLetteredEvent}. Failures that say the store itself is
+ * unavailable are retried without limit instead.
+ */
+@Slf4j
+@Component
+public class WriteBehindQueue implements SmartLifecycle {
+
+    public static final String MODE = "write-behind";
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+    private static final long INITIAL_BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+    private static final long NO_SEGMENT = -1;
+
+    private final boolean enabled;
+    private final String durability;
+    private final Path journalPath;
+    private final DataSize journalSegmentSize;
+    private final int batchSize;
+    private final Duration enqueueTimeout;
+    private final int maxAttempts;
+    private final Path deadLetterPath;
+    private final ReceiptStore receiptStore;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BlockingQueue<Queued> queue;
+    private final Semaphore freeSlots;
+    private final ConcurrentHashMap<String, Receipt> pending = new ConcurrentHashMap<>();
+    private final Counter flushedCounter;
+    private final Counter deadLetteredCounter;
+
+    private ReceiptJournal journal;
+    private ReceiptJournal deadLetters;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public WriteBehindQueue(@Value("${receipts.ingest.mode:sync}") String mode,
+                            @Value("${receipts.ingest.queue-capacity:10000}") int capacity,
+                            @Value("${receipts.ingest.batch-size:500}") int batchSize,
+                            @Value("${receipts.ingest.enqueue-timeout:PT1S}") Duration enqueueTimeout,
+                            @Value("${receipts.ingest.durability:journal}") String durability,
+                            @Value("${receipts.ingest.journal-path:data/receipts.journal}") Path journalPath,
+                            @Value("${receipts.ingest.journal-segment-size:16MB}") DataSize journalSegmentSize,
+                            @Value("${receipts.ingest.max-attempts:3}") int maxAttempts,
+                            @Value("${receipts.ingest.dead-letter-path:data/receipts.dead-letter}") Path deadLetterPath,
+                            ReceiptStore receiptStore,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry) {
+        this.enabled = MODE.equals(mode);
+        this.durability = durability;
+        this.journalPath = journalPath;
+        this.journalSegmentSize = journalSegmentSize;
+        this.batchSize = batchSize;
+        this.enqueueTimeout = enqueueTimeout;
+        this.maxAttempts = maxAttempts;
+        this.deadLetterPath = deadLetterPath;
+        this.receiptStore = receiptStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.freeSlots = new Semaphore(capacity);
+
+        Gauge.builder("receipts.writebehind.queue.depth", queue, BlockingQueue::size)
+                .description("Receipts waiting for the background writer")
+                .register(meterRegistry);
+        Gauge.builder("receipts.writebehind.pending", pending, ConcurrentHashMap::size)
+                .description("Receipts accepted but not yet committed")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("receipts.writebehind.flushed")
+                .description("Receipts committed by the background writer")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("receipts.writebehind.dead-lettered")
+                .description("Acknowledged receipts the background writer gave up on")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a receipt that already has its id and points. Returns false when the queue stays full
+     * for longer than the enqueue timeout; the caller should then write the receipt itself.
+     * A receipt the store would reject is refused with
+     * {@link com.example.ReceiptProcessor.util.InvalidReceiptException} before it is acknowledged.
+     */
+    public boolean enqueue(Receipt receipt) {
+        ReceiptValidator.requireValid(receipt);
+        try {
+            if (!freeSlots.tryAcquire(enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        pending.put(receipt.getId(), receipt);
+        long segment = NO_SEGMENT;
+        if (journal != null) {
+            try {
+                segment = journal.append(receipt);
+            } catch (IOException e) {
+                pending.remove(receipt.getId());
+                freeSlots.release();
+                throw new UncheckedIOException("Could not journal receipt " + receipt.getId(), e);
+            }
+        }
+        queue.add(new Queued(receipt, segment));
+        return true;
+    }
+
+    /**
+     * Returns a receipt that was accepted but has not been committed yet.
+     */
+    public Optional<Receipt> findPending(String id) {
+        return Optional.ofNullable(pending.get(id));
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        openJournal();
+        running = true;
+        writerThread = new Thread(this::drainLoop, "receipt-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(SHUTDOWN_TIMEOUT.toMillis());
+            if (writerThread.isAlive()) {
+                log.warn("Write-behind writer did not drain {} receipts before shutdown; they remain in the journal", pending.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+            synchronized (this) {
+                if (deadLetters != null) {
+                    deadLetters.close();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not close receipt journal", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so the journal is recovered before traffic
+     * arrives and the queue is drained after the last request has been accepted.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    void openJournal() {
+        if ("none".equals(durability)) {
+            return;
+        }
+        try {
+            journal = new ReceiptJournal(journalPath, "fsync".equals(durability), journalSegmentSize.toBytes(), objectMapper);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open receipt journal " + journalPath, e);
+        }
+    }
+
+    List<Receipt> journalEntries() throws IOException {
+        return journal.readAll();
+    }
+
+    /**
+     * Persists journaled receipts left over from a previous run that never reached the store.
+     */
+    void recover() throws IOException {
+        List<Receipt> unflushed = new ArrayList<>();
+        for (Receipt receipt : journal.readAll()) {
+            if (!receiptStore.existsById(receipt.getId())) {
+                unflushed.add(receipt);
+            }
+        }
+        for (int from = 0; from < unflushed.size(); from += batchSize) {
+            persist(unflushed.subList(from, Math.min(unflushed.size(), from + batchSize)));
+        }
+        if (!unflushed.isEmpty()) {
+            log.info("Recovered {} receipts from journal {}", unflushed.size(), journalPath);
+        }
+        journal.truncate();
+    }
+
+    /**
+     * Drains up to one batch and commits it. Returns the number of receipts written.
+     */
+    int flushOnce(long waitMillis) throws InterruptedException {
+        Queued first = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return 0;
+        }
+        List<Queued> drained = new ArrayList<>(batchSize);
+        drained.add(first);
+        queue.drainTo(drained, batchSize - 1);
+
+        List<Receipt> batch = new ArrayList<>(drained.size());
+        Map<Long, Integer> perSegment = new HashMap<>();
+        for (Queued queued : drained) {
+            batch.add(queued.receipt());
+            perSegment.merge(queued.segment(), 1, Integer::sum);
+        }
+
+        persistWithRetry(batch);
+        for (Receipt receipt : batch) {
+            pending.remove(receipt.getId());
+        }
+        freeSlots.release(batch.size());
+        flushedCounter.increment(batch.size());
+
+        if (journal != null) {
+            try {
+                for (Map.Entry<Long, Integer> segment : perSegment.entrySet()) {
+                    journal.flushed(segment.getKey(), segment.getValue());
+                }
+            } catch (IOException e) {
+                log.warn("Could not drop flushed receipt journal segment", e);
+            }
+        }
+        return batch.size();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                flushOnce(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the batch, splitting it into single receipts if it keeps failing. Receipts that cannot
+     * be written on their own are dead-lettered; the rest are stored.
+     */
+    private void persistWithRetry(List<Receipt> batch) throws InterruptedException {
+        if (persistWithBackoff(batch)) {
+            return;
+        }
+        List<Receipt> failed = new ArrayList<>();
+        if (batch.size() == 1) {
+            failed.addAll(batch);
+        } else {
+            log.warn("Write-behind batch of {} receipts keeps failing, writing them one at a time", batch.size());
+            for (Receipt receipt : batch) {
+                if (!persistWithBackoff(List.of(receipt))) {
+                    failed.add(receipt);
+                }
+            }
+        }
+        deadLetter(failed);
+    }
+
+    /**
+     * Returns false after {@code maxAttempts} failures. A store that is unavailable is waited for
+     * however long it takes, since nothing is wrong with the receipts.
+     */
+    private boolean persistWithBackoff(List<Receipt> receipts) throws InterruptedException {
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        int failures = 0;
+        while (true) {
+            try {
+                persist(receipts);
+                return true;
+            } catch (RuntimeException e) {
+                if (!isStoreUnavailable(e) && ++failures >= maxAttempts) {
+                    log.warn("Write-behind write of {} receipts failed {} times", receipts.size(), failures, e);
+                    return false;
+                }
+                log.warn("Write-behind write of {} receipts failed, retrying in {} ms", receipts.size(), backoffMillis, e);
+                Thread.sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    static boolean isStoreUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof NonTransientDataAccessResourceException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof UncheckedIOException;
+    }
+
+    /**
+     * Appends receipts the writer gave up on to the dead-letter file. Each line is a journal entry,
+     * so the file can be replayed as a journal once the cause is fixed.
+     */
+    private void deadLetter(List<Receipt> receipts) {
+        if (receipts.isEmpty()) {
+            return;
+        }
+        for (Receipt receipt : receipts) {
+            log.error("Dead-lettering write-behind receipt {} to {}", receipt.getId(), deadLetterPath);
+            try {
+                appendDeadLetter(receipt);
+            } catch (IOException e) {
+                log.error("Could not dead-letter receipt {}; it is lost", receipt.getId(), e);
+            }
+        }
+        deadLetteredCounter.increment(receipts.size());
+        eventPublisher.publishEvent(new ReceiptsDeadLetteredEvent(receipts));
+    }
+
+    private synchronized void appendDeadLetter(Receipt receipt) throws IOException {
+        if (deadLetters == null) {
+            deadLetters = new ReceiptJournal(deadLetterPath, true, objectMapper);
+        }
+        deadLetters.append(receipt);
+    }
+
+    /**
+     * Each attempt starts from receipts reset to their unsaved state, since a failed attempt may
+     * have assigned item ids and marked them stored before its transaction rolled back.
+     */
+    private void persist(List<Receipt> batch) {
+        batch.forEach(Receipt::resetForRetry);
+        transactionTemplate.executeWithoutResult(status -> receiptStore.saveAll(batch));
+    }
+
+    /**
+     * A queued receipt and the journal segment it was appended to.
+     */
+    private record Queued(Receipt receipt, long segment) {
+    }
+}
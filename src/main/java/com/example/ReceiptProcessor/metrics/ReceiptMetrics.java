@@ -0,0 +1,62 @@
+package com.example.ReceiptProcessor.metrics;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Meters for the receipt service, splitting time spent in the store from time spent scoring.
+ */
+@Component
+public class ReceiptMetrics {
+
+    private final Timer storeWrites;
+    private final Timer storeReads;
+    private final Timer scoring;
+    private final DistributionSummary itemCounts;
+
+    public ReceiptMetrics(MeterRegistry registry) {
+        this.storeWrites = storeTimer(registry, "write");
+        this.storeReads = storeTimer(registry, "read");
+        this.scoring = Timer.builder("receipts.scoring")
+                .description("Time spent scoring a receipt against the active rule set")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.itemCounts = DistributionSummary.builder("receipts.items")
+                .description("Number of items per ingested receipt")
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(10_000.0)
+                .register(registry);
+    }
+
+    public void recordWrite(Runnable write) {
+        storeWrites.record(write);
+    }
+
+    public <T> T recordRead(Supplier<T> read) {
+        return storeReads.record(read);
+    }
+
+    public int recordScoring(IntSupplier scorer) {
+        return scoring.record(scorer);
+    }
+
+    public void recordItemCount(Receipt receipt) {
+        itemCounts.record(receipt.getItems() != null ? receipt.getItems().size() : 0);
+    }
+
+    private static Timer storeTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("receipts.store")
+                .description("Time spent in the receipt store")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
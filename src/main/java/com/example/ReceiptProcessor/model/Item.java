@@ -1,22 +1,67 @@
 package com.example.ReceiptProcessor.model;
 
+import com.example.ReceiptProcessor.util.ReceiptFields;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Transient;
 import lombok.*;
 
 @Entity
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Item {
+    /**
+     * Pooled sequence ids are allocated in blocks, which keeps Hibernate's
+     * JDBC insert batching enabled (IDENTITY would force one round trip per row).
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Long id;
 
+    @Column(length = ReceiptFields.MAX_DESCRIPTION_LENGTH)
     private String shortDescription;
 
+    /**
+     * The price as it was received; not stored. Read back from {@link #priceCents} once loaded.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     private String price;
+
+    /**
+     * The price in cents, converted when the price is set. {@link ReceiptFields#NOT_CENTS} when it
+     * is missing or not an amount.
+     */
+    @Column(name = "price")
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private long priceCents = ReceiptFields.NOT_CENTS;
+
+    public Item(Long id, String shortDescription, String price) {
+        this.id = id;
+        this.shortDescription = shortDescription;
+        setPrice(price);
+    }
+
+    public String getPrice() {
+        return price != null ? price : ReceiptFields.formatCents(priceCents);
+    }
+
+    public void setPrice(String price) {
+        this.price = price;
+        this.priceCents = ReceiptFields.parseCents(price);
+    }
+
+    public void setPriceCents(long priceCents) {
+        this.price = null;
+        this.priceCents = priceCents;
+    }
 }
@@ -1,7 +1,11 @@
 package com.example.ReceiptProcessor.model;
 
+import com.example.ReceiptProcessor.util.FeatureExtractor;
+import com.example.ReceiptProcessor.util.ReceiptFields;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.util.List;
 
@@ -9,19 +13,177 @@ import java.util.List;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
-public class Receipt {
+public class Receipt implements Persistable<String> {
+    /**
+     * A UUID in canonical lowercase form, stored in a 128-bit uuid column rather than as 36
+     * characters. The database parses it on the way in and formats it on the way out.
+     */
     @Id
+    @Column(columnDefinition = "uuid")
     private String id;
 
+    @Column(length = ReceiptFields.MAX_RETAILER_LENGTH)
     private String retailer;
 
+    /**
+     * The date, time and total as they were received; not stored. Once loaded they are read back
+     * from the typed fields below in canonical form.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     private String purchaseDate;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     private String purchaseTime;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String total;
+
+    /**
+     * Days since 1970-01-01, converted when the purchase date is set, or
+     * {@link ReceiptFields#NO_DATE} when it is missing or not a date.
+     */
+    @Column(name = "purchase_date")
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private int purchaseEpochDay = ReceiptFields.NO_DATE;
+
+    /**
+     * Minutes since midnight, converted when the purchase time is set, or
+     * {@link ReceiptFields#NO_TIME} when it is missing or not a time.
+     */
+    @Column(name = "purchase_time")
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private short purchaseMinute = ReceiptFields.NO_TIME;
+
+    /**
+     * The total in cents, converted when the total is set, or {@link ReceiptFields#NOT_CENTS} when it
+     * is missing or not an amount.
+     */
+    @Column(name = "total")
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private long totalCents = ReceiptFields.NOT_CENTS;
+
+    /**
+     * Mapped with a foreign key on the item table rather than a join table, so the items
+     * can be fetched together with the receipt in a single join. The key is written by the
+     * item insert itself instead of a follow-up update per item.
+     */
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @JoinColumn(name = "receipt_id", nullable = false, updatable = false)
     private List<Item> items;
 
-    private String total;
+    /**
+     * Points awarded at ingest. Receipts are immutable once stored, so this
+     * never needs to be recomputed from the item graph.
+     */
+    @JsonIgnore
+    private Integer points;
+
+    /**
+     * Scoring inputs derived when the receipt is first written, so points can be recomputed
+     * without loading items.
+     */
+    @Embedded
+    @JsonIgnore
+    private ScoringFeatures features;
+
+    @Transient
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
+    public Receipt(String id, String retailer, String purchaseDate, String purchaseTime, List<Item> items, String total) {
+        this.id = id;
+        this.retailer = retailer;
+        this.items = items;
+        setPurchaseDate(purchaseDate);
+        setPurchaseTime(purchaseTime);
+        setTotal(total);
+    }
+
+    public String getPurchaseDate() {
+        return purchaseDate != null ? purchaseDate : ReceiptFields.formatEpochDay(purchaseEpochDay);
+    }
+
+    public void setPurchaseDate(String purchaseDate) {
+        this.purchaseDate = purchaseDate;
+        this.purchaseEpochDay = ReceiptFields.parseEpochDay(purchaseDate);
+    }
+
+    public void setPurchaseEpochDay(int purchaseEpochDay) {
+        this.purchaseDate = null;
+        this.purchaseEpochDay = purchaseEpochDay;
+    }
+
+    public String getPurchaseTime() {
+        return purchaseTime != null ? purchaseTime : ReceiptFields.formatMinuteOfDay(purchaseMinute);
+    }
+
+    public void setPurchaseTime(String purchaseTime) {
+        this.purchaseTime = purchaseTime;
+        this.purchaseMinute = ReceiptFields.parseMinuteOfDay(purchaseTime);
+    }
+
+    public void setPurchaseMinute(short purchaseMinute) {
+        this.purchaseTime = null;
+        this.purchaseMinute = purchaseMinute;
+    }
+
+    public String getTotal() {
+        return total != null ? total : ReceiptFields.formatCents(totalCents);
+    }
+
+    public void setTotal(String total) {
+        this.total = total;
+        this.totalCents = ReceiptFields.parseCents(total);
+    }
+
+    public void setTotalCents(long totalCents) {
+        this.total = null;
+        this.totalCents = totalCents;
+    }
+
+    /**
+     * Ids are assigned before saving, so Spring Data cannot infer newness from a null id.
+     * Reporting new receipts explicitly lets save() persist without a merge SELECT.
+     */
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    /**
+     * Forgets what a rolled-back persist left behind: the item ids drawn from the sequence and the
+     * mark that the receipt is stored. Without this, persisting again would merge rows that do not
+     * exist.
+     */
+    public void resetForRetry() {
+        newEntity = true;
+        if (items != null) {
+            items.forEach(item -> item.setId(null));
+        }
+    }
+
+    @PrePersist
+    void extractFeatures() {
+        if (features == null) {
+            features = FeatureExtractor.extract(this);
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.ReceiptProcessor.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * What the built-in rules need from a receipt beyond its typed total and time columns, reduced to a
+ * few numbers when the receipt is first written. Scoring from these never touches the item list.
+ */
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringFeatures {
+
+    /**
+     * Letters and digits in the retailer name.
+     */
+    private int retailerAlphanumeric;
+
+    private int itemCount;
+
+    /**
+     * Sum of ceil(price * 0.2) over items whose trimmed description length is a multiple of 3.
+     */
+    private int itemDescriptionPoints;
+
+    /**
+     * Day of month of the purchase date, or 0 when the date is not valid.
+     */
+    private int purchaseDay;
+}
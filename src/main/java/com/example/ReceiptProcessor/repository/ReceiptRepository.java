@@ -1,9 +1,94 @@
 package com.example.ReceiptProcessor.repository;
 
 import com.example.ReceiptProcessor.model.Receipt;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ReceiptRepository extends JpaRepository<Receipt, String> {
+
+    /**
+     * Loads a receipt and its items in one query, for scoring outside a persistence context.
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<Receipt> findWithItemsById(String id);
+
+    /**
+     * Loads a set of receipts and their items in one query. Ids that do not exist are skipped.
+     */
+    @EntityGraph(attributePaths = "items")
+    List<Receipt> findWithItemsByIdIn(Collection<String> ids);
+
+    /**
+     * Reads only the stored points of a receipt. Empty if the receipt does not exist or has no points.
+     */
+    @Query("select r.points from Receipt r where r.id = :id")
+    Optional<Integer> findPointsById(@Param("id") String id);
+
+    /**
+     * The first page of ids in id order; {@link #findIdsAfter} continues from its last id.
+     */
+    @Query("select r.id from Receipt r order by r.id")
+    List<String> findIds(Limit limit);
+
+    /**
+     * One page of ids in id order, starting after the given id, for scanning without an open transaction.
+     */
+    @Query("select r.id from Receipt r where r.id > :after order by r.id")
+    List<String> findIdsAfter(@Param("after") String after, Limit limit);
+
+    /**
+     * Deletes the items of the given receipts. Items have no mapped back reference, so this is native.
+     */
+    @Modifying
+    @Query(value = "delete from item where receipt_id in (:ids)", nativeQuery = true)
+    int deleteItemsByReceiptIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Deletes receipts without loading them; their items must be deleted first.
+     */
+    @Modifying
+    @Query("delete from Receipt r where r.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Drops every stored points value so receipts are rescored with the current rule set on next read.
+     */
+    @Modifying
+    @Query("update Receipt r set r.points = null")
+    int clearPoints();
+
+    /**
+     * Recomputes every stored points value from the feature columns and the typed total and time
+     * columns in one statement. Each weight is 1 to apply the matching built-in rule and 0 to leave it
+     * out. Rows without features get null.
+     */
+    @Modifying
+    @Query("""
+            update Receipt r set r.points =
+                r.features.retailerAlphanumeric * :retailer
+                + (case when r.totalCents <> com.example.ReceiptProcessor.util.ReceiptFields.NOT_CENTS
+                        and mod(r.totalCents, 100) = 0 then 50 else 0 end
+                   + case when r.totalCents <> com.example.ReceiptProcessor.util.ReceiptFields.NOT_CENTS
+                        and mod(r.totalCents, 25) = 0 then 25 else 0 end) * :total
+                + (r.features.itemCount / 2) * 5 * :itemPairs
+                + r.features.itemDescriptionPoints * :itemDescription
+                + (case when mod(r.features.purchaseDay, 2) = 1 then 6 else 0 end) * :oddDay
+                + (case when r.purchaseMinute > 840 and r.purchaseMinute < 960 then 10 else 0 end) * :afternoon
+            """)
+    int rescoreFromFeatures(@Param("retailer") int retailer,
+                            @Param("total") int total,
+                            @Param("itemPairs") int itemPairs,
+                            @Param("itemDescription") int itemDescription,
+                            @Param("oddDay") int oddDay,
+                            @Param("afternoon") int afternoon);
 }
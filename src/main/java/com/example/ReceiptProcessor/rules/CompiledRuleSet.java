@@ -0,0 +1,186 @@
+package com.example.ReceiptProcessor.rules;
+
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An immutable rule set produced by {@link RuleSetCompiler}. Receipt rules run back to back
+ * over the header fields, then every item rule is applied during one pass over the items.
+ *
+ * Receipts with at least {@code parallelThreshold} items have their item pass split across a
+ * fork-join pool. Points are summed as ints, so the result is the same as the serial pass.
+ * Timed rule sets always score serially.
+ *
+ * Rule sets made only of built-in rules score receipts that carry precomputed
+ * {@link com.example.ReceiptProcessor.model.ScoringFeatures} in constant time instead, unless timed.
+ */
+public class CompiledRuleSet {
+
+    /**
+     * Smallest slice of items scored by one fork-join task.
+     */
+    static final int MIN_SLICE_SIZE = 512;
+
+    private final long version;
+    private final ReceiptRule[] receiptRules;
+    private final ItemRule[] itemRules;
+    private final boolean timed;
+    private final LongAdder[] invocations;
+    private final LongAdder[] nanos;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+    private final FeatureScorer featureScorer;
+
+    CompiledRuleSet(long version, ReceiptRule[] receiptRules, ItemRule[] itemRules, boolean timed,
+                    int parallelThreshold, ForkJoinPool pool) {
+        this.version = version;
+        this.receiptRules = receiptRules;
+        this.itemRules = itemRules;
+        this.timed = timed;
+        // A single-threaded pool can only add overhead.
+        this.parallelThreshold = pool.getParallelism() > 1 ? parallelThreshold : Integer.MAX_VALUE;
+        this.pool = pool;
+        this.featureScorer = FeatureScorer.forRules(receiptRules, itemRules);
+
+        int ruleCount = receiptRules.length + itemRules.length;
+        this.invocations = new LongAdder[ruleCount];
+        this.nanos = new LongAdder[ruleCount];
+        for (int i = 0; i < ruleCount; i++) {
+            invocations[i] = new LongAdder();
+            nanos[i] = new LongAdder();
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int score(Receipt receipt) {
+        if (receipt == null) {
+            return 0;
+        }
+        if (!timed && featureScorer != null && receipt.getFeatures() != null) {
+            return featureScorer.score(receipt);
+        }
+        return timed ? scoreTimed(receipt) : scoreUntimed(receipt);
+    }
+
+    /**
+     * Present when every rule in the set is built in, so points can be computed from stored features.
+     */
+    public Optional<FeatureScorer> featureScorer() {
+        return Optional.ofNullable(featureScorer);
+    }
+
+    /**
+     * Per-rule invocation counts and cumulative time. Times are zero unless the set was compiled with timing.
+     */
+    public List<RuleStats> stats() {
+        List<RuleStats> stats = new ArrayList<>(invocations.length);
+        for (int i = 0; i < receiptRules.length; i++) {
+            stats.add(new RuleStats(receiptRules[i].name(), RuleStats.RECEIPT, invocations[i].sum(), nanos[i].sum()));
+        }
+        for (int i = 0; i < itemRules.length; i++) {
+            int slot = receiptRules.length + i;
+            stats.add(new RuleStats(itemRules[i].name(), RuleStats.ITEM, invocations[slot].sum(), nanos[slot].sum()));
+        }
+        return stats;
+    }
+
+    private int scoreUntimed(Receipt receipt) {
+        int points = 0;
+        for (ReceiptRule rule : receiptRules) {
+            points += rule.score(receipt);
+        }
+
+        List<Item> items = receipt.getItems();
+        if (items == null || itemRules.length == 0) {
+            return points;
+        }
+        int size = items.size();
+        if (size >= parallelThreshold) {
+            List<Item> slices = items instanceof RandomAccess ? items : new ArrayList<>(items);
+            int sliceSize = Math.max(MIN_SLICE_SIZE, size / (pool.getParallelism() * 4));
+            return points + pool.invoke(new ItemScoringTask(itemRules, slices, 0, size, sliceSize));
+        }
+        return points + scoreItems(itemRules, items, 0, size);
+    }
+
+    private static int scoreItems(ItemRule[] itemRules, List<Item> items, int from, int to) {
+        int points = 0;
+        for (int i = from; i < to; i++) {
+            Item item = items.get(i);
+            for (ItemRule rule : itemRules) {
+                points += rule.score(item);
+            }
+        }
+        return points;
+    }
+
+    private int scoreTimed(Receipt receipt) {
+        int points = 0;
+        for (int r = 0; r < receiptRules.length; r++) {
+            long start = System.nanoTime();
+            points += receiptRules[r].score(receipt);
+            nanos[r].add(System.nanoTime() - start);
+            invocations[r].increment();
+        }
+
+        List<Item> items = receipt.getItems();
+        if (items == null || itemRules.length == 0) {
+            return points;
+        }
+        // Accumulate locally and publish once per receipt to keep the adders off the item loop.
+        long[] itemNanos = new long[itemRules.length];
+        for (int i = 0, size = items.size(); i < size; i++) {
+            Item item = items.get(i);
+            for (int r = 0; r < itemRules.length; r++) {
+                long start = System.nanoTime();
+                points += itemRules[r].score(item);
+                itemNanos[r] += System.nanoTime() - start;
+            }
+        }
+        for (int r = 0; r < itemRules.length; r++) {
+            int slot = receiptRules.length + r;
+            nanos[slot].add(itemNanos[r]);
+            invocations[slot].add(items.size());
+        }
+        return points;
+    }
+
+    private static final class ItemScoringTask extends RecursiveTask<Integer> {
+        private final ItemRule[] itemRules;
+        private final List<Item> items;
+        private final int from;
+        private final int to;
+        private final int sliceSize;
+
+        ItemScoringTask(ItemRule[] itemRules, List<Item> items, int from, int to, int sliceSize) {
+            this.itemRules = itemRules;
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.sliceSize = sliceSize;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= sliceSize) {
+                return scoreItems(itemRules, items, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ItemScoringTask left = new ItemScoringTask(itemRules, items, from, mid, sliceSize);
+            left.fork();
+            int right = new ItemScoringTask(itemRules, items, mid, to, sliceSize).compute();
+            return left.join() + right;
+        }
+    }
+}
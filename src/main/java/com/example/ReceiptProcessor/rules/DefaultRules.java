@@ -0,0 +1,35 @@
+package com.example.ReceiptProcessor.rules;
+
+import com.example.ReceiptProcessor.util.FastPointsCalculator;
+import com.example.ReceiptProcessor.util.PointsCalculator;
+
+import java.util.List;
+
+/**
+ * The built-in rules from the README, backed by the allocation-free {@link FastPointsCalculator}
+ * and scored from the receipt's typed fields.
+ */
+public class DefaultRules {
+
+    public static final ReceiptRule RETAILER = ReceiptRule.of("retailer-alphanumeric",
+            receipt -> PointsCalculator.calculateRetailerPoints(receipt.getRetailer()));
+
+    public static final ReceiptRule TOTAL = ReceiptRule.of("total-round-dollar-and-quarter",
+            FastPointsCalculator::totalPoints);
+
+    public static final ReceiptRule ITEM_PAIRS = ReceiptRule.of("item-pairs",
+            receipt -> FastPointsCalculator.calculateItemCountPoints(receipt.getItems()));
+
+    public static final ItemRule ITEM_DESCRIPTION = ItemRule.of("item-description-length",
+            FastPointsCalculator::calculateItemPoints);
+
+    public static final ReceiptRule ODD_DAY = ReceiptRule.of("odd-purchase-day",
+            FastPointsCalculator::purchaseDatePoints);
+
+    public static final ReceiptRule AFTERNOON = ReceiptRule.of("afternoon-purchase-time",
+            FastPointsCalculator::purchaseTimePoints);
+
+    public static List<PointsRule> all() {
+        return List.of(RETAILER, TOTAL, ITEM_PAIRS, ITEM_DESCRIPTION, ODD_DAY, AFTERNOON);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.ReceiptProcessor.rules;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.model.ScoringFeatures;
+import com.example.ReceiptProcessor.util.ReceiptFields;
+import lombok.Getter;
+
+/**
+ * Scores precomputed {@link ScoringFeatures}, together with the receipt's typed total and time, in
+ * constant time for rule sets made only of {@link DefaultRules}. Each built-in rule has a weight of 1
+ * when it is in the set and 0 when it was left out, which is also how the SQL rescore applies them.
+ */
+@Getter
+public final class FeatureScorer {
+
+    private static final int TWO_PM = 14 * 60;
+    private static final int FOUR_PM = 16 * 60;
+
+    private final int retailerWeight;
+    private final int totalWeight;
+    private final int itemPairsWeight;
+    private final int itemDescriptionWeight;
+    private final int oddDayWeight;
+    private final int afternoonWeight;
+
+    private FeatureScorer(int retailerWeight, int totalWeight, int itemPairsWeight,
+                          int itemDescriptionWeight, int oddDayWeight, int afternoonWeight) {
+        this.retailerWeight = retailerWeight;
+        this.totalWeight = totalWeight;
+        this.itemPairsWeight = itemPairsWeight;
+        this.itemDescriptionWeight = itemDescriptionWeight;
+        this.oddDayWeight = oddDayWeight;
+        this.afternoonWeight = afternoonWeight;
+    }
+
+    /**
+     * Returns a scorer for the given rules, or null if any of them is not a built-in rule.
+     */
+    static FeatureScorer forRules(ReceiptRule[] receiptRules, ItemRule[] itemRules) {
+        int[] weights = new int[6];
+        for (ReceiptRule rule : receiptRules) {
+            if (rule == DefaultRules.RETAILER) {
+                weights[0] = 1;
+            } else if (rule == DefaultRules.TOTAL) {
+                weights[1] = 1;
+            } else if (rule == DefaultRules.ITEM_PAIRS) {
+                weights[2] = 1;
+            } else if (rule == DefaultRules.ODD_DAY) {
+                weights[4] = 1;
+            } else if (rule == DefaultRules.AFTERNOON) {
+                weights[5] = 1;
+            } else {
+                return null;
+            }
+        }
+        for (ItemRule rule : itemRules) {
+            if (rule != DefaultRules.ITEM_DESCRIPTION) {
+                return null;
+            }
+            weights[3] = 1;
+        }
+        return new FeatureScorer(weights[0], weights[1], weights[2], weights[3], weights[4], weights[5]);
+    }
+
+    /**
+     * Scores a receipt whose features have been extracted.
+     */
+    public int score(Receipt receipt) {
+        ScoringFeatures features = receipt.getFeatures();
+        int points = features.getRetailerAlphanumeric() * retailerWeight;
+
+        long totalCents = receipt.getTotalCents();
+        if (totalCents != ReceiptFields.NOT_CENTS) {
+            int totalPoints = 0;
+            if (totalCents % 100 == 0) {
+                totalPoints += 50;
+            }
+            if (totalCents % 25 == 0) {
+                totalPoints += 25;
+            }
+            points += totalPoints * totalWeight;
+        }
+
+        points += features.getItemCount() / 2 * 5 * itemPairsWeight;
+        points += features.getItemDescriptionPoints() * itemDescriptionWeight;
+        points += (features.getPurchaseDay() % 2 == 1 ? 6 : 0) * oddDayWeight;
+        int minuteOfDay = receipt.getPurchaseMinute();
+        points += (minuteOfDay > TWO_PM && minuteOfDay < FOUR_PM ? 10 : 0) * afternoonWeight;
+        return points;
+    }
+}
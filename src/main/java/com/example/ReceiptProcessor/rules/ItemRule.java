@@ -0,0 +1,27 @@
+package com.example.ReceiptProcessor.rules;
+
+import com.example.ReceiptProcessor.model.Item;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * A rule scored once per item. All item rules of a rule set share a single pass over the items.
+ */
+public interface ItemRule extends PointsRule {
+
+    int score(Item item);
+
+    static ItemRule of(String name, ToIntFunction<Item> scorer) {
+        return new ItemRule() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public int score(Item item) {
+                return scorer.applyAsInt(item);
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.ReceiptProcessor.rules;
+
+/**
+ * Service provider interface for points rules.
+ *
+ * Implementations must be a {@link ReceiptRule} (scored once per receipt) or an
+ * {@link ItemRule} (scored once per item). Rules packaged in a plugin jar are discovered
+ * with {@link java.util.ServiceLoader} through
+ * {@code META-INF/services/com.example.ReceiptProcessor.rules.PointsRule}.
+ */
+public interface PointsRule {
+
+    /**
+     * Unique name, used for enabling/disabling the rule and for its timing stats.
+     */
+    String name();
+}
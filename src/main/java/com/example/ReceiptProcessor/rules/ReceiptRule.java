@@ -0,0 +1,27 @@
+package com.example.ReceiptProcessor.rules;
+
+import com.example.ReceiptProcessor.model.Receipt;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * A rule scored once per receipt from its header fields (retailer, date, time, total, item count).
+ */
+public interface ReceiptRule extends PointsRule {
+
+    int score(Receipt receipt);
+
+    static ReceiptRule of(String name, ToIntFunction<Receipt> scorer) {
+        return new ReceiptRule() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public int score(Receipt receipt) {
+                return scorer.applyAsInt(receipt);
+            }
+        };
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.ReceiptProcessor.rules;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Holds the active {@link CompiledRuleSet} and swaps it atomically, so rule changes take effect
+ * without a restart. Scoring threads always see one complete rule set.
+ *
+ * Per-rule invocation counts and time are published as the {@code points.rules} function timer.
+ * They are only collected with {@code points.rules.timing-enabled=true} and restart from zero
+ * whenever a new rule set is installed.
+ *
+ * Plugin rules are loaded through a class loader per reload. The loader behind the active plugin
+ * rules is kept until the next reload swaps in a new rule set, then closed so replaced plugin jars
+ * are not held open.
+ */
+@Slf4j
+@Component
+public class RuleEngine implements MeterBinder {
+
+    private final String pluginDir;
+    private final List<String> disabledRules;
+    private final boolean timingEnabled;
+    private final int parallelThreshold;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicReference<CompiledRuleSet> active = new AtomicReference<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Loader of the plugin rules installed by the last reload, or null without a plugin directory.
+     */
+    private URLClassLoader pluginLoader;
+
+    public RuleEngine(@Value("${points.rules.plugin-dir:}") String pluginDir,
+                      @Value("${points.rules.disabled:}") List<String> disabledRules,
+                      @Value("${points.rules.timing-enabled:false}") boolean timingEnabled,
+                      @Value("${points.parallel.threshold:10000}") int parallelThreshold,
+                      ApplicationEventPublisher eventPublisher) {
+        this.pluginDir = pluginDir;
+        this.disabledRules = disabledRules;
+        this.timingEnabled = timingEnabled;
+        this.parallelThreshold = parallelThreshold;
+        this.eventPublisher = eventPublisher;
+        pluginLoader = pluginClassLoader();
+        active.set(compile(discoverRules(pluginLoader)));
+    }
+
+    public int score(Receipt receipt) {
+        return active.get().score(receipt);
+    }
+
+    public CompiledRuleSet activeRuleSet() {
+        return active.get();
+    }
+
+    /**
+     * Compiles and installs a new rule set, then publishes a {@link RuleSetChangedEvent}. Holds the
+     * same lock as {@link #reload()}, so concurrent installs register meters and publish events in
+     * the order their rule sets became active.
+     */
+    public synchronized CompiledRuleSet install(List<? extends PointsRule> rules) {
+        CompiledRuleSet compiled = compile(rules);
+        active.set(compiled);
+        registerRuleMeters(compiled);
+        log.info("Installed rule set version {} with {} rules", compiled.getVersion(), rules.size());
+        eventPublisher.publishEvent(new RuleSetChangedEvent(compiled.getVersion()));
+        return compiled;
+    }
+
+    /**
+     * Re-discovers the built-in and plugin rules and installs them. The previous plugin class loader
+     * is closed once the new rule set is active; if the new rules fail to install, the new loader is
+     * closed instead and the active rule set keeps its own.
+     */
+    public synchronized CompiledRuleSet reload() {
+        URLClassLoader loader = pluginClassLoader();
+        CompiledRuleSet installed;
+        try {
+            installed = install(discoverRules(loader));
+        } catch (RuntimeException e) {
+            close(loader);
+            throw e;
+        }
+        URLClassLoader previous = pluginLoader;
+        pluginLoader = loader;
+        close(previous);
+        return installed;
+    }
+
+    synchronized URLClassLoader pluginLoader() {
+        return pluginLoader;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        registerRuleMeters(active.get());
+    }
+
+    /**
+     * Meters read from whichever rule set is active at scrape time, so rules that survive a reload
+     * keep their meter and rules added by it get a new one.
+     */
+    private void registerRuleMeters(CompiledRuleSet ruleSet) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        for (RuleStats stats : ruleSet.stats()) {
+            String name = stats.getName();
+            FunctionTimer.builder("points.rules", this,
+                            engine -> engine.currentStats(name).getInvocations(),
+                            engine -> engine.currentStats(name).getTotalNanos(),
+                            TimeUnit.NANOSECONDS)
+                    .description("Invocations of and time spent in each points rule")
+                    .tags("rule", name, "type", stats.getType())
+                    .register(registry);
+        }
+    }
+
+    private RuleStats currentStats(String name) {
+        for (RuleStats stats : active.get().stats()) {
+            if (stats.getName().equals(name)) {
+                return stats;
+            }
+        }
+        return new RuleStats(name, null, 0, 0);
+    }
+
+    private CompiledRuleSet compile(List<? extends PointsRule> rules) {
+        return RuleSetCompiler.compile(versions.incrementAndGet(), rules, timingEnabled,
+                parallelThreshold, ForkJoinPool.commonPool());
+    }
+
+    private List<PointsRule> discoverRules(URLClassLoader loader) {
+        List<PointsRule> rules = new ArrayList<>(DefaultRules.all());
+        if (loader != null) {
+            ServiceLoader.load(PointsRule.class, loader).forEach(rules::add);
+        }
+        rules.removeIf(rule -> disabledRules.contains(rule.name()));
+        return rules;
+    }
+
+    /**
+     * A fresh class loader per reload picks up replaced plugin jars. Returns null when no plugin
+     * directory is configured or it does not exist.
+     */
+    private URLClassLoader pluginClassLoader() {
+        if (pluginDir == null || pluginDir.isBlank()) {
+            return null;
+        }
+        Path dir = Path.of(pluginDir);
+        if (!Files.isDirectory(dir)) {
+            log.warn("Rule plugin directory {} does not exist", dir);
+            return null;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            List<URL> jars = new ArrayList<>();
+            for (Path jar : files.filter(file -> file.toString().endsWith(".jar")).toList()) {
+                jars.add(jar.toUri().toURL());
+            }
+            return new URLClassLoader(jars.toArray(new URL[0]), getClass().getClassLoader());
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Invalid rule plugin path in " + dir, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void close(URLClassLoader loader) {
+        if (loader == null) {
+            return;
+        }
+        try {
+            loader.close();
+        } catch (IOException e) {
+            log.warn("Could not close rule plugin class loader", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.ReceiptProcessor.rules;
+
+import lombok.*;
+
+/**
+ * Published after a new rule set has been installed. Points calculated with the previous set are stale.
+ */
+@Getter
+@AllArgsConstructor
+public class RuleSetChangedEvent {
+    private long version;
+}
@@ -0,0 +1,49 @@
+package com.example.ReceiptProcessor.rules;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+public class RuleSetCompiler {
+
+    /**
+     * Splits rules into receipt-level and item-level arrays so a receipt is scored with one pass
+     * over its header fields and one pass over its items, whatever the number of rules.
+     */
+    public static CompiledRuleSet compile(long version, List<? extends PointsRule> rules, boolean timed) {
+        return compile(version, rules, timed, Integer.MAX_VALUE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compiles a rule set that splits the item pass of receipts with at least {@code parallelThreshold}
+     * items across {@code pool}.
+     */
+    public static CompiledRuleSet compile(long version, List<? extends PointsRule> rules, boolean timed,
+                                          int parallelThreshold, ForkJoinPool pool) {
+        List<ReceiptRule> receiptRules = new ArrayList<>();
+        List<ItemRule> itemRules = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+
+        for (PointsRule rule : rules) {
+            if (!names.add(rule.name())) {
+                throw new IllegalArgumentException("Duplicate rule name: " + rule.name());
+            }
+            if (rule instanceof ReceiptRule receiptRule) {
+                receiptRules.add(receiptRule);
+            } else if (rule instanceof ItemRule itemRule) {
+                itemRules.add(itemRule);
+            } else {
+                throw new IllegalArgumentException("Rule " + rule.name() + " must implement ReceiptRule or ItemRule.");
+            }
+        }
+
+        return new CompiledRuleSet(version,
+                receiptRules.toArray(new ReceiptRule[0]),
+                itemRules.toArray(new ItemRule[0]),
+                timed,
+                parallelThreshold,
+                pool);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.ReceiptProcessor.rules;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleStats {
+    public static final String RECEIPT = "receipt";
+    public static final String ITEM = "item";
+
+    private String name;
+    private String type;
+    private long invocations;
+    private long totalNanos;
+}
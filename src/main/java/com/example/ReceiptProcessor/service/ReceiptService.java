@@ -1,32 +1,299 @@
 package com.example.ReceiptProcessor.service;
 
+import com.example.ReceiptProcessor.cache.IdempotencyIndex;
+import com.example.ReceiptProcessor.cache.PointsCache;
+import com.example.ReceiptProcessor.cluster.ClusterTopology;
+import com.example.ReceiptProcessor.dto.BatchReceiptResultDto;
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.example.ReceiptProcessor.ingest.ReceiptsDeadLetteredEvent;
+import com.example.ReceiptProcessor.ingest.WriteBehindQueue;
+import com.example.ReceiptProcessor.metrics.ReceiptMetrics;
 import com.example.ReceiptProcessor.model.Receipt;
-import com.example.ReceiptProcessor.repository.ReceiptRepository;
-import com.example.ReceiptProcessor.util.PointsCalculator;
+import com.example.ReceiptProcessor.rules.RuleEngine;
+import com.example.ReceiptProcessor.rules.RuleSetChangedEvent;
+import com.example.ReceiptProcessor.stats.ReceiptStats;
+import com.example.ReceiptProcessor.store.ReceiptStore;
+import com.example.ReceiptProcessor.util.ReceiptValidator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
 
 @Service
 @RequiredArgsConstructor
 public class ReceiptService {
 
-    private final ReceiptRepository receiptRepository;
+    /**
+     * Number of receipts handed to the store per write in a batch.
+     */
+    static final int BATCH_CHUNK_SIZE = 500;
+
+    /**
+     * Number of ids looked up per store query in a bulk points request, which bounds the IN list.
+     */
+    static final int LOOKUP_CHUNK_SIZE = 500;
+
+    private final ReceiptStore receiptStore;
+    private final PointsCache pointsCache;
+    private final RuleEngine ruleEngine;
+    private final WriteBehindQueue writeBehindQueue;
+    private final ReceiptMetrics receiptMetrics;
+    private final IdempotencyIndex idempotencyIndex;
+    private final ReceiptStats receiptStats;
+    private final ClusterTopology clusterTopology;
 
-    @Transactional
     public String generateReceiptId(Receipt receipt) {
-        String id = UUID.randomUUID().toString();
+        return generateReceiptId(receipt, null);
+    }
+
+    /**
+     * A receipt already ingested under the same idempotency key, or with the same content when no key
+     * is given, returns its existing id without another write. Invalid receipts are rejected with
+     * {@link com.example.ReceiptProcessor.util.InvalidReceiptException} before anything is looked up.
+     */
+    public String generateReceiptId(Receipt receipt, String idempotencyKey) {
+        ReceiptValidator.requireValid(receipt);
+        String key = idempotencyIndex.keyFor(receipt, idempotencyKey);
+        return key != null ? idempotencyIndex.resolve(key, () -> ingest(receipt)) : ingest(receipt);
+    }
+
+    /**
+     * In write-behind mode the receipt is queued and the id returned without waiting for a commit.
+     * When the queue is full, or in the default sync mode, the receipt is saved before returning.
+     */
+    private String ingest(Receipt receipt) {
+        String id = clusterTopology.newReceiptId();
         receipt.setId(id);
-        receiptRepository.save(receipt);
+        receipt.setPoints(receiptMetrics.recordScoring(() -> ruleEngine.score(receipt)));
+        receiptMetrics.recordItemCount(receipt);
+        if (!writeBehindQueue.isEnabled() || !writeBehindQueue.enqueue(receipt)) {
+            receiptMetrics.recordWrite(() -> receiptStore.save(receipt));
+        }
+        pointsCache.put(id, receipt.getPoints());
+        receiptStats.record(receipt);
         return id;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Validates and stores a batch of receipts in one transaction; the JPA store uses JDBC batch inserts.
+     * Results are returned in request order; invalid receipts get errors and no id. Points are cached
+     * and stats recorded only once the transaction commits, so a batch that rolls back leaves nothing
+     * behind.
+     */
+    @Transactional
+    public List<BatchReceiptResultDto> generateReceiptIds(List<Receipt> receipts) {
+        List<BatchReceiptResultDto> results = new ArrayList<>(receipts.size());
+        List<Receipt> chunk = new ArrayList<>(Math.min(receipts.size(), BATCH_CHUNK_SIZE));
+
+        for (Receipt receipt : receipts) {
+            List<String> errors = ReceiptValidator.validate(receipt);
+            if (!errors.isEmpty()) {
+                results.add(new BatchReceiptResultDto(null, errors));
+                continue;
+            }
+
+            String id = clusterTopology.newReceiptId();
+            receipt.setId(id);
+            receipt.setPoints(receiptMetrics.recordScoring(() -> ruleEngine.score(receipt)));
+            receiptMetrics.recordItemCount(receipt);
+            chunk.add(receipt);
+            results.add(new BatchReceiptResultDto(id, List.of()));
+
+            if (chunk.size() == BATCH_CHUNK_SIZE) {
+                writeChunk(chunk);
+                chunk = new ArrayList<>(BATCH_CHUNK_SIZE);
+            }
+        }
+        writeChunk(chunk);
+
+        return results;
+    }
+
+    /**
+     * Stores receipts handed over by another cluster node with the points they were scored with
+     * there. Receipts already stored are skipped, so a transfer that is retried after a failure
+     * stores nothing twice. Stats stay with the node that ingested the receipt. Returns the number
+     * of receipts stored.
+     */
+    @Transactional
+    public int importReceipts(List<JournalEntry> entries) {
+        List<Receipt> receipts = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries) {
+            Receipt receipt = entry.getReceipt();
+            if (receiptStore.existsById(receipt.getId())) {
+                continue;
+            }
+            receipt.setPoints(entry.getPoints());
+            if (receipt.getItems() != null) {
+                // Item ids belong to the sending node's sequence
+                receipt.getItems().forEach(item -> item.setId(null));
+            }
+            receipts.add(receipt);
+        }
+        for (int from = 0; from < receipts.size(); from += BATCH_CHUNK_SIZE) {
+            List<Receipt> chunk = receipts.subList(from, Math.min(receipts.size(), from + BATCH_CHUNK_SIZE));
+            receiptMetrics.recordWrite(() -> receiptStore.saveAll(chunk));
+        }
+        afterCommit(() -> {
+            for (Receipt receipt : receipts) {
+                pointsCache.put(receipt.getId(), receipt.getPoints());
+            }
+        });
+        return receipts.size();
+    }
+
+    /**
+     * Not transactional on purpose: a cache hit must not borrow a connection.
+     * The store lookup on a miss runs in its own read-only transaction when backed by JPA.
+     * Stored points are read on their own; the receipt is only loaded when it has to be rescored.
+     */
     public int processReceiptPoints(String id) {
-        Receipt receipt = receiptRepository.findById(id)
+        OptionalInt cached = pointsCache.get(id);
+        if (cached.isPresent()) {
+            return cached.getAsInt();
+        }
+
+        Optional<Receipt> pending = writeBehindQueue.findPending(id);
+        if (pending.isEmpty()) {
+            OptionalInt stored = receiptMetrics.recordRead(() -> receiptStore.findPoints(id));
+            if (stored.isPresent()) {
+                pointsCache.put(id, stored.getAsInt());
+                return stored.getAsInt();
+            }
+        }
+        Receipt receipt = pending
+                .or(() -> receiptMetrics.recordRead(() -> receiptStore.findById(id)))
                 .orElseThrow(() -> new IllegalArgumentException("No receipt found for that ID."));
-        return PointsCalculator.calculatePoints(receipt);
+        int points = receipt.getPoints() != null
+                ? receipt.getPoints()
+                : receiptMetrics.recordScoring(() -> ruleEngine.score(receipt));
+        pointsCache.put(id, points);
+        return points;
+    }
+
+    /**
+     * Resolves points for many receipts in one call. Cached and pending receipts are answered directly,
+     * the rest are loaded with their items in chunked queries, and receipts without stored points are
+     * scored in parallel. Duplicate ids are answered once; unknown ids are listed in notFound.
+     */
+    public BulkPointsResponseDto processReceiptPoints(List<String> ids) {
+        Map<String, Integer> resolved = new HashMap<>();
+        List<Receipt> loaded = new ArrayList<>();
+        List<String> misses = new ArrayList<>();
+        LinkedHashSet<String> uniqueIds = new LinkedHashSet<>(ids);
+
+        for (String id : uniqueIds) {
+            OptionalInt cached = pointsCache.get(id);
+            if (cached.isPresent()) {
+                resolved.put(id, cached.getAsInt());
+                continue;
+            }
+            Optional<Receipt> pending = writeBehindQueue.findPending(id);
+            if (pending.isPresent()) {
+                loaded.add(pending.get());
+            } else {
+                misses.add(id);
+            }
+        }
+        for (int from = 0; from < misses.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = misses.subList(from, Math.min(misses.size(), from + LOOKUP_CHUNK_SIZE));
+            loaded.addAll(receiptMetrics.recordRead(() -> receiptStore.findAllById(chunk)));
+        }
+
+        int[] scores = new int[loaded.size()];
+        IntStream.range(0, loaded.size()).parallel().forEach(i -> {
+            Receipt receipt = loaded.get(i);
+            scores[i] = receipt.getPoints() != null
+                    ? receipt.getPoints()
+                    : receiptMetrics.recordScoring(() -> ruleEngine.score(receipt));
+        });
+        for (int i = 0; i < scores.length; i++) {
+            String id = loaded.get(i).getId();
+            resolved.put(id, scores[i]);
+            pointsCache.put(id, scores[i]);
+        }
+
+        Map<String, Integer> points = new LinkedHashMap<>();
+        List<String> notFound = new ArrayList<>();
+        for (String id : uniqueIds) {
+            Integer value = resolved.get(id);
+            if (value != null) {
+                points.put(id, value);
+            } else {
+                notFound.add(id);
+            }
+        }
+        return new BulkPointsResponseDto(points, notFound);
+    }
+
+    /**
+     * Points stored or cached under the previous rule set are stale once rules change. Built-in rule
+     * sets are applied to every stored receipt in one pass over the feature columns; other rule sets
+     * clear stored points so receipts are rescored on their next lookup.
+     * The cache is invalidated only after the store update commits, so a lookup racing the update
+     * cannot cache points it read from the old committed rows.
+     * Receipts ingested while the swap is in flight may keep points from the old set.
+     */
+    @EventListener
+    @Transactional
+    public void onRuleSetChanged(RuleSetChangedEvent event) {
+        ruleEngine.activeRuleSet().featureScorer()
+                .ifPresentOrElse(receiptStore::rescore, receiptStore::clearPoints);
+        afterCommit(pointsCache::invalidateAll);
+    }
+
+    /**
+     * Receipts the write-behind writer gave up on were acknowledged but never stored. Their cached
+     * points, idempotency entries and stats are dropped so they stop answering as if they existed.
+     */
+    @EventListener
+    public void onReceiptsDeadLettered(ReceiptsDeadLetteredEvent event) {
+        List<String> ids = event.getReceipts().stream().map(Receipt::getId).toList();
+        ids.forEach(pointsCache::invalidate);
+        idempotencyIndex.forget(ids);
+        event.getReceipts().forEach(receiptStats::remove);
+    }
+
+    private void writeChunk(List<Receipt> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        receiptMetrics.recordWrite(() -> receiptStore.saveAll(chunk));
+        afterCommit(() -> {
+            for (Receipt receipt : chunk) {
+                pointsCache.put(receipt.getId(), receipt.getPoints());
+                receiptStats.record(receipt);
+            }
+        });
+    }
+
+    /**
+     * Runs {@code action} once the surrounding transaction commits, or right away when there is none.
+     * Nothing runs if the transaction rolls back.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
-}
\ No newline at end of file
+}
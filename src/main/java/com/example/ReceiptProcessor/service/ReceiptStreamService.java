@@ -0,0 +1,88 @@
+package com.example.ReceiptProcessor.service;
+
+import com.example.ReceiptProcessor.dto.BatchReceiptResultDto;
+import com.example.ReceiptProcessor.dto.ReceiptStreamResultDto;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ingests newline-delimited JSON receipts without buffering the whole payload.
+ * Receipts are parsed one at a time and written in fixed-size chunks; the next
+ * chunk is not read until the previous one has been committed, so a slow database
+ * pushes back on the client through the socket.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReceiptStreamService {
+
+    static final int STREAM_CHUNK_SIZE = 500;
+
+    private final ReceiptService receiptService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Reads receipts from {@code in} and writes one result line per receipt to {@code out}.
+     * Returns the number of receipts read.
+     */
+    public long ingest(InputStream in, OutputStream out) throws IOException {
+        long index = 0;
+        List<Receipt> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+
+        try (MappingIterator<Receipt> receipts = objectMapper.readerFor(Receipt.class).readValues(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+
+            long chunkStart = 0;
+            try {
+                while (receipts.hasNextValue()) {
+                    chunk.add(receipts.nextValue());
+                    index++;
+                    if (chunk.size() == STREAM_CHUNK_SIZE) {
+                        writeChunk(chunk, chunkStart, generator);
+                        chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+                        chunkStart = index;
+                    }
+                }
+                writeChunk(chunk, chunkStart, generator);
+            } catch (JsonProcessingException e) {
+                // Earlier chunks are already committed; flush what was parsed and stop at the bad line.
+                writeChunk(chunk, chunkStart, generator);
+                writeLine(generator, new ReceiptStreamResultDto(index, null, null,
+                        List.of("malformed JSON: " + e.getOriginalMessage())));
+            }
+        }
+        return index;
+    }
+
+    private void writeChunk(List<Receipt> chunk, long chunkStart, JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<BatchReceiptResultDto> results = receiptService.generateReceiptIds(chunk);
+        for (int i = 0; i < results.size(); i++) {
+            BatchReceiptResultDto result = results.get(i);
+            if (result.getId() != null) {
+                writeLine(generator, new ReceiptStreamResultDto(null, result.getId(), chunk.get(i).getPoints(), null));
+            } else {
+                writeLine(generator, new ReceiptStreamResultDto(chunkStart + i, null, null, result.getErrors()));
+            }
+        }
+        generator.flush();
+    }
+
+    private void writeLine(JsonGenerator generator, ReceiptStreamResultDto line) throws IOException {
+        generator.writeObject(line);
+        generator.writeRaw('\n');
+    }
+}
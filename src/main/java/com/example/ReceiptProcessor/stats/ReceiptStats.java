@@ -0,0 +1,200 @@
+package com.example.ReceiptProcessor.stats;
+
+import com.example.ReceiptProcessor.dto.ReceiptStatsDto;
+import com.example.ReceiptProcessor.dto.StatsTotalsDto;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.util.ReceiptFields;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Receipt counts, points sums and points histograms per retailer and purchase day, updated as
+ * receipts are ingested so queries cost one read per bucket instead of a pass over every receipt.
+ *
+ * Buckets are created once per retailer and day; after that ingest only increments
+ * {@link LongAdder}s and queries only sum them, so neither takes a lock. A query running alongside
+ * ingest may see a receipt in the count but not yet in the points sum.
+ *
+ * Retailer names come from clients, so at most {@code receipts.stats.max-retailers} of them get
+ * their own buckets. Receipts from any retailer seen after that are counted under
+ * {@link #OTHER_RETAILERS}, which keeps memory bounded at that many retailers times the purchase days
+ * they span.
+ *
+ * Points are the ones awarded at ingest. A rule set change does not restate them, and the aggregates
+ * start empty after a restart.
+ */
+@Component
+public class ReceiptStats {
+
+    /**
+     * Inclusive upper bounds of the histogram bins; a last bin takes everything above.
+     */
+    static final int[] HISTOGRAM_BOUNDS = {0, 10, 25, 50, 75, 100, 150, 200, 300, 500};
+
+    /**
+     * Retailer the receipts of retailers past the cap are counted under. Validation does not allow
+     * parentheses in a retailer name, so no real retailer shares it.
+     */
+    public static final String OTHER_RETAILERS = "(other)";
+
+    private static final String[] HISTOGRAM_LABELS = labels();
+
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<LocalDate, Bucket>> buckets = new ConcurrentHashMap<>();
+
+    private final int maxRetailers;
+
+    private final AtomicInteger retailers = new AtomicInteger();
+
+    public ReceiptStats(@Value("${receipts.stats.max-retailers:10000}") int maxRetailers) {
+        this.maxRetailers = maxRetailers;
+    }
+
+    /**
+     * Adds a scored receipt. Receipts without a retailer, points or a valid purchase date are
+     * not counted.
+     */
+    public void record(Receipt receipt) {
+        if (!countable(receipt)) {
+            return;
+        }
+        LocalDate day = LocalDate.ofEpochDay(receipt.getPurchaseEpochDay());
+        ConcurrentSkipListMap<LocalDate, Bucket> days = buckets.get(receipt.getRetailer());
+        if (days == null) {
+            days = buckets.computeIfAbsent(receipt.getRetailer(), this::newRetailer);
+        }
+        if (days == null) {
+            days = buckets.computeIfAbsent(OTHER_RETAILERS, retailer -> new ConcurrentSkipListMap<>());
+        }
+        days.computeIfAbsent(day, d -> new Bucket()).add(receipt.getPoints(), 1);
+    }
+
+    /**
+     * Buckets for a retailer seen for the first time, or null once the cap is reached so the
+     * receipt goes to {@link #OTHER_RETAILERS}.
+     */
+    private ConcurrentSkipListMap<LocalDate, Bucket> newRetailer(String retailer) {
+        if (retailers.getAndIncrement() >= maxRetailers) {
+            retailers.decrementAndGet();
+            return null;
+        }
+        return new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Takes back a receipt recorded earlier that turned out never to be stored.
+     */
+    public void remove(Receipt receipt) {
+        if (!countable(receipt)) {
+            return;
+        }
+        // Retailers keep their buckets once they have them, so one without any was counted as other
+        ConcurrentSkipListMap<LocalDate, Bucket> days = buckets.get(receipt.getRetailer());
+        if (days == null) {
+            days = buckets.get(OTHER_RETAILERS);
+        }
+        Bucket bucket = days != null ? days.get(LocalDate.ofEpochDay(receipt.getPurchaseEpochDay())) : null;
+        if (bucket != null) {
+            bucket.add(receipt.getPoints(), -1);
+        }
+    }
+
+    private static boolean countable(Receipt receipt) {
+        return receipt.getRetailer() != null && receipt.getPoints() != null
+                && receipt.getPurchaseEpochDay() != ReceiptFields.NO_DATE;
+    }
+
+    /**
+     * Totals for one retailer, or all when {@code retailer} is null, between two purchase days
+     * inclusive. Either end may be null for an open range.
+     */
+    public ReceiptStatsDto query(String retailer, LocalDate from, LocalDate to) {
+        long[] histogram = new long[HISTOGRAM_LABELS.length];
+        Map<String, StatsTotalsDto> retailers = new TreeMap<>();
+        Map<LocalDate, StatsTotalsDto> days = new TreeMap<>();
+        long count = 0;
+        long points = 0;
+
+        for (Map.Entry<String, ConcurrentSkipListMap<LocalDate, Bucket>> entry : buckets.entrySet()) {
+            if (retailer != null && !retailer.equals(entry.getKey())) {
+                continue;
+            }
+            NavigableMap<LocalDate, Bucket> range = entry.getValue().subMap(
+                    from != null ? from : LocalDate.MIN, true, to != null ? to : LocalDate.MAX, true);
+            for (Map.Entry<LocalDate, Bucket> day : range.entrySet()) {
+                Bucket bucket = day.getValue();
+                long bucketCount = bucket.count.sum();
+                long bucketPoints = bucket.points.sum();
+                count += bucketCount;
+                points += bucketPoints;
+                add(retailers.computeIfAbsent(entry.getKey(), r -> new StatsTotalsDto()), bucketCount, bucketPoints);
+                add(days.computeIfAbsent(day.getKey(), d -> new StatsTotalsDto()), bucketCount, bucketPoints);
+                for (int i = 0; i < histogram.length; i++) {
+                    histogram[i] += bucket.histogram[i].sum();
+                }
+            }
+        }
+
+        Map<String, Long> bins = new LinkedHashMap<>();
+        for (int i = 0; i < histogram.length; i++) {
+            bins.put(HISTOGRAM_LABELS[i], histogram[i]);
+        }
+        Map<String, StatsTotalsDto> byDay = new LinkedHashMap<>();
+        days.forEach((day, totals) -> byDay.put(day.toString(), totals));
+        return new ReceiptStatsDto(count, points, bins, retailers, byDay);
+    }
+
+    private static void add(StatsTotalsDto totals, long count, long points) {
+        totals.setCount(totals.getCount() + count);
+        totals.setPoints(totals.getPoints() + points);
+    }
+
+    static int bin(int points) {
+        for (int i = 0; i < HISTOGRAM_BOUNDS.length; i++) {
+            if (points <= HISTOGRAM_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return HISTOGRAM_BOUNDS.length;
+    }
+
+    private static String[] labels() {
+        String[] labels = new String[HISTOGRAM_BOUNDS.length + 1];
+        labels[0] = "<=" + HISTOGRAM_BOUNDS[0];
+        for (int i = 1; i < HISTOGRAM_BOUNDS.length; i++) {
+            labels[i] = (HISTOGRAM_BOUNDS[i - 1] + 1) + "-" + HISTOGRAM_BOUNDS[i];
+        }
+        labels[HISTOGRAM_BOUNDS.length] = ">" + HISTOGRAM_BOUNDS[HISTOGRAM_BOUNDS.length - 1];
+        return labels;
+    }
+
+    private static final class Bucket {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder points = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[HISTOGRAM_LABELS.length];
+
+        Bucket() {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Adds {@code sign} receipts, 1 or -1, of {@code receiptPoints} points.
+         */
+        void add(int receiptPoints, int sign) {
+            count.add(sign);
+            points.add((long) sign * receiptPoints);
+            histogram[bin(receiptPoints)].add(sign);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.ReceiptProcessor.store;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.rules.FeatureScorer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps receipts in a striped set of concurrent maps instead of going through Hibernate and H2.
+ * Items are packed into one byte array per receipt, or with {@code receipts.memory-store.off-heap=true}
+ * into direct buffers, so a stored receipt costs a handful of heap objects however many items it has.
+ * Dates, times and amounts are kept in their typed form and come back in canonical form.
+ *
+ * Contents are lost on restart, like the default in-memory H2 database.
+ */
+@Component
+@Profile(ReceiptStore.MEMORY_PROFILE)
+public class InMemoryReceiptStore implements ReceiptStore {
+
+    private final ConcurrentHashMap<String, StoredReceipt>[] stripes;
+    private final OffHeapItemArena arena;
+
+    /**
+     * Striping keeps each table small, so growing to tens of millions of receipts resizes one
+     * stripe at a time instead of rehashing a single huge table.
+     */
+    @SuppressWarnings("unchecked")
+    public InMemoryReceiptStore(@Value("${receipts.memory-store.stripes:64}") int stripeCount,
+                                @Value("${receipts.memory-store.off-heap:false}") boolean offHeap,
+                                @Value("${receipts.memory-store.slab-size:64MB}") DataSize slabSize) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("receipts.memory-store.stripes must be at least 1");
+        }
+        this.stripes = new ConcurrentHashMap[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        this.arena = offHeap ? new OffHeapItemArena(Math.toIntExact(slabSize.toBytes())) : null;
+    }
+
+    @Override
+    public void save(Receipt receipt) {
+        byte[] items = ItemCodec.encode(receipt.getItems());
+        StoredReceipt stored = arena != null
+                ? new StoredReceipt(receipt, null, arena.write(items))
+                : new StoredReceipt(receipt, items, -1);
+        stripe(receipt.getId()).put(receipt.getId(), stored);
+    }
+
+    @Override
+    public void saveAll(List<Receipt> receipts) {
+        for (Receipt receipt : receipts) {
+            save(receipt);
+        }
+    }
+
+    @Override
+    public Optional<Receipt> findById(String id) {
+        StoredReceipt stored = stripe(id).get(id);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        ByteBuffer items = stored.items != null ? ByteBuffer.wrap(stored.items) : arena.read(stored.itemsAddress);
+        Receipt receipt = new Receipt();
+        receipt.setId(id);
+        receipt.setRetailer(stored.retailer);
+        receipt.setPurchaseEpochDay(stored.purchaseEpochDay);
+        receipt.setPurchaseMinute(stored.purchaseMinute);
+        receipt.setTotalCents(stored.totalCents);
+        receipt.setItems(ItemCodec.decode(items));
+        receipt.setPoints(stored.points);
+        return Optional.of(receipt);
+    }
+
+    @Override
+    public OptionalInt findPoints(String id) {
+        StoredReceipt stored = stripe(id).get(id);
+        Integer points = stored != null ? stored.points : null;
+        return points != null ? OptionalInt.of(points) : OptionalInt.empty();
+    }
+
+    @Override
+    public List<Receipt> findAllById(Collection<String> ids) {
+        List<Receipt> receipts = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id).ifPresent(receipts::add);
+        }
+        return receipts;
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return stripe(id).containsKey(id);
+    }
+
+    @Override
+    public void forEachId(Consumer<String> action) {
+        for (Map<String, StoredReceipt> stripe : stripes) {
+            stripe.keySet().forEach(action);
+        }
+    }
+
+    /**
+     * Off-heap item space is not reused; the arena only grows.
+     */
+    @Override
+    public void deleteAllById(Collection<String> ids) {
+        for (String id : ids) {
+            stripe(id).remove(id);
+        }
+    }
+
+    @Override
+    public void clearPoints() {
+        for (Map<String, StoredReceipt> stripe : stripes) {
+            for (StoredReceipt stored : stripe.values()) {
+                stored.points = null;
+            }
+        }
+    }
+
+    /**
+     * Features are not kept in memory, so receipts are rescored from their items on next lookup.
+     */
+    @Override
+    public void rescore(FeatureScorer scorer) {
+        clearPoints();
+    }
+
+    public long size() {
+        long size = 0;
+        for (Map<String, StoredReceipt> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Direct memory reserved for items, or 0 when items are kept on the heap.
+     */
+    public long offHeapBytes() {
+        return arena != null ? arena.allocatedBytes() : 0;
+    }
+
+    private ConcurrentHashMap<String, StoredReceipt> stripe(String id) {
+        return stripes[Math.floorMod(id.hashCode(), stripes.length)];
+    }
+
+    private static final class StoredReceipt {
+        final String retailer;
+        final int purchaseEpochDay;
+        final short purchaseMinute;
+        final long totalCents;
+        final byte[] items;
+        final long itemsAddress;
+        volatile Integer points;
+
+        StoredReceipt(Receipt receipt, byte[] items, long itemsAddress) {
+            this.retailer = receipt.getRetailer();
+            this.purchaseEpochDay = receipt.getPurchaseEpochDay();
+            this.purchaseMinute = receipt.getPurchaseMinute();
+            this.totalCents = receipt.getTotalCents();
+            this.items = items;
+            this.itemsAddress = itemsAddress;
+            this.points = receipt.getPoints();
+        }
+    }
+}
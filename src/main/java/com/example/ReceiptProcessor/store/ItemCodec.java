@@ -0,0 +1,102 @@
+package com.example.ReceiptProcessor.store;
+
+import com.example.ReceiptProcessor.model.Item;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs a receipt's items into one byte array: an item count followed by a length-prefixed
+ * UTF-8 description and the price in cents per item. A length of -1 encodes null. Item ids are
+ * not kept. The string helpers are shared with the receipt log's record format.
+ */
+final class ItemCodec {
+
+    private static final int NULL_LENGTH = -1;
+
+    private ItemCodec() {
+    }
+
+    static byte[] encode(List<Item> items) {
+        if (items == null) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(NULL_LENGTH).array();
+        }
+        byte[][] descriptions = new byte[items.size()][];
+        int size = Integer.BYTES;
+        for (int i = 0; i < items.size(); i++) {
+            descriptions[i] = bytes(items.get(i).getShortDescription());
+            size += encodedLength(descriptions[i]) + Long.BYTES;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            put(buffer, descriptions[i]);
+            buffer.putLong(items.get(i).getPriceCents());
+        }
+        return buffer.array();
+    }
+
+    static List<Item> decode(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count == NULL_LENGTH) {
+            return null;
+        }
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item();
+            item.setShortDescription(string(buffer));
+            item.setPriceCents(buffer.getLong());
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Reads items written before prices were kept in cents, with the price as a length-prefixed string.
+     */
+    static List<Item> decodeStringPrices(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count == NULL_LENGTH) {
+            return null;
+        }
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String shortDescription = string(buffer);
+            String price = string(buffer);
+            items.add(new Item(null, shortDescription, price));
+        }
+        return items;
+    }
+
+    static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Size of a field written by {@link #put}, length prefix included.
+     */
+    static int encodedLength(byte[] field) {
+        return Integer.BYTES + (field != null ? field.length : 0);
+    }
+
+    static void put(ByteBuffer buffer, byte[] field) {
+        if (field == null) {
+            buffer.putInt(NULL_LENGTH);
+        } else {
+            buffer.putInt(field.length).put(field);
+        }
+    }
+
+    static String string(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
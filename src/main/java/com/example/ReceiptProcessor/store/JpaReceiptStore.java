@@ -0,0 +1,153 @@
+package com.example.ReceiptProcessor.store;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.repository.ReceiptRepository;
+import com.example.ReceiptProcessor.rules.FeatureScorer;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+
+/**
+ * Receipts in the database through JPA. Ids are stored in a uuid column, so an id that is not a
+ * canonical UUID cannot exist there; lookups answer such ids without a query, which also keeps
+ * the database from rejecting them as unparseable.
+ */
+@Component
+@Profile("!" + ReceiptStore.MEMORY_PROFILE + " & !" + ReceiptStore.LOG_PROFILE)
+@RequiredArgsConstructor
+public class JpaReceiptStore implements ReceiptStore {
+
+    static final int ID_PAGE_SIZE = 1000;
+    private static final int KEY_LENGTH = 36;
+
+    private final ReceiptRepository receiptRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public void save(Receipt receipt) {
+        receiptRepository.save(receipt);
+    }
+
+    /**
+     * Flushing and clearing the persistence context per chunk keeps memory flat for very large batches.
+     */
+    @Override
+    @Transactional
+    public void saveAll(List<Receipt> receipts) {
+        receiptRepository.saveAll(receipts);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Fetches the items in the same query, so scoring a receipt never triggers a lazy load.
+     */
+    @Override
+    public Optional<Receipt> findById(String id) {
+        if (!isKey(id)) {
+            return Optional.empty();
+        }
+        return receiptRepository.findWithItemsById(id);
+    }
+
+    /**
+     * Selects the points column alone, without joining the items.
+     */
+    @Override
+    public OptionalInt findPoints(String id) {
+        if (!isKey(id)) {
+            return OptionalInt.empty();
+        }
+        return receiptRepository.findPointsById(id).map(OptionalInt::of).orElseGet(OptionalInt::empty);
+    }
+
+    @Override
+    public List<Receipt> findAllById(Collection<String> ids) {
+        List<String> keys = keys(ids);
+        return keys.isEmpty() ? List.of() : receiptRepository.findWithItemsByIdIn(keys);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return isKey(id) && receiptRepository.existsById(id);
+    }
+
+    /**
+     * Pages through the ids with a keyset query, so no transaction or cursor stays open while the
+     * action runs.
+     */
+    @Override
+    public void forEachId(Consumer<String> action) {
+        List<String> page = receiptRepository.findIds(Limit.of(ID_PAGE_SIZE));
+        while (true) {
+            page.forEach(action);
+            if (page.size() < ID_PAGE_SIZE) {
+                return;
+            }
+            page = receiptRepository.findIdsAfter(page.get(page.size() - 1), Limit.of(ID_PAGE_SIZE));
+        }
+    }
+
+    /**
+     * Two bulk deletes, items first; nothing is loaded.
+     */
+    @Override
+    @Transactional
+    public void deleteAllById(Collection<String> ids) {
+        List<String> keys = keys(ids);
+        if (keys.isEmpty()) {
+            return;
+        }
+        receiptRepository.deleteItemsByReceiptIdIn(keys);
+        receiptRepository.deleteByIdIn(keys);
+    }
+
+    @Override
+    @Transactional
+    public void clearPoints() {
+        receiptRepository.clearPoints();
+    }
+
+    /**
+     * One UPDATE over the feature columns; no receipt or item is loaded.
+     */
+    @Override
+    @Transactional
+    public void rescore(FeatureScorer scorer) {
+        receiptRepository.rescoreFromFeatures(scorer.getRetailerWeight(), scorer.getTotalWeight(),
+                scorer.getItemPairsWeight(), scorer.getItemDescriptionWeight(),
+                scorer.getOddDayWeight(), scorer.getAfternoonWeight());
+    }
+
+    /**
+     * True for a canonical lowercase UUID, the only form ids are written in. Other spellings of the
+     * same UUID would match in the database but not in the caches, so they are treated as unknown.
+     */
+    static boolean isKey(String id) {
+        if (id == null || id.length() != KEY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            char c = id.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            boolean valid = dash ? c == '-' : (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> keys(Collection<String> ids) {
+        return ids.stream().filter(JpaReceiptStore::isKey).toList();
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.ReceiptProcessor.store;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.rules.FeatureScorer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Persists receipts in an append-only log of memory-mapped segment files, with an id to address
+ * index on the heap that is rebuilt from the record headers on startup.
+ *
+ * Each record holds the receipt's points at a fixed offset next to the epoch it was written in.
+ * Clearing points appends a marker that starts a new epoch instead of rewriting records, so points
+ * from an older epoch read as absent. Points lookups read those two ints straight from the mapped
+ * segment.
+ *
+ * When a segment is sealed, sealed segments whose live records take less than
+ * {@code receipts.log-store.compaction-threshold} of their size are compacted on a background thread:
+ * live receipts are copied to the end of the log and the segment file is deleted. The store lock is
+ * taken per copied record, so writers interleave with compaction instead of waiting for it. A copy
+ * always follows its original in log order, so a crash half way through compaction replays to the
+ * same state.
+ *
+ * Deleting receipts appends a tombstone per id. Compaction carries a tombstone forward for as long
+ * as an older segment that may still hold the deleted receipt exists.
+ */
+@Slf4j
+@Component
+@Profile(ReceiptStore.LOG_PROFILE)
+public class LogReceiptStore implements ReceiptStore, AutoCloseable {
+
+    // Receipts written with string dates, times and amounts; still read, no longer written
+    private static final byte STRING_RECEIPT = 1;
+    private static final byte CLEAR_POINTS = 2;
+    private static final byte RECEIPT = 3;
+    private static final byte DELETE = 4;
+    private static final int NO_POINTS = Integer.MIN_VALUE;
+
+    // Record body layout: type, epoch, points, then id, retailer, epoch day, minute of day,
+    // total in cents and items for receipts, and just the id for deletes
+    private static final int TYPE_OFFSET = 0;
+    private static final int EPOCH_OFFSET = 1;
+    private static final int POINTS_OFFSET = 5;
+    private static final int ID_OFFSET = 9;
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final SegmentLog segmentLog;
+    private final double compactionThreshold;
+    private final ConcurrentHashMap<String, Long> index = new ConcurrentHashMap<>();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "receipt-log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    // Held for a whole compaction so only one runs at a time
+    private final Object compactionLock = new Object();
+
+    // Guarded by this, like every write
+    private final Map<Integer, Long> liveBytes = new HashMap<>();
+    private int lastActiveSegment;
+
+    private volatile int epoch;
+
+    public LogReceiptStore(@Value("${receipts.log-store.directory:data/receipt-log}") Path directory,
+                           @Value("${receipts.log-store.segment-size:64MB}") DataSize segmentSize,
+                           @Value("${receipts.log-store.fsync:false}") boolean fsync,
+                           @Value("${receipts.log-store.compaction-threshold:0.5}") double compactionThreshold) {
+        this.segmentLog = new SegmentLog(directory, Math.toIntExact(segmentSize.toBytes()), fsync);
+        this.compactionThreshold = compactionThreshold;
+
+        long start = System.nanoTime();
+        synchronized (this) {
+            segmentLog.recover(this::replay);
+            lastActiveSegment = segmentLog.activeSegment();
+        }
+        log.info("Recovered {} receipts from {} in {} ms", index.size(), directory,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public synchronized void save(Receipt receipt) {
+        ByteBuffer body = encode(receipt);
+        long address = segmentLog.append(body);
+        track(receipt.getId(), address, SegmentLog.HEADER_BYTES + body.limit());
+        compactIfRolled();
+    }
+
+    @Override
+    public void saveAll(List<Receipt> receipts) {
+        for (Receipt receipt : receipts) {
+            save(receipt);
+        }
+    }
+
+    @Override
+    public Optional<Receipt> findById(String id) {
+        ByteBuffer body = body(id);
+        if (body == null) {
+            return Optional.empty();
+        }
+        ByteBuffer fields = body.duplicate().position(ID_OFFSET);
+        ItemCodec.string(fields);
+        Receipt receipt;
+        if (body.get(TYPE_OFFSET) == STRING_RECEIPT) {
+            String retailer = ItemCodec.string(fields);
+            String purchaseDate = ItemCodec.string(fields);
+            String purchaseTime = ItemCodec.string(fields);
+            String total = ItemCodec.string(fields);
+            receipt = new Receipt(id, retailer, purchaseDate, purchaseTime, ItemCodec.decodeStringPrices(fields), total);
+        } else {
+            receipt = new Receipt();
+            receipt.setId(id);
+            receipt.setRetailer(ItemCodec.string(fields));
+            receipt.setPurchaseEpochDay(fields.getInt());
+            receipt.setPurchaseMinute(fields.getShort());
+            receipt.setTotalCents(fields.getLong());
+            receipt.setItems(ItemCodec.decode(fields));
+        }
+        OptionalInt points = points(body);
+        receipt.setPoints(points.isPresent() ? points.getAsInt() : null);
+        return Optional.of(receipt);
+    }
+
+    /**
+     * Reads the points in place from the mapped segment; nothing is decoded.
+     */
+    @Override
+    public OptionalInt findPoints(String id) {
+        ByteBuffer body = body(id);
+        return body != null ? points(body) : OptionalInt.empty();
+    }
+
+    @Override
+    public List<Receipt> findAllById(Collection<String> ids) {
+        List<Receipt> receipts = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id).ifPresent(receipts::add);
+        }
+        return receipts;
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return index.containsKey(id);
+    }
+
+    @Override
+    public void forEachId(Consumer<String> action) {
+        index.keySet().forEach(action);
+    }
+
+    @Override
+    public synchronized void deleteAllById(Collection<String> ids) {
+        for (String id : ids) {
+            if (!index.containsKey(id)) {
+                continue;
+            }
+            byte[] bytes = ItemCodec.bytes(id);
+            ByteBuffer body = ByteBuffer.allocate(ID_OFFSET + ItemCodec.encodedLength(bytes))
+                    .put(DELETE)
+                    .putInt(epoch)
+                    .putInt(NO_POINTS);
+            ItemCodec.put(body, bytes);
+            segmentLog.append(body.flip());
+            untrack(id);
+        }
+        compactIfRolled();
+    }
+
+    @Override
+    public synchronized void clearPoints() {
+        epoch++;
+        segmentLog.append(ByteBuffer.allocate(ID_OFFSET)
+                .put(CLEAR_POINTS)
+                .putInt(epoch)
+                .putInt(NO_POINTS)
+                .flip());
+    }
+
+    /**
+     * Features are not kept in the log, so receipts are rescored from their items on next lookup.
+     */
+    @Override
+    public void rescore(FeatureScorer scorer) {
+        clearPoints();
+    }
+
+    /**
+     * Copies the live receipts out of sparsely used sealed segments and deletes them. Copies carry
+     * the current epoch, with points dropped if they were cleared. Runs on the calling thread; writes
+     * schedule it on the compactor thread instead.
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            for (int number : segmentLog.sealedSegments()) {
+                long live;
+                synchronized (this) {
+                    live = liveBytes.getOrDefault(number, 0L);
+                }
+                if (live < compactionThreshold * segmentLog.segmentBytes(number)) {
+                    compactSegment(number, live);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sealed segments are never written again, so they are scanned without the store lock; it is
+     * only taken to check and copy each record against the index.
+     */
+    private void compactSegment(int number, long live) {
+        boolean olderSegments = segmentLog.sealedSegments().get(0) < number;
+        segmentLog.scan(number, (address, body) -> {
+            synchronized (this) {
+                if (body.get(TYPE_OFFSET) == DELETE) {
+                    // Still needed while an older segment may hold the receipt, unless it was saved again
+                    String id = ItemCodec.string(body.duplicate().position(ID_OFFSET));
+                    if (olderSegments && !index.containsKey(id)) {
+                        segmentLog.append(ByteBuffer.allocate(body.remaining()).put(body.duplicate()).flip());
+                    }
+                    return;
+                }
+                if (!isReceipt(body)) {
+                    return;
+                }
+                String id = ItemCodec.string(body.duplicate().position(ID_OFFSET));
+                Long current = index.get(id);
+                if (current == null || current != address) {
+                    return;
+                }
+                ByteBuffer copy = ByteBuffer.allocate(body.remaining()).put(body.duplicate()).flip();
+                if (copy.getInt(EPOCH_OFFSET) != epoch) {
+                    copy.putInt(EPOCH_OFFSET, epoch).putInt(POINTS_OFFSET, NO_POINTS);
+                }
+                track(id, segmentLog.append(copy), SegmentLog.HEADER_BYTES + copy.limit());
+            }
+        });
+        // Copies must be on disk before the originals disappear
+        segmentLog.force();
+        synchronized (this) {
+            liveBytes.remove(number);
+            segmentLog.delete(number);
+        }
+        log.debug("Compacted receipt log segment {} ({} live bytes)", number, live);
+    }
+
+    /**
+     * Schedules a compaction once the log has rolled to a new segment. A roll while one is already
+     * waiting to start is covered by it.
+     */
+    private void compactIfRolled() {
+        if (segmentLog.activeSegment() == lastActiveSegment) {
+            return;
+        }
+        lastActiveSegment = segmentLog.activeSegment();
+        if (compactionScheduled.compareAndSet(false, true)) {
+            compactor.execute(() -> {
+                compactionScheduled.set(false);
+                try {
+                    compact();
+                } catch (RuntimeException e) {
+                    log.warn("Receipt log compaction failed", e);
+                }
+            });
+        }
+    }
+
+    public long size() {
+        return index.size();
+    }
+
+    /**
+     * Bytes of segment files currently mapped.
+     */
+    public long diskBytes() {
+        return segmentLog.mappedBytes();
+    }
+
+    /**
+     * Lets a running compaction finish before the log is forced to disk.
+     */
+    @Override
+    public void close() {
+        compactor.shutdown();
+        try {
+            if (!compactor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Receipt log compaction did not finish before close");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segmentLog.close();
+    }
+
+    private void replay(long address, ByteBuffer body) {
+        epoch = Math.max(epoch, body.getInt(EPOCH_OFFSET));
+        if (isReceipt(body)) {
+            String id = ItemCodec.string(body.duplicate().position(ID_OFFSET));
+            track(id, address, SegmentLog.HEADER_BYTES + body.remaining());
+        } else if (body.get(TYPE_OFFSET) == DELETE) {
+            untrack(ItemCodec.string(body.duplicate().position(ID_OFFSET)));
+        }
+    }
+
+    /**
+     * Points the index at a new record and moves the live byte count from the record it replaces.
+     */
+    private void track(String id, long address, int recordBytes) {
+        liveBytes.merge(SegmentLog.segmentNumber(address), (long) recordBytes, Long::sum);
+        Long previous = index.put(id, address);
+        if (previous != null) {
+            liveBytes.merge(SegmentLog.segmentNumber(previous), (long) -segmentLog.recordBytes(previous), Long::sum);
+        }
+    }
+
+    private void untrack(String id) {
+        Long previous = index.remove(id);
+        if (previous != null) {
+            liveBytes.merge(SegmentLog.segmentNumber(previous), (long) -segmentLog.recordBytes(previous), Long::sum);
+        }
+    }
+
+    /**
+     * The record body for an id. Compaction can delete a segment between the index lookup and the
+     * read; by then the index already holds the copied record's address, so the lookup is retried.
+     */
+    private ByteBuffer body(String id) {
+        while (true) {
+            Long address = index.get(id);
+            if (address == null) {
+                return null;
+            }
+            ByteBuffer body = segmentLog.body(address);
+            if (body != null) {
+                return body;
+            }
+        }
+    }
+
+    private static boolean isReceipt(ByteBuffer body) {
+        byte type = body.get(TYPE_OFFSET);
+        return type == RECEIPT || type == STRING_RECEIPT;
+    }
+
+    private OptionalInt points(ByteBuffer body) {
+        int points = body.getInt(POINTS_OFFSET);
+        return body.getInt(EPOCH_OFFSET) == epoch && points != NO_POINTS ? OptionalInt.of(points) : OptionalInt.empty();
+    }
+
+    private ByteBuffer encode(Receipt receipt) {
+        byte[][] fields = {
+                ItemCodec.bytes(receipt.getId()),
+                ItemCodec.bytes(receipt.getRetailer())
+        };
+        byte[] items = ItemCodec.encode(receipt.getItems());
+        int size = ID_OFFSET + Integer.BYTES + Short.BYTES + Long.BYTES + items.length;
+        for (byte[] field : fields) {
+            size += ItemCodec.encodedLength(field);
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(size)
+                .put(RECEIPT)
+                .putInt(epoch)
+                .putInt(receipt.getPoints() != null ? receipt.getPoints() : NO_POINTS);
+        for (byte[] field : fields) {
+            ItemCodec.put(body, field);
+        }
+        return body.putInt(receipt.getPurchaseEpochDay())
+                .putShort(receipt.getPurchaseMinute())
+                .putLong(receipt.getTotalCents())
+                .put(items)
+                .flip();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.ReceiptProcessor.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Append-only arena of direct byte buffers holding encoded item lists outside the Java heap.
+ * Records are addressed by slab index (high 32 bits) and offset (low 32 bits) and are never
+ * freed, matching receipts being immutable once stored.
+ *
+ * Space is reserved under a lock and filled outside it; readers only see an address after the
+ * store has published it, so a record is always fully written before it can be read.
+ */
+final class OffHeapItemArena {
+
+    private final int slabSize;
+
+    private volatile ByteBuffer[] slabs = new ByteBuffer[0];
+    private ByteBuffer current;
+    private int currentIndex = -1;
+    private long allocatedBytes;
+
+    OffHeapItemArena(int slabSize) {
+        if (slabSize <= Integer.BYTES) {
+            throw new IllegalArgumentException("slab size must be larger than " + Integer.BYTES + " bytes");
+        }
+        this.slabSize = slabSize;
+    }
+
+    long write(byte[] record) {
+        int recordSize = Integer.BYTES + record.length;
+        ByteBuffer slab;
+        int slabIndex;
+        int offset;
+        synchronized (this) {
+            if (current == null || current.position() + recordSize > current.capacity()) {
+                // Records larger than a slab get a slab of their own.
+                addSlab(Math.max(slabSize, recordSize));
+            }
+            slab = current;
+            slabIndex = currentIndex;
+            offset = current.position();
+            current.position(offset + recordSize);
+        }
+        slab.putInt(offset, record.length);
+        slab.put(offset + Integer.BYTES, record);
+        return ((long) slabIndex << 32) | offset;
+    }
+
+    /**
+     * Returns a read-only view of the record at the given address.
+     */
+    ByteBuffer read(long address) {
+        ByteBuffer slab = slabs[(int) (address >>> 32)];
+        int offset = (int) address;
+        int length = slab.getInt(offset);
+        return slab.asReadOnlyBuffer()
+                .position(offset + Integer.BYTES)
+                .limit(offset + Integer.BYTES + length)
+                .slice();
+    }
+
+    synchronized long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    private void addSlab(int capacity) {
+        current = ByteBuffer.allocateDirect(capacity);
+        ByteBuffer[] grown = Arrays.copyOf(slabs, slabs.length + 1);
+        grown[grown.length - 1] = current;
+        currentIndex = grown.length - 1;
+        allocatedBytes += capacity;
+        slabs = grown;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ReceiptProcessor.store;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.rules.FeatureScorer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend for receipts. Receipts are immutable once saved apart from their
+ * stored points, which are cleared when the rule set changes.
+ *
+ * The JPA backend is the default; the {@code memory-store} profile selects {@link InMemoryReceiptStore}
+ * and the {@code log-store} profile selects {@link LogReceiptStore}.
+ */
+public interface ReceiptStore {
+
+    String MEMORY_PROFILE = "memory-store";
+
+    String LOG_PROFILE = "log-store";
+
+    void save(Receipt receipt);
+
+    /**
+     * Writes one chunk of a batch. Callers must not rely on the receipts staying attached
+     * to a persistence context afterwards.
+     */
+    void saveAll(List<Receipt> receipts);
+
+    /**
+     * Returns the receipt with its items loaded, usable without an open persistence context.
+     */
+    Optional<Receipt> findById(String id);
+
+    /**
+     * Returns the stored points of a receipt without loading it. Empty when the receipt is unknown
+     * or its points were cleared.
+     */
+    OptionalInt findPoints(String id);
+
+    /**
+     * Returns the receipts that exist among the given ids, with items loaded, in no particular order.
+     */
+    List<Receipt> findAllById(Collection<String> ids);
+
+    boolean existsById(String id);
+
+    /**
+     * Visits the id of every stored receipt, in no particular order. Receipts saved or deleted
+     * during the scan may or may not be visited.
+     */
+    void forEachId(Consumer<String> action);
+
+    /**
+     * Removes the given receipts and their items. Unknown ids are ignored.
+     */
+    void deleteAllById(Collection<String> ids);
+
+    /**
+     * Drops the stored points of every receipt so they are rescored on the next lookup.
+     */
+    void clearPoints();
+
+    /**
+     * Recomputes every stored points value with the given scorer. Backends that do not keep scoring
+     * features clear the points instead, leaving receipts to be rescored on their next lookup.
+     */
+    void rescore(FeatureScorer scorer);
+}
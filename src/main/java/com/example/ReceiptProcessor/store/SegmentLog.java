@@ -0,0 +1,275 @@
+package com.example.ReceiptProcessor.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of records in fixed-size, memory-mapped segment files. A record is a body length,
+ * a CRC32C of the body and the body itself. Addresses are the segment number (high 32 bits) and the
+ * record offset (low 32 bits), so they grow with log order.
+ *
+ * The length is written last and a zero length marks the end of a segment, so a record becomes
+ * visible to recovery only once it is complete. Pages can still reach disk out of order after an
+ * OS crash; the CRC catches those, and recovery cuts the segment at the first bad record.
+ *
+ * Appends are serialised; reads are lock-free absolute gets on the mapped buffers.
+ */
+@Slf4j
+final class SegmentLog implements AutoCloseable {
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final ConcurrentHashMap<Integer, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+
+    private MappedByteBuffer active;
+    private int activeNumber = -1;
+    private int position;
+
+    /**
+     * Called for every intact record during recovery and for every record of a segment in {@link #scan}.
+     */
+    interface RecordVisitor {
+        void visit(long address, ByteBuffer body);
+    }
+
+    SegmentLog(Path directory, int segmentSize, boolean fsync) {
+        if (segmentSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("segment size must be larger than " + HEADER_BYTES + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Maps every existing segment in order and replays its records. A segment ends at the first
+     * zero length; a torn or corrupt record ends it as well and everything after it is zeroed, so
+     * the next append overwrites the damage. Appends continue in the last segment. Segments written
+     * with a larger segment size keep their size.
+     */
+    synchronized void recover(RecordVisitor visitor) {
+        try {
+            Files.createDirectories(directory);
+            for (int number : segmentNumbers()) {
+                MappedByteBuffer segment = map(number);
+                segments.put(number, segment);
+                int end = replay(number, segment, visitor);
+                active = segment;
+                activeNumber = number;
+                position = end;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open receipt log in " + directory, e);
+        }
+    }
+
+    /**
+     * Appends a record and returns its address. With fsync enabled the record is forced to disk
+     * before returning.
+     */
+    synchronized long append(ByteBuffer body) {
+        int length = body.remaining();
+        if (length > segmentSize - HEADER_BYTES) {
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit in a "
+                    + segmentSize + " byte segment");
+        }
+        if (active == null || position + HEADER_BYTES + length > active.capacity()) {
+            roll();
+        }
+        int offset = position;
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        active.put(offset + HEADER_BYTES, body, body.position(), length);
+        active.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        active.putInt(offset, length);
+        if (fsync) {
+            active.force(offset, HEADER_BYTES + length);
+        }
+        position = offset + HEADER_BYTES + length;
+        return address(activeNumber, offset);
+    }
+
+    /**
+     * Returns a read-only view of a record body without copying it, or null if its segment has
+     * been compacted away.
+     */
+    ByteBuffer body(long address) {
+        MappedByteBuffer segment = segments.get(segmentNumber(address));
+        if (segment == null) {
+            return null;
+        }
+        int offset = (int) address;
+        int length = segment.getInt(offset);
+        return segment.slice(offset + HEADER_BYTES, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Record size on disk, header included.
+     */
+    int recordBytes(long address) {
+        return HEADER_BYTES + segments.get(segmentNumber(address)).getInt((int) address);
+    }
+
+    /**
+     * Visits every record of one segment, in order.
+     */
+    void scan(int number, RecordVisitor visitor) {
+        MappedByteBuffer segment = segments.get(number);
+        int offset = 0;
+        int length;
+        while (offset + HEADER_BYTES <= segment.capacity() && (length = segment.getInt(offset)) > 0) {
+            visitor.visit(address(number, offset), segment.slice(offset + HEADER_BYTES, length).asReadOnlyBuffer());
+            offset += HEADER_BYTES + length;
+        }
+    }
+
+    synchronized int activeSegment() {
+        return activeNumber;
+    }
+
+    /**
+     * Segments that no longer take appends, oldest first.
+     */
+    synchronized List<Integer> sealedSegments() {
+        return segments.keySet().stream()
+                .filter(number -> number != activeNumber)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Drops a sealed segment. Its mapping stays valid for readers already holding it until it is
+     * garbage collected.
+     */
+    synchronized void delete(int number) {
+        if (number == activeNumber) {
+            throw new IllegalArgumentException("The active segment cannot be deleted");
+        }
+        segments.remove(number);
+        try {
+            Files.deleteIfExists(file(number));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete " + file(number), e);
+        }
+    }
+
+    int segmentBytes(int number) {
+        return segments.get(number).capacity();
+    }
+
+    long mappedBytes() {
+        return segments.values().stream().mapToLong(MappedByteBuffer::capacity).sum();
+    }
+
+    static int segmentNumber(long address) {
+        return (int) (address >>> 32);
+    }
+
+    /**
+     * Forces every segment to disk. Does not hold the append lock, so appends carry on meanwhile.
+     */
+    void force() {
+        for (MappedByteBuffer segment : segments.values()) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Without fsync, this is what makes a clean shutdown durable.
+     */
+    @Override
+    public void close() {
+        force();
+    }
+
+    private int replay(int number, MappedByteBuffer segment, RecordVisitor visitor) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segment.capacity()) {
+            int length = segment.getInt(offset);
+            if (length == 0) {
+                return offset;
+            }
+            if (length < 0 || length > segment.capacity() - offset - HEADER_BYTES || !intact(segment, offset, length)) {
+                log.warn("Receipt log segment {} is damaged at offset {}; dropping the rest of the segment", number, offset);
+                zeroFrom(segment, offset);
+                return offset;
+            }
+            visitor.visit(address(number, offset), segment.slice(offset + HEADER_BYTES, length).asReadOnlyBuffer());
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    private static boolean intact(MappedByteBuffer segment, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(offset + HEADER_BYTES, length));
+        return (int) crc.getValue() == segment.getInt(offset + Integer.BYTES);
+    }
+
+    private static void zeroFrom(MappedByteBuffer segment, int offset) {
+        byte[] zeros = new byte[4096];
+        for (int i = offset; i < segment.capacity(); i += zeros.length) {
+            segment.put(i, zeros, 0, Math.min(zeros.length, segment.capacity() - i));
+        }
+        segment.force();
+    }
+
+    private void roll() {
+        if (active != null) {
+            active.force();
+        }
+        int number = activeNumber + 1;
+        try {
+            active = map(number);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create receipt log segment " + file(number), e);
+        }
+        segments.put(number, active);
+        activeNumber = number;
+        position = 0;
+    }
+
+    private MappedByteBuffer map(int number) throws IOException {
+        try (FileChannel channel = FileChannel.open(file(number),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        }
+    }
+
+    private List<Integer> segmentNumbers() throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(SUFFIX))
+                    .forEach(name -> numbers.add(Integer.parseInt(name.substring("segment-".length(), name.length() - SUFFIX.length()))));
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private Path file(int number) {
+        return directory.resolve(String.format("segment-%010d%s", number, SUFFIX));
+    }
+
+    private static long address(int number, int offset) {
+        return ((long) number << 32) | offset;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.ReceiptProcessor.util;
+
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Allocation-free alternative to {@link PointsCalculator} with identical results.
+ *
+ * Amounts are parsed straight into fixed-point cents and dates/times are checked with
+ * hand-rolled digit parsing, so well-formed receipts are scored without creating
+ * BigDecimals, trimmed strings, java.time objects or exceptions. Anything outside the
+ * canonical formats (signs, exponents, non-ASCII digits, more than two decimals...)
+ * is delegated to {@link PointsCalculator} so both engines always agree.
+ *
+ * Receipts and items carry those values already converted at ingest (see {@link ReceiptFields}),
+ * so scoring a receipt reads primitives; the string overloads only run for values that did not
+ * convert.
+ */
+public class FastPointsCalculator {
+
+    /**
+     * Returned by {@link #parseCents(String)} when the value is not a canonical amount.
+     */
+    public static final long NOT_CENTS = Long.MIN_VALUE;
+
+    // Keeps cents * 0.2 comfortably within int range and exact as a double.
+    private static final int MAX_INTEGER_DIGITS = 9;
+
+    private static final int TWO_PM = 14 * 60;
+    private static final int FOUR_PM = 16 * 60;
+
+    /**
+     * Calculates the total points for a receipt based on all rules.
+     */
+    public static int calculatePoints(Receipt receipt) {
+        if (receipt == null) {
+            return 0;
+        }
+
+        int points = 0;
+
+        points += PointsCalculator.calculateRetailerPoints(receipt.getRetailer());
+        points += totalPoints(receipt);
+        points += calculateItemCountPoints(receipt.getItems());
+        points += calculateItemDescriptionPoints(receipt.getItems());
+        points += purchaseDatePoints(receipt);
+        points += purchaseTimePoints(receipt);
+
+        return points;
+    }
+
+    /**
+     * Rules 2 and 3 from the receipt's total in cents. Only a total that did not convert
+     * is looked at as a string.
+     */
+    public static int totalPoints(Receipt receipt) {
+        long cents = receipt.getTotalCents();
+        return cents != NOT_CENTS ? calculateTotalPoints(cents) : calculateTotalPoints(receipt.getTotal());
+    }
+
+    /**
+     * Rule 7 from the receipt's purchase epoch day, falling back to the string when it did not convert.
+     */
+    public static int purchaseDatePoints(Receipt receipt) {
+        int epochDay = receipt.getPurchaseEpochDay();
+        return epochDay != ReceiptFields.NO_DATE
+                ? calculatePurchaseDatePoints(epochDay)
+                : calculatePurchaseDatePoints(receipt.getPurchaseDate());
+    }
+
+    /**
+     * Rule 8 from the receipt's purchase minute, falling back to the string when it did not convert.
+     */
+    public static int purchaseTimePoints(Receipt receipt) {
+        short minuteOfDay = receipt.getPurchaseMinute();
+        return minuteOfDay >= 0
+                ? calculatePurchaseTimePoints(minuteOfDay)
+                : calculatePurchaseTimePoints(receipt.getPurchaseTime());
+    }
+
+    /**
+     * Rules 2 and 3: 50 points for a round dollar total, 25 points for a multiple of 0.25.
+     */
+    public static int calculateTotalPoints(String total) {
+        if (total == null) return 0;
+
+        long cents = parseCents(total);
+        if (cents == NOT_CENTS) {
+            return PointsCalculator.calculateRoundDollarAndQuarterPoints(total);
+        }
+        return calculateTotalPoints(cents);
+    }
+
+    /**
+     * Rules 2 and 3 on a total in cents.
+     */
+    public static int calculateTotalPoints(long cents) {
+        int points = 0;
+        if (cents % 100 == 0) {
+            points += 50;
+        }
+        if (cents % 25 == 0) {
+            points += 25;
+        }
+        return points;
+    }
+
+    /**
+     * Rule 4: 5 points for every two items on the receipt.
+     */
+    public static int calculateItemCountPoints(List<Item> items) {
+        if (items == null) return 0;
+
+        return items.size() / 2 * 5;
+    }
+
+    /**
+     * Rule 5: trimmed description length a multiple of 3 earns ceil(price * 0.2).
+     */
+    public static int calculateItemDescriptionPoints(List<Item> items) {
+        if (items == null) return 0;
+
+        int points = 0;
+        for (int i = 0, size = items.size(); i < size; i++) {
+            points += calculateItemPoints(items.get(i));
+        }
+        return points;
+    }
+
+    /**
+     * Rule 5 for a single item.
+     */
+    public static int calculateItemPoints(Item item) {
+        String description = item.getShortDescription();
+        if (description == null) return 0;
+
+        int length = trimmedLength(description);
+        if (length == 0 || length % 3 != 0) return 0;
+
+        long cents = item.getPriceCents();
+        return cents != NOT_CENTS ? calculateItemPricePoints(cents) : calculateItemPricePoints(item.getPrice());
+    }
+
+    /**
+     * ceil(price * 0.2), or 0 when the price is not a number.
+     */
+    public static int calculateItemPricePoints(String price) {
+        if (price == null) return 0;
+
+        long cents = parseCents(price);
+        if (cents == NOT_CENTS) {
+            BigDecimal amount = PointsCalculator.parseAmount(price);
+            return amount != null ? PointsCalculator.calculateItemPricePoints(amount) : 0;
+        }
+        return calculateItemPricePoints(cents);
+    }
+
+    /**
+     * ceil(price * 0.2) on a price in cents.
+     */
+    public static int calculateItemPricePoints(long cents) {
+        // price * 0.2 == cents / 500; ceil for non-negative cents.
+        return (int) ((cents + 499) / 500);
+    }
+
+    /**
+     * Rule 7: 6 points if the day in the purchase date is odd.
+     */
+    public static int calculatePurchaseDatePoints(String purchaseDate) {
+        if (purchaseDate == null) return 0;
+
+        if (purchaseDate.length() != 10
+                || purchaseDate.charAt(4) != '-' || purchaseDate.charAt(7) != '-') {
+            return PointsCalculator.calculatePurchaseDatePoints(purchaseDate);
+        }
+
+        int year = digits(purchaseDate, 0, 4);
+        int month = digits(purchaseDate, 5, 7);
+        int day = digits(purchaseDate, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return PointsCalculator.calculatePurchaseDatePoints(purchaseDate);
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return 0;
+        }
+        return day % 2 != 0 ? 6 : 0;
+    }
+
+    /**
+     * Rule 7 on a purchase date given as days since 1970-01-01.
+     */
+    public static int calculatePurchaseDatePoints(int epochDay) {
+        return ReceiptFields.dayOfMonth(epochDay) % 2 != 0 ? 6 : 0;
+    }
+
+    /**
+     * Rule 8: 10 points if the time of purchase is after 2:00pm and before 4:00pm.
+     */
+    public static int calculatePurchaseTimePoints(String purchaseTime) {
+        if (purchaseTime == null) return 0;
+
+        int minuteOfDay = parseMinuteOfDay(purchaseTime);
+        if (minuteOfDay < 0) {
+            return PointsCalculator.calculatePurchaseTimePoints(purchaseTime);
+        }
+        return calculatePurchaseTimePoints(minuteOfDay);
+    }
+
+    /**
+     * Rule 8 on a purchase time given as minutes since midnight.
+     */
+    public static int calculatePurchaseTimePoints(int minuteOfDay) {
+        return minuteOfDay > TWO_PM && minuteOfDay < FOUR_PM ? 10 : 0;
+    }
+
+    /**
+     * Parses a canonical amount ({@code 12}, {@code 12.}, {@code 12.3}, {@code 12.34}, {@code .34})
+     * into cents. Returns {@link #NOT_CENTS} for anything else, including null.
+     */
+    public static long parseCents(String amount) {
+        if (amount == null) return NOT_CENTS;
+
+        int length = amount.length();
+        int i = 0;
+        long whole = 0;
+        while (i < length) {
+            char c = amount.charAt(i);
+            if (c < '0' || c > '9') break;
+            whole = whole * 10 + (c - '0');
+            i++;
+        }
+        int integerDigits = i;
+        if (integerDigits > MAX_INTEGER_DIGITS) return NOT_CENTS;
+        if (i == length) {
+            return integerDigits == 0 ? NOT_CENTS : whole * 100;
+        }
+        if (amount.charAt(i) != '.') return NOT_CENTS;
+        i++;
+
+        int fractionDigits = length - i;
+        if (fractionDigits > 2 || (integerDigits == 0 && fractionDigits == 0)) return NOT_CENTS;
+
+        long fraction = 0;
+        for (int digit = 0; digit < 2; digit++) {
+            fraction *= 10;
+            if (i < length) {
+                char c = amount.charAt(i++);
+                if (c < '0' || c > '9') return NOT_CENTS;
+                fraction += c - '0';
+            }
+        }
+        return whole * 100 + fraction;
+    }
+
+    /**
+     * Parses {@code H:mm} or {@code HH:mm} (hours 0-23) into minutes since midnight.
+     * Returns -1 for anything else.
+     */
+    public static int parseMinuteOfDay(String time) {
+        if (time == null) return -1;
+
+        int length = time.length();
+        if (length != 4 && length != 5) return -1;
+
+        int colon = length - 3;
+        if (time.charAt(colon) != ':') return -1;
+
+        int hour = digits(time, 0, colon);
+        int minute = digits(time, colon + 1, length);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) return -1;
+
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Length of {@code value.trim()} without allocating the trimmed string.
+     */
+    static int trimmedLength(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+        return end - start;
+    }
+
+    /**
+     * Parses ASCII digits in [from, to) as a non-negative int, or -1 if any char is not a digit.
+     */
+    static int digits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ReceiptProcessor.util;
+
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.model.ScoringFeatures;
+
+import java.util.List;
+
+/**
+ * Derives {@link ScoringFeatures} from a receipt's typed fields, which are what gets stored. A field
+ * that did not convert scores zero, so features always give the same points as scoring the receipt
+ * once it has been read back.
+ */
+public class FeatureExtractor {
+
+    public static ScoringFeatures extract(Receipt receipt) {
+        List<Item> items = receipt.getItems();
+        int epochDay = receipt.getPurchaseEpochDay();
+        return new ScoringFeatures(
+                PointsCalculator.calculateRetailerPoints(receipt.getRetailer()),
+                items != null ? items.size() : 0,
+                itemDescriptionPoints(items),
+                epochDay != ReceiptFields.NO_DATE ? ReceiptFields.dayOfMonth(epochDay) : 0);
+    }
+
+    static int itemDescriptionPoints(List<Item> items) {
+        if (items == null) return 0;
+
+        int points = 0;
+        for (Item item : items) {
+            String description = item.getShortDescription();
+            if (description == null || item.getPriceCents() == ReceiptFields.NOT_CENTS) continue;
+
+            int length = FastPointsCalculator.trimmedLength(description);
+            if (length != 0 && length % 3 == 0) {
+                points += FastPointsCalculator.calculateItemPricePoints(item.getPriceCents());
+            }
+        }
+        return points;
+    }
+}
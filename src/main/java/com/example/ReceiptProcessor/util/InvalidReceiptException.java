@@ -0,0 +1,21 @@
+package com.example.ReceiptProcessor.util;
+
+import java.util.List;
+
+/**
+ * Thrown when a receipt is rejected at ingest. Carries one message per invalid field, in the same
+ * form as the errors reported for a batch.
+ */
+public class InvalidReceiptException extends IllegalArgumentException {
+
+    private final List<String> errors;
+
+    public InvalidReceiptException(List<String> errors) {
+        super("The receipt is invalid: " + String.join("; ", errors));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -58,7 +58,7 @@ public class PointsCalculator {
      * - Rule 2: 50 points if the total is a round dollar amount
      * - Rule 3: 25 points if the total is a multiple of 0.25
      */
-    private static int calculateRoundDollarAndQuarterPoints(String total) {
+    static int calculateRoundDollarAndQuarterPoints(String total) {
         int points = 0;
         BigDecimal totalAmount = parseAmount(total);
 
@@ -105,8 +105,7 @@ public class PointsCalculator {
             if (length > 0 && length % 3 == 0) {
                 BigDecimal price = parseAmount(item.getPrice());
                 if (price != null) {
-                    int itemPoints = (int) Math.ceil(price.multiply(ITEM_MULTIPLIER).doubleValue());
-                    points += itemPoints;
+                    points += calculateItemPricePoints(price);
                 }
             }
         }
@@ -114,10 +113,17 @@ public class PointsCalculator {
         return points;
     }
 
+    /**
+     * Points for a single qualifying item: price * 0.2 rounded up.
+     */
+    static int calculateItemPricePoints(BigDecimal price) {
+        return (int) Math.ceil(price.multiply(ITEM_MULTIPLIER).doubleValue());
+    }
+
     /**
      * Rule 7: 6 points if the day in the purchase date is odd.
      */
-    private static int calculatePurchaseDatePoints(String purchaseDate) {
+    static int calculatePurchaseDatePoints(String purchaseDate) {
         try {
             LocalDate date = LocalDate.parse(purchaseDate);
             int day = date.getDayOfMonth();
@@ -134,7 +140,7 @@ public class PointsCalculator {
     /**
      * Rule 8: 10 points if the time of purchase is after 2:00pm and before 4:00pm.
      */
-    private static int calculatePurchaseTimePoints(String purchaseTime) {
+    static int calculatePurchaseTimePoints(String purchaseTime) {
         try {
             LocalTime time = LocalTime.parse(purchaseTime, TIME_FORMATTER);
             LocalTime twopm = LocalTime.of(14, 0);
@@ -152,7 +158,7 @@ public class PointsCalculator {
     /**
      * Helper method to parse amount.
      */
-    private static BigDecimal parseAmount(String amount) {
+    static BigDecimal parseAmount(String amount) {
         try {
             return new BigDecimal(amount);
         } catch (NumberFormatException | NullPointerException e) {
@@ -0,0 +1,101 @@
+package com.example.ReceiptProcessor.util;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Conversions between the API's string fields and the typed values a receipt keeps: amounts in
+ * cents, the purchase date as an epoch day and the purchase time as a minute of the day.
+ *
+ * Parsing never throws; a value that does not convert maps to {@link #NOT_CENTS}, {@link #NO_DATE}
+ * or {@link #NO_TIME}, which format back to null.
+ */
+public class ReceiptFields {
+
+    public static final long NOT_CENTS = FastPointsCalculator.NOT_CENTS;
+    public static final int NO_DATE = Integer.MIN_VALUE;
+    public static final short NO_TIME = -1;
+
+    /**
+     * Longest retailer and item description, in characters, that fit their columns.
+     */
+    public static final int MAX_RETAILER_LENGTH = 255;
+    public static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    // Shifts the epoch to 0000-03-01 so leap days fall at the end of the computed year.
+    private static final int DAYS_0000_TO_1970 = 719_468;
+    private static final int DAYS_PER_400_YEARS = 146_097;
+
+    /**
+     * Same amounts as {@link FastPointsCalculator#parseCents(String)}.
+     */
+    public static long parseCents(String amount) {
+        return FastPointsCalculator.parseCents(amount);
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd} into days since 1970-01-01, or {@link #NO_DATE} when the value is
+     * not a valid date in that format.
+     */
+    public static int parseEpochDay(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return NO_DATE;
+        }
+        int year = FastPointsCalculator.digits(date, 0, 4);
+        int month = FastPointsCalculator.digits(date, 5, 7);
+        int day = FastPointsCalculator.digits(date, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > FastPointsCalculator.lengthOfMonth(year, month)) {
+            return NO_DATE;
+        }
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * Same times as {@link FastPointsCalculator#parseMinuteOfDay(String)}.
+     */
+    public static short parseMinuteOfDay(String time) {
+        int minuteOfDay = FastPointsCalculator.parseMinuteOfDay(time);
+        return minuteOfDay >= 0 ? (short) minuteOfDay : NO_TIME;
+    }
+
+    public static String formatCents(long cents) {
+        return cents != NOT_CENTS ? BigDecimal.valueOf(cents, 2).toPlainString() : null;
+    }
+
+    public static String formatEpochDay(int epochDay) {
+        return epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay).toString() : null;
+    }
+
+    public static String formatMinuteOfDay(short minuteOfDay) {
+        if (minuteOfDay < 0) {
+            return null;
+        }
+        int hour = minuteOfDay / 60;
+        int minute = minuteOfDay % 60;
+        return new String(new char[]{
+                (char) ('0' + hour / 10), (char) ('0' + hour % 10), ':',
+                (char) ('0' + minute / 10), (char) ('0' + minute % 10)});
+    }
+
+    /**
+     * Day of month of an epoch day, without creating a {@link LocalDate}.
+     */
+    public static int dayOfMonth(int epochDay) {
+        long shifted = (long) epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(shifted, DAYS_PER_400_YEARS);
+        long dayOfEra = shifted - era * DAYS_PER_400_YEARS;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        return (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+    }
+
+    private static int epochDay(int year, int month, int day) {
+        int shiftedYear = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(shiftedYear, 400);
+        int yearOfEra = shiftedYear - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_400_YEARS + dayOfEra - DAYS_0000_TO_1970;
+    }
+}
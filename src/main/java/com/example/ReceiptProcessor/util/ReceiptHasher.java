@@ -0,0 +1,57 @@
+package com.example.ReceiptProcessor.util;
+
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+public class ReceiptHasher {
+
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * SHA-256 over retailer, purchase date, purchase time, total and every item's description and price,
+     * in that order. Each value is length-prefixed, so the hash does not depend on JSON formatting or
+     * field order and two different receipts cannot produce the same input bytes.
+     */
+    public static String contentHash(Receipt receipt) {
+        MessageDigest digest = sha256();
+        update(digest, receipt.getRetailer());
+        update(digest, receipt.getPurchaseDate());
+        update(digest, receipt.getPurchaseTime());
+        update(digest, receipt.getTotal());
+
+        List<Item> items = receipt.getItems();
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(items != null ? items.size() : NULL_LENGTH).array());
+        if (items != null) {
+            for (Item item : items) {
+                update(digest, item.getShortDescription());
+                update(digest, item.getPrice());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(NULL_LENGTH).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
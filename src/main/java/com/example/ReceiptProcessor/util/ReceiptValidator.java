@@ -0,0 +1,90 @@
+package com.example.ReceiptProcessor.util;
+
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Checks a receipt against the API schema once it has been bound, before it is scored or stored.
+ * The typed fields a receipt converts its strings into are checked as well, so a receipt that passes
+ * is scored and stored from primitives only. Letters and digits are Unicode ones, the same characters
+ * the retailer rule counts, and hours may have one digit, as the calculators accept.
+ */
+public class ReceiptValidator {
+
+    private static final Pattern RETAILER = Pattern.compile("^[\\w\\s\\-&]+$", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Pattern DESCRIPTION = Pattern.compile("^[\\w\\s\\-]+$", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Pattern AMOUNT = Pattern.compile("^\\d+\\.\\d{2}$");
+    private static final Pattern TIME = Pattern.compile("^([01]?\\d|2[0-3]):[0-5]\\d$");
+    private static final long MAX_CENTS = 99_999_999_999L;
+
+    /**
+     * Throws {@link InvalidReceiptException} listing every invalid field, unless the receipt is valid.
+     */
+    public static void requireValid(Receipt receipt) {
+        List<String> errors = validate(receipt);
+        if (!errors.isEmpty()) {
+            throw new InvalidReceiptException(errors);
+        }
+    }
+
+    /**
+     * Validates a receipt against the API schema.
+     * Returns one message per invalid field, or an empty list when the receipt is valid.
+     */
+    public static List<String> validate(Receipt receipt) {
+        List<String> errors = new ArrayList<>();
+        if (receipt == null) {
+            errors.add("receipt: must not be null");
+            return errors;
+        }
+
+        textErrors("retailer", receipt.getRetailer(), RETAILER, ReceiptFields.MAX_RETAILER_LENGTH, errors);
+        if (receipt.getPurchaseEpochDay() == ReceiptFields.NO_DATE) {
+            errors.add("purchaseDate: must be a valid date in yyyy-MM-dd format");
+        }
+        if (receipt.getPurchaseTime() == null || !TIME.matcher(receipt.getPurchaseTime()).matches()) {
+            errors.add("purchaseTime: must be a 24-hour time in H:mm or HH:mm format");
+        }
+        amountErrors("total", receipt.getTotal(), receipt.getTotalCents(), errors);
+
+        List<Item> items = receipt.getItems();
+        if (items == null || items.isEmpty()) {
+            errors.add("items: must contain at least one item");
+            return errors;
+        }
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item == null) {
+                errors.add("items[" + i + "]: must not be null");
+                continue;
+            }
+            textErrors("items[" + i + "].shortDescription", item.getShortDescription(), DESCRIPTION,
+                    ReceiptFields.MAX_DESCRIPTION_LENGTH, errors);
+            amountErrors("items[" + i + "].price", item.getPrice(), item.getPriceCents(), errors);
+        }
+        return errors;
+    }
+
+    /**
+     * The length is checked first so an oversized value is not run through the pattern.
+     */
+    private static void textErrors(String field, String value, Pattern pattern, int maxLength, List<String> errors) {
+        if (value != null && value.length() > maxLength) {
+            errors.add(field + ": must be at most " + maxLength + " characters");
+        } else if (value == null || !pattern.matcher(value).matches()) {
+            errors.add(field + ": must match " + pattern.pattern());
+        }
+    }
+
+    private static void amountErrors(String field, String amount, long cents, List<String> errors) {
+        if (amount == null || !AMOUNT.matcher(amount).matches()) {
+            errors.add(field + ": must match " + AMOUNT.pattern());
+        } else if (cents == ReceiptFields.NOT_CENTS || cents > MAX_CENTS) {
+            errors.add(field + ": must not be more than " + ReceiptFields.formatCents(MAX_CENTS));
+        }
+    }
+}
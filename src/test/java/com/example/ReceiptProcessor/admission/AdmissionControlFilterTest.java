@@ -0,0 +1,220 @@
+package com.example.ReceiptProcessor.admission;
+
+import com.example.ReceiptProcessor.cluster.ClusterClient;
+import com.example.ReceiptProcessor.cluster.ClusterTopology;
+import com.example.ReceiptProcessor.id.RandomReceiptIdGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    /**
+     * Tests for doFilter method
+     */
+    @Test
+    void doFilter_disabled_passesEverythingThrough() throws Exception {
+        AdmissionControlFilter filter = filter(false, 1, 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, process(filter, "partner").getStatus());
+        }
+    }
+
+    @Test
+    void doFilter_clientOverRate_returns429WithRetryAfter() throws Exception {
+        AdmissionControlFilter filter = filter(true, 1, 2);
+
+        assertEquals(200, process(filter, "partner").getStatus());
+        assertEquals(200, process(filter, "partner").getStatus());
+        MockHttpServletResponse rejected = process(filter, "partner");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+    }
+
+    @Test
+    void doFilter_clientsHaveSeparateBuckets() throws Exception {
+        AdmissionControlFilter filter = filter(true, 1, 1);
+
+        assertEquals(200, process(filter, "partner").getStatus());
+        assertEquals(429, process(filter, "partner").getStatus());
+        assertEquals(200, process(filter, "other").getStatus());
+    }
+
+    @Test
+    void doFilter_writesExhausted_readsStillAdmitted() throws Exception {
+        AdmissionControlFilter filter = filter(true, 1, 1);
+        process(filter, "partner");
+        assertEquals(429, process(filter, "partner").getStatus());
+
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/receipts/abc/points");
+        read.addHeader("X-Client-Id", "partner");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(read, response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void doFilter_concurrencyLimitReached_returns429() throws Exception {
+        AdmissionControlFilter filter = filter(true, 1000, 1000);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        FilterChain blocking = (request, response) -> {
+            entered.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread holder = new Thread(() -> {
+            try {
+                filter.doFilter(request("client-1"), new MockHttpServletResponse(), blocking);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        holder.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = process(filter, "client-2");
+        finish.countDown();
+        holder.join();
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals(200, process(filter, "client-2").getStatus());
+    }
+
+    @Test
+    void doFilter_otherPaths_areNotLimited() throws Exception {
+        AdmissionControlFilter filter = filter(true, 1, 1);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    @Test
+    void doFilter_noClientHeader_usesRemoteAddress() throws Exception {
+        AdmissionControlFilter filter = filter(true, 1, 1);
+
+        assertEquals(200, process(filter, null).getStatus());
+        assertEquals(429, process(filter, null).getStatus());
+    }
+
+    @Test
+    void doFilter_clientHeaderNotConfigured_ignoresHeaderAndUsesRemoteAddress() throws Exception {
+        AdmissionControlFilter filter = filter(true, "", 1, 1);
+
+        assertEquals(200, process(filter, "partner").getStatus());
+        assertEquals(429, process(filter, "someone-else").getStatus());
+    }
+
+    @Test
+    void doFilter_authenticatedPrincipal_takesPrecedenceOverHeader() throws Exception {
+        AdmissionControlFilter filter = filter(true, 1, 1);
+
+        MockHttpServletRequest first = request("partner");
+        first.setUserPrincipal(() -> "alice");
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(first, admitted, new MockFilterChain());
+        MockHttpServletRequest second = request("other");
+        second.setUserPrincipal(() -> "alice");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(second, rejected, new MockFilterChain());
+
+        assertEquals(200, admitted.getStatus());
+        assertEquals(429, rejected.getStatus());
+    }
+
+    @Test
+    void doFilter_lookupsForwardedByClusterPeer_skipPerClientRate() throws Exception {
+        AdmissionControlFilter filter = filter(true, "", 1000, 1000, 1, 1, cluster());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, lookup(filter, "cluster-secret").getStatus());
+        }
+    }
+
+    @Test
+    void doFilter_forwardedWithWrongSecret_isRateLimitedLikeAnyClient() throws Exception {
+        AdmissionControlFilter filter = filter(true, "", 1000, 1000, 1, 1, cluster());
+
+        assertEquals(200, lookup(filter, "guess").getStatus());
+        assertEquals(429, lookup(filter, "guess").getStatus());
+    }
+
+    /**
+     * Tests for bindTo method
+     */
+    @Test
+    void bindTo_countsRejectionsPerBudgetAndReason() throws Exception {
+        AdmissionControlFilter filter = filter(true, 1, 1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        process(filter, "partner");
+        process(filter, "partner");
+
+        assertEquals(1, registry.get("receipts.admission.rejected")
+                .tags("budget", "write", "reason", "rate").functionCounter().count());
+        assertEquals(0, registry.get("receipts.admission.in-flight").tag("budget", "write").gauge().value());
+    }
+
+    private static AdmissionControlFilter filter(boolean enabled, double writeRate, int writeBurst) {
+        return filter(enabled, "X-Client-Id", writeRate, writeBurst);
+    }
+
+    private static AdmissionControlFilter filter(boolean enabled, String clientHeader, double writeRate, int writeBurst) {
+        return filter(enabled, clientHeader, writeRate, writeBurst, 1000, 1000,
+                new ClusterTopology(false, "node-1", "", "", "", 1024, 64, new RandomReceiptIdGenerator()));
+    }
+
+    private static AdmissionControlFilter filter(boolean enabled, String clientHeader, double writeRate, int writeBurst,
+                                                 double readRate, int readBurst, ClusterTopology clusterTopology) {
+        return new AdmissionControlFilter(enabled, clientHeader, writeRate, writeBurst, Duration.ofSeconds(1),
+                readRate, readBurst, Duration.ofSeconds(1), 1, 1, 10, 1000, clusterTopology);
+    }
+
+    private static ClusterTopology cluster() {
+        return new ClusterTopology(true, "node-1", "", "node-1=http://node-1:8080,node-2=http://node-2:8080",
+                "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+    }
+
+    private static MockHttpServletResponse lookup(AdmissionControlFilter filter, String secret) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/receipts/abc/points");
+        request.setRemoteAddr("10.0.0.2");
+        request.addHeader(ClusterClient.FORWARDED_HEADER, "true");
+        request.addHeader(ClusterClient.SECRET_HEADER, secret);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/receipts/process");
+        if (client != null) {
+            request.addHeader("X-Client-Id", client);
+        }
+        return request;
+    }
+
+    private static MockHttpServletResponse process(AdmissionControlFilter filter, String client) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(client), response, new MockFilterChain());
+        return response;
+    }
+}
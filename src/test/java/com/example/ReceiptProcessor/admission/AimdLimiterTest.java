@@ -0,0 +1,115 @@
+package com.example.ReceiptProcessor.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdLimiterTest {
+
+    private static final long TARGET = 100;
+
+    /**
+     * Tests for tryAcquire method
+     */
+    @Test
+    void tryAcquire_atLimit_rejects() {
+        AimdLimiter limiter = new AimdLimiter(TARGET, 2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.inFlight());
+    }
+
+    /**
+     * Tests for release method
+     */
+    @Test
+    void release_slowRequest_backsOffMultiplicatively() {
+        AimdLimiter limiter = new AimdLimiter(TARGET, 10, 1, 100);
+        limiter.tryAcquire();
+
+        limiter.release(0, TARGET + 1);
+
+        assertEquals(9, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void release_slowRequestsFromSameWindow_backOffOnce() {
+        AimdLimiter limiter = new AimdLimiter(TARGET, 10, 1, 100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+        }
+
+        for (int i = 0; i < 5; i++) {
+            limiter.release(i, TARGET * 10 + i);
+        }
+
+        assertEquals(9, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void release_slowRequestStartedAfterLastBackOff_backsOffAgain() {
+        AimdLimiter limiter = new AimdLimiter(TARGET, 10, 1, 100);
+        limiter.tryAcquire();
+        limiter.release(0, TARGET * 10);
+
+        limiter.tryAcquire();
+        limiter.release(TARGET * 10 + 1, TARGET * 20);
+
+        assertEquals(8, limiter.limit());
+    }
+
+    @Test
+    void release_repeatedSlowRequests_stopAtMinimum() {
+        AimdLimiter limiter = new AimdLimiter(TARGET, 10, 3, 100);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(i * TARGET * 10 + 1, (i + 1) * TARGET * 10);
+        }
+
+        assertEquals(3, limiter.limit());
+    }
+
+    @Test
+    void release_fastRequestsAtLimit_growAdditively() {
+        AimdLimiter limiter = new AimdLimiter(TARGET, 4, 1, 5);
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(limiter.tryAcquire());
+            }
+            for (int i = 0; i < 4; i++) {
+                limiter.release(0, TARGET);
+            }
+        }
+
+        assertEquals(5, limiter.limit());
+    }
+
+    @Test
+    void release_fastRequestsWellBelowLimit_leaveLimitUnchanged() {
+        AimdLimiter limiter = new AimdLimiter(TARGET, 10, 1, 100);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(0, 1);
+        }
+
+        assertEquals(10, limiter.limit());
+    }
+
+    @Test
+    void release_withoutSample_onlyFreesSlot() {
+        AimdLimiter limiter = new AimdLimiter(TARGET, 1, 1, 10);
+        limiter.tryAcquire();
+
+        limiter.release();
+
+        assertEquals(1, limiter.limit());
+        assertTrue(limiter.tryAcquire());
+    }
+}
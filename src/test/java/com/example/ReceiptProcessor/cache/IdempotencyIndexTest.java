@@ -0,0 +1,164 @@
+package com.example.ReceiptProcessor.cache;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyIndexTest {
+
+    /**
+     * Tests for keyFor method
+     */
+    @Test
+    void keyFor_withClientKey_usesClientKey() {
+        IdempotencyIndex index = new IdempotencyIndex(true, 10, Duration.ofMinutes(1));
+
+        assertEquals("key:retry-1", index.keyFor(sampleReceipt(), "retry-1"));
+    }
+
+    @Test
+    void keyFor_identicalContent_returnsSameKey() {
+        IdempotencyIndex index = new IdempotencyIndex(true, 10, Duration.ofMinutes(1));
+
+        String key = index.keyFor(sampleReceipt(), null);
+
+        assertTrue(key.startsWith("sha256:"));
+        assertEquals(key, index.keyFor(sampleReceipt(), null));
+    }
+
+    @Test
+    void keyFor_contentHashDisabled_returnsNullWithoutClientKey() {
+        IdempotencyIndex index = new IdempotencyIndex(false, 10, Duration.ofMinutes(1));
+
+        assertNull(index.keyFor(sampleReceipt(), null));
+        assertEquals("key:retry-1", index.keyFor(sampleReceipt(), "retry-1"));
+    }
+
+    /**
+     * Tests for resolve method
+     */
+    @Test
+    void resolve_repeatedKey_returnsFirstIdWithoutIngesting() {
+        IdempotencyIndex index = new IdempotencyIndex(true, 10, Duration.ofMinutes(1));
+        AtomicInteger ingests = new AtomicInteger();
+
+        String first = index.resolve("key:a", () -> "id-" + ingests.incrementAndGet());
+        String second = index.resolve("key:a", () -> "id-" + ingests.incrementAndGet());
+
+        assertEquals("id-1", first);
+        assertEquals("id-1", second);
+        assertEquals(1, ingests.get());
+    }
+
+    @Test
+    void resolve_failedIngest_releasesKey() {
+        IdempotencyIndex index = new IdempotencyIndex(true, 10, Duration.ofMinutes(1));
+
+        assertThrows(IllegalStateException.class, () -> index.resolve("key:a", () -> {
+            throw new IllegalStateException("store unavailable");
+        }));
+
+        assertEquals("id-2", index.resolve("key:a", () -> "id-2"));
+    }
+
+    @Test
+    void resolve_concurrentDuplicates_ingestOnce() throws Exception {
+        IdempotencyIndex index = new IdempotencyIndex(true, 10, Duration.ofMinutes(1));
+        AtomicInteger ingests = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> index.resolve("key:a", () -> {
+                ingests.incrementAndGet();
+                await(release);
+                return "id-1";
+            }));
+            while (ingests.get() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<String> second = executor.submit(() -> index.resolve("key:a", () -> "id-" + ingests.incrementAndGet()));
+            release.countDown();
+
+            assertEquals("id-1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("id-1", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, ingests.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests for forget method
+     */
+    @Test
+    void forget_deadId_nextRequestIngestsAgain() {
+        IdempotencyIndex index = new IdempotencyIndex(true, 10, Duration.ofMinutes(1));
+        AtomicInteger ingests = new AtomicInteger();
+        index.resolve("key:a", () -> "id-" + ingests.incrementAndGet());
+        index.resolve("key:b", () -> "id-" + ingests.incrementAndGet());
+
+        index.forget(List.of("id-1"));
+
+        assertEquals("id-3", index.resolve("key:a", () -> "id-" + ingests.incrementAndGet()));
+        assertEquals("id-2", index.resolve("key:b", () -> "id-" + ingests.incrementAndGet()));
+    }
+
+    @Test
+    void resolve_beyondMaximumSize_evictsEntries() {
+        IdempotencyIndex index = new IdempotencyIndex(true, 2, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 100; i++) {
+            String id = "id-" + i;
+            index.resolve("key:" + i, () -> id);
+        }
+        index.cleanUp();
+
+        assertTrue(index.size() <= 2);
+    }
+
+    /**
+     * Tests for bindTo method
+     */
+    @Test
+    void bindTo_publishesDuplicateCount() {
+        IdempotencyIndex index = new IdempotencyIndex(true, 10, Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        index.bindTo(registry);
+
+        index.resolve("key:a", () -> "id-1");
+        index.resolve("key:a", () -> "id-2");
+
+        assertEquals(1, registry.get("receipts.idempotency.duplicates").functionCounter().count());
+        assertEquals(1, registry.get("receipts.idempotency.entries").gauge().value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Receipt sampleReceipt() {
+        return new ReceiptBuilder()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withTotal("6.49")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .build();
+    }
+}
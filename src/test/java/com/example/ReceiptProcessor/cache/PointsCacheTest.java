@@ -0,0 +1,59 @@
+package com.example.ReceiptProcessor.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointsCacheTest {
+
+    @Test
+    void get_afterPut_returnsPointsAndCountsHit() {
+        PointsCache cache = new PointsCache(10, Duration.ofMinutes(1));
+
+        cache.put("id-1", 28);
+
+        assertEquals(OptionalInt.of(28), cache.get("id-1"));
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(0, cache.stats().missCount());
+    }
+
+    @Test
+    void get_unknownId_returnsEmptyAndCountsMiss() {
+        PointsCache cache = new PointsCache(10, Duration.ofMinutes(1));
+
+        assertTrue(cache.get("missing").isEmpty());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void put_beyondMaximumSize_evictsEntries() {
+        PointsCache cache = new PointsCache(2, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("id-" + i, i);
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.size() <= 2);
+    }
+
+    @Test
+    void bindTo_publishesHitAndMissCounts() {
+        PointsCache cache = new PointsCache(10, Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.put("id-1", 28);
+        cache.get("id-1");
+        cache.get("missing");
+
+        assertEquals(1, registry.get("cache.gets").tags("cache", "points", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "points", "result", "miss")
+                .functionCounter().count());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.ReceiptProcessor.cluster;
+
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
+import com.example.ReceiptProcessor.dto.ClusterMemberDto;
+import com.example.ReceiptProcessor.dto.ClusterStatusDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String> requests = new ConcurrentHashMap<>();
+    private final Map<String, String> secrets = new ConcurrentHashMap<>();
+    private final ClusterClient clusterClient = new ClusterClient(Duration.ofSeconds(2), "cluster-secret", objectMapper);
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/receipts/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.put(path, exchange.getRequestHeaders().getFirst(ClusterClient.FORWARDED_HEADER));
+            if (path.equals("/receipts/points")) {
+                respond(exchange, 200, "{\"points\":{\"a\":5},\"notFound\":[\"b\"]}");
+            } else if (path.equals("/receipts/known/points")) {
+                respond(exchange, 200, "{\"points\":28}");
+            } else if (path.equals("/receipts/broken/points")) {
+                respond(exchange, 500, "{}");
+            } else {
+                respond(exchange, 404, "{}");
+            }
+        });
+        server.createContext("/cluster/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.put(path, exchange.getRequestMethod() + " " + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            secrets.put(path, exchange.getRequestHeaders().getFirst(ClusterClient.SECRET_HEADER));
+            if (path.equals("/cluster/members")) {
+                respond(exchange, 200, "{\"node\":\"node-2\",\"shards\":1024,\"migratedReceipts\":0,"
+                        + "\"members\":[{\"name\":\"node-2\",\"url\":\"http://node-2:8080\",\"ownedShards\":1024}]}");
+            } else {
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Tests for fetchPoints method
+     */
+    @Test
+    void fetchPoints_knownReceipt_returnsPointsAndMarksForwarded() {
+        assertEquals(OptionalInt.of(28), clusterClient.fetchPoints(baseUrl, "known"));
+        assertEquals("true", requests.get("/receipts/known/points"));
+    }
+
+    @Test
+    void fetchPoints_notFound_returnsEmpty() {
+        assertTrue(clusterClient.fetchPoints(baseUrl, "unknown").isEmpty());
+    }
+
+    @Test
+    void fetchPoints_serverError_throwsNodeUnavailable() {
+        assertThrows(NodeUnavailableException.class, () -> clusterClient.fetchPoints(baseUrl, "broken"));
+    }
+
+    @Test
+    void fetchPoints_nodeDown_throwsNodeUnavailable() {
+        server.stop(0);
+
+        assertThrows(NodeUnavailableException.class, () -> clusterClient.fetchPoints(baseUrl, "known"));
+    }
+
+    /**
+     * Tests for fetchPointsAsync method
+     */
+    @Test
+    void fetchPointsAsync_returnsBulkResponse() {
+        BulkPointsResponseDto response = clusterClient.fetchPointsAsync(baseUrl, List.of("a", "b")).join();
+
+        assertEquals(Map.of("a", 5), response.getPoints());
+        assertEquals(List.of("b"), response.getNotFound());
+        assertEquals("true", requests.get("/receipts/points"));
+    }
+
+    @Test
+    void fetchPointsAsync_nodeDown_completesWithNodeUnavailable() {
+        server.stop(0);
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> clusterClient.fetchPointsAsync(baseUrl, List.of("a")).join());
+        assertInstanceOf(NodeUnavailableException.class, e.getCause());
+    }
+
+    /**
+     * Tests for transfer, announce and evict methods
+     */
+    @Test
+    void transfer_postsEntriesAsJson() {
+        Receipt receipt = new Receipt("moved", "Target", "2022-01-01", "13:01", List.of(), "6.49");
+
+        clusterClient.transfer(baseUrl, List.of(new JournalEntry(receipt, 6)));
+
+        String body = requests.get("/cluster/receipts");
+        assertTrue(body.contains("\"id\":\"moved\""), body);
+        assertTrue(body.contains("\"points\":6"), body);
+        assertEquals("cluster-secret", secrets.get("/cluster/receipts"));
+    }
+
+    @Test
+    void announce_returnsPeerStatus() {
+        ClusterStatusDto status = clusterClient.announce(baseUrl, new ClusterMemberDto("node-4", "http://node-4:8080"));
+
+        assertEquals("node-2", status.getNode());
+        assertTrue(requests.get("/cluster/members").contains("\"name\":\"node-4\""));
+        assertEquals("cluster-secret", secrets.get("/cluster/members"));
+    }
+
+    @Test
+    void evict_sendsDeleteForTheMember() {
+        clusterClient.evict(baseUrl, "node-4");
+
+        assertEquals("DELETE ", requests.get("/cluster/members/node-4"));
+        assertEquals("cluster-secret", secrets.get("/cluster/members/node-4"));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
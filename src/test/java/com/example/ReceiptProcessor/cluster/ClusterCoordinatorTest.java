@@ -0,0 +1,168 @@
+package com.example.ReceiptProcessor.cluster;
+
+import com.example.ReceiptProcessor.id.RandomReceiptIdGenerator;
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.dto.ClusterMemberStatusDto;
+import com.example.ReceiptProcessor.dto.ClusterStatusDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.rules.RuleEngine;
+import com.example.ReceiptProcessor.store.InMemoryReceiptStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterCoordinatorTest {
+
+    private static final String NODES = "node-1=http://node-1:8080,node-2=http://node-2:8080";
+
+    @Mock
+    private ClusterClient clusterClient;
+
+    @Mock
+    private RuleEngine ruleEngine;
+
+    private ClusterTopology clusterTopology;
+    private InMemoryReceiptStore receiptStore;
+    private ClusterCoordinator clusterCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        clusterTopology = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+        receiptStore = new InMemoryReceiptStore(4, false, DataSize.ofKilobytes(64));
+        clusterCoordinator = new ClusterCoordinator(Duration.ofSeconds(5), clusterTopology, clusterClient, receiptStore, ruleEngine);
+    }
+
+    /**
+     * Tests for rebalance method
+     */
+    @Test
+    void rebalance_nodeJoined_movesItsShardsAndKeepsTheRest() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String id = clusterTopology.newReceiptId();
+            ids.add(id);
+            receiptStore.save(receipt(id, i % 2 == 0 ? 10 : null));
+        }
+        when(ruleEngine.score(any())).thenReturn(99);
+        clusterTopology.join("node-3", "http://node-3:8080");
+
+        int moved = clusterCoordinator.rebalance();
+
+        List<String> expected = ids.stream().filter(id -> clusterTopology.ownerOf(id).equals("node-3")).toList();
+        assertTrue(moved > 0);
+        assertEquals(expected.size(), moved);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<JournalEntry>> transferred = ArgumentCaptor.forClass(List.class);
+        verify(clusterClient, atLeastOnce()).transfer(eq("http://node-3:8080"), transferred.capture());
+        List<JournalEntry> entries = transferred.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(expected.size(), entries.size());
+        assertTrue(entries.stream().allMatch(entry -> entry.getPoints() == 10 || entry.getPoints() == 99));
+        for (String id : ids) {
+            assertEquals(!expected.contains(id), receiptStore.existsById(id));
+        }
+        assertEquals(moved, clusterCoordinator.status().getMigratedReceipts());
+        assertEquals(0, clusterCoordinator.rebalance());
+    }
+
+    @Test
+    void rebalance_transferFails_keepsReceipts() {
+        String id = clusterTopology.newReceiptId();
+        receiptStore.save(receipt(id, 4));
+        clusterTopology.join("node-3", "http://node-3:8080");
+        String moving = ClusterRouterTest.idOwnedBy(clusterTopology, "node-3");
+        receiptStore.save(receipt(moving, 4));
+        doThrow(new NodeUnavailableException("http://node-3:8080", 503)).when(clusterClient).transfer(anyString(), any());
+
+        assertThrows(NodeUnavailableException.class, () -> clusterCoordinator.rebalance());
+
+        assertTrue(receiptStore.existsById(moving));
+        assertEquals(0, clusterCoordinator.status().getMigratedReceipts());
+    }
+
+    /**
+     * Tests for status method
+     */
+    @Test
+    void status_listsMembersWithOwnedShards() {
+        ClusterStatusDto status = clusterCoordinator.status();
+
+        assertEquals("node-1", status.getNode());
+        assertEquals(1024, status.getShards());
+        assertEquals(2, status.getMembers().size());
+        assertEquals(1024, status.getMembers().stream().mapToInt(ClusterMemberStatusDto::getOwnedShards).sum());
+    }
+
+    /**
+     * Tests for announceTo method
+     */
+    @Test
+    void announceTo_learnsMembersKnownToThePeer() {
+        ClusterStatusDto peer = new ClusterStatusDto("node-2", 1024, 0, List.of(
+                new ClusterMemberStatusDto("node-3", "http://node-3:8080", 300)));
+        when(clusterClient.announce(eq("http://node-2:8080"), any())).thenReturn(peer);
+
+        clusterCoordinator.announceTo("node-2");
+
+        assertEquals("http://node-3:8080", clusterTopology.urlOf("node-3"));
+    }
+
+    /**
+     * Tests for evict and evictFrom methods
+     */
+    @Test
+    void evict_member_dropsItFromTheRing() {
+        clusterCoordinator.evict("node-2");
+
+        assertNull(clusterTopology.urlOf("node-2"));
+        assertEquals(1024, clusterTopology.ownedShardCount("node-1"));
+        assertEquals(1, clusterCoordinator.status().getMembers().size());
+    }
+
+    @Test
+    void evictFrom_tellsTheMember() {
+        clusterTopology.join("node-3", "http://node-3:8080");
+
+        clusterCoordinator.evictFrom("node-2", "node-3");
+
+        verify(clusterClient).evict("http://node-2:8080", "node-3");
+    }
+
+    @Test
+    void evictFrom_memberSinceRemoved_isSkipped() {
+        clusterCoordinator.evictFrom("node-3", "node-2");
+
+        verifyNoInteractions(clusterClient);
+    }
+
+    /**
+     * Helper methods
+     */
+    private static Receipt receipt(String id, Integer points) {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withTotal("6.49")
+                .build();
+        receipt.setId(id);
+        receipt.setPoints(points);
+        return receipt;
+    }
+}
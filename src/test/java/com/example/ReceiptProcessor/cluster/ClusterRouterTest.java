@@ -0,0 +1,145 @@
+package com.example.ReceiptProcessor.cluster;
+
+import com.example.ReceiptProcessor.id.RandomReceiptIdGenerator;
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
+import com.example.ReceiptProcessor.service.ReceiptService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterRouterTest {
+
+    private static final String NODES = "node-1=http://node-1:8080,node-2=http://node-2:8080";
+
+    @Spy
+    private ClusterTopology clusterTopology = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+
+    @Mock
+    private ClusterClient clusterClient;
+
+    @Mock
+    private ReceiptService receiptService;
+
+    @InjectMocks
+    private ClusterRouter clusterRouter;
+
+    /**
+     * Tests for points method
+     */
+    @Test
+    void points_localShard_answersFromLocalStore() {
+        String id = idOwnedBy(clusterTopology, "node-1");
+        when(receiptService.processReceiptPoints(id)).thenReturn(28);
+
+        assertEquals(28, clusterRouter.points(id, false));
+        verifyNoInteractions(clusterClient);
+    }
+
+    @Test
+    void points_remoteShard_forwardsToOwner() {
+        String id = idOwnedBy(clusterTopology, "node-2");
+        when(clusterClient.fetchPoints("http://node-2:8080", id)).thenReturn(OptionalInt.of(109));
+
+        assertEquals(109, clusterRouter.points(id, false));
+        verify(receiptService, never()).processReceiptPoints(anyString());
+    }
+
+    @Test
+    void points_forwardedRequest_neverRoutesAgain() {
+        String id = idOwnedBy(clusterTopology, "node-2");
+        when(receiptService.processReceiptPoints(id)).thenThrow(new IllegalArgumentException("No receipt found for that ID."));
+
+        assertThrows(IllegalArgumentException.class, () -> clusterRouter.points(id, true));
+        verifyNoInteractions(clusterClient);
+    }
+
+    @Test
+    void points_unknownOnOwner_throwsIllegalArgument() {
+        String id = idOwnedBy(clusterTopology, "node-2");
+        when(clusterClient.fetchPoints("http://node-2:8080", id)).thenReturn(OptionalInt.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> clusterRouter.points(id, false));
+    }
+
+    @Test
+    void points_shardMovedToNewNode_fallsBackToPreviousOwner() {
+        ClusterTopology joined = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+        joined.join("node-3", "http://node-3:8080");
+        String id = IntStream.range(0, 1024).mapToObj(ShardedIds::newId)
+                .filter(candidate -> joined.ownerOf(candidate).equals("node-3")
+                        && joined.previousOwnerOf(candidate).equals("node-1"))
+                .findFirst().orElseThrow();
+        ClusterRouter router = new ClusterRouter(joined, clusterClient, receiptService);
+        when(clusterClient.fetchPoints("http://node-3:8080", id)).thenReturn(OptionalInt.empty());
+        when(receiptService.processReceiptPoints(id)).thenReturn(12);
+
+        assertEquals(12, router.points(id, false));
+    }
+
+    @Test
+    void points_disabled_answersLocally() {
+        ClusterRouter router = new ClusterRouter(new ClusterTopology(false, "node-1", "", "", "", 1024, 64, new RandomReceiptIdGenerator()),
+                clusterClient, receiptService);
+        when(receiptService.processReceiptPoints("any")).thenReturn(5);
+
+        assertEquals(5, router.points("any", false));
+        verifyNoInteractions(clusterClient);
+    }
+
+    /**
+     * Tests for bulk points method
+     */
+    @Test
+    void pointsBulk_idsOnTwoNodes_mergesInRequestOrder() {
+        String remote = idOwnedBy(clusterTopology, "node-2");
+        String local = idOwnedBy(clusterTopology, "node-1");
+        String missing = idOwnedBy(clusterTopology, "node-2");
+        when(clusterClient.fetchPointsAsync(eq("http://node-2:8080"), any())).thenAnswer(invocation -> {
+            List<String> ids = invocation.getArgument(1);
+            return CompletableFuture.completedFuture(new BulkPointsResponseDto(
+                    Map.of(remote, 7), ids.stream().filter(id -> !id.equals(remote)).toList()));
+        });
+        when(receiptService.processReceiptPoints(List.of(local))).thenReturn(new BulkPointsResponseDto(Map.of(local, 3), List.of()));
+
+        BulkPointsResponseDto response = clusterRouter.points(List.of(remote, missing, local, remote), false);
+
+        assertEquals(List.of(remote, local), List.copyOf(response.getPoints().keySet()));
+        assertEquals(7, response.getPoints().get(remote));
+        assertEquals(3, response.getPoints().get(local));
+        assertEquals(List.of(missing), response.getNotFound());
+    }
+
+    @Test
+    void pointsBulk_ownerUnavailable_throwsNodeUnavailable() {
+        String remote = idOwnedBy(clusterTopology, "node-2");
+        when(clusterClient.fetchPointsAsync(eq("http://node-2:8080"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new NodeUnavailableException("http://node-2:8080", 500)));
+
+        assertThrows(NodeUnavailableException.class, () -> clusterRouter.points(List.of(remote), false));
+    }
+
+    /**
+     * Helper methods
+     */
+    static String idOwnedBy(ClusterTopology topology, String node) {
+        return IntStream.range(0, topology.shardCount()).mapToObj(ShardedIds::newId)
+                .filter(id -> topology.ownerOf(id).equals(node))
+                .findFirst().orElseThrow();
+    }
+}
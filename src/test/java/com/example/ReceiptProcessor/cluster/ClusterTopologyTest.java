@@ -0,0 +1,168 @@
+package com.example.ReceiptProcessor.cluster;
+
+import com.example.ReceiptProcessor.id.RandomReceiptIdGenerator;
+import com.example.ReceiptProcessor.id.TimeOrderedReceiptIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterTopologyTest {
+
+    private static final String NODES = "node-1=http://node-1:8080, node-2=http://node-2:8080,node-3=http://node-3:8080";
+
+    /**
+     * Tests for newReceiptId method
+     */
+    @Test
+    void newReceiptId_enabled_landsOnAShardThisNodeOwns() {
+        ClusterTopology topology = new ClusterTopology(true, "node-2", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals("node-2", topology.ownerOf(topology.newReceiptId()));
+        }
+    }
+
+    @Test
+    void newReceiptId_disabled_returnsRandomUuid() {
+        ClusterTopology topology = new ClusterTopology(false, "node-1", "", "", "", 1024, 64, new RandomReceiptIdGenerator());
+
+        String id = topology.newReceiptId();
+
+        assertEquals(36, id.length());
+        assertEquals("node-1", topology.ownerOf(id));
+    }
+
+    @Test
+    void newReceiptId_timeOrderedGenerator_staysInOrderAcrossShards() {
+        ClusterTopology topology = new ClusterTopology(true, "node-2", "", NODES, "cluster-secret", 1024, 64, new TimeOrderedReceiptIdGenerator());
+
+        UUID previous = UUID.fromString(topology.newReceiptId());
+        for (int i = 0; i < 200; i++) {
+            UUID id = UUID.fromString(topology.newReceiptId());
+            assertEquals(7, id.version());
+            assertTrue(Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = id;
+        }
+    }
+
+    /**
+     * Tests for constructor
+     */
+    @Test
+    void constructor_parsesMembers() {
+        ClusterTopology topology = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+
+        assertEquals(List.of("node-1", "node-2", "node-3"), List.copyOf(topology.members().keySet()));
+        assertEquals("http://node-2:8080", topology.urlOf("node-2"));
+        assertNull(topology.previousOwnerOf("any-id"));
+    }
+
+    @Test
+    void constructor_nodeMissingFromList_joinsWithPreviousRingWithoutItself() {
+        ClusterTopology topology = new ClusterTopology(true, "node-4", "http://node-4:8080", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+
+        assertEquals("http://node-4:8080", topology.urlOf("node-4"));
+        assertTrue(topology.ownedShardCount("node-4") > 0);
+        for (int i = 0; i < 100; i++) {
+            String id = topology.newReceiptId();
+            assertNotEquals("node-4", topology.previousOwnerOf(id));
+        }
+    }
+
+    @Test
+    void constructor_malformedNodes_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClusterTopology(true, "node-1", "", "node-1", "cluster-secret", 1024, 64, new RandomReceiptIdGenerator()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", ShardedIds.MAX_SHARDS + 1, 64, new RandomReceiptIdGenerator()));
+    }
+
+    @Test
+    void constructor_enabledWithoutSecret_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ClusterTopology(true, "node-1", "", NODES, " ", 1024, 64, new RandomReceiptIdGenerator()));
+    }
+
+    /**
+     * Tests for isMemberSecret method
+     */
+    @Test
+    void isMemberSecret_onlyAcceptsTheConfiguredSecret() {
+        ClusterTopology topology = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+
+        assertTrue(topology.isMemberSecret("cluster-secret"));
+        assertFalse(topology.isMemberSecret("cluster-secre"));
+        assertFalse(topology.isMemberSecret(""));
+        assertFalse(topology.isMemberSecret(null));
+    }
+
+    /**
+     * Tests for join method
+     */
+    @Test
+    void join_newMember_keepsOldRingAsPrevious() {
+        ClusterTopology topology = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+        List<String> ids = IntStream.range(0, 1024).mapToObj(ShardedIds::newId).toList();
+        List<String> ownersBefore = ids.stream().map(topology::ownerOf).toList();
+
+        assertTrue(topology.join("node-4", "http://node-4:8080"));
+
+        int moved = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(ownersBefore.get(i), topology.previousOwnerOf(ids.get(i)));
+            if (!ownersBefore.get(i).equals(topology.ownerOf(ids.get(i)))) {
+                assertEquals("node-4", topology.ownerOf(ids.get(i)));
+                moved++;
+            }
+        }
+        assertTrue(moved > 0);
+    }
+
+    @Test
+    void join_knownMember_leavesRingAlone() {
+        ClusterTopology topology = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+
+        assertFalse(topology.join("node-2", "http://node-2:8080"));
+        assertFalse(topology.join("node-2", "http://10.0.0.2:8080"));
+
+        assertEquals("http://10.0.0.2:8080", topology.urlOf("node-2"));
+        assertNull(topology.previousOwnerOf("any-id"));
+    }
+
+    /**
+     * Tests for leave method
+     */
+    @Test
+    void leave_member_handsItsShardsToTheOthers() {
+        ClusterTopology topology = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+
+        assertTrue(topology.leave("node-3"));
+
+        assertNull(topology.urlOf("node-3"));
+        assertEquals(0, topology.ownedShardCount("node-3"));
+        assertEquals(1024, topology.ownedShardCount("node-1") + topology.ownedShardCount("node-2"));
+        assertFalse(topology.leave("node-3"));
+    }
+
+    @Test
+    void leave_joinedMember_dropsPreviousRingThatStillPointsAtIt() {
+        ClusterTopology topology = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+        topology.join("node-4", "http://node-4:8080");
+        topology.leave("node-3");
+
+        for (int shard = 0; shard < 1024; shard++) {
+            assertNull(topology.previousOwnerOf(ShardedIds.newId(shard)));
+        }
+    }
+
+    @Test
+    void leave_self_throws() {
+        ClusterTopology topology = new ClusterTopology(true, "node-1", "", NODES, "cluster-secret", 1024, 64, new RandomReceiptIdGenerator());
+
+        assertThrows(IllegalArgumentException.class, () -> topology.leave("node-1"));
+    }
+}
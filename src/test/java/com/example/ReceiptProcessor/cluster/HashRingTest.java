@@ -0,0 +1,64 @@
+package com.example.ReceiptProcessor.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRingTest {
+
+    /**
+     * Tests for owner method
+     */
+    @Test
+    void owner_sameMembersInAnyOrder_givesSameOwners() {
+        HashRing ring = new HashRing(List.of("node-1", "node-2", "node-3"), 1024, 64);
+        HashRing reordered = new HashRing(List.of("node-3", "node-1", "node-2"), 1024, 64);
+
+        for (int shard = 0; shard < 1024; shard++) {
+            assertEquals(ring.owner(shard), reordered.owner(shard));
+        }
+    }
+
+    @Test
+    void owner_virtualNodes_spreadShardsEvenly() {
+        List<String> nodes = List.of("node-1", "node-2", "node-3", "node-4");
+        HashRing ring = new HashRing(nodes, 4096, 128);
+
+        for (String node : nodes) {
+            int owned = ring.shardsOwnedBy(node).length;
+            assertTrue(owned > 4096 / 4 * 0.7 && owned < 4096 / 4 * 1.3, () -> node + " owns " + owned);
+        }
+    }
+
+    @Test
+    void owner_nodeJoins_movesOnlyShardsToTheNewNode() {
+        HashRing before = new HashRing(List.of("node-1", "node-2", "node-3"), 4096, 64);
+        HashRing after = new HashRing(List.of("node-1", "node-2", "node-3", "node-4"), 4096, 64);
+
+        int moved = 0;
+        for (int shard = 0; shard < 4096; shard++) {
+            if (!before.owner(shard).equals(after.owner(shard))) {
+                assertEquals("node-4", after.owner(shard));
+                moved++;
+            }
+        }
+        int expected = 4096 / 4;
+        int actual = moved;
+        assertTrue(actual > expected * 0.7 && actual < expected * 1.3, () -> "moved " + actual);
+    }
+
+    @Test
+    void owner_singleNode_ownsEverything() {
+        HashRing ring = new HashRing(List.of("only"), 16, 1);
+
+        assertEquals(16, ring.shardsOwnedBy("only").length);
+        assertEquals(0, ring.shardsOwnedBy("other").length);
+    }
+
+    @Test
+    void constructor_noNodes_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> new HashRing(List.of(), 16, 4));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.ReceiptProcessor.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedIdsTest {
+
+    /**
+     * Tests for newId and shardOf methods
+     */
+    @Test
+    void shardOf_newId_returnsItsShard() {
+        for (int shard : new int[]{0, 1, 517, 1023, ShardedIds.MAX_SHARDS - 1}) {
+            String id = ShardedIds.newId(shard);
+
+            assertEquals(shard, ShardedIds.shardOf(id, ShardedIds.MAX_SHARDS));
+            assertEquals(shard % 1024, ShardedIds.shardOf(id, 1024));
+        }
+    }
+
+    @Test
+    void newId_keepsVersionAndVariant() {
+        UUID id = UUID.fromString(ShardedIds.newId(12345));
+
+        assertEquals(4, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void shardOf_otherIds_areStable() {
+        String legacy = "7fb1377b-b223-49d9-a31a-5a02701dd310";
+
+        assertEquals(0xd310 % 1024, ShardedIds.shardOf(legacy, 1024));
+        assertEquals(ShardedIds.shardOf("not-a-uuid", 1024), ShardedIds.shardOf("not-a-uuid", 1024));
+        assertTrue(ShardedIds.shardOf("not-a-uuid", 7) < 7);
+        assertTrue(ShardedIds.shardOf("xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx", 7) >= 0);
+    }
+
+    @Test
+    void withShard_outOfRange_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> ShardedIds.newId(ShardedIds.MAX_SHARDS));
+        assertThrows(IllegalArgumentException.class, () -> ShardedIds.newId(-1));
+    }
+}
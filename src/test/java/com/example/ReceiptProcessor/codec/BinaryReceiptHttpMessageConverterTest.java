@@ -0,0 +1,116 @@
+package com.example.ReceiptProcessor.codec;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
+import com.example.ReceiptProcessor.dto.PointsResponseDto;
+import com.example.ReceiptProcessor.dto.ProcessReceiptDto;
+import com.example.ReceiptProcessor.model.Receipt;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryReceiptHttpMessageConverterTest {
+
+    private final BinaryReceiptHttpMessageConverter converter = new BinaryReceiptHttpMessageConverter();
+
+    /**
+     * Tests for canRead and canWrite methods
+     */
+    @Test
+    void canRead_onlyReceiptsInBinaryMediaType() {
+        assertTrue(converter.canRead(Receipt.class, BinaryReceiptHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canRead(Receipt.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(PointsResponseDto.class, BinaryReceiptHttpMessageConverter.MEDIA_TYPE));
+    }
+
+    @Test
+    void canWrite_onlyIdAndPointsResponses() {
+        assertTrue(converter.canWrite(ProcessReceiptDto.class, BinaryReceiptHttpMessageConverter.MEDIA_TYPE));
+        assertTrue(converter.canWrite(PointsResponseDto.class, BinaryReceiptHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canWrite(PointsResponseDto.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(BulkPointsResponseDto.class, BinaryReceiptHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(converter.canWrite(Receipt.class, BinaryReceiptHttpMessageConverter.MEDIA_TYPE));
+    }
+
+    /**
+     * Tests for read method
+     */
+    @Test
+    void read_encodedReceipt_returnsReceipt() throws IOException {
+        Receipt receipt = new ReceiptBuilder()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withTotal("6.49")
+                .build();
+
+        Receipt read = (Receipt) converter.read(Receipt.class,
+                new MockHttpInputMessage(ReceiptBinaryCodec.encodeReceipt(receipt)));
+
+        assertEquals("Target", read.getRetailer());
+        assertEquals("6.49", read.getItems().get(0).getPrice());
+    }
+
+    @Test
+    void read_malformedBody_throwsNotReadable() {
+        assertThrows(HttpMessageNotReadableException.class,
+                () -> converter.read(Receipt.class, new MockHttpInputMessage(new byte[]{1, 42})));
+    }
+
+    @Test
+    void read_declaredLengthOverLimit_rejectedWithoutReading() {
+        BinaryReceiptHttpMessageConverter limited = new BinaryReceiptHttpMessageConverter(16);
+        MockHttpInputMessage message = new MockHttpInputMessage(new byte[0]);
+        message.getHeaders().setContentLength(17);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> limited.read(Receipt.class, message));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exception.getStatusCode());
+    }
+
+    @Test
+    void read_undeclaredBodyOverLimit_stopsReadingAtLimit() {
+        BinaryReceiptHttpMessageConverter limited = new BinaryReceiptHttpMessageConverter(16);
+        ByteArrayInputStream body = new ByteArrayInputStream(new byte[1024]);
+        MockHttpInputMessage message = new MockHttpInputMessage(body);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> limited.read(Receipt.class, message));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exception.getStatusCode());
+        assertEquals(1024 - 17, body.available());
+    }
+
+    /**
+     * Tests for write method
+     */
+    @Test
+    void write_pointsResponse_writesVarint() throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(new PointsResponseDto(109), BinaryReceiptHttpMessageConverter.MEDIA_TYPE, output);
+
+        assertEquals(BinaryReceiptHttpMessageConverter.MEDIA_TYPE, output.getHeaders().getContentType());
+        assertEquals(109, ReceiptBinaryCodec.decodePoints(output.getBodyAsBytes()));
+    }
+
+    @Test
+    void write_processResponse_writesId() throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(new ProcessReceiptDto("7fb1377b-b223-49d9-a31a-5a02701dd310"), null, output);
+
+        assertEquals("7fb1377b-b223-49d9-a31a-5a02701dd310", ReceiptBinaryCodec.decodeId(output.getBodyAsBytes()));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.ReceiptProcessor.codec;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptBinaryCodecTest {
+
+    /**
+     * Tests for encodeReceipt and decodeReceipt methods
+     */
+    @Test
+    void decodeReceipt_encodedReceipt_roundTrips() {
+        Receipt decoded = ReceiptBinaryCodec.decodeReceipt(ReceiptBinaryCodec.encodeReceipt(sampleReceipt().build()));
+
+        assertNull(decoded.getId());
+        assertEquals("M&M Corner Market", decoded.getRetailer());
+        assertEquals("2022-03-20", decoded.getPurchaseDate());
+        assertEquals("14:33", decoded.getPurchaseTime());
+        assertEquals("9.00", decoded.getTotal());
+        assertEquals(2, decoded.getItems().size());
+        assertEquals("Gatorade", decoded.getItems().get(0).getShortDescription());
+        assertEquals("2.25", decoded.getItems().get(0).getPrice());
+        assertEquals("Émile's café ☕", decoded.getItems().get(1).getShortDescription());
+    }
+
+    @Test
+    void decodeReceipt_nonCanonicalAmountsAndTime_returnsCanonicalForm() {
+        Receipt receipt = sampleReceipt().withPurchaseTime("9:05").withTotal("12.3").build();
+
+        Receipt decoded = ReceiptBinaryCodec.decodeReceipt(ReceiptBinaryCodec.encodeReceipt(receipt));
+
+        assertEquals("09:05", decoded.getPurchaseTime());
+        assertEquals("12.30", decoded.getTotal());
+    }
+
+    @Test
+    void encodeReceipt_packsFieldsCompactly() {
+        byte[] encoded = ReceiptBinaryCodec.encodeReceipt(sampleReceipt().build());
+
+        // version 1, retailer 18, date 3, time 2, total 2, count 1, items 9 + 2 and 19 + 2
+        assertEquals(59, encoded.length);
+    }
+
+    @Test
+    void encodeReceipt_dateBeforeEpoch_roundTrips() {
+        Receipt receipt = sampleReceipt().withPurchaseDate("1969-12-31").build();
+
+        assertEquals("1969-12-31", ReceiptBinaryCodec.decodeReceipt(ReceiptBinaryCodec.encodeReceipt(receipt)).getPurchaseDate());
+    }
+
+    @Test
+    void encodeReceipt_invalidFields_throwsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ReceiptBinaryCodec.encodeReceipt(sampleReceipt().withTotal("9.001").build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReceiptBinaryCodec.encodeReceipt(sampleReceipt().withPurchaseDate("2022-02-30").build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReceiptBinaryCodec.encodeReceipt(sampleReceipt().withPurchaseTime("25:00").build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ReceiptBinaryCodec.encodeReceipt(sampleReceipt().withRetailer(null).build()));
+
+        Receipt withoutItems = sampleReceipt().build();
+        withoutItems.setItems(null);
+        assertThrows(IllegalArgumentException.class, () -> ReceiptBinaryCodec.encodeReceipt(withoutItems));
+    }
+
+    @Test
+    void decodeReceipt_truncatedPayload_throwsException() {
+        byte[] encoded = ReceiptBinaryCodec.encodeReceipt(sampleReceipt().build());
+
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IllegalArgumentException.class, () -> ReceiptBinaryCodec.decodeReceipt(truncated));
+        }
+    }
+
+    @Test
+    void decodeReceipt_trailingBytes_throwsException() {
+        byte[] encoded = ReceiptBinaryCodec.encodeReceipt(sampleReceipt().build());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ReceiptBinaryCodec.decodeReceipt(Arrays.copyOf(encoded, encoded.length + 1)));
+    }
+
+    @Test
+    void decodeReceipt_unknownVersion_throwsException() {
+        byte[] encoded = ReceiptBinaryCodec.encodeReceipt(sampleReceipt().build());
+        encoded[0] = 2;
+
+        assertThrows(IllegalArgumentException.class, () -> ReceiptBinaryCodec.decodeReceipt(encoded));
+    }
+
+    @Test
+    void decodeReceipt_hugeItemCount_throwsBeforeAllocating() {
+        // version, empty retailer, date 0, time 0, total 0, item count 2^31
+        byte[] hostile = {1, 0, 0, 0, 0, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08};
+
+        assertThrows(IllegalArgumentException.class, () -> ReceiptBinaryCodec.decodeReceipt(hostile));
+    }
+
+    @Test
+    void decodeReceipt_negativeMinuteOrAmount_throwsException() {
+        // A ten-byte varint with the top bit set decodes to a negative long
+        byte[] negative = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+                (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+        // version, empty retailer, date 0, then the time
+        byte[] minute = new byte[3 + negative.length + 2];
+        minute[0] = 1;
+        System.arraycopy(negative, 0, minute, 3, negative.length);
+        // version, empty retailer, date 0, time 0, then the total
+        byte[] total = new byte[4 + negative.length + 1];
+        total[0] = 1;
+        System.arraycopy(negative, 0, total, 4, negative.length);
+
+        assertThrows(IllegalArgumentException.class, () -> ReceiptBinaryCodec.decodeReceipt(minute));
+        assertThrows(IllegalArgumentException.class, () -> ReceiptBinaryCodec.decodeReceipt(total));
+    }
+
+    /**
+     * Tests for id and points encodings
+     */
+    @Test
+    void decodeId_encodedId_roundTrips() {
+        String id = "7fb1377b-b223-49d9-a31a-5a02701dd310";
+
+        byte[] encoded = ReceiptBinaryCodec.encodeId(id);
+
+        assertEquals(37, encoded.length);
+        assertEquals(id, ReceiptBinaryCodec.decodeId(encoded));
+    }
+
+    @Test
+    void decodePoints_encodedPoints_roundTrips() {
+        assertEquals(1, ReceiptBinaryCodec.encodePoints(28).length);
+        assertEquals(28, ReceiptBinaryCodec.decodePoints(ReceiptBinaryCodec.encodePoints(28)));
+        assertEquals(-5, ReceiptBinaryCodec.decodePoints(ReceiptBinaryCodec.encodePoints(-5)));
+        assertEquals(Integer.MAX_VALUE, ReceiptBinaryCodec.decodePoints(ReceiptBinaryCodec.encodePoints(Integer.MAX_VALUE)));
+    }
+
+    private static ReceiptBuilder sampleReceipt() {
+        return new ReceiptBuilder()
+                .withRetailer("M&M Corner Market")
+                .withPurchaseDate("2022-03-20")
+                .withPurchaseTime("14:33")
+                .withItems("Gatorade", "2.25")
+                .withItems("Émile's café ☕", "6.75")
+                .withTotal("9.00");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ReceiptProcessor.config;
+
+import com.example.ReceiptProcessor.dto.ReceiptStreamResultDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    /**
+     * Tests for registerHints method
+     */
+    @Test
+    void registerHints_jsonTypes_areBindable() {
+        new ReceiptRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        for (Class<?> type : new Class<?>[]{Receipt.class, Item.class, JournalEntry.class, ReceiptStreamResultDto.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), type.getName());
+        }
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Receipt.class, "getRetailer").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Item.class, "setPrice").test(hints));
+    }
+
+    @Test
+    void registerHints_connectionProxy_isRegistered() {
+        new ReceiptRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+    }
+}
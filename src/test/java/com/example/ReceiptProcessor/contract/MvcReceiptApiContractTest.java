@@ -0,0 +1,7 @@
+package com.example.ReceiptProcessor.contract;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MvcReceiptApiContractTest extends ReceiptApiContractTest {
+}
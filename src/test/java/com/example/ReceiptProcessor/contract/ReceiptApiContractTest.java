@@ -0,0 +1,115 @@
+package com.example.ReceiptProcessor.contract;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HTTP-level contract for {@code /receipts/process} and {@code /receipts/{id}/points}. Each API
+ * implementation runs it against a real server: the blocking app here and the reactive module,
+ * which compiles this class from the same source.
+ */
+public abstract class ReceiptApiContractTest {
+
+    private static final String TARGET_RECEIPT = """
+            {"retailer":"Target","purchaseDate":"2022-01-01","purchaseTime":"13:01",
+             "items":[{"shortDescription":"Mountain Dew 12PK","price":"6.49"},
+                      {"shortDescription":"Emils Cheese Pizza","price":"12.25"},
+                      {"shortDescription":"Knorr Creamy Chicken","price":"1.26"},
+                      {"shortDescription":"Doritos Nacho Cheese","price":"3.35"},
+                      {"shortDescription":"   Klarbrunn 12-PK 12 FL OZ  ","price":"12.00"}],
+             "total":"35.35"}""";
+
+    private static final String CORNER_MARKET_RECEIPT = """
+            {"retailer":"M&M Corner Market","purchaseDate":"2022-03-20","purchaseTime":"14:33",
+             "items":[{"shortDescription":"Gatorade","price":"2.25"},
+                      {"shortDescription":"Gatorade","price":"2.25"},
+                      {"shortDescription":"Gatorade","price":"2.25"},
+                      {"shortDescription":"Gatorade","price":"2.25"}],
+             "total":"9.00"}""";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @LocalServerPort
+    private int port;
+
+    /**
+     * Tests for processReceipts endpoint
+     */
+    @Test
+    void processReceipts_validReceipt_returnsId() throws Exception {
+        HttpResponse<String> response = post(TARGET_RECEIPT);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(json(response).path("id").asText()
+                .matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}"));
+    }
+
+    @Test
+    void processReceipts_malformedBody_returnsBadRequest() throws Exception {
+        HttpResponse<String> response = post("{\"retailer\":");
+
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    void processReceipts_invalidReceipt_returnsBadRequestNamingTheField() throws Exception {
+        HttpResponse<String> response = post(TARGET_RECEIPT.replace("\"35.35\"", "\"35.3\""));
+
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("total"), response.body());
+    }
+
+    /**
+     * Tests for getPoints endpoint
+     */
+    @Test
+    void getPoints_processedReceipts_returnsReadmeExamplePoints() throws Exception {
+        String targetId = json(post(TARGET_RECEIPT)).path("id").asText();
+        String cornerMarketId = json(post(CORNER_MARKET_RECEIPT)).path("id").asText();
+
+        HttpResponse<String> target = get("/receipts/" + targetId + "/points");
+        HttpResponse<String> cornerMarket = get("/receipts/" + cornerMarketId + "/points");
+
+        assertEquals(200, target.statusCode());
+        assertEquals(28, json(target).path("points").asInt());
+        assertEquals(109, json(cornerMarket).path("points").asInt());
+    }
+
+    @Test
+    void getPoints_unknownId_returnsNotFound() throws Exception {
+        HttpResponse<String> response = get("/receipts/non-existent-id/points");
+
+        assertEquals(404, response.statusCode());
+    }
+
+    private HttpResponse<String> post(String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri("/receipts/process"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
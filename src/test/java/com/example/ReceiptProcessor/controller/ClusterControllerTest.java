@@ -0,0 +1,165 @@
+package com.example.ReceiptProcessor.controller;
+
+import com.example.ReceiptProcessor.cluster.ClusterCoordinator;
+import com.example.ReceiptProcessor.cluster.ClusterTopology;
+import com.example.ReceiptProcessor.dto.ClusterMemberDto;
+import com.example.ReceiptProcessor.dto.ClusterStatusDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.service.ReceiptService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterControllerTest {
+
+    private static final String SECRET = "cluster-secret";
+
+    @Mock
+    private ClusterTopology clusterTopology;
+
+    @Mock
+    private ClusterCoordinator clusterCoordinator;
+
+    @Mock
+    private ReceiptService receiptService;
+
+    @InjectMocks
+    private ClusterController clusterController;
+
+    /**
+     * Tests for getStatus method
+     */
+    @Test
+    void getStatus_disabled_returnsNotFound() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> clusterController.getStatus(SECRET));
+
+        assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        verifyNoInteractions(clusterCoordinator);
+    }
+
+    @Test
+    void getStatus_wrongSecret_returnsForbidden() {
+        when(clusterTopology.isEnabled()).thenReturn(true);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> clusterController.getStatus("guess"));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verifyNoInteractions(clusterCoordinator);
+    }
+
+    /**
+     * Tests for join method
+     */
+    @Test
+    void join_validMember_joinsAndReturnsStatus() {
+        ClusterStatusDto status = new ClusterStatusDto("node-1", 1024, 0, List.of());
+        member();
+        when(clusterCoordinator.status()).thenReturn(status);
+
+        ResponseEntity<ClusterStatusDto> response = clusterController.join(SECRET, new ClusterMemberDto("node-4", "http://node-4:8080"));
+
+        assertSame(status, response.getBody());
+        verify(clusterCoordinator).join("node-4", "http://node-4:8080");
+    }
+
+    @Test
+    void join_memberWithoutUrl_returnsBadRequest() {
+        member();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> clusterController.join(SECRET, new ClusterMemberDto("node-4", " ")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(clusterCoordinator);
+    }
+
+    @Test
+    void join_withoutSecret_returnsForbidden() {
+        when(clusterTopology.isEnabled()).thenReturn(true);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> clusterController.join(null, new ClusterMemberDto("rogue", "http://rogue:8080")));
+
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatusCode());
+        verifyNoInteractions(clusterCoordinator);
+    }
+
+    /**
+     * Tests for evict method
+     */
+    @Test
+    void evict_member_evictsAndReturnsStatus() {
+        ClusterStatusDto status = new ClusterStatusDto("node-1", 1024, 0, List.of());
+        member();
+        when(clusterTopology.self()).thenReturn("node-1");
+        when(clusterCoordinator.status()).thenReturn(status);
+
+        ResponseEntity<ClusterStatusDto> response = clusterController.evict(SECRET, "node-4");
+
+        assertSame(status, response.getBody());
+        verify(clusterCoordinator).evict("node-4");
+    }
+
+    @Test
+    void evict_self_returnsBadRequest() {
+        member();
+        when(clusterTopology.self()).thenReturn("node-1");
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> clusterController.evict(SECRET, "node-1"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(clusterCoordinator);
+    }
+
+    /**
+     * Tests for importReceipts method
+     */
+    @Test
+    void importReceipts_entries_storesThem() {
+        Receipt receipt = new Receipt();
+        receipt.setId("moved");
+        List<JournalEntry> entries = List.of(new JournalEntry(receipt, 12));
+        member();
+
+        ResponseEntity<Void> response = clusterController.importReceipts(SECRET, entries);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(receiptService).importReceipts(entries);
+    }
+
+    @Test
+    void importReceipts_receiptWithoutId_returnsBadRequest() {
+        member();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> clusterController.importReceipts(SECRET, List.of(new JournalEntry(new Receipt(), 1))));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(receiptService);
+    }
+
+    /**
+     * Helper methods
+     */
+    private void member() {
+        when(clusterTopology.isEnabled()).thenReturn(true);
+        when(clusterTopology.isMemberSecret(SECRET)).thenReturn(true);
+    }
+}
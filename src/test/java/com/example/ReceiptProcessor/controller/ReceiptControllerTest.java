@@ -1,24 +1,41 @@
 package com.example.ReceiptProcessor.controller;
 
 import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.cluster.ClusterRouter;
+import com.example.ReceiptProcessor.cluster.NodeUnavailableException;
+import com.example.ReceiptProcessor.dto.BatchProcessResponseDto;
+import com.example.ReceiptProcessor.dto.BatchReceiptResultDto;
+import com.example.ReceiptProcessor.dto.BulkPointsRequestDto;
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
 import com.example.ReceiptProcessor.dto.PointsResponseDto;
 import com.example.ReceiptProcessor.dto.ProcessReceiptDto;
 import com.example.ReceiptProcessor.model.Receipt;
 import com.example.ReceiptProcessor.service.ReceiptService;
+import com.example.ReceiptProcessor.service.ReceiptStreamService;
+import com.example.ReceiptProcessor.util.InvalidReceiptException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +44,12 @@ class ReceiptControllerTest {
     @Mock
     private ReceiptService receiptService;
 
+    @Mock
+    private ReceiptStreamService receiptStreamService;
+
+    @Mock
+    private ClusterRouter clusterRouter;
+
     @InjectMocks
     private ReceiptController receiptController;
 
@@ -36,30 +59,44 @@ class ReceiptControllerTest {
     @Test
     void getPoints_validId_returnsPointsResponse() {
         String id = UUID.randomUUID().toString();
-        when(receiptService.processReceiptPoints(id)).thenReturn(42);
+        when(clusterRouter.points(id, false)).thenReturn(42);
 
-        ResponseEntity<PointsResponseDto> response = receiptController.getPoints(id);
+        ResponseEntity<PointsResponseDto> response = receiptController.getPoints(id, false);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(42, response.getBody().getPoints());
-        verify(receiptService).processReceiptPoints(id);
+        verify(clusterRouter).points(id, false);
     }
 
     @Test
     void getPoints_invalidId_throwsResponseStatusException() {
         String id = "non-existent-id";
-        when(receiptService.processReceiptPoints(id))
+        when(clusterRouter.points(id, false))
                 .thenThrow(new IllegalArgumentException("Receipt not found"));
 
         ResponseStatusException exception = assertThrows(
                 ResponseStatusException.class,
-                () -> receiptController.getPoints(id)
+                () -> receiptController.getPoints(id, false)
         );
 
         assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
         assertTrue(exception.getReason().contains("Receipt not found"));
-        verify(receiptService).processReceiptPoints(id);
+        verify(clusterRouter).points(id, false);
+    }
+
+    @Test
+    void getPoints_owningNodeUnavailable_returnsServiceUnavailable() {
+        String id = UUID.randomUUID().toString();
+        when(clusterRouter.points(id, false))
+                .thenThrow(new NodeUnavailableException("http://node-2:8080", 500));
+
+        ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> receiptController.getPoints(id, false)
+        );
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
     }
 
     /**
@@ -69,29 +106,145 @@ class ReceiptControllerTest {
     void processReceipts_validReceipt_returnsId() {
         Receipt receipt = createSampleReceipt();
         String expectedId = UUID.randomUUID().toString();
-        when(receiptService.generateReceiptId(any(Receipt.class))).thenReturn(expectedId);
+        when(receiptService.generateReceiptId(any(Receipt.class), isNull())).thenReturn(expectedId);
 
-        ResponseEntity<ProcessReceiptDto> response = receiptController.processReceipts(receipt);
+        ResponseEntity<ProcessReceiptDto> response = receiptController.processReceipts(receipt, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(expectedId, response.getBody().getId());
-        verify(receiptService).generateReceiptId(receipt);
+        verify(receiptService).generateReceiptId(receipt, null);
+    }
+
+    @Test
+    void processReceipts_idempotencyKey_passesKeyToService() {
+        Receipt receipt = createSampleReceipt();
+        when(receiptService.generateReceiptId(receipt, "retry-1")).thenReturn("id-1");
+
+        ResponseEntity<ProcessReceiptDto> response = receiptController.processReceipts(receipt, "retry-1");
+
+        assertEquals("id-1", response.getBody().getId());
+    }
+
+    @Test
+    void processReceipts_blankOrOversizedIdempotencyKey_returnsBadRequest() {
+        Receipt receipt = createSampleReceipt();
+
+        for (String key : List.of(" ", "k".repeat(256))) {
+            ResponseStatusException exception = assertThrows(
+                    ResponseStatusException.class,
+                    () -> receiptController.processReceipts(receipt, key)
+            );
+            assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        }
+        verifyNoInteractions(receiptService);
     }
 
     @Test
     void processReceipts_serviceException_returnsBadRequest() {
         Receipt receipt = createSampleReceipt();
-        when(receiptService.generateReceiptId(any(Receipt.class)))
+        when(receiptService.generateReceiptId(any(Receipt.class), isNull()))
                 .thenThrow(new RuntimeException("Processing failed"));
 
         ResponseStatusException exception = assertThrows(
                 ResponseStatusException.class,
-                () -> receiptController.processReceipts(receipt)
+                () -> receiptController.processReceipts(receipt, null)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(receiptService).generateReceiptId(receipt, null);
+    }
+
+    @Test
+    void processReceipts_invalidReceipt_returnsBadRequestWithFieldErrors() {
+        Receipt receipt = createSampleReceipt();
+        when(receiptService.generateReceiptId(any(Receipt.class), isNull()))
+                .thenThrow(new InvalidReceiptException(List.of("total: must match ^\\d+\\.\\d{2}$")));
+
+        ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> receiptController.processReceipts(receipt, null)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertEquals("The receipt is invalid: total: must match ^\\d+\\.\\d{2}$", exception.getReason());
+    }
+
+    /**
+     * Tests for processReceiptsBatch method
+     */
+    @Test
+    void processReceiptsBatch_validBatch_returnsResults() {
+        List<Receipt> receipts = List.of(createSampleReceipt(), createSampleReceipt());
+        List<BatchReceiptResultDto> results = List.of(
+                new BatchReceiptResultDto("id-1", List.of()),
+                new BatchReceiptResultDto(null, List.of("total: must match ^\\d+\\.\\d{2}$")));
+        when(receiptService.generateReceiptIds(receipts)).thenReturn(results);
+
+        ResponseEntity<BatchProcessResponseDto> response = receiptController.processReceiptsBatch(receipts);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertSame(results, response.getBody().getResults());
+    }
+
+    @Test
+    void processReceiptsBatch_emptyBatch_returnsBadRequest() {
+        ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> receiptController.processReceiptsBatch(List.of())
         );
 
         assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
-        verify(receiptService).generateReceiptId(receipt);
+    }
+
+    /**
+     * Tests for getPointsBulk method
+     */
+    @Test
+    void getPointsBulk_validIds_returnsPointsAndNotFound() {
+        List<String> ids = List.of("id-1", "missing");
+        BulkPointsResponseDto result = new BulkPointsResponseDto(Map.of("id-1", 28), List.of("missing"));
+        when(clusterRouter.points(ids, true)).thenReturn(result);
+
+        ResponseEntity<BulkPointsResponseDto> response = receiptController.getPointsBulk(new BulkPointsRequestDto(ids), true);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(result, response.getBody());
+    }
+
+    @Test
+    void getPointsBulk_emptyIds_returnsBadRequest() {
+        ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> receiptController.getPointsBulk(new BulkPointsRequestDto(List.of()), false)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void getPointsBulk_nullId_returnsBadRequest() {
+        ResponseStatusException exception = assertThrows(
+                ResponseStatusException.class,
+                () -> receiptController.getPointsBulk(new BulkPointsRequestDto(Arrays.asList("id-1", null)), false)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    /**
+     * Tests for processReceiptStream method
+     */
+    @Test
+    void processReceiptStream_setsNdjsonContentTypeAndDelegates() throws Exception {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        receiptController.processReceiptStream(body, response);
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        verify(receiptStreamService).ingest(body, response.getOutputStream());
     }
 
     /**
@@ -0,0 +1,54 @@
+package com.example.ReceiptProcessor.controller;
+
+import com.example.ReceiptProcessor.dto.ReceiptStatsDto;
+import com.example.ReceiptProcessor.stats.ReceiptStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReceiptStatsControllerTest {
+
+    @Mock
+    private ReceiptStats receiptStats;
+
+    @InjectMocks
+    private ReceiptStatsController receiptStatsController;
+
+    /**
+     * Tests for getStats method
+     */
+    @Test
+    void getStats_validRange_returnsAggregates() {
+        LocalDate from = LocalDate.of(2022, 1, 1);
+        LocalDate to = LocalDate.of(2022, 1, 31);
+        ReceiptStatsDto stats = new ReceiptStatsDto(2, 40, Map.of(), Map.of(), Map.of());
+        when(receiptStats.query("Target", from, to)).thenReturn(stats);
+
+        ResponseEntity<ReceiptStatsDto> response = receiptStatsController.getStats("Target", from, to);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(stats, response.getBody());
+    }
+
+    @Test
+    void getStats_fromAfterTo_throwsBadRequest() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> receiptStatsController.getStats(null, LocalDate.of(2022, 2, 1), LocalDate.of(2022, 1, 1)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verifyNoInteractions(receiptStats);
+    }
+}
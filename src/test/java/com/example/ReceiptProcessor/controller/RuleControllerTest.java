@@ -0,0 +1,59 @@
+package com.example.ReceiptProcessor.controller;
+
+import com.example.ReceiptProcessor.dto.RuleSetDto;
+import com.example.ReceiptProcessor.rules.CompiledRuleSet;
+import com.example.ReceiptProcessor.rules.DefaultRules;
+import com.example.ReceiptProcessor.rules.RuleEngine;
+import com.example.ReceiptProcessor.rules.RuleSetCompiler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RuleControllerTest {
+
+    @Mock
+    private RuleEngine ruleEngine;
+
+    @InjectMocks
+    private RuleController ruleController;
+
+    @Test
+    void getRules_returnsActiveRuleSet() {
+        CompiledRuleSet ruleSet = RuleSetCompiler.compile(4, DefaultRules.all(), true);
+        when(ruleEngine.activeRuleSet()).thenReturn(ruleSet);
+
+        ResponseEntity<RuleSetDto> response = ruleController.getRules();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(4, response.getBody().getVersion());
+        assertEquals(DefaultRules.all().size(), response.getBody().getRules().size());
+    }
+
+    @Test
+    void reloadRules_returnsNewRuleSet() {
+        when(ruleEngine.reload()).thenReturn(RuleSetCompiler.compile(5, DefaultRules.all(), false));
+
+        ResponseEntity<RuleSetDto> response = ruleController.reloadRules();
+
+        assertEquals(5, response.getBody().getVersion());
+    }
+
+    @Test
+    void reloadRules_invalidRuleSet_returnsBadRequest() {
+        when(ruleEngine.reload()).thenThrow(new IllegalArgumentException("Duplicate rule name: x"));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> ruleController.reloadRules());
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+}
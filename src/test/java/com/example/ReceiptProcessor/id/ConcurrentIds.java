@@ -0,0 +1,31 @@
+package com.example.ReceiptProcessor.id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Draws ids from a generator on several threads at once, for uniqueness checks.
+ */
+class ConcurrentIds {
+
+    static Set<UUID> collect(ReceiptIdGenerator generator, int threads, int idsPerThread) throws InterruptedException {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids.add(generator.next());
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ids;
+    }
+}
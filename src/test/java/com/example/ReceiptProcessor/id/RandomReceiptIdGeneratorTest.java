@@ -0,0 +1,48 @@
+package com.example.ReceiptProcessor.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomReceiptIdGeneratorTest {
+
+    private final RandomReceiptIdGenerator generator = new RandomReceiptIdGenerator();
+
+    /**
+     * Tests for next method
+     */
+    @Test
+    void next_returnsVersion4Uuids() {
+        for (int i = 0; i < 1000; i++) {
+            UUID id = generator.next();
+
+            assertEquals(4, id.version());
+            assertEquals(2, id.variant());
+            assertEquals(id, UUID.fromString(id.toString()));
+        }
+    }
+
+    @Test
+    void next_concurrentThreads_returnsUniqueIds() throws InterruptedException {
+        Set<UUID> ids = ConcurrentIds.collect(generator, 8, 10_000);
+
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void next_isNotOrdered() {
+        Set<Boolean> increasing = new HashSet<>();
+        UUID previous = generator.next();
+        for (int i = 0; i < 100; i++) {
+            UUID id = generator.next();
+            increasing.add(id.compareTo(previous) > 0);
+            previous = id;
+        }
+
+        assertEquals(2, increasing.size());
+    }
+}
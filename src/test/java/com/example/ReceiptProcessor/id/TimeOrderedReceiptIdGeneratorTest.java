@@ -0,0 +1,86 @@
+package com.example.ReceiptProcessor.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedReceiptIdGeneratorTest {
+
+    private static final long NOW = 1_720_000_000_000L;
+
+    /**
+     * Tests for next method
+     */
+    @Test
+    void next_returnsVersion7UuidsCarryingTheTime() {
+        TimeOrderedReceiptIdGenerator generator = new TimeOrderedReceiptIdGenerator(() -> NOW);
+
+        UUID id = generator.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(NOW, id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void next_sameMillisecond_countsUp() {
+        TimeOrderedReceiptIdGenerator generator = new TimeOrderedReceiptIdGenerator(() -> NOW);
+
+        UUID first = generator.next();
+        UUID second = generator.next();
+
+        assertEquals(NOW, second.getMostSignificantBits() >>> 16);
+        assertEquals((first.getMostSignificantBits() & 0xFFF) + 1, second.getMostSignificantBits() & 0xFFF);
+    }
+
+    @Test
+    void next_sortsInCreationOrder_asStringsAndUnsignedBytes() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedReceiptIdGenerator generator = new TimeOrderedReceiptIdGenerator(clock::get);
+
+        UUID previous = generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 100 == 0) {
+                clock.addAndGet(1);
+            }
+            UUID id = generator.next();
+            assertTrue(id.toString().compareTo(previous.toString()) > 0);
+            assertTrue(Long.compareUnsigned(id.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    void next_counterOverflowOrClockStepBack_staysIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedReceiptIdGenerator generator = new TimeOrderedReceiptIdGenerator(clock::get);
+
+        long previous = generator.next().getMostSignificantBits();
+        for (int i = 0; i < 5000; i++) {
+            if (i == 4000) {
+                clock.set(NOW - 1000);
+            }
+            long msb = generator.next().getMostSignificantBits();
+            assertTrue(Long.compareUnsigned(msb, previous) > 0);
+            assertEquals(7, (msb >>> 12) & 0xF);
+            previous = msb;
+        }
+        assertEquals(NOW + 1, previous >>> 16);
+    }
+
+    @Test
+    void next_concurrentThreads_returnsUniqueIds() throws InterruptedException {
+        TimeOrderedReceiptIdGenerator generator = new TimeOrderedReceiptIdGenerator();
+
+        Set<UUID> ids = ConcurrentIds.collect(generator, 8, 10_000);
+
+        assertEquals(80_000, ids.size());
+        List<Long> stamps = ids.stream().map(UUID::getMostSignificantBits).distinct().toList();
+        assertEquals(80_000, stamps.size());
+    }
+}
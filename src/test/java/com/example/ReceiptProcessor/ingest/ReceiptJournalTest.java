@@ -0,0 +1,127 @@
+package com.example.ReceiptProcessor.ingest;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptJournalTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readAll_afterAppend_returnsReceiptsWithPoints(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("receipts.journal");
+        try (ReceiptJournal journal = new ReceiptJournal(path, true, objectMapper)) {
+            journal.append(sampleReceipt("id-1", 28));
+            journal.append(sampleReceipt("id-2", 109));
+
+            List<Receipt> receipts = journal.readAll();
+
+            assertEquals(2, receipts.size());
+            assertEquals("id-1", receipts.get(0).getId());
+            assertEquals(28, receipts.get(0).getPoints());
+            assertEquals("Target", receipts.get(0).getRetailer());
+            assertEquals(1, receipts.get(0).getItems().size());
+            assertEquals(109, receipts.get(1).getPoints());
+        }
+    }
+
+    @Test
+    void readAll_tornLastLine_isSkipped(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("receipts.journal");
+        try (ReceiptJournal journal = new ReceiptJournal(path, false, objectMapper)) {
+            journal.append(sampleReceipt("id-1", 28));
+            Files.write(path, "{\"receipt\":{\"id\":\"id-2\",\"retai".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+            List<Receipt> receipts = journal.readAll();
+
+            assertEquals(1, receipts.size());
+            assertEquals("id-1", receipts.get(0).getId());
+        }
+    }
+
+    @Test
+    void truncate_removesAllEntries(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("nested/receipts.journal");
+        try (ReceiptJournal journal = new ReceiptJournal(path, false, objectMapper)) {
+            journal.append(sampleReceipt("id-1", 28));
+
+            journal.truncate();
+
+            assertEquals(0, Files.size(path));
+            assertTrue(journal.readAll().isEmpty());
+        }
+    }
+
+    @Test
+    void append_pastSegmentSize_rollsAndReadsSegmentsInOrder(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("receipts.journal");
+        try (ReceiptJournal journal = new ReceiptJournal(path, false, 1, objectMapper)) {
+            assertEquals(1, journal.append(sampleReceipt("id-1", 28)));
+            assertEquals(2, journal.append(sampleReceipt("id-2", 109)));
+            assertEquals(3, journal.append(sampleReceipt("id-3", 5)));
+
+            assertTrue(Files.exists(dir.resolve("receipts.journal.1")));
+            assertTrue(Files.exists(dir.resolve("receipts.journal.2")));
+            assertEquals(List.of("id-1", "id-2", "id-3"), journal.readAll().stream().map(Receipt::getId).toList());
+        }
+    }
+
+    @Test
+    void flushed_lastEntryOfSegment_dropsIt(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("receipts.journal");
+        try (ReceiptJournal journal = new ReceiptJournal(path, false, 1, objectMapper)) {
+            long first = journal.append(sampleReceipt("id-1", 28));
+            long active = journal.append(sampleReceipt("id-2", 109));
+
+            journal.flushed(first, 1);
+            assertFalse(Files.exists(dir.resolve("receipts.journal." + first)));
+            assertEquals(List.of("id-2"), journal.readAll().stream().map(Receipt::getId).toList());
+
+            journal.flushed(active, 1);
+            assertEquals(0, Files.size(path));
+            assertTrue(journal.readAll().isEmpty());
+        }
+    }
+
+    @Test
+    void readAll_reopened_continuesAfterSealedSegments(@TempDir Path dir) throws Exception {
+        Path path = dir.resolve("receipts.journal");
+        try (ReceiptJournal journal = new ReceiptJournal(path, false, 1, objectMapper)) {
+            journal.append(sampleReceipt("id-1", 28));
+            journal.append(sampleReceipt("id-2", 109));
+        }
+        try (ReceiptJournal journal = new ReceiptJournal(path, false, 1, objectMapper)) {
+            assertEquals(3, journal.append(sampleReceipt("id-3", 5)));
+            assertEquals(List.of("id-1", "id-2", "id-3"), journal.readAll().stream().map(Receipt::getId).toList());
+
+            journal.truncate();
+
+            assertTrue(journal.readAll().isEmpty());
+            assertFalse(Files.exists(dir.resolve("receipts.journal.1")));
+        }
+    }
+
+    private Receipt sampleReceipt(String id, int points) {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withId(id)
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withTotal("6.49")
+                .build();
+        receipt.setPoints(points);
+        return receipt;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.ReceiptProcessor.ingest;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.repository.ReceiptRepository;
+import com.example.ReceiptProcessor.store.JpaReceiptStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Retries against the real store, where a rolled-back attempt leaves ids and state behind on the
+ * receipts that a mocked store never would.
+ */
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteBehindQueueJpaTest {
+
+    private static final String RECEIPT_1 = "0190b7c2-4a10-7000-8000-000000000101";
+    private static final String RECEIPT_2 = "0190b7c2-4a10-7000-8000-000000000102";
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        receiptRepository.deleteAll();
+    }
+
+    /**
+     * Tests for flushOnce method
+     */
+    @Test
+    @Timeout(30)
+    void flushOnce_failureAfterItemsWereFlushed_retriesAndStoresEveryReceipt(@TempDir Path dir) throws Exception {
+        JpaReceiptStore receiptStore = spy(new JpaReceiptStore(receiptRepository, entityManager));
+        // The first attempt gets as far as inserting the rows, then the transaction rolls back
+        doAnswer(invocation -> {
+            invocation.callRealMethod();
+            throw new QueryTimeoutException("lock timeout");
+        }).doCallRealMethod().when(receiptStore).saveAll(anyList());
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        WriteBehindQueue queue = new WriteBehindQueue(WriteBehindQueue.MODE, 10, 10, Duration.ofMillis(10), "none",
+                dir.resolve("receipts.journal"), DataSize.ofMegabytes(16), 2, dir.resolve("receipts.dead-letter"),
+                receiptStore, transactionManager, new ObjectMapper(), eventPublisher, new SimpleMeterRegistry());
+
+        queue.enqueue(receipt(RECEIPT_1));
+        queue.enqueue(receipt(RECEIPT_2));
+
+        assertEquals(2, queue.flushOnce(0));
+        verify(receiptStore, times(2)).saveAll(anyList());
+        verifyNoInteractions(eventPublisher);
+        assertEquals(List.of(RECEIPT_1, RECEIPT_2), receiptRepository.findWithItemsByIdIn(List.of(RECEIPT_1, RECEIPT_2))
+                .stream().map(Receipt::getId).sorted().toList());
+        assertEquals(2, receiptRepository.findWithItemsById(RECEIPT_1).orElseThrow().getItems().size());
+    }
+
+    private static Receipt receipt(String id) {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withItems("Emils Cheese Pizza", "12.25")
+                .withTotal("18.74")
+                .build();
+        receipt.setId(id);
+        receipt.setPoints(7);
+        return receipt;
+    }
+}
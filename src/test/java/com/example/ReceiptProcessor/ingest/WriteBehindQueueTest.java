@@ -0,0 +1,234 @@
+package com.example.ReceiptProcessor.ingest;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.store.ReceiptStore;
+import com.example.ReceiptProcessor.util.InvalidReceiptException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindQueueTest {
+
+    @Mock
+    private ReceiptStore receiptStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void enqueue_thenFlush_persistsBatchAndTruncatesJournal(@TempDir Path dir) throws Exception {
+        Path journalPath = dir.resolve("receipts.journal");
+        WriteBehindQueue queue = createQueue(10, "journal", journalPath);
+        queue.openJournal();
+
+        Receipt receipt = sampleReceipt("id-1");
+        assertTrue(queue.enqueue(receipt));
+
+        assertTrue(queue.findPending("id-1").isPresent());
+        assertTrue(Files.size(journalPath) > 0);
+        assertEquals(1.0, meterRegistry.get("receipts.writebehind.queue.depth").gauge().value());
+
+        assertEquals(1, queue.flushOnce(0));
+
+        verify(receiptStore).saveAll(List.of(receipt));
+        assertTrue(queue.findPending("id-1").isEmpty());
+        assertEquals(0, queue.queueDepth());
+        assertEquals(0, Files.size(journalPath));
+        assertEquals(1.0, meterRegistry.get("receipts.writebehind.flushed").counter().count());
+    }
+
+    @Test
+    void flushOnce_queueNeverIdle_dropsFlushedJournalSegments(@TempDir Path dir) throws Exception {
+        Path journalPath = dir.resolve("receipts.journal");
+        WriteBehindQueue queue = createQueue(100, 2, "journal", journalPath, DataSize.ofBytes(1));
+        queue.openJournal();
+
+        for (int i = 0; i < 6; i++) {
+            queue.enqueue(sampleReceipt("id-" + i));
+        }
+        assertEquals(6, journalFiles(dir).size());
+
+        // Each flush leaves receipts pending, as it would under sustained ingest.
+        assertEquals(2, queue.flushOnce(0));
+        assertEquals(2, queue.flushOnce(0));
+        queue.enqueue(sampleReceipt("id-6"));
+
+        assertEquals(3, journalFiles(dir).size());
+        assertEquals(List.of("id-4", "id-5", "id-6"),
+                queue.journalEntries().stream().map(Receipt::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void enqueue_queueFull_returnsFalse(@TempDir Path dir) {
+        WriteBehindQueue queue = createQueue(1, "none", dir.resolve("receipts.journal"));
+
+        assertTrue(queue.enqueue(sampleReceipt("id-1")));
+        assertFalse(queue.enqueue(sampleReceipt("id-2")));
+        assertTrue(queue.findPending("id-2").isEmpty());
+    }
+
+    @Test
+    void start_journalFromPreviousRun_persistsUnflushedReceipts(@TempDir Path dir) throws Exception {
+        Path journalPath = dir.resolve("receipts.journal");
+        try (ReceiptJournal journal = new ReceiptJournal(journalPath, false, objectMapper)) {
+            journal.append(sampleReceipt("flushed"));
+            journal.append(sampleReceipt("lost"));
+        }
+        when(receiptStore.existsById("flushed")).thenReturn(true);
+        when(receiptStore.existsById("lost")).thenReturn(false);
+        WriteBehindQueue queue = createQueue(10, "fsync", journalPath);
+
+        queue.start();
+        queue.stop();
+
+        verify(receiptStore).saveAll(argThat(receipts -> {
+            List<Receipt> list = (List<Receipt>) receipts;
+            return list.size() == 1 && list.get(0).getId().equals("lost") && list.get(0).getPoints() == 7;
+        }));
+        assertEquals(0, Files.size(journalPath));
+    }
+
+    @Test
+    void flushOnce_failedBatch_isRetried(@TempDir Path dir) throws Exception {
+        WriteBehindQueue queue = createQueue(10, "none", dir.resolve("receipts.journal"));
+        doThrow(new IllegalStateException("database unavailable"))
+                .doNothing()
+                .when(receiptStore).saveAll(anyList());
+
+        queue.enqueue(sampleReceipt("id-1"));
+
+        assertEquals(1, queue.flushOnce(0));
+        verify(receiptStore, times(2)).saveAll(anyList());
+        assertTrue(queue.findPending("id-1").isEmpty());
+    }
+
+    @Test
+    void flushOnce_poisonedReceipt_isDeadLetteredAndRestOfBatchStored(@TempDir Path dir) throws Exception {
+        WriteBehindQueue queue = createQueue(10, "none", dir.resolve("receipts.journal"));
+        doAnswer(invocation -> {
+            List<Receipt> receipts = invocation.getArgument(0);
+            if (receipts.stream().anyMatch(receipt -> receipt.getId().equals("poison"))) {
+                throw new DataIntegrityViolationException("Value too long");
+            }
+            return null;
+        }).when(receiptStore).saveAll(anyList());
+        Receipt good = sampleReceipt("good");
+        Receipt poison = sampleReceipt("poison");
+        queue.enqueue(good);
+        queue.enqueue(poison);
+
+        assertEquals(2, queue.flushOnce(0));
+
+        verify(receiptStore).saveAll(List.of(good));
+        verify(receiptStore, times(2)).saveAll(List.of(poison));
+        assertTrue(queue.findPending("poison").isEmpty());
+        assertEquals(1.0, meterRegistry.get("receipts.writebehind.dead-lettered").counter().count());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ReceiptsDeadLetteredEvent dead
+                && dead.getReceipts().equals(List.of(poison))));
+        try (ReceiptJournal deadLetters = new ReceiptJournal(dir.resolve("receipts.dead-letter"), false, objectMapper)) {
+            assertEquals(List.of("poison"), deadLetters.readAll().stream().map(Receipt::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void flushOnce_storeUnavailable_keepsRetryingWithoutDeadLettering(@TempDir Path dir) throws Exception {
+        WriteBehindQueue queue = createQueue(10, "none", dir.resolve("receipts.journal"));
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doNothing()
+                .when(receiptStore).saveAll(anyList());
+
+        queue.enqueue(sampleReceipt("id-1"));
+
+        assertEquals(1, queue.flushOnce(0));
+        verify(receiptStore, times(4)).saveAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void enqueue_unstorableReceipt_isRejectedBeforeAcknowledging(@TempDir Path dir) {
+        WriteBehindQueue queue = createQueue(10, "none", dir.resolve("receipts.journal"));
+        Receipt receipt = sampleReceipt("id-1");
+        receipt.setRetailer("R".repeat(256));
+
+        assertThrows(InvalidReceiptException.class, () -> queue.enqueue(receipt));
+        assertTrue(queue.findPending("id-1").isEmpty());
+        assertEquals(0, queue.queueDepth());
+    }
+
+    @Test
+    void start_disabled_doesNothing(@TempDir Path dir) {
+        WriteBehindQueue queue = new WriteBehindQueue("sync", 10, 10, Duration.ofMillis(10), "journal",
+                dir.resolve("receipts.journal"), DataSize.ofMegabytes(16), 3, dir.resolve("receipts.dead-letter"), receiptStore,
+                transactionManager, objectMapper, eventPublisher, meterRegistry);
+
+        queue.start();
+
+        assertFalse(queue.isEnabled());
+        assertFalse(queue.isRunning());
+        assertFalse(Files.exists(dir.resolve("receipts.journal")));
+    }
+
+    private WriteBehindQueue createQueue(int capacity, String durability, Path journalPath) {
+        return createQueue(capacity, 100, durability, journalPath, DataSize.ofMegabytes(16));
+    }
+
+    private WriteBehindQueue createQueue(int capacity, int batchSize, String durability, Path journalPath,
+                                         DataSize segmentSize) {
+        return new WriteBehindQueue(WriteBehindQueue.MODE, capacity, batchSize, Duration.ofMillis(10), durability,
+                journalPath, segmentSize, 2, journalPath.resolveSibling("receipts.dead-letter"), receiptStore,
+                transactionManager, objectMapper, eventPublisher, meterRegistry);
+    }
+
+    private static List<Path> journalFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("receipts.journal"))
+                    .filter(file -> file.toFile().length() > 0)
+                    .toList();
+        }
+    }
+
+    private Receipt sampleReceipt(String id) {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withId(id)
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withTotal("6.49")
+                .build();
+        receipt.setPoints(7);
+        return receipt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ReceiptProcessor.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadSizeInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PayloadSizeInterceptor interceptor = new PayloadSizeInterceptor(registry);
+
+    /**
+     * Tests for preHandle method
+     */
+    @Test
+    void preHandle_bodyWithLength_recordsSizePerEndpoint() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/receipts/process");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/receipts/process");
+        request.setContent(new byte[512]);
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+
+        DistributionSummary summary = registry.get("receipts.request.size").tag("uri", "/receipts/process").summary();
+        assertEquals(1, summary.count());
+        assertEquals(512, summary.totalAmount());
+    }
+
+    @Test
+    void preHandle_noContentLength_recordsNothing() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/receipts/abc/points");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+
+        assertNull(registry.find("receipts.request.size").summary());
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ReceiptProcessor.model;
 
+import com.example.ReceiptProcessor.util.ReceiptFields;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -30,4 +31,17 @@ public class ItemTest {
         assertEquals(shortDescription, item.getShortDescription());
         assertEquals(price, item.getPrice());
     }
-}
\ No newline at end of file
+
+    @Test
+    void setPrice_convertsToCents() {
+        Item item = new Item(null, "Item 1", "10.99");
+
+        assertEquals(1099, item.getPriceCents());
+
+        item.setPriceCents(250);
+        assertEquals("2.50", item.getPrice());
+
+        item.setPrice("not-a-price");
+        assertEquals(ReceiptFields.NOT_CENTS, item.getPriceCents());
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.ReceiptProcessor.model;
 
 import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.util.ReceiptFields;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,6 +43,50 @@ public class ReceiptTest {
         assertEquals(total, receipt.getTotal());
     }
 
+    @Test
+    void stringFields_convertToTypedFields() {
+        Receipt receipt = buildReceipt();
+
+        assertEquals(LocalDate.of(2023, 1, 1).toEpochDay(), receipt.getPurchaseEpochDay());
+        assertEquals(13 * 60 + 45, receipt.getPurchaseMinute());
+        assertEquals(3535, receipt.getTotalCents());
+        assertEquals(649, receipt.getItems().get(0).getPriceCents());
+    }
+
+    @Test
+    void typedFields_readBackInCanonicalForm() {
+        Receipt receipt = new Receipt();
+        receipt.setTotal("12.3");
+        receipt.setTotalCents(1230);
+        receipt.setPurchaseEpochDay((int) LocalDate.of(2022, 3, 5).toEpochDay());
+        receipt.setPurchaseMinute((short) (9 * 60 + 5));
+
+        assertEquals("12.30", receipt.getTotal());
+        assertEquals("2022-03-05", receipt.getPurchaseDate());
+        assertEquals("09:05", receipt.getPurchaseTime());
+    }
+
+    @Test
+    void malformedStrings_keptAsReceivedWithoutTypedValues() {
+        Receipt receipt = new Receipt("id-1", "Target", "2022-02-30", "25:00", List.of(), "abc");
+
+        assertEquals("2022-02-30", receipt.getPurchaseDate());
+        assertEquals(ReceiptFields.NO_DATE, receipt.getPurchaseEpochDay());
+        assertEquals(ReceiptFields.NO_TIME, receipt.getPurchaseMinute());
+        assertEquals("abc", receipt.getTotal());
+        assertEquals(ReceiptFields.NOT_CENTS, receipt.getTotalCents());
+    }
+
+    @Test
+    void json_exposesOnlyStringFields() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(buildReceipt());
+
+        assertTrue(json.contains("\"total\":\"35.35\""));
+        assertFalse(json.contains("Cents"));
+        assertFalse(json.contains("EpochDay"));
+        assertFalse(json.contains("purchaseMinute"));
+    }
+
     /**
      * Helper method
      */    private Receipt buildReceipt() {
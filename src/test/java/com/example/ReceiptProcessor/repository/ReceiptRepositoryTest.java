@@ -0,0 +1,262 @@
+package com.example.ReceiptProcessor.repository;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.rules.CompiledRuleSet;
+import com.example.ReceiptProcessor.rules.DefaultRules;
+import com.example.ReceiptProcessor.rules.FeatureScorer;
+import com.example.ReceiptProcessor.rules.PointsRule;
+import com.example.ReceiptProcessor.rules.RuleSetCompiler;
+import com.example.ReceiptProcessor.util.PointsCalculator;
+import com.example.ReceiptProcessor.util.ReceiptFields;
+import com.example.ReceiptProcessor.util.ReceiptValidator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class ReceiptRepositoryTest {
+
+    private static final String RECEIPT_1 = "0190b7c2-4a10-7000-8000-000000000001";
+    private static final String RECEIPT_2 = "0190b7c2-4a10-7000-8000-000000000002";
+    private static final String MISSING = "0190b7c2-4a10-7000-8000-0000000000ff";
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Tests for findWithItemsById method
+     */
+    @Test
+    void findWithItemsById_scoresReceiptInOneQuery() {
+        String id = persistReceipt(RECEIPT_1);
+        statistics.clear();
+
+        Receipt receipt = receiptRepository.findWithItemsById(id).orElseThrow();
+        entityManager.detach(receipt);
+        int points = PointsCalculator.calculatePoints(receipt);
+
+        assertEquals(28, points);
+        assertEquals(5, receipt.getItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findById_lazyItems_needSecondQuery() {
+        String id = persistReceipt(RECEIPT_1);
+        statistics.clear();
+
+        Receipt receipt = receiptRepository.findById(id).orElseThrow();
+        PointsCalculator.calculatePoints(receipt);
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findWithItemsById_unknownId_returnsEmpty() {
+        assertTrue(receiptRepository.findWithItemsById(MISSING).isEmpty());
+    }
+
+    /**
+     * Tests for findWithItemsByIdIn method
+     */
+    @Test
+    void findWithItemsByIdIn_loadsReceiptsAndItemsInOneQuery() {
+        String first = persistReceipt(RECEIPT_1);
+        String second = persistReceipt(RECEIPT_2);
+        statistics.clear();
+
+        List<Receipt> receipts = receiptRepository.findWithItemsByIdIn(List.of(first, second, MISSING));
+        receipts.forEach(entityManager::detach);
+
+        assertEquals(2, receipts.size());
+        for (Receipt receipt : receipts) {
+            assertEquals(28, PointsCalculator.calculatePoints(receipt));
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Tests for findIds and findIdsAfter methods
+     */
+    @Test
+    void findIdsAfter_returnsNextPageInIdOrder() {
+        List<String> ids = List.of(id(1), id(2), id(3), id(4));
+        for (String id : List.of(ids.get(2), ids.get(0), ids.get(3), ids.get(1))) {
+            persistReceipt(id);
+        }
+
+        assertEquals(ids.subList(0, 2), receiptRepository.findIds(Limit.of(2)));
+        assertEquals(ids.subList(2, 4), receiptRepository.findIdsAfter(ids.get(1), Limit.of(2)));
+        assertEquals(List.of(), receiptRepository.findIdsAfter(ids.get(3), Limit.of(2)));
+    }
+
+    /**
+     * Tests for the id key column
+     */
+    @Test
+    void save_storesIdAndItemKeyAsUuid() {
+        persistReceipt(RECEIPT_1);
+
+        List<?> types = entityManager.createNativeQuery("select data_type from information_schema.columns"
+                + " where (table_name = 'RECEIPT' and column_name = 'ID')"
+                + " or (table_name = 'ITEM' and column_name = 'RECEIPT_ID')").getResultList();
+        Object key = entityManager.createNativeQuery("select distinct cast(receipt_id as varchar) from item").getSingleResult();
+
+        assertEquals(List.of("UUID", "UUID"), types);
+        assertEquals(RECEIPT_1, key);
+        assertEquals(RECEIPT_1, receiptRepository.findIds(Limit.of(1)).get(0));
+    }
+
+    @Test
+    void save_longestValidRetailerAndDescription_fitTheirColumns() {
+        String retailer = "R".repeat(ReceiptFields.MAX_RETAILER_LENGTH);
+        String description = "D".repeat(ReceiptFields.MAX_DESCRIPTION_LENGTH);
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer(retailer)
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems(description, "6.49")
+                .withTotal("6.49")
+                .build();
+        receipt.setId(RECEIPT_1);
+        assertTrue(ReceiptValidator.validate(receipt).isEmpty());
+
+        receiptRepository.saveAndFlush(receipt);
+        entityManager.clear();
+
+        Receipt stored = receiptRepository.findWithItemsById(RECEIPT_1).orElseThrow();
+        assertEquals(retailer, stored.getRetailer());
+        assertEquals(description, stored.getItems().get(0).getShortDescription());
+    }
+
+    /**
+     * Tests for deleteItemsByReceiptIdIn and deleteByIdIn methods
+     */
+    @Test
+    void deleteByIdIn_afterItems_removesReceiptsAndTheirItems() {
+        persistReceipt(RECEIPT_1);
+        persistReceipt(RECEIPT_2);
+
+        assertEquals(5, receiptRepository.deleteItemsByReceiptIdIn(List.of(RECEIPT_1, MISSING)));
+        assertEquals(1, receiptRepository.deleteByIdIn(List.of(RECEIPT_1, MISSING)));
+        entityManager.clear();
+
+        assertFalse(receiptRepository.existsById(RECEIPT_1));
+        assertEquals(5, receiptRepository.findWithItemsById(RECEIPT_2).orElseThrow().getItems().size());
+        assertEquals(5L, entityManager.createQuery("select count(i) from Item i", Long.class).getSingleResult());
+    }
+
+    /**
+     * Tests for rescoreFromFeatures method
+     */
+    @Test
+    void save_extractsScoringFeatures() {
+        String id = persistReceipt(RECEIPT_1);
+
+        Receipt receipt = receiptRepository.findById(id).orElseThrow();
+
+        assertNotNull(receipt.getFeatures());
+        assertEquals(5, receipt.getFeatures().getItemCount());
+        assertEquals(1, receipt.getFeatures().getPurchaseDay());
+    }
+
+    @Test
+    void rescoreFromFeatures_matchesRuleEngineWithoutLoadingItems() {
+        List<Receipt> receipts = List.of(
+                receipt(id(1), "Target", "2022-01-01", "13:01", "35.35"),
+                receipt(id(2), "M&M Corner Market", "2022-03-21", "14:33", "9.00"),
+                receipt(id(3), "Walgreens", "2022-02-30", "16:00", "-1.00"),
+                receipt(id(4), "Costco", "bad-date", "bad-time", "1.005"),
+                receipt(id(5), "", "2022-01-03", "15:59", null));
+        receiptRepository.saveAllAndFlush(receipts);
+        entityManager.clear();
+
+        for (List<? extends PointsRule> rules : List.of(DefaultRules.all(),
+                List.of(DefaultRules.TOTAL, DefaultRules.ITEM_PAIRS, DefaultRules.ITEM_DESCRIPTION))) {
+            CompiledRuleSet ruleSet = RuleSetCompiler.compile(1, rules, false);
+            FeatureScorer scorer = ruleSet.featureScorer().orElseThrow();
+            statistics.clear();
+
+            int updated = receiptRepository.rescoreFromFeatures(scorer.getRetailerWeight(), scorer.getTotalWeight(),
+                    scorer.getItemPairsWeight(), scorer.getItemDescriptionWeight(),
+                    scorer.getOddDayWeight(), scorer.getAfternoonWeight());
+
+            assertEquals(receipts.size(), updated);
+            assertEquals(1, statistics.getPrepareStatementCount());
+            entityManager.clear();
+            for (Receipt original : receipts) {
+                Receipt stored = receiptRepository.findWithItemsById(original.getId()).orElseThrow();
+                entityManager.detach(stored);
+                stored.setFeatures(null);
+                assertEquals(ruleSet.score(stored), stored.getPoints(), original.getId());
+            }
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Helper methods
+     */
+    private static String id(int n) {
+        return String.format("0190b7c2-4a10-7000-8000-%012x", n);
+    }
+
+    private Receipt receipt(String id, String retailer, String date, String time, String total) {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer(retailer)
+                .withPurchaseDate(date)
+                .withPurchaseTime(time)
+                .withItems("Gatorade", "2.25")
+                .withItems("Emils Cheese Pizza", "12.25")
+                .withItems("abc", "not-a-price")
+                .withTotal(total)
+                .build();
+        receipt.setId(id);
+        return receipt;
+    }
+
+    private String persistReceipt(String id) {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withItems("Emils Cheese Pizza", "12.25")
+                .withItems("Knorr Creamy Chicken", "1.26")
+                .withItems("Doritos Nacho Cheese", "3.35")
+                .withItems("   Klarbrunn 12-PK 12 FL OZ  ", "12.00")
+                .withTotal("35.35")
+                .build();
+        receipt.setId(id);
+        receiptRepository.saveAndFlush(receipt);
+        entityManager.clear();
+        return receipt.getId();
+    }
+}
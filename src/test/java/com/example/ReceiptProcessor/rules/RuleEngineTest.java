@@ -0,0 +1,147 @@
+package com.example.ReceiptProcessor.rules;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RuleEngineTest {
+
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void constructor_installsDefaultRulesWithoutEvent() {
+        RuleEngine ruleEngine = new RuleEngine("", List.of(), false, PARALLEL_THRESHOLD, eventPublisher);
+
+        assertEquals(1, ruleEngine.activeRuleSet().getVersion());
+        assertEquals(DefaultRules.all().size(), ruleEngine.activeRuleSet().stats().size());
+        assertEquals(109, ruleEngine.score(sampleReceipt()));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void constructor_disabledRules_areLeftOut() {
+        RuleEngine ruleEngine = new RuleEngine("", List.of(DefaultRules.TOTAL.name()), false, PARALLEL_THRESHOLD, eventPublisher);
+
+        assertEquals(109 - 75, ruleEngine.score(sampleReceipt()));
+    }
+
+    @Test
+    void install_swapsRuleSetAndPublishesEvent() {
+        RuleEngine ruleEngine = new RuleEngine("", List.of(), false, PARALLEL_THRESHOLD, eventPublisher);
+
+        CompiledRuleSet installed = ruleEngine.install(List.of(ReceiptRule.of("seasonal", receipt -> 500)));
+
+        assertSame(installed, ruleEngine.activeRuleSet());
+        assertEquals(500, ruleEngine.score(sampleReceipt()));
+        ArgumentCaptor<RuleSetChangedEvent> event = ArgumentCaptor.forClass(RuleSetChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(installed.getVersion(), event.getValue().getVersion());
+    }
+
+    @Test
+    void install_invalidRuleSet_keepsActiveRuleSet() {
+        RuleEngine ruleEngine = new RuleEngine("", List.of(), false, PARALLEL_THRESHOLD, eventPublisher);
+        CompiledRuleSet before = ruleEngine.activeRuleSet();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ruleEngine.install(List.of(DefaultRules.RETAILER, DefaultRules.RETAILER)));
+
+        assertSame(before, ruleEngine.activeRuleSet());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void bindTo_timingEnabled_publishesPerRuleMeters() {
+        RuleEngine ruleEngine = new RuleEngine("", List.of(), true, PARALLEL_THRESHOLD, eventPublisher);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ruleEngine.bindTo(registry);
+
+        ruleEngine.score(sampleReceipt());
+
+        FunctionTimer itemRule = registry.get("points.rules")
+                .tags("rule", DefaultRules.ITEM_DESCRIPTION.name(), "type", RuleStats.ITEM)
+                .functionTimer();
+        assertEquals(sampleReceipt().getItems().size(), itemRule.count());
+        assertTrue(itemRule.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(DefaultRules.all().size(), registry.find("points.rules").functionTimers().size());
+    }
+
+    @Test
+    void bindTo_ruleAddedByInstall_getsMeter() {
+        RuleEngine ruleEngine = new RuleEngine("", List.of(), true, PARALLEL_THRESHOLD, eventPublisher);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ruleEngine.bindTo(registry);
+
+        ruleEngine.install(List.of(ReceiptRule.of("seasonal", receipt -> 500)));
+        ruleEngine.score(sampleReceipt());
+
+        assertEquals(1, registry.get("points.rules").tag("rule", "seasonal").functionTimer().count());
+        assertEquals(0, registry.get("points.rules").tag("rule", DefaultRules.RETAILER.name()).functionTimer().count());
+    }
+
+    @Test
+    void reload_emptyPluginDirectory_reinstallsDefaultRules(@TempDir Path pluginDir) {
+        RuleEngine ruleEngine = new RuleEngine(pluginDir.toString(), List.of(), true, PARALLEL_THRESHOLD, eventPublisher);
+
+        CompiledRuleSet reloaded = ruleEngine.reload();
+
+        assertEquals(2, reloaded.getVersion());
+        assertEquals(109, ruleEngine.score(sampleReceipt()));
+        verify(eventPublisher).publishEvent(any(RuleSetChangedEvent.class));
+    }
+
+    @Test
+    void reload_closesPreviousPluginClassLoader(@TempDir Path pluginDir) throws IOException {
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(pluginDir.resolve("marker.jar")))) {
+            jar.putNextEntry(new JarEntry("marker.txt"));
+            jar.closeEntry();
+        }
+        RuleEngine ruleEngine = new RuleEngine(pluginDir.toString(), List.of(), true, PARALLEL_THRESHOLD, eventPublisher);
+        URLClassLoader first = ruleEngine.pluginLoader();
+        assertNotNull(first.findResource("marker.txt"));
+
+        ruleEngine.reload();
+
+        URLClassLoader second = ruleEngine.pluginLoader();
+        assertNotSame(first, second);
+        assertNull(first.findResource("marker.txt"));
+        assertNotNull(second.findResource("marker.txt"));
+    }
+
+    private Receipt sampleReceipt() {
+        return ReceiptBuilder.buildReceipt()
+                .withRetailer("M&M Corner Market")
+                .withPurchaseDate("2022-03-20")
+                .withPurchaseTime("14:33")
+                .withItems("Gatorade", "2.25")
+                .withItems("Gatorade", "2.25")
+                .withItems("Gatorade", "2.25")
+                .withItems("Gatorade", "2.25")
+                .withTotal("9.00")
+                .build();
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.ReceiptProcessor.rules;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.util.FeatureExtractor;
+import com.example.ReceiptProcessor.util.PointsCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetCompilerTest {
+
+    @Test
+    void compile_defaultRules_matchesPointsCalculator() {
+        CompiledRuleSet ruleSet = RuleSetCompiler.compile(1, DefaultRules.all(), false);
+        Random random = new Random(7L);
+
+        for (Receipt receipt : sampleReceipts()) {
+            assertEquals(PointsCalculator.calculatePoints(receipt), ruleSet.score(receipt));
+        }
+        for (int run = 0; run < 2_000; run++) {
+            Receipt receipt = randomReceipt(random);
+            assertEquals(PointsCalculator.calculatePoints(receipt), ruleSet.score(receipt));
+        }
+        assertEquals(0, ruleSet.score(null));
+    }
+
+    @Test
+    void compile_itemRules_shareOnePassOverItems() {
+        AtomicInteger firstRuleCalls = new AtomicInteger();
+        AtomicInteger secondRuleCalls = new AtomicInteger();
+        List<PointsRule> rules = List.of(
+                ItemRule.of("first", item -> firstRuleCalls.incrementAndGet()),
+                ItemRule.of("second", item -> {
+                    secondRuleCalls.incrementAndGet();
+                    return 2;
+                }),
+                ReceiptRule.of("flat", receipt -> 100));
+
+        int points = RuleSetCompiler.compile(1, rules, false).score(sampleReceipts().get(0));
+
+        assertEquals(5, firstRuleCalls.get());
+        assertEquals(5, secondRuleCalls.get());
+        assertEquals(100 + (1 + 2 + 3 + 4 + 5) + 5 * 2, points);
+    }
+
+    @Test
+    void compile_timed_recordsPerRuleStats() {
+        CompiledRuleSet ruleSet = RuleSetCompiler.compile(3, DefaultRules.all(), true);
+        Receipt receipt = sampleReceipts().get(0);
+
+        ruleSet.score(receipt);
+        ruleSet.score(receipt);
+
+        List<RuleStats> stats = ruleSet.stats();
+        assertEquals(3, ruleSet.getVersion());
+        assertEquals(DefaultRules.all().size(), stats.size());
+        RuleStats itemRule = stats.stream().filter(rule -> rule.getType().equals(RuleStats.ITEM)).findFirst().orElseThrow();
+        assertEquals(DefaultRules.ITEM_DESCRIPTION.name(), itemRule.getName());
+        assertEquals(10, itemRule.getInvocations());
+        RuleStats receiptRule = stats.get(0);
+        assertEquals(DefaultRules.RETAILER.name(), receiptRule.getName());
+        assertEquals(2, receiptRule.getInvocations());
+    }
+
+    @Test
+    void compile_untimed_doesNotRecordStats() {
+        CompiledRuleSet ruleSet = RuleSetCompiler.compile(1, DefaultRules.all(), false);
+
+        ruleSet.score(sampleReceipts().get(0));
+
+        assertTrue(ruleSet.stats().stream().allMatch(rule -> rule.getInvocations() == 0 && rule.getTotalNanos() == 0));
+    }
+
+    @Test
+    void compile_parallelThreshold_matchesSerialScoring() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CompiledRuleSet serial = RuleSetCompiler.compile(1, DefaultRules.all(), false);
+            CompiledRuleSet parallel = RuleSetCompiler.compile(1, DefaultRules.all(), false, 1_000, pool);
+            Random random = new Random(11L);
+
+            for (int itemCount : new int[]{0, 999, 1_000, 1_001, 25_000}) {
+                Receipt receipt = largeReceipt(random, itemCount);
+                assertEquals(serial.score(receipt), parallel.score(receipt));
+                assertEquals(PointsCalculator.calculatePoints(receipt), parallel.score(receipt));
+
+                receipt.setItems(new LinkedList<>(receipt.getItems()));
+                assertEquals(serial.score(receipt), parallel.score(receipt));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void compile_parallelThreshold_scoresLargeReceiptsInPool() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            AtomicInteger calls = new AtomicInteger();
+            List<PointsRule> rules = List.of(ItemRule.of("counting", item -> {
+                threads.add(Thread.currentThread());
+                calls.incrementAndGet();
+                return 1;
+            }));
+            CompiledRuleSet ruleSet = RuleSetCompiler.compile(1, rules, false, 1_000, pool);
+
+            assertEquals(5, ruleSet.score(sampleReceipts().get(0)));
+            assertEquals(Set.of(Thread.currentThread()), threads);
+
+            threads.clear();
+            assertEquals(10_000, ruleSet.score(largeReceipt(new Random(3L), 10_000)));
+            assertEquals(10_005, calls.get());
+            assertTrue(threads.stream().allMatch(thread -> thread instanceof ForkJoinWorkerThread));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void compile_singleThreadPool_staysSerial() {
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            List<PointsRule> rules = List.of(ItemRule.of("thread", item -> {
+                threads.add(Thread.currentThread());
+                return 1;
+            }));
+
+            RuleSetCompiler.compile(1, rules, false, 1, pool).score(largeReceipt(new Random(5L), 5_000));
+
+            assertEquals(Set.of(Thread.currentThread()), threads);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void compile_builtInRules_scoreFromFeatures() {
+        List<PointsRule> subset = List.of(DefaultRules.RETAILER, DefaultRules.ITEM_DESCRIPTION, DefaultRules.AFTERNOON);
+        CompiledRuleSet all = RuleSetCompiler.compile(1, DefaultRules.all(), false);
+        CompiledRuleSet partial = RuleSetCompiler.compile(2, subset, false);
+
+        for (Receipt receipt : sampleReceipts()) {
+            int expectedAll = all.score(receipt);
+            int expectedPartial = partial.score(receipt);
+            receipt.setFeatures(FeatureExtractor.extract(receipt));
+            receipt.setItems(null);
+
+            assertEquals(expectedAll, all.score(receipt));
+            assertEquals(expectedPartial, partial.score(receipt));
+        }
+    }
+
+    @Test
+    void compile_pluginRule_hasNoFeatureScorer() {
+        List<PointsRule> rules = new ArrayList<>(DefaultRules.all());
+        rules.add(ReceiptRule.of("seasonal", receipt -> 500));
+        Receipt receipt = sampleReceipts().get(0);
+        receipt.setFeatures(FeatureExtractor.extract(receipt));
+
+        CompiledRuleSet ruleSet = RuleSetCompiler.compile(1, rules, false);
+
+        assertTrue(ruleSet.featureScorer().isEmpty());
+        assertTrue(RuleSetCompiler.compile(1, DefaultRules.all(), false).featureScorer().isPresent());
+        assertEquals(PointsCalculator.calculatePoints(receipt) + 500, ruleSet.score(receipt));
+    }
+
+    @Test
+    void compile_duplicateNames_throwsException() {
+        List<PointsRule> rules = List.of(ReceiptRule.of("same", receipt -> 1), ItemRule.of("same", item -> 1));
+
+        assertThrows(IllegalArgumentException.class, () -> RuleSetCompiler.compile(1, rules, false));
+    }
+
+    @Test
+    void compile_unsupportedRuleType_throwsException() {
+        PointsRule rule = () -> "untyped";
+
+        assertThrows(IllegalArgumentException.class, () -> RuleSetCompiler.compile(1, List.of(rule), false));
+    }
+
+    /**
+     * Helper methods
+     */
+    private List<Receipt> sampleReceipts() {
+        List<Receipt> receipts = new ArrayList<>();
+        receipts.add(ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("12:00")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withItems("Emils Cheese Pizza", "12.25")
+                .withItems("Knorr Creamy Chicken", "1.26")
+                .withItems("Doritos Nacho Cheese", "3.35")
+                .withItems("Klarbrunn 12-PK 12 FL OZ  ", "12.00")
+                .withTotal("35.35")
+                .build());
+        receipts.add(ReceiptBuilder.buildReceipt()
+                .withRetailer("M&M Corner Market")
+                .withPurchaseDate("2022-03-20")
+                .withPurchaseTime("14:33")
+                .withItems("Gatorade", "2.25")
+                .withItems("Gatorade", "2.25")
+                .withItems("Gatorade", "2.25")
+                .withItems("Gatorade", "2.25")
+                .withTotal("9.00")
+                .build());
+        receipts.add(ReceiptBuilder.buildReceipt()
+                .withRetailer(null)
+                .withPurchaseDate("not-a-valid-date")
+                .withPurchaseTime("non-valid-time")
+                .withItems(null, null)
+                .withItemHavingNullPrice("Hat")
+                .withTotal("")
+                .build());
+        receipts.add(ReceiptBuilder.buildReceipt()
+                .withRetailer("Walmart")
+                .withPurchaseDate("2022-01-02")
+                .withPurchaseTime("12:00")
+                .withTotal("10.00")
+                .withNullItems()
+                .build());
+        return receipts;
+    }
+
+    private Receipt randomReceipt(Random random) {
+        ReceiptBuilder builder = ReceiptBuilder.buildReceipt()
+                .withRetailer("Store " + random.nextInt(1000))
+                .withPurchaseDate(String.format("2022-%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(31)))
+                .withPurchaseTime(String.format("%02d:%02d", random.nextInt(24), random.nextInt(60)))
+                .withTotal(random.nextInt(100) + "." + String.format("%02d", random.nextInt(4) * 25));
+        int items = random.nextInt(10);
+        for (int i = 0; i < items; i++) {
+            builder.withItems("Item" + "x".repeat(random.nextInt(6)), random.nextInt(50) + "." + String.format("%02d", random.nextInt(100)));
+        }
+        return builder.build();
+    }
+
+    private Receipt largeReceipt(Random random, int itemCount) {
+        ReceiptBuilder builder = ReceiptBuilder.buildReceipt()
+                .withRetailer("Costco Wholesale")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("14:30")
+                .withTotal("100.00");
+        for (int i = 0; i < itemCount; i++) {
+            if (i % 997 == 0) {
+                builder.withItems(null, "not-a-price");
+            } else {
+                builder.withItems(" Item" + "x".repeat(random.nextInt(6)) + " ", random.nextInt(50) + "." + String.format("%02d", random.nextInt(100)));
+            }
+        }
+        return builder.build();
+    }
+}
@@ -1,28 +1,75 @@
 package com.example.ReceiptProcessor.service;
 
+import com.example.ReceiptProcessor.id.RandomReceiptIdGenerator;
 import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.cache.IdempotencyIndex;
+import com.example.ReceiptProcessor.cache.PointsCache;
+import com.example.ReceiptProcessor.cluster.ClusterTopology;
+import com.example.ReceiptProcessor.dto.BatchReceiptResultDto;
+import com.example.ReceiptProcessor.dto.BulkPointsResponseDto;
+import com.example.ReceiptProcessor.ingest.JournalEntry;
+import com.example.ReceiptProcessor.ingest.ReceiptsDeadLetteredEvent;
+import com.example.ReceiptProcessor.ingest.WriteBehindQueue;
+import com.example.ReceiptProcessor.metrics.ReceiptMetrics;
 import com.example.ReceiptProcessor.model.Receipt;
-import com.example.ReceiptProcessor.repository.ReceiptRepository;
-import com.example.ReceiptProcessor.util.PointsCalculator;
+import com.example.ReceiptProcessor.rules.DefaultRules;
+import com.example.ReceiptProcessor.rules.ReceiptRule;
+import com.example.ReceiptProcessor.rules.RuleEngine;
+import com.example.ReceiptProcessor.rules.RuleSetCompiler;
+import com.example.ReceiptProcessor.rules.RuleSetChangedEvent;
+import com.example.ReceiptProcessor.stats.ReceiptStats;
+import com.example.ReceiptProcessor.store.ReceiptStore;
+import com.example.ReceiptProcessor.util.InvalidReceiptException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ReceiptServiceTest {
 
     @Mock
-    private ReceiptRepository receiptRepository;
+    private ReceiptStore receiptStore;
+
+    @Mock
+    private PointsCache pointsCache;
+
+    @Mock
+    private RuleEngine ruleEngine;
+
+    @Mock
+    private WriteBehindQueue writeBehindQueue;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ReceiptMetrics receiptMetrics = new ReceiptMetrics(meterRegistry);
+
+    @Spy
+    private IdempotencyIndex idempotencyIndex = new IdempotencyIndex(true, 1000, Duration.ofHours(1));
+
+    @Spy
+    private ReceiptStats receiptStats = new ReceiptStats(10000);
+
+    @Spy
+    private ClusterTopology clusterTopology = new ClusterTopology(false, "node-1", "", "", "", 1024, 64, new RandomReceiptIdGenerator());
 
     @InjectMocks
     private ReceiptService receiptService;
@@ -33,8 +80,6 @@ class ReceiptServiceTest {
     @Test
     void generateReceiptId_validReceipt_generatesIdAndSaves() {
         Receipt receipt = createSampleReceipt();
-        when(receiptRepository.save(any(Receipt.class))).thenReturn(receipt);
-
         String id = receiptService.generateReceiptId(receipt);
 
         assertNotNull(id);
@@ -43,21 +88,202 @@ class ReceiptServiceTest {
 
         ArgumentCaptor<Receipt> receiptCaptor = ArgumentCaptor.forClass(Receipt.class);
 
-        verify(receiptRepository).save(receiptCaptor.capture());
+        verify(receiptStore).save(receiptCaptor.capture());
         assertEquals(id, receiptCaptor.getValue().getId());
     }
 
+    @Test
+    void generateReceiptId_validReceipt_storesAndCachesPoints() {
+        Receipt receipt = createSampleReceipt();
+        when(ruleEngine.score(receipt)).thenReturn(28);
+
+        String id = receiptService.generateReceiptId(receipt);
+
+        assertEquals(28, receipt.getPoints());
+        verify(pointsCache).put(id, 28);
+    }
+
+    @Test
+    void generateReceiptId_validReceipt_recordsStats() {
+        Receipt receipt = createSampleReceipt();
+        when(ruleEngine.score(receipt)).thenReturn(28);
+
+        receiptService.generateReceiptId(receipt);
+        receiptService.generateReceiptId(createSampleReceipt());
+
+        // The identical second receipt is a duplicate and is not counted again
+        assertEquals(1, receiptStats.query("Test Store", null, null).getCount());
+        assertEquals(28, receiptStats.query("Test Store", null, null).getPoints());
+    }
+
     @Test
     void generateReceiptId_invalidReceipt_handlesException() {
         Receipt receipt = createSampleReceipt();
-        when(receiptRepository.save(any(Receipt.class)))
-                .thenThrow(new RuntimeException("Error saving receipt"));
+        doThrow(new RuntimeException("Error saving receipt"))
+                .when(receiptStore).save(any(Receipt.class));
 
         assertThrows(RuntimeException.class, () -> {
             receiptService.generateReceiptId(receipt);
         });
 
-        verify(receiptRepository).save(any(Receipt.class));
+        verify(receiptStore).save(any(Receipt.class));
+    }
+
+    @Test
+    void generateReceiptId_malformedReceipt_rejectedWithFieldErrors() {
+        Receipt receipt = createInvalidReceipt();
+        receipt.setPurchaseTime("1:5");
+
+        InvalidReceiptException exception = assertThrows(InvalidReceiptException.class,
+                () -> receiptService.generateReceiptId(receipt, "retry-1"));
+
+        assertEquals(List.of("purchaseTime: must be a 24-hour time in H:mm or HH:mm format", "total: must match ^\\d+\\.\\d{2}$"),
+                exception.getErrors());
+        assertNull(receipt.getId());
+        verifyNoInteractions(receiptStore, ruleEngine, pointsCache);
+        verify(receiptStats, never()).record(any());
+    }
+
+    @Test
+    void generateReceiptId_identicalContent_returnsExistingIdWithoutWriting() {
+        String id = receiptService.generateReceiptId(createSampleReceipt());
+        String retried = receiptService.generateReceiptId(createSampleReceipt());
+
+        assertEquals(id, retried);
+        verify(receiptStore, times(1)).save(any(Receipt.class));
+    }
+
+    @Test
+    void generateReceiptId_sameIdempotencyKey_returnsExistingIdForChangedBody() {
+        String id = receiptService.generateReceiptId(createSampleReceipt(), "retry-1");
+        Receipt changed = createSampleReceipt();
+        changed.setTotal("99.99");
+
+        assertEquals(id, receiptService.generateReceiptId(changed, "retry-1"));
+        verify(receiptStore, times(1)).save(any(Receipt.class));
+    }
+
+    @Test
+    void generateReceiptId_differentIdempotencyKeys_storesBoth() {
+        String first = receiptService.generateReceiptId(createSampleReceipt(), "retry-1");
+        String second = receiptService.generateReceiptId(createSampleReceipt(), "retry-2");
+
+        assertNotEquals(first, second);
+        verify(receiptStore, times(2)).save(any(Receipt.class));
+    }
+
+    @Test
+    void generateReceiptId_failedSave_retryStoresReceipt() {
+        doThrow(new RuntimeException("Error saving receipt")).doNothing()
+                .when(receiptStore).save(any(Receipt.class));
+
+        assertThrows(RuntimeException.class, () -> receiptService.generateReceiptId(createSampleReceipt()));
+        String id = receiptService.generateReceiptId(createSampleReceipt());
+
+        assertNotNull(id);
+        verify(receiptStore, times(2)).save(any(Receipt.class));
+    }
+
+    @Test
+    void generateReceiptId_writeBehindEnabled_queuesWithoutSaving() {
+        Receipt receipt = createSampleReceipt();
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.enqueue(receipt)).thenReturn(true);
+
+        String id = receiptService.generateReceiptId(receipt);
+
+        assertEquals(id, receipt.getId());
+        verify(writeBehindQueue).enqueue(receipt);
+        verify(receiptStore, never()).save(any());
+        verify(pointsCache).put(eq(id), anyInt());
+    }
+
+    @Test
+    void generateReceiptId_writeBehindQueueFull_savesSynchronously() {
+        Receipt receipt = createSampleReceipt();
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.enqueue(receipt)).thenReturn(false);
+
+        receiptService.generateReceiptId(receipt);
+
+        verify(receiptStore).save(receipt);
+    }
+
+    @Test
+    void generateReceiptId_recordsScoringStoreAndItemMetrics() {
+        receiptService.generateReceiptId(createValidReceipt());
+
+        assertEquals(1, meterRegistry.get("receipts.scoring").timer().count());
+        assertEquals(1, meterRegistry.get("receipts.store").tag("operation", "write").timer().count());
+        assertEquals(1, meterRegistry.get("receipts.items").summary().totalAmount());
+    }
+
+    /**
+     * Tests for generateReceiptIds method
+     */
+    @Test
+    void generateReceiptIds_mixedBatch_returnsResultsInOrder() {
+        Receipt valid1 = createValidReceipt();
+        Receipt invalid = createInvalidReceipt();
+        Receipt valid2 = createValidReceipt();
+
+        List<BatchReceiptResultDto> results = receiptService.generateReceiptIds(List.of(valid1, invalid, valid2));
+
+        assertEquals(3, results.size());
+        assertEquals(valid1.getId(), results.get(0).getId());
+        assertTrue(results.get(0).getErrors().isEmpty());
+        assertNull(results.get(1).getId());
+        assertFalse(results.get(1).getErrors().isEmpty());
+        assertEquals(valid2.getId(), results.get(2).getId());
+        assertNull(invalid.getId());
+
+        verify(receiptStore).saveAll(List.of(valid1, valid2));
+        verify(pointsCache).put(valid1.getId(), valid1.getPoints());
+        verify(receiptStats).record(valid1);
+        verify(receiptStats, never()).record(invalid);
+    }
+
+    @Test
+    void generateReceiptIds_largeBatch_writesPerChunk() {
+        List<Receipt> receipts = new ArrayList<>();
+        for (int i = 0; i < ReceiptService.BATCH_CHUNK_SIZE * 2 + 1; i++) {
+            receipts.add(createValidReceipt());
+        }
+
+        List<BatchReceiptResultDto> results = receiptService.generateReceiptIds(receipts);
+
+        assertEquals(receipts.size(), results.size());
+        verify(receiptStore, times(3)).saveAll(any());
+    }
+
+    @Test
+    void generateReceiptIds_inTransaction_cachesPointsOnlyOnCommit() {
+        Receipt receipt = createValidReceipt();
+
+        inTransaction(() -> receiptService.generateReceiptIds(List.of(receipt)), true);
+
+        verify(pointsCache).put(receipt.getId(), receipt.getPoints());
+        verify(receiptStats).record(receipt);
+    }
+
+    @Test
+    void generateReceiptIds_rolledBack_leavesCacheUntouched() {
+        Receipt receipt = createValidReceipt();
+
+        inTransaction(() -> receiptService.generateReceiptIds(List.of(receipt)), false);
+
+        verify(pointsCache, never()).put(any(), anyInt());
+        verify(receiptStats, never()).record(any());
+        assertEquals(0, receiptStats.query(null, null, null).getCount());
+    }
+
+    @Test
+    void generateReceiptIds_allInvalid_writesNothing() {
+        List<BatchReceiptResultDto> results = receiptService.generateReceiptIds(List.of(createInvalidReceipt()));
+
+        assertEquals(1, results.size());
+        assertNull(results.get(0).getId());
+        verifyNoInteractions(receiptStore);
     }
 
     /**
@@ -69,23 +295,72 @@ class ReceiptServiceTest {
         Receipt receipt = createSampleReceipt();
         receipt.setId(id);
 
-        when(receiptRepository.findById(id)).thenReturn(Optional.of(receipt));
+        when(receiptStore.findById(id)).thenReturn(Optional.of(receipt));
+        when(ruleEngine.score(receipt)).thenReturn(42);
 
-        try (MockedStatic<PointsCalculator> mockedCalculator = mockStatic(PointsCalculator.class)) {
-            mockedCalculator.when(() -> PointsCalculator.calculatePoints(receipt)).thenReturn(42);
+        int points = receiptService.processReceiptPoints(id);
 
-            int points = receiptService.processReceiptPoints(id);
+        assertEquals(42, points);
 
-            assertEquals(42, points);
+        verify(receiptStore).findById(id);
+    }
 
-            verify(receiptRepository).findById(id);
-        }
+    @Test
+    void processReceiptPoints_cachedId_skipsRepository() {
+        String id = "cached-id";
+        when(pointsCache.get(id)).thenReturn(OptionalInt.of(17));
+
+        int points = receiptService.processReceiptPoints(id);
+
+        assertEquals(17, points);
+        verifyNoInteractions(receiptStore);
+        assertEquals(0, meterRegistry.get("receipts.store").tag("operation", "read").timer().count());
+    }
+
+    @Test
+    void processReceiptPoints_persistedPoints_skipsScoring() {
+        String id = "test-id";
+        Receipt receipt = createSampleReceipt();
+        receipt.setId(id);
+        receipt.setPoints(99);
+
+        when(receiptStore.findById(id)).thenReturn(Optional.of(receipt));
+
+        int points = receiptService.processReceiptPoints(id);
+
+        assertEquals(99, points);
+        verifyNoInteractions(ruleEngine);
+        verify(pointsCache).put(id, 99);
+    }
+
+    @Test
+    void processReceiptPoints_storedPoints_skipsLoadingReceipt() {
+        String id = "test-id";
+        when(receiptStore.findPoints(id)).thenReturn(OptionalInt.of(28));
+
+        assertEquals(28, receiptService.processReceiptPoints(id));
+
+        verify(receiptStore, never()).findById(any());
+        verifyNoInteractions(ruleEngine);
+        verify(pointsCache).put(id, 28);
+    }
+
+    @Test
+    void processReceiptPoints_pendingWriteBehind_skipsRepository() {
+        String id = "pending-id";
+        Receipt receipt = createSampleReceipt();
+        receipt.setId(id);
+        receipt.setPoints(31);
+        when(writeBehindQueue.findPending(id)).thenReturn(Optional.of(receipt));
+
+        assertEquals(31, receiptService.processReceiptPoints(id));
+        verifyNoInteractions(receiptStore);
     }
 
     @Test
     void processReceiptPoints_nonExistentId_throwsException() {
         String id = "non-existent-id";
-        when(receiptRepository.findById(id)).thenReturn(Optional.empty());
+        when(receiptStore.findById(id)).thenReturn(Optional.empty());
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
@@ -93,7 +368,163 @@ class ReceiptServiceTest {
         );
 
         assertTrue(exception.getMessage().contains("No receipt found for that ID"));
-        verify(receiptRepository).findById(id);
+        verify(receiptStore).findById(id);
+    }
+
+    /**
+     * Tests for processReceiptPoints bulk method
+     */
+    @Test
+    void processReceiptPointsBulk_mixedIds_resolvesFromCachePendingAndStore() {
+        Receipt pending = receiptWithId("pending-id", 31);
+        Receipt stored = receiptWithId("stored-id", 12);
+        Receipt unscored = receiptWithId("unscored-id", null);
+        when(pointsCache.get(anyString())).thenReturn(OptionalInt.empty());
+        when(pointsCache.get("cached-id")).thenReturn(OptionalInt.of(17));
+        when(writeBehindQueue.findPending(anyString())).thenReturn(Optional.empty());
+        when(writeBehindQueue.findPending("pending-id")).thenReturn(Optional.of(pending));
+        when(receiptStore.findAllById(List.of("stored-id", "unscored-id", "missing-id")))
+                .thenReturn(List.of(unscored, stored));
+        when(ruleEngine.score(unscored)).thenReturn(40);
+
+        BulkPointsResponseDto result = receiptService.processReceiptPoints(
+                List.of("cached-id", "pending-id", "stored-id", "unscored-id", "missing-id", "cached-id"));
+
+        assertEquals(List.of("cached-id", "pending-id", "stored-id", "unscored-id"),
+                new ArrayList<>(result.getPoints().keySet()));
+        assertEquals(17, result.getPoints().get("cached-id"));
+        assertEquals(31, result.getPoints().get("pending-id"));
+        assertEquals(12, result.getPoints().get("stored-id"));
+        assertEquals(40, result.getPoints().get("unscored-id"));
+        assertEquals(List.of("missing-id"), result.getNotFound());
+        verify(ruleEngine, times(1)).score(any());
+        verify(pointsCache).put("unscored-id", 40);
+    }
+
+    @Test
+    void processReceiptPointsBulk_manyMisses_queriesStoreInChunks() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ReceiptService.LOOKUP_CHUNK_SIZE + 1; i++) {
+            ids.add("id-" + i);
+        }
+        when(pointsCache.get(anyString())).thenReturn(OptionalInt.empty());
+        when(writeBehindQueue.findPending(anyString())).thenReturn(Optional.empty());
+        when(receiptStore.findAllById(anyList())).thenReturn(List.of());
+
+        BulkPointsResponseDto result = receiptService.processReceiptPoints(ids);
+
+        verify(receiptStore, times(2)).findAllById(anyList());
+        assertTrue(result.getPoints().isEmpty());
+        assertEquals(ids, result.getNotFound());
+    }
+
+    @Test
+    void processReceiptPointsBulk_allCached_skipsStore() {
+        when(pointsCache.get("id-1")).thenReturn(OptionalInt.of(5));
+
+        BulkPointsResponseDto result = receiptService.processReceiptPoints(List.of("id-1"));
+
+        assertEquals(5, result.getPoints().get("id-1"));
+        verifyNoInteractions(receiptStore);
+    }
+
+    /**
+     * Tests for importReceipts method
+     */
+    @Test
+    void importReceipts_newAndExistingReceipts_storesOnlyNewWithTheirPoints() {
+        Receipt transferred = receiptWithId("moved", null);
+        transferred.getItems().get(0).setId(7L);
+        when(receiptStore.existsById("moved")).thenReturn(false);
+        when(receiptStore.existsById("already-here")).thenReturn(true);
+
+        int stored = receiptService.importReceipts(List.of(
+                new JournalEntry(transferred, 31), new JournalEntry(receiptWithId("already-here", null), 5)));
+
+        assertEquals(1, stored);
+        ArgumentCaptor<List<Receipt>> saved = ArgumentCaptor.forClass(List.class);
+        verify(receiptStore).saveAll(saved.capture());
+        assertEquals(List.of("moved"), saved.getValue().stream().map(Receipt::getId).toList());
+        assertEquals(31, saved.getValue().get(0).getPoints());
+        assertNull(saved.getValue().get(0).getItems().get(0).getId());
+        verify(pointsCache).put("moved", 31);
+        verifyNoInteractions(ruleEngine);
+        verify(receiptStats, never()).record(any());
+    }
+
+    /**
+     * Tests for onReceiptsDeadLettered method
+     */
+    @Test
+    void onReceiptsDeadLettered_dropsCachedPointsIdempotencyKeyAndStats() {
+        when(writeBehindQueue.isEnabled()).thenReturn(true);
+        when(writeBehindQueue.enqueue(any())).thenReturn(true);
+        Receipt receipt = createValidReceipt();
+        String id = receiptService.generateReceiptId(receipt, "retry-1");
+
+        receiptService.onReceiptsDeadLettered(new ReceiptsDeadLetteredEvent(List.of(receipt)));
+
+        verify(pointsCache).invalidate(id);
+        verify(receiptStats).remove(receipt);
+        assertNotEquals(id, receiptService.generateReceiptId(createValidReceipt(), "retry-1"));
+    }
+
+    /**
+     * Tests for onRuleSetChanged method
+     */
+    @Test
+    void onRuleSetChanged_builtInRules_rescoresStoredPoints() {
+        when(ruleEngine.activeRuleSet()).thenReturn(RuleSetCompiler.compile(2, DefaultRules.all(), false));
+
+        receiptService.onRuleSetChanged(new RuleSetChangedEvent(2));
+
+        verify(pointsCache).invalidateAll();
+        verify(receiptStore).rescore(any());
+        verify(receiptStore, never()).clearPoints();
+    }
+
+    @Test
+    void onRuleSetChanged_inTransaction_invalidatesCacheAfterStoreUpdateCommits() {
+        when(ruleEngine.activeRuleSet()).thenReturn(RuleSetCompiler.compile(2, DefaultRules.all(), false));
+
+        inTransaction(() -> {
+            receiptService.onRuleSetChanged(new RuleSetChangedEvent(2));
+            verify(receiptStore).rescore(any());
+            verify(pointsCache, never()).invalidateAll();
+        }, true);
+
+        verify(pointsCache).invalidateAll();
+    }
+
+    @Test
+    void onRuleSetChanged_pluginRules_invalidatesCacheAndStoredPoints() {
+        when(ruleEngine.activeRuleSet()).thenReturn(
+                RuleSetCompiler.compile(2, List.of(ReceiptRule.of("seasonal", receipt -> 500)), false));
+
+        receiptService.onRuleSetChanged(new RuleSetChangedEvent(2));
+
+        verify(pointsCache).invalidateAll();
+        verify(receiptStore).clearPoints();
+        verify(receiptStore, never()).rescore(any());
+    }
+
+    /**
+     * Runs {@code work} with transaction synchronization active, then completes it as a commit or a
+     * rollback the way the transaction manager would.
+     */
+    private static void inTransaction(Runnable work, boolean commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            if (commit) {
+                synchronizations.forEach(TransactionSynchronization::afterCommit);
+            }
+            int status = commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     /**
@@ -105,7 +536,31 @@ class ReceiptServiceTest {
                 .withPurchaseDate("2022-01-01")
                 .withPurchaseTime("13:00")
                 .withItems("Test Item", "10.00")
+                .withTotal("10.00")
                 .build();
         return receipt;
     }
-}
\ No newline at end of file
+
+    private Receipt createInvalidReceipt() {
+        Receipt receipt = createSampleReceipt();
+        receipt.setTotal(null);
+        return receipt;
+    }
+
+    private Receipt receiptWithId(String id, Integer points) {
+        Receipt receipt = createValidReceipt();
+        receipt.setId(id);
+        receipt.setPoints(points);
+        return receipt;
+    }
+
+    private Receipt createValidReceipt() {
+        return ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withTotal("6.49")
+                .build();
+    }
+}
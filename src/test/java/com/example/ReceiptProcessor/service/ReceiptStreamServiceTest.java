@@ -0,0 +1,116 @@
+package com.example.ReceiptProcessor.service;
+
+import com.example.ReceiptProcessor.dto.BatchReceiptResultDto;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReceiptStreamServiceTest {
+
+    private static final String VALID_LINE = "{\"retailer\":\"Target\",\"purchaseDate\":\"2022-01-01\",\"purchaseTime\":\"13:01\","
+            + "\"items\":[{\"shortDescription\":\"Mountain Dew 12PK\",\"price\":\"6.49\"}],\"total\":\"6.49\"}";
+    private static final String INVALID_LINE = "{\"retailer\":\"Target\"}";
+
+    @Mock
+    private ReceiptService receiptService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ReceiptStreamService receiptStreamService;
+
+    @BeforeEach
+    void setUp() {
+        receiptStreamService = new ReceiptStreamService(receiptService, objectMapper);
+    }
+
+    @Test
+    void ingest_mixedLines_writesOneResultPerReceipt() throws Exception {
+        when(receiptService.generateReceiptIds(anyList())).thenAnswer(invocation -> fakeIds(invocation.getArgument(0)));
+
+        List<JsonNode> lines = ingest(VALID_LINE + "\n" + INVALID_LINE + "\n" + VALID_LINE + "\n");
+
+        assertEquals(3, lines.size());
+        assertEquals("id-0", lines.get(0).get("id").asText());
+        assertEquals(7, lines.get(0).get("points").asInt());
+        assertEquals(1, lines.get(1).get("index").asLong());
+        assertTrue(lines.get(1).get("errors").isArray());
+        assertEquals("id-2", lines.get(2).get("id").asText());
+        verify(receiptService, times(1)).generateReceiptIds(anyList());
+    }
+
+    @Test
+    void ingest_moreThanOneChunk_writesInFixedSizeChunks() throws Exception {
+        when(receiptService.generateReceiptIds(anyList())).thenAnswer(invocation -> fakeIds(invocation.getArgument(0)));
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ReceiptStreamService.STREAM_CHUNK_SIZE * 2 + 1; i++) {
+            body.append(VALID_LINE).append('\n');
+        }
+
+        List<JsonNode> lines = ingest(body.toString());
+
+        assertEquals(ReceiptStreamService.STREAM_CHUNK_SIZE * 2 + 1, lines.size());
+        verify(receiptService, times(3)).generateReceiptIds(anyList());
+    }
+
+    @Test
+    void ingest_malformedLine_stopsAfterWritingParsedReceipts() throws Exception {
+        when(receiptService.generateReceiptIds(anyList())).thenAnswer(invocation -> fakeIds(invocation.getArgument(0)));
+
+        List<JsonNode> lines = ingest(VALID_LINE + "\n{\"retailer\": \n" + VALID_LINE + "\n");
+
+        assertEquals(2, lines.size());
+        assertEquals("id-0", lines.get(0).get("id").asText());
+        assertEquals(1, lines.get(1).get("index").asLong());
+        assertTrue(lines.get(1).get("errors").get(0).asText().startsWith("malformed JSON"));
+    }
+
+    @Test
+    void ingest_emptyBody_writesNothing() throws Exception {
+        assertTrue(ingest("").isEmpty());
+        verifyNoInteractions(receiptService);
+    }
+
+    private List<JsonNode> ingest(String body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        receiptStreamService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                lines.add(objectMapper.readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private List<BatchReceiptResultDto> fakeIds(List<Receipt> chunk) {
+        List<BatchReceiptResultDto> results = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Receipt receipt = chunk.get(i);
+            if (receipt.getTotal() == null) {
+                results.add(new BatchReceiptResultDto(null, List.of("total: must match ^\\d+\\.\\d{2}$")));
+            } else {
+                receipt.setId("id-" + i);
+                receipt.setPoints(7);
+                results.add(new BatchReceiptResultDto(receipt.getId(), List.of()));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.ReceiptProcessor.stats;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.dto.ReceiptStatsDto;
+import com.example.ReceiptProcessor.model.Receipt;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptStatsTest {
+
+    private final ReceiptStats receiptStats = new ReceiptStats(10000);
+
+    /**
+     * Tests for record and query methods
+     */
+    @Test
+    void query_noFilters_sumsEveryBucket() {
+        receiptStats.record(receipt("Target", "2022-01-01", 28));
+        receiptStats.record(receipt("Target", "2022-01-02", 12));
+        receiptStats.record(receipt("Walgreens", "2022-01-01", 109));
+
+        ReceiptStatsDto stats = receiptStats.query(null, null, null);
+
+        assertEquals(3, stats.getCount());
+        assertEquals(149, stats.getPoints());
+        assertEquals(List.of("Target", "Walgreens"), List.copyOf(stats.getRetailers().keySet()));
+        assertEquals(40, stats.getRetailers().get("Target").getPoints());
+        assertEquals(List.of("2022-01-01", "2022-01-02"), List.copyOf(stats.getDays().keySet()));
+        assertEquals(2, stats.getDays().get("2022-01-01").getCount());
+        assertEquals(137, stats.getDays().get("2022-01-01").getPoints());
+    }
+
+    @Test
+    void query_retailerAndRange_countsOnlyMatchingBucketsInclusive() {
+        receiptStats.record(receipt("Target", "2022-01-01", 10));
+        receiptStats.record(receipt("Target", "2022-01-02", 20));
+        receiptStats.record(receipt("Target", "2022-01-03", 30));
+        receiptStats.record(receipt("Target", "2022-01-04", 40));
+        receiptStats.record(receipt("Walgreens", "2022-01-02", 50));
+
+        ReceiptStatsDto stats = receiptStats.query("Target", LocalDate.of(2022, 1, 2), LocalDate.of(2022, 1, 3));
+
+        assertEquals(2, stats.getCount());
+        assertEquals(50, stats.getPoints());
+        assertEquals(List.of("Target"), List.copyOf(stats.getRetailers().keySet()));
+        assertEquals(List.of("2022-01-02", "2022-01-03"), List.copyOf(stats.getDays().keySet()));
+    }
+
+    @Test
+    void query_openEndedRange_includesEverythingOnThatSide() {
+        receiptStats.record(receipt("Target", "2021-12-31", 10));
+        receiptStats.record(receipt("Target", "2022-01-01", 20));
+
+        assertEquals(20, receiptStats.query(null, LocalDate.of(2022, 1, 1), null).getPoints());
+        assertEquals(10, receiptStats.query(null, null, LocalDate.of(2021, 12, 31)).getPoints());
+    }
+
+    @Test
+    void query_unknownRetailer_returnsEmptyTotals() {
+        receiptStats.record(receipt("Target", "2022-01-01", 28));
+
+        ReceiptStatsDto stats = receiptStats.query("Costco", null, null);
+
+        assertEquals(0, stats.getCount());
+        assertTrue(stats.getRetailers().isEmpty());
+        assertTrue(stats.getHistogram().values().stream().allMatch(count -> count == 0));
+    }
+
+    @Test
+    void query_histogram_binsPointsByInclusiveUpperBound() {
+        receiptStats.record(receipt("Target", "2022-01-01", 0));
+        receiptStats.record(receipt("Target", "2022-01-01", 10));
+        receiptStats.record(receipt("Target", "2022-01-01", 11));
+        receiptStats.record(receipt("Target", "2022-01-01", 501));
+
+        ReceiptStatsDto stats = receiptStats.query(null, null, null);
+
+        assertEquals(ReceiptStats.HISTOGRAM_BOUNDS.length + 1, stats.getHistogram().size());
+        assertEquals("<=0", stats.getHistogram().keySet().iterator().next());
+        assertEquals(1, stats.getHistogram().get("<=0"));
+        assertEquals(1, stats.getHistogram().get("1-10"));
+        assertEquals(1, stats.getHistogram().get("11-25"));
+        assertEquals(1, stats.getHistogram().get(">500"));
+    }
+
+    @Test
+    void remove_recordedReceipt_takesItBackOut() {
+        Receipt kept = receipt("Target", "2022-01-01", 28);
+        Receipt removed = receipt("Target", "2022-01-01", 109);
+        receiptStats.record(kept);
+        receiptStats.record(removed);
+
+        receiptStats.remove(removed);
+
+        ReceiptStatsDto stats = receiptStats.query(null, null, null);
+        assertEquals(1, stats.getCount());
+        assertEquals(28, stats.getPoints());
+        assertEquals(0, stats.getHistogram().get("101-150"));
+    }
+
+    @Test
+    void record_retailersPastTheCap_areCountedAsOther() {
+        ReceiptStats capped = new ReceiptStats(2);
+        capped.record(receipt("Target", "2022-01-01", 28));
+        capped.record(receipt("Walgreens", "2022-01-01", 12));
+        Receipt overflow = receipt("Costco", "2022-01-01", 5);
+        capped.record(overflow);
+        capped.record(receipt("Safeway", "2022-01-02", 7));
+        capped.record(receipt("Target", "2022-01-02", 3));
+
+        ReceiptStatsDto stats = capped.query(null, null, null);
+        assertEquals(5, stats.getCount());
+        assertEquals(List.of(ReceiptStats.OTHER_RETAILERS, "Target", "Walgreens"),
+                List.copyOf(stats.getRetailers().keySet()));
+        assertEquals(12, stats.getRetailers().get(ReceiptStats.OTHER_RETAILERS).getPoints());
+        assertEquals(0, capped.query("Costco", null, null).getCount());
+
+        capped.remove(overflow);
+
+        assertEquals(1, capped.query(ReceiptStats.OTHER_RETAILERS, null, null).getCount());
+    }
+
+    @Test
+    void record_missingRetailerPointsOrDate_isSkipped() {
+        receiptStats.record(receipt(null, "2022-01-01", 28));
+        receiptStats.record(receipt("Target", "not a date", 28));
+        receiptStats.record(receipt("Target", "2022-01-01", null));
+
+        assertEquals(0, receiptStats.query(null, null, null).getCount());
+    }
+
+    @Test
+    void record_concurrentIngest_countsEveryReceipt() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4_000; i++) {
+            String day = "2022-01-0" + (1 + i % 3);
+            executor.execute(() -> receiptStats.record(receipt("Target", day, 5)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        ReceiptStatsDto stats = receiptStats.query("Target", null, null);
+        assertEquals(4_000, stats.getCount());
+        assertEquals(20_000, stats.getPoints());
+    }
+
+    private static Receipt receipt(String retailer, String purchaseDate, Integer points) {
+        Receipt receipt = new ReceiptBuilder()
+                .withRetailer(retailer)
+                .withPurchaseDate(purchaseDate)
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withTotal("6.49")
+                .build();
+        receipt.setPoints(points);
+        return receipt;
+    }
+}
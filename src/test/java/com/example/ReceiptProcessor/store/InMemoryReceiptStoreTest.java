@@ -0,0 +1,248 @@
+package com.example.ReceiptProcessor.store;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.rules.DefaultRules;
+import com.example.ReceiptProcessor.rules.RuleSetCompiler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryReceiptStoreTest {
+
+    /**
+     * Tests for save and findById methods
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findById_savedReceipt_returnsEqualCopy(boolean offHeap) {
+        InMemoryReceiptStore store = createStore(offHeap, DataSize.ofKilobytes(64));
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("M&M Corner Märket")
+                .withPurchaseDate("2022-03-20")
+                .withPurchaseTime("14:33")
+                .withItems("Gatorade", "2.25")
+                .withItems("Crème brûlée", "4.50")
+                .withTotal("6.75")
+                .build();
+        receipt.setId("id-1");
+        receipt.setPoints(109);
+
+        store.save(receipt);
+        Receipt found = store.findById("id-1").orElseThrow();
+
+        assertNotSame(receipt, found);
+        assertEquals("id-1", found.getId());
+        assertEquals("M&M Corner Märket", found.getRetailer());
+        assertEquals("2022-03-20", found.getPurchaseDate());
+        assertEquals("14:33", found.getPurchaseTime());
+        assertEquals("6.75", found.getTotal());
+        assertEquals(109, found.getPoints());
+        assertEquals(2, found.getItems().size());
+        assertEquals("Crème brûlée", found.getItems().get(1).getShortDescription());
+        assertEquals("4.50", found.getItems().get(1).getPrice());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findById_nullFields_roundTrip(boolean offHeap) {
+        InMemoryReceiptStore store = createStore(offHeap, DataSize.ofKilobytes(64));
+        Receipt noItems = new Receipt("no-items", "Target", null, null, null, null);
+        List<Item> items = new ArrayList<>();
+        items.add(new Item(null, null, "1.00"));
+        Receipt nullDescription = new Receipt("null-description", "Target", null, null, items, null);
+
+        store.save(noItems);
+        store.save(nullDescription);
+
+        assertNull(store.findById("no-items").orElseThrow().getItems());
+        Item item = store.findById("null-description").orElseThrow().getItems().get(0);
+        assertNull(item.getShortDescription());
+        assertEquals("1.00", item.getPrice());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void findById_typedFields_readBackCanonical(boolean offHeap) {
+        InMemoryReceiptStore store = createStore(offHeap, DataSize.ofKilobytes(64));
+        List<Item> items = new ArrayList<>();
+        items.add(new Item(null, "Soda", "01.5"));
+        store.save(new Receipt("id-1", "Target", "2022-03-05", "9:05", items, "12.3"));
+
+        Receipt found = store.findById("id-1").orElseThrow();
+
+        assertEquals("2022-03-05", found.getPurchaseDate());
+        assertEquals("09:05", found.getPurchaseTime());
+        assertEquals("12.30", found.getTotal());
+        assertEquals(1230, found.getTotalCents());
+        assertEquals("1.50", found.getItems().get(0).getPrice());
+    }
+
+    @Test
+    void findById_unknownId_returnsEmpty() {
+        assertTrue(createStore(false, DataSize.ofKilobytes(64)).findById("missing").isEmpty());
+    }
+
+    @Test
+    void save_offHeap_spillsIntoNewSlabs() {
+        InMemoryReceiptStore store = createStore(true, DataSize.ofBytes(64));
+        for (int i = 0; i < 10; i++) {
+            store.save(receipt("id-" + i, "Item number " + i));
+        }
+
+        assertEquals(10, store.size());
+        assertTrue(store.offHeapBytes() > 64);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Item number " + i, store.findById("id-" + i).orElseThrow().getItems().get(0).getShortDescription());
+        }
+    }
+
+    @Test
+    void save_concurrentWriters_keepsEveryReceipt() throws Exception {
+        InMemoryReceiptStore store = createStore(true, DataSize.ofKilobytes(4));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    String id = thread + "-" + i;
+                    store.save(receipt(id, id));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(4_000, store.size());
+        assertEquals("3-999", store.findById("3-999").orElseThrow().getItems().get(0).getShortDescription());
+    }
+
+    /**
+     * Tests for findAllById method
+     */
+    @Test
+    void findAllById_returnsOnlyExistingReceipts() {
+        InMemoryReceiptStore store = createStore(true, DataSize.ofKilobytes(64));
+        store.saveAll(List.of(receipt("a", "x"), receipt("b", "y")));
+
+        List<Receipt> found = store.findAllById(List.of("a", "missing", "b"));
+
+        assertEquals(List.of("a", "b"), found.stream().map(Receipt::getId).toList());
+        assertEquals("y", found.get(1).getItems().get(0).getShortDescription());
+    }
+
+    /**
+     * Tests for existsById method
+     */
+    @Test
+    void existsById_reflectsSavedReceipts() {
+        InMemoryReceiptStore store = createStore(false, DataSize.ofKilobytes(64));
+        store.saveAll(List.of(receipt("a", "x"), receipt("b", "y")));
+
+        assertTrue(store.existsById("a"));
+        assertTrue(store.existsById("b"));
+        assertFalse(store.existsById("c"));
+    }
+
+    /**
+     * Tests for forEachId and deleteAllById methods
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void deleteAllById_removesReceiptsFromLookupsAndIds(boolean offHeap) {
+        InMemoryReceiptStore store = createStore(offHeap, DataSize.ofKilobytes(64));
+        store.saveAll(List.of(receipt("a", "x"), receipt("b", "y"), receipt("c", "z")));
+
+        store.deleteAllById(List.of("a", "c", "missing"));
+
+        List<String> ids = new ArrayList<>();
+        store.forEachId(ids::add);
+        assertEquals(List.of("b"), ids);
+        assertFalse(store.existsById("a"));
+        assertTrue(store.findById("c").isEmpty());
+        assertEquals("y", store.findById("b").orElseThrow().getItems().get(0).getShortDescription());
+    }
+
+    /**
+     * Tests for findPoints method
+     */
+    @Test
+    void findPoints_returnsStoredPointsUntilCleared() {
+        InMemoryReceiptStore store = createStore(false, DataSize.ofKilobytes(64));
+        Receipt receipt = receipt("id-1", "x");
+        receipt.setPoints(12);
+        store.save(receipt);
+
+        assertEquals(OptionalInt.of(12), store.findPoints("id-1"));
+        assertTrue(store.findPoints("missing").isEmpty());
+
+        store.clearPoints();
+
+        assertTrue(store.findPoints("id-1").isEmpty());
+    }
+
+    /**
+     * Tests for clearPoints method
+     */
+    @Test
+    void clearPoints_dropsStoredPoints() {
+        InMemoryReceiptStore store = createStore(false, DataSize.ofKilobytes(64));
+        Receipt receipt = receipt("id-1", "x");
+        receipt.setPoints(12);
+        store.save(receipt);
+
+        store.clearPoints();
+
+        assertNull(store.findById("id-1").orElseThrow().getPoints());
+    }
+
+    /**
+     * Tests for rescore method
+     */
+    @Test
+    void rescore_clearsStoredPoints() {
+        InMemoryReceiptStore store = createStore(false, DataSize.ofKilobytes(64));
+        Receipt receipt = receipt("id-1", "x");
+        receipt.setPoints(12);
+        store.save(receipt);
+
+        store.rescore(RuleSetCompiler.compile(1, DefaultRules.all(), false).featureScorer().orElseThrow());
+
+        assertNull(store.findById("id-1").orElseThrow().getPoints());
+    }
+
+    /**
+     * Helper methods
+     */
+    private InMemoryReceiptStore createStore(boolean offHeap, DataSize slabSize) {
+        return new InMemoryReceiptStore(4, offHeap, slabSize);
+    }
+
+    private Receipt receipt(String id, String description) {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems(description, "6.49")
+                .withTotal("6.49")
+                .build();
+        receipt.setId(id);
+        return receipt;
+    }
+}
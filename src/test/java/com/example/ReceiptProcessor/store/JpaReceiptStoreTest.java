@@ -0,0 +1,178 @@
+package com.example.ReceiptProcessor.store;
+
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.repository.ReceiptRepository;
+import com.example.ReceiptProcessor.rules.DefaultRules;
+import com.example.ReceiptProcessor.rules.ReceiptRule;
+import com.example.ReceiptProcessor.rules.RuleSetCompiler;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaReceiptStoreTest {
+
+    private static final String ID_1 = "0190b7c2-4a10-7000-8000-000000000001";
+    private static final String ID_2 = "0190b7c2-4a10-7000-8000-000000000002";
+
+    @Mock
+    private ReceiptRepository receiptRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private JpaReceiptStore receiptStore;
+
+    /**
+     * Tests for saveAll method
+     */
+    @Test
+    void saveAll_flushesAndClearsAfterSaving() {
+        List<Receipt> receipts = List.of(new Receipt(), new Receipt());
+
+        receiptStore.saveAll(receipts);
+
+        InOrder inOrder = inOrder(receiptRepository, entityManager);
+        inOrder.verify(receiptRepository).saveAll(receipts);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(entityManager).clear();
+    }
+
+    /**
+     * Tests for findById method
+     */
+    @Test
+    void findById_fetchesItemsWithReceipt() {
+        Receipt receipt = new Receipt();
+        when(receiptRepository.findWithItemsById(ID_1)).thenReturn(Optional.of(receipt));
+
+        assertSame(receipt, receiptStore.findById(ID_1).orElseThrow());
+    }
+
+    @Test
+    void findById_idThatIsNotAKey_returnsEmptyWithoutQuery() {
+        assertTrue(receiptStore.findById("not-a-uuid").isEmpty());
+        assertTrue(receiptStore.findById(ID_1.toUpperCase()).isEmpty());
+        assertTrue(receiptStore.findPoints("not-a-uuid").isEmpty());
+        assertFalse(receiptStore.existsById("not-a-uuid"));
+
+        verifyNoInteractions(receiptRepository);
+    }
+
+    /**
+     * Tests for findPoints method
+     */
+    @Test
+    void findPoints_readsPointsColumnOnly() {
+        when(receiptRepository.findPointsById(ID_1)).thenReturn(Optional.of(28));
+        when(receiptRepository.findPointsById(ID_2)).thenReturn(Optional.empty());
+
+        assertEquals(OptionalInt.of(28), receiptStore.findPoints(ID_1));
+        assertTrue(receiptStore.findPoints(ID_2).isEmpty());
+        verify(receiptRepository, never()).findWithItemsById(any());
+    }
+
+    /**
+     * Tests for findAllById method
+     */
+    @Test
+    void findAllById_fetchesItemsWithReceipts() {
+        List<Receipt> receipts = List.of(new Receipt());
+        when(receiptRepository.findWithItemsByIdIn(List.of(ID_1, ID_2))).thenReturn(receipts);
+
+        assertSame(receipts, receiptStore.findAllById(List.of(ID_1, "not-a-uuid", ID_2)));
+    }
+
+    /**
+     * Tests for forEachId method
+     */
+    @Test
+    void forEachId_pagesThroughIdsByKeyset() {
+        List<String> firstPage = IntStream.range(0, JpaReceiptStore.ID_PAGE_SIZE)
+                .mapToObj(i -> String.format("id-%04d", i))
+                .toList();
+        String last = firstPage.get(firstPage.size() - 1);
+        when(receiptRepository.findIds(Limit.of(JpaReceiptStore.ID_PAGE_SIZE))).thenReturn(firstPage);
+        when(receiptRepository.findIdsAfter(last, Limit.of(JpaReceiptStore.ID_PAGE_SIZE))).thenReturn(List.of("id-z"));
+
+        List<String> ids = new ArrayList<>();
+        receiptStore.forEachId(ids::add);
+
+        assertEquals(JpaReceiptStore.ID_PAGE_SIZE + 1, ids.size());
+        assertEquals("id-z", ids.get(ids.size() - 1));
+    }
+
+    /**
+     * Tests for deleteAllById method
+     */
+    @Test
+    void deleteAllById_deletesItemsBeforeReceipts() {
+        List<String> ids = List.of(ID_1, ID_2);
+
+        receiptStore.deleteAllById(ids);
+
+        InOrder order = inOrder(receiptRepository);
+        order.verify(receiptRepository).deleteItemsByReceiptIdIn(ids);
+        order.verify(receiptRepository).deleteByIdIn(ids);
+    }
+
+    @Test
+    void deleteAllById_noKeys_skipsQueries() {
+        receiptStore.deleteAllById(List.of());
+        receiptStore.deleteAllById(List.of("not-a-uuid"));
+
+        verifyNoInteractions(receiptRepository);
+    }
+
+    /**
+     * Tests for isKey method
+     */
+    @Test
+    void isKey_acceptsOnlyCanonicalLowercaseUuids() {
+        assertTrue(JpaReceiptStore.isKey("7fb1377b-b223-49d9-a31a-5a02701dd310"));
+
+        assertFalse(JpaReceiptStore.isKey(null));
+        assertFalse(JpaReceiptStore.isKey("7FB1377B-B223-49D9-A31A-5A02701DD310"));
+        assertFalse(JpaReceiptStore.isKey("7fb1377bb22349d9a31a5a02701dd310"));
+        assertFalse(JpaReceiptStore.isKey("7fb1377b-b223-49d9-a31a_5a02701dd310"));
+        assertFalse(JpaReceiptStore.isKey("xxxxxxxx-xxxx-xxxx-xxxx-xxxxxxxxxxxx"));
+    }
+
+    /**
+     * Tests for clearPoints method
+     */
+    @Test
+    void clearPoints_delegatesToRepository() {
+        receiptStore.clearPoints();
+
+        verify(receiptRepository).clearPoints();
+    }
+
+    /**
+     * Tests for rescore method
+     */
+    @Test
+    void rescore_passesRuleWeightsToBulkUpdate() {
+        List<ReceiptRule> rules = List.of(DefaultRules.RETAILER, DefaultRules.ODD_DAY);
+
+        receiptStore.rescore(RuleSetCompiler.compile(1, rules, false).featureScorer().orElseThrow());
+
+        verify(receiptRepository).rescoreFromFeatures(1, 0, 0, 0, 1, 0);
+    }
+}
@@ -0,0 +1,430 @@
+package com.example.ReceiptProcessor.store;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.rules.DefaultRules;
+import com.example.ReceiptProcessor.rules.RuleSetCompiler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogReceiptStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * Tests for save and findById methods
+     */
+    @Test
+    void findById_savedReceipt_returnsEqualCopy() {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("M&M Corner Märket")
+                .withPurchaseDate("2022-03-20")
+                .withPurchaseTime("14:33")
+                .withItems("Gatorade", "2.25")
+                .withItems("Crème brûlée", "4.50")
+                .withTotal("6.75")
+                .build();
+        receipt.setId("id-1");
+        receipt.setPoints(109);
+
+        store.save(receipt);
+        Receipt found = store.findById("id-1").orElseThrow();
+
+        assertNotSame(receipt, found);
+        assertEquals("id-1", found.getId());
+        assertEquals("M&M Corner Märket", found.getRetailer());
+        assertEquals("2022-03-20", found.getPurchaseDate());
+        assertEquals("14:33", found.getPurchaseTime());
+        assertEquals("6.75", found.getTotal());
+        assertEquals(109, found.getPoints());
+        assertEquals(2, found.getItems().size());
+        assertEquals("Crème brûlée", found.getItems().get(1).getShortDescription());
+        assertEquals("4.50", found.getItems().get(1).getPrice());
+    }
+
+    @Test
+    void findById_nullFields_roundTrip() {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        Receipt receipt = new Receipt("id-1", null, null, null, null, null);
+
+        store.save(receipt);
+        Receipt found = store.findById("id-1").orElseThrow();
+
+        assertNull(found.getRetailer());
+        assertNull(found.getTotal());
+        assertNull(found.getItems());
+        assertNull(found.getPoints());
+    }
+
+    @Test
+    void findById_stringRecordFromEarlierFormat_isStillRead() {
+        SegmentLog segmentLog = new SegmentLog(directory, 64 * 1024, false);
+        segmentLog.recover((address, body) -> {
+        });
+        ByteBuffer body = ByteBuffer.allocate(128).put((byte) 1).putInt(0).putInt(28);
+        for (String field : new String[]{"id-1", "Target", "2022-01-01", "13:01"}) {
+            ItemCodec.put(body, ItemCodec.bytes(field));
+        }
+        ItemCodec.put(body, ItemCodec.bytes("6.49"));
+        body.putInt(1);
+        ItemCodec.put(body, ItemCodec.bytes("Mountain Dew 12PK"));
+        ItemCodec.put(body, ItemCodec.bytes("6.49"));
+        segmentLog.append(body.flip());
+        segmentLog.close();
+
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        Receipt found = store.findById("id-1").orElseThrow();
+
+        assertEquals("Target", found.getRetailer());
+        assertEquals("2022-01-01", found.getPurchaseDate());
+        assertEquals(13 * 60 + 1, found.getPurchaseMinute());
+        assertEquals(649, found.getTotalCents());
+        assertEquals(649, found.getItems().get(0).getPriceCents());
+        assertEquals(OptionalInt.of(28), store.findPoints("id-1"));
+    }
+
+    @Test
+    void findById_unknownId_returnsEmpty() {
+        assertTrue(createStore(DataSize.ofKilobytes(64)).findById("missing").isEmpty());
+    }
+
+    @Test
+    void save_existingId_replacesReceipt() {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        store.save(receipt("id-1", "first", 1));
+        store.save(receipt("id-1", "second", 2));
+
+        assertEquals(1, store.size());
+        assertEquals("second", store.findById("id-1").orElseThrow().getItems().get(0).getShortDescription());
+    }
+
+    @Test
+    void save_recordLargerThanSegment_throwsIllegalArgument() {
+        LogReceiptStore store = createStore(DataSize.ofBytes(128));
+
+        assertThrows(IllegalArgumentException.class, () -> store.save(receipt("id-1", "x".repeat(200), 1)));
+        assertFalse(store.existsById("id-1"));
+    }
+
+    /**
+     * Tests for recovery on startup
+     */
+    @Test
+    void recover_reopenedLog_findsEveryReceipt() {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(1));
+        for (int i = 0; i < 100; i++) {
+            store.save(receipt("id-" + i, "item " + i, i));
+        }
+        store.close();
+
+        LogReceiptStore reopened = createStore(DataSize.ofKilobytes(1));
+
+        assertEquals(100, reopened.size());
+        assertEquals(OptionalInt.of(42), reopened.findPoints("id-42"));
+        assertEquals("item 99", reopened.findById("id-99").orElseThrow().getItems().get(0).getShortDescription());
+    }
+
+    @Test
+    void recover_tornLastRecord_dropsItAndKeepsAppending() throws IOException {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        store.save(receipt("id-1", "kept", 1));
+        store.save(receipt("id-2", "torn", 2));
+        store.close();
+        corruptLastByteOf("id-2", segmentFiles().get(0));
+
+        LogReceiptStore reopened = createStore(DataSize.ofKilobytes(64));
+        reopened.save(receipt("id-3", "after", 3));
+        reopened.close();
+        LogReceiptStore again = createStore(DataSize.ofKilobytes(64));
+
+        assertTrue(again.existsById("id-1"));
+        assertFalse(again.existsById("id-2"));
+        assertEquals("after", again.findById("id-3").orElseThrow().getItems().get(0).getShortDescription());
+    }
+
+    @Test
+    void recover_lengthWithoutBody_stopsAtIt() throws IOException {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        store.save(receipt("id-1", "kept", 1));
+        store.close();
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int end = recordEnd(channel);
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(100).flip(), end);
+        }
+
+        LogReceiptStore reopened = createStore(DataSize.ofKilobytes(64));
+
+        assertEquals(1, reopened.size());
+        assertTrue(reopened.existsById("id-1"));
+    }
+
+    /**
+     * Tests for segment rolling and compaction
+     */
+    @Test
+    void save_fullSegment_rollsToNewFile() throws IOException {
+        LogReceiptStore store = createStore(DataSize.ofBytes(256));
+        for (int i = 0; i < 10; i++) {
+            store.save(receipt("id-" + i, "item", i));
+        }
+
+        assertTrue(segmentFiles().size() > 1);
+        assertEquals(10, store.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(OptionalInt.of(i), store.findPoints("id-" + i));
+        }
+    }
+
+    @Test
+    void compact_supersededRecords_deletesSegmentsAndKeepsLatest() throws IOException {
+        LogReceiptStore store = createStore(DataSize.ofBytes(512));
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 3; i++) {
+                store.save(receipt("id-" + i, "round " + round, round));
+            }
+        }
+        store.compact();
+
+        assertEquals(3, store.size());
+        int segments = segmentFiles().size();
+        assertTrue(segments <= 3, () -> "segments left: " + segments);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("round 19", store.findById("id-" + i).orElseThrow().getItems().get(0).getShortDescription());
+            assertEquals(OptionalInt.of(19), store.findPoints("id-" + i));
+        }
+
+        store.close();
+        LogReceiptStore reopened = createStore(DataSize.ofBytes(512));
+        assertEquals(3, reopened.size());
+        assertEquals(OptionalInt.of(19), reopened.findPoints("id-2"));
+    }
+
+    @Test
+    void save_segmentRoll_compactsInBackground() throws Exception {
+        LogReceiptStore store = createStore(DataSize.ofBytes(512));
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 3; i++) {
+                store.save(receipt("id-" + i, "round " + round, round));
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (segmentFiles().size() > 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        int segments = segmentFiles().size();
+        assertTrue(segments <= 3, () -> "segments left: " + segments);
+        assertEquals(OptionalInt.of(19), store.findPoints("id-1"));
+        store.close();
+    }
+
+    @Test
+    void compact_clearedPoints_stayClearedAfterRestart() {
+        LogReceiptStore store = createStore(DataSize.ofBytes(256));
+        store.save(receipt("id-old", "old", 7));
+        store.clearPoints();
+        for (int i = 0; i < 10; i++) {
+            store.save(receipt("id-" + i, "new", i));
+            store.save(receipt("id-" + i, "new", i));
+        }
+        store.compact();
+        store.close();
+
+        LogReceiptStore reopened = createStore(DataSize.ofBytes(256));
+
+        assertTrue(reopened.existsById("id-old"));
+        assertTrue(reopened.findPoints("id-old").isEmpty());
+        assertEquals(OptionalInt.of(9), reopened.findPoints("id-9"));
+    }
+
+    /**
+     * Tests for findPoints and clearPoints methods
+     */
+    @Test
+    void findPoints_returnsStoredPointsUntilCleared() {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        store.save(receipt("id-1", "x", 12));
+
+        assertEquals(OptionalInt.of(12), store.findPoints("id-1"));
+        assertTrue(store.findPoints("missing").isEmpty());
+
+        store.clearPoints();
+        store.save(receipt("id-2", "x", 5));
+
+        assertTrue(store.findPoints("id-1").isEmpty());
+        assertNull(store.findById("id-1").orElseThrow().getPoints());
+        assertEquals(OptionalInt.of(5), store.findPoints("id-2"));
+    }
+
+    @Test
+    void clearPoints_survivesRestart() {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        store.save(receipt("id-1", "x", 12));
+        store.clearPoints();
+        store.close();
+
+        LogReceiptStore reopened = createStore(DataSize.ofKilobytes(64));
+
+        assertTrue(reopened.findPoints("id-1").isEmpty());
+    }
+
+    /**
+     * Tests for rescore method
+     */
+    @Test
+    void rescore_clearsStoredPoints() {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        store.save(receipt("id-1", "x", 12));
+
+        store.rescore(RuleSetCompiler.compile(1, DefaultRules.all(), false).featureScorer().orElseThrow());
+
+        assertTrue(store.findPoints("id-1").isEmpty());
+    }
+
+    /**
+     * Tests for findAllById and existsById methods
+     */
+    @Test
+    void findAllById_returnsOnlyExistingReceipts() {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        store.save(receipt("id-1", "a", 1));
+        store.save(receipt("id-2", "b", 2));
+
+        List<Receipt> found = store.findAllById(List.of("id-1", "missing", "id-2"));
+
+        assertEquals(2, found.size());
+        assertTrue(store.existsById("id-2"));
+        assertFalse(store.existsById("missing"));
+    }
+
+    /**
+     * Tests for forEachId and deleteAllById methods
+     */
+    @Test
+    void deleteAllById_staysDeletedAfterRestart() {
+        LogReceiptStore store = createStore(DataSize.ofKilobytes(64));
+        store.save(receipt("id-1", "a", 1));
+        store.save(receipt("id-2", "b", 2));
+        store.deleteAllById(List.of("id-1", "missing"));
+
+        assertFalse(store.existsById("id-1"));
+        assertTrue(store.findPoints("id-1").isEmpty());
+        store.close();
+
+        LogReceiptStore reopened = createStore(DataSize.ofKilobytes(64));
+        List<String> ids = new ArrayList<>();
+        reopened.forEachId(ids::add);
+
+        assertEquals(List.of("id-2"), ids);
+    }
+
+    @Test
+    void compact_tombstoneInSparseSegment_survivesWhileOlderCopyRemains() throws IOException {
+        LogReceiptStore store = createStore(DataSize.ofBytes(256));
+        store.save(receipt("gone", "old", 9));
+        for (int i = 0; i < 3; i++) {
+            store.save(receipt("keep-" + i, "old", i));
+        }
+        store.deleteAllById(List.of("gone"));
+        // Superseded copies leave the later segments sparse while the first one stays mostly live
+        for (int round = 0; round < 10; round++) {
+            store.save(receipt("churn", "round " + round, round));
+        }
+        store.compact();
+        store.close();
+
+        LogReceiptStore reopened = createStore(DataSize.ofBytes(256));
+
+        assertFalse(reopened.existsById("gone"));
+        assertTrue(reopened.existsById("keep-2"));
+        assertEquals(4, reopened.size());
+    }
+
+    @Test
+    void deleteAllById_thenSavedAgain_isKeptThroughCompactionAndRestart() {
+        LogReceiptStore store = createStore(DataSize.ofBytes(256));
+        store.save(receipt("id-1", "first", 1));
+        store.deleteAllById(List.of("id-1"));
+        store.save(receipt("id-1", "second", 2));
+        for (int i = 0; i < 10; i++) {
+            store.save(receipt("churn", "x", i));
+        }
+        store.compact();
+        store.close();
+
+        LogReceiptStore reopened = createStore(DataSize.ofBytes(256));
+
+        assertEquals("second", reopened.findById("id-1").orElseThrow().getItems().get(0).getShortDescription());
+    }
+
+    /**
+     * Helper methods
+     */
+    private LogReceiptStore createStore(DataSize segmentSize) {
+        return new LogReceiptStore(directory, segmentSize, false, 0.5);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    /**
+     * Flips the last byte of the last record in the segment, as a write torn by a crash would.
+     */
+    private static void corruptLastByteOf(String id, Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int end = recordEnd(channel);
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, end - 1);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) ~last.get(0)}), end - 1);
+        }
+    }
+
+    private static int recordEnd(FileChannel channel) throws IOException {
+        int offset = 0;
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        while (true) {
+            length.clear();
+            channel.read(length, offset);
+            int size = length.getInt(0);
+            if (size == 0) {
+                return offset;
+            }
+            offset += SegmentLog.HEADER_BYTES + size;
+        }
+    }
+
+    private static Receipt receipt(String id, String description, int points) {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems(description, "6.49")
+                .withTotal("6.49")
+                .build();
+        receipt.setId(id);
+        receipt.setPoints(points);
+        return receipt;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.ReceiptProcessor.util;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastPointsCalculatorTest {
+
+    private static final String[] AMOUNT_NOISE = {"", ".", "-", "+", "e", "E", " ", "0", "٣", "x", "..", "1e2", "-0"};
+    private static final String[] TIME_NOISE = {"", ":", "24:00", "014:30", "+14:30", "14:30:00", "1:5", "23:60", " 14:30"};
+    private static final String[] DATE_NOISE = {"", "2022-1-01", "+2022-01-01", "2022/01/01", "0000-01-01", "2022-00-10",
+            "2022-13-01", "2022-01-00", "2022-02-29", "2024-02-29", "1900-02-29", "2000-02-29", "2022-04-31", "2022-01-01 "};
+    private static final String DESCRIPTION_CHARS = "abcXYZ019 -&\té中 ";
+
+    /**
+     * Property: both engines agree on every generated receipt
+     **/
+    @Test
+    void calculatePoints_randomReceipts_matchesReferenceCalculator() {
+        Random random = new Random(20240401L);
+
+        for (int run = 0; run < 20_000; run++) {
+            Receipt receipt = randomReceipt(random);
+
+            assertEquals(PointsCalculator.calculatePoints(receipt), FastPointsCalculator.calculatePoints(receipt),
+                    () -> describe(receipt));
+        }
+    }
+
+    @Test
+    void calculateTotalPoints_allCentValues_matchesReferenceCalculator() {
+        for (int cents = 0; cents < 100_000; cents++) {
+            String total = (cents / 100) + "." + String.format("%02d", cents % 100);
+
+            assertEquals(PointsCalculator.calculateRoundDollarAndQuarterPoints(total),
+                    FastPointsCalculator.calculateTotalPoints(total), total);
+        }
+    }
+
+    @Test
+    void calculatePurchaseDatePoints_everyDayShape_matchesReferenceCalculator() {
+        for (int year : new int[]{0, 1900, 1999, 2000, 2022, 2024, 9999}) {
+            for (int month = 0; month <= 13; month++) {
+                for (int day = 0; day <= 32; day++) {
+                    String date = String.format("%04d-%02d-%02d", year, month, day);
+
+                    assertEquals(PointsCalculator.calculatePurchaseDatePoints(date),
+                            FastPointsCalculator.calculatePurchaseDatePoints(date), date);
+                }
+            }
+        }
+    }
+
+    @Test
+    void calculatePurchaseTimePoints_everyMinuteShape_matchesReferenceCalculator() {
+        for (int hour = 0; hour <= 25; hour++) {
+            for (int minute = 0; minute <= 61; minute++) {
+                for (String time : new String[]{String.format("%02d:%02d", hour, minute), hour + ":" + String.format("%02d", minute)}) {
+                    assertEquals(PointsCalculator.calculatePurchaseTimePoints(time),
+                            FastPointsCalculator.calculatePurchaseTimePoints(time), time);
+                }
+            }
+        }
+    }
+
+    @Test
+    void calculatePurchaseDatePoints_epochDays_matchStringDates() {
+        for (LocalDate date = LocalDate.of(1999, 1, 1); date.getYear() < 2030; date = date.plusDays(1)) {
+            assertEquals(FastPointsCalculator.calculatePurchaseDatePoints(date.toString()),
+                    FastPointsCalculator.calculatePurchaseDatePoints((int) date.toEpochDay()), date.toString());
+        }
+    }
+
+    @Test
+    void calculatePoints_typedFieldsOnly_matchesReferenceCalculator() {
+        Receipt receipt = new Receipt();
+        receipt.setRetailer("M&M Corner Market");
+        receipt.setPurchaseEpochDay((int) LocalDate.of(2022, 3, 20).toEpochDay());
+        receipt.setPurchaseMinute((short) (14 * 60 + 33));
+        receipt.setTotalCents(900);
+        Item item = new Item();
+        item.setShortDescription("Gatorade");
+        item.setPriceCents(225);
+        receipt.setItems(List.of(item, item, item, item));
+
+        assertEquals(109, FastPointsCalculator.calculatePoints(receipt));
+        assertEquals(PointsCalculator.calculatePoints(receipt), FastPointsCalculator.calculatePoints(receipt));
+    }
+
+    @Test
+    void calculatePoints_wellFormedReceipt_doesNotAllocate() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("M&M Corner Market")
+                .withPurchaseDate("2022-03-21")
+                .withPurchaseTime("14:33")
+                .withItems("Gatorade", "2.25")
+                .withItems("Emils Cheese Pizza", "12.25")
+                .withItems("Klarbrunn 12-PK 12 FL OZ  ", "12.00")
+                .withTotal("26.50")
+                .build();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int points = 0;
+        for (int i = 0; i < 10_000; i++) {
+            points += FastPointsCalculator.calculatePoints(receipt);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; i++) {
+            points += FastPointsCalculator.calculatePoints(receipt);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(20_000 * PointsCalculator.calculatePoints(receipt), points);
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Testing canonical amount parsing
+     **/
+    @Test
+    void parseCents_canonicalAmounts_returnsCents() {
+        assertEquals(1234, FastPointsCalculator.parseCents("12.34"));
+        assertEquals(1230, FastPointsCalculator.parseCents("12.3"));
+        assertEquals(1200, FastPointsCalculator.parseCents("12."));
+        assertEquals(1200, FastPointsCalculator.parseCents("12"));
+        assertEquals(34, FastPointsCalculator.parseCents(".34"));
+        assertEquals(0, FastPointsCalculator.parseCents("0.00"));
+    }
+
+    @Test
+    void parseCents_nonCanonicalAmounts_returnsNotCents() {
+        for (String amount : new String[]{null, "", ".", "-1.00", "+1.00", "1e2", "1.234", " 1.00", "1,00", "1234567890.00"}) {
+            assertEquals(FastPointsCalculator.NOT_CENTS, FastPointsCalculator.parseCents(amount), String.valueOf(amount));
+        }
+    }
+
+    @Test
+    void parseMinuteOfDay_validAndInvalidTimes() {
+        assertEquals(0, FastPointsCalculator.parseMinuteOfDay("0:00"));
+        assertEquals(14 * 60 + 33, FastPointsCalculator.parseMinuteOfDay("14:33"));
+        assertEquals(9 * 60 + 5, FastPointsCalculator.parseMinuteOfDay("9:05"));
+        assertEquals(-1, FastPointsCalculator.parseMinuteOfDay("24:00"));
+        assertEquals(-1, FastPointsCalculator.parseMinuteOfDay("12:60"));
+        assertEquals(-1, FastPointsCalculator.parseMinuteOfDay("1230"));
+        assertEquals(-1, FastPointsCalculator.parseMinuteOfDay(null));
+    }
+
+    @Test
+    void trimmedLength_matchesStringTrim() {
+        for (String value : new String[]{"", "   ", " a ", "\t\nabc\u0000", "Klarbrunn 12-PK 12 FL OZ  ", " x "}) {
+            assertEquals(value.trim().length(), FastPointsCalculator.trimmedLength(value), value);
+        }
+    }
+
+    /**
+     * Helper methods
+     */
+    private Receipt randomReceipt(Random random) {
+        ReceiptBuilder builder = ReceiptBuilder.buildReceipt()
+                .withRetailer(random.nextInt(10) == 0 ? null : randomText(random, 12))
+                .withPurchaseDate(randomDate(random))
+                .withPurchaseTime(randomTime(random))
+                .withTotal(randomAmount(random));
+
+        if (random.nextInt(20) == 0) {
+            return builder.withNullItems().build();
+        }
+        int items = random.nextInt(8);
+        for (int i = 0; i < items; i++) {
+            builder.withItems(random.nextInt(10) == 0 ? null : randomText(random, 10), randomAmount(random));
+        }
+        return builder.build();
+    }
+
+    private String randomAmount(Random random) {
+        switch (random.nextInt(6)) {
+            case 0:
+                return null;
+            case 1:
+                return AMOUNT_NOISE[random.nextInt(AMOUNT_NOISE.length)];
+            case 2:
+                return randomNoise(random, AMOUNT_NOISE, random.nextInt(1000) + "." + random.nextInt(100));
+            case 3:
+                return random.nextInt(100) + "." + random.nextInt(1000);
+            default:
+                return random.nextInt(10_000) + "." + String.format("%02d", random.nextInt(100));
+        }
+    }
+
+    private String randomDate(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return null;
+            case 1:
+                return DATE_NOISE[random.nextInt(DATE_NOISE.length)];
+            default:
+                return String.format("%04d-%02d-%02d", 1990 + random.nextInt(50), random.nextInt(14), random.nextInt(33));
+        }
+    }
+
+    private String randomTime(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return null;
+            case 1:
+                return TIME_NOISE[random.nextInt(TIME_NOISE.length)];
+            case 2:
+                return random.nextInt(26) + ":" + String.format("%02d", random.nextInt(62));
+            default:
+                return String.format("%02d:%02d", random.nextInt(25), random.nextInt(61));
+        }
+    }
+
+    private String randomText(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(DESCRIPTION_CHARS.charAt(random.nextInt(DESCRIPTION_CHARS.length())));
+        }
+        return text.toString();
+    }
+
+    private String randomNoise(Random random, String[] noise, String value) {
+        int position = random.nextInt(value.length() + 1);
+        return value.substring(0, position) + noise[random.nextInt(noise.length)] + value.substring(position);
+    }
+
+    private String describe(Receipt receipt) {
+        StringBuilder description = new StringBuilder()
+                .append(receipt.getRetailer()).append('|').append(receipt.getPurchaseDate()).append('|')
+                .append(receipt.getPurchaseTime()).append('|').append(receipt.getTotal());
+        if (receipt.getItems() != null) {
+            receipt.getItems().forEach(item -> description.append('|').append(item.getShortDescription())
+                    .append('=').append(item.getPrice()));
+        }
+        return description.toString();
+    }
+}
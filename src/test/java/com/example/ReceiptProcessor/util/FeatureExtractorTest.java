@@ -0,0 +1,116 @@
+package com.example.ReceiptProcessor.util;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Item;
+import com.example.ReceiptProcessor.model.Receipt;
+import com.example.ReceiptProcessor.model.ScoringFeatures;
+import com.example.ReceiptProcessor.rules.DefaultRules;
+import com.example.ReceiptProcessor.rules.FeatureScorer;
+import com.example.ReceiptProcessor.rules.RuleSetCompiler;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureExtractorTest {
+
+    private static final String[] TOTALS = {null, "", "abc", "35.35", "9.00", "10", "10.", ".25", "-1.00", "-0.75",
+            "1e2", "1E-2", "2.50", "1.005", "0.000", "+4.00", "123456789012345678901234.00", "٣.٠٠"};
+    private static final String[] DATES = {null, "", "2022-01-01", "2022-01-02", "2022-02-29", "2024-02-29",
+            "2022-1-01", "+12022-01-03", "2022/01/01", "2022-13-01"};
+    private static final String[] TIMES = {null, "", "14:00", "14:01", "15:59", "16:00", "9:05", "24:00",
+            "14:30:00", "+14:30", "1:5"};
+
+    private final FeatureScorer scorer = RuleSetCompiler.compile(1, DefaultRules.all(), false)
+            .featureScorer().orElseThrow();
+
+    /**
+     * Property: scoring extracted features matches the reference calculator on the receipt as stored
+     */
+    @Test
+    void extract_randomReceipts_scoreMatchesReferenceCalculatorOnStoredFields() {
+        Random random = new Random(1404L);
+
+        for (int run = 0; run < 20_000; run++) {
+            Receipt receipt = randomReceipt(random);
+
+            receipt.setFeatures(FeatureExtractor.extract(receipt));
+            assertEquals(PointsCalculator.calculatePoints(stored(receipt)), scorer.score(receipt),
+                    () -> receipt.getRetailer() + "|" + receipt.getPurchaseDate() + "|" + receipt.getPurchaseTime()
+                            + "|" + receipt.getTotal());
+        }
+    }
+
+    @Test
+    void extract_wellFormedReceipt_derivesFeatures() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("M&M Corner Market")
+                .withPurchaseDate("2022-03-21")
+                .withPurchaseTime("14:33")
+                .withItems("Gatorade", "2.25")
+                .withItems("Gatorade", "2.25")
+                .withItems("Emils Cheese Pizza", "12.25")
+                .withTotal("16.75")
+                .build();
+
+        ScoringFeatures features = FeatureExtractor.extract(receipt);
+
+        assertEquals(14, features.getRetailerAlphanumeric());
+        assertEquals(3, features.getItemCount());
+        assertEquals(3, features.getItemDescriptionPoints());
+        assertEquals(21, features.getPurchaseDay());
+    }
+
+    @Test
+    void extract_unconvertedFields_scoreZero() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-02-30")
+                .withPurchaseTime("25:00")
+                .withItems("abc", "-1.00")
+                .withTotal("1e2")
+                .build();
+
+        ScoringFeatures features = FeatureExtractor.extract(receipt);
+
+        assertEquals(0, features.getItemDescriptionPoints());
+        assertEquals(0, features.getPurchaseDay());
+    }
+
+    /**
+     * Helper methods
+     */
+    private Receipt stored(Receipt receipt) {
+        Receipt stored = new Receipt();
+        stored.setRetailer(receipt.getRetailer());
+        stored.setPurchaseEpochDay(receipt.getPurchaseEpochDay());
+        stored.setPurchaseMinute(receipt.getPurchaseMinute());
+        stored.setTotalCents(receipt.getTotalCents());
+        stored.setItems(receipt.getItems().stream().map(item -> {
+            Item copy = new Item();
+            copy.setShortDescription(item.getShortDescription());
+            copy.setPriceCents(item.getPriceCents());
+            return copy;
+        }).toList());
+        return stored;
+    }
+
+    private Receipt randomReceipt(Random random) {
+        ReceiptBuilder builder = ReceiptBuilder.buildReceipt()
+                .withRetailer(random.nextInt(10) == 0 ? null : "Store & Co " + random.nextInt(1000))
+                .withPurchaseDate(random.nextBoolean() ? DATES[random.nextInt(DATES.length)]
+                        : String.format("2022-%02d-%02d", random.nextInt(14), random.nextInt(33)))
+                .withPurchaseTime(random.nextBoolean() ? TIMES[random.nextInt(TIMES.length)]
+                        : String.format("%02d:%02d", random.nextInt(25), random.nextInt(61)))
+                .withTotal(random.nextBoolean() ? TOTALS[random.nextInt(TOTALS.length)]
+                        : random.nextInt(100) + "." + String.format("%02d", random.nextInt(100)));
+        int items = random.nextInt(8);
+        for (int i = 0; i < items; i++) {
+            String description = random.nextInt(10) == 0 ? null : " Item" + "x".repeat(random.nextInt(6)) + " ";
+            builder.withItems(description, random.nextBoolean() ? TOTALS[random.nextInt(TOTALS.length)]
+                    : random.nextInt(50) + "." + String.format("%02d", random.nextInt(100)));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ReceiptProcessor.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptFieldsTest {
+
+    /**
+     * Tests for parseEpochDay and formatEpochDay methods
+     */
+    @Test
+    void parseEpochDay_everyDayOfFourCenturies_matchesLocalDate() {
+        for (LocalDate date = LocalDate.of(1800, 1, 1); date.getYear() < 2200; date = date.plusDays(1)) {
+            int epochDay = ReceiptFields.parseEpochDay(date.toString());
+
+            assertEquals(date.toEpochDay(), epochDay, date.toString());
+            assertEquals(date.getDayOfMonth(), ReceiptFields.dayOfMonth(epochDay), date.toString());
+            assertEquals(date.toString(), ReceiptFields.formatEpochDay(epochDay));
+        }
+    }
+
+    @Test
+    void parseEpochDay_invalidDates_returnNoDate() {
+        for (String date : new String[]{null, "", "2022-02-29", "2022-02-30", "2022-13-01", "2022-00-10",
+                "2022-01-00", "2022-1-01", "2022/01/01", "+2022-01-01", "２０２２-01-01"}) {
+            assertEquals(ReceiptFields.NO_DATE, ReceiptFields.parseEpochDay(date), date);
+        }
+        assertNull(ReceiptFields.formatEpochDay(ReceiptFields.NO_DATE));
+    }
+
+    @Test
+    void dayOfMonth_extremeYears_matchesLocalDate() {
+        for (LocalDate date : new LocalDate[]{LocalDate.of(0, 1, 1), LocalDate.of(0, 2, 29),
+                LocalDate.of(9999, 12, 31), LocalDate.of(1969, 12, 31)}) {
+            assertEquals(date.getDayOfMonth(), ReceiptFields.dayOfMonth((int) date.toEpochDay()), date.toString());
+        }
+    }
+
+    /**
+     * Tests for parseMinuteOfDay and formatMinuteOfDay methods
+     */
+    @Test
+    void parseMinuteOfDay_validAndInvalidTimes() {
+        assertEquals(14 * 60 + 33, ReceiptFields.parseMinuteOfDay("14:33"));
+        assertEquals(9 * 60 + 5, ReceiptFields.parseMinuteOfDay("9:05"));
+        assertEquals(ReceiptFields.NO_TIME, ReceiptFields.parseMinuteOfDay("24:00"));
+        assertEquals(ReceiptFields.NO_TIME, ReceiptFields.parseMinuteOfDay(null));
+        assertEquals("09:05", ReceiptFields.formatMinuteOfDay((short) (9 * 60 + 5)));
+        assertEquals("23:59", ReceiptFields.formatMinuteOfDay((short) (24 * 60 - 1)));
+        assertNull(ReceiptFields.formatMinuteOfDay(ReceiptFields.NO_TIME));
+    }
+
+    /**
+     * Tests for parseCents and formatCents methods
+     */
+    @Test
+    void formatCents_roundTripsTwoDecimalAmounts() {
+        for (String amount : new String[]{"0.00", "0.05", "6.49", "12.30", "999999999.99"}) {
+            assertEquals(amount, ReceiptFields.formatCents(ReceiptFields.parseCents(amount)));
+        }
+        assertEquals("12.30", ReceiptFields.formatCents(ReceiptFields.parseCents("12.3")));
+        assertNull(ReceiptFields.formatCents(ReceiptFields.parseCents("-1.00")));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ReceiptProcessor.util;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptHasherTest {
+
+    /**
+     * Tests for contentHash method
+     */
+    @Test
+    void contentHash_sameContent_returnsSameHash() {
+        String hash = ReceiptHasher.contentHash(sampleReceipt().build());
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, ReceiptHasher.contentHash(sampleReceipt().build()));
+    }
+
+    @Test
+    void contentHash_ignoresIdAndPoints() {
+        Receipt stored = sampleReceipt().withId("7fb1377b-b223-49d9-a31a-5a02701dd310").build();
+        stored.setPoints(28);
+
+        assertEquals(ReceiptHasher.contentHash(sampleReceipt().build()), ReceiptHasher.contentHash(stored));
+    }
+
+    @Test
+    void contentHash_differentField_returnsDifferentHash() {
+        String hash = ReceiptHasher.contentHash(sampleReceipt().build());
+
+        assertNotEquals(hash, ReceiptHasher.contentHash(sampleReceipt().withTotal("18.75").build()));
+        assertNotEquals(hash, ReceiptHasher.contentHash(sampleReceipt().withPurchaseTime("13:02").build()));
+        assertNotEquals(hash, ReceiptHasher.contentHash(sampleReceipt().withItems("Gum", "0.00").build()));
+    }
+
+    @Test
+    void contentHash_shiftedFieldBoundary_returnsDifferentHash() {
+        Receipt first = sampleReceipt().withRetailer("Target1").withPurchaseDate("2022-01-01").build();
+        Receipt second = sampleReceipt().withRetailer("Target").withPurchaseDate("12022-01-01").build();
+
+        assertNotEquals(ReceiptHasher.contentHash(first), ReceiptHasher.contentHash(second));
+    }
+
+    @Test
+    void contentHash_nullItemsAndEmptyItems_returnDifferentHashes() {
+        Receipt nullItems = new Receipt();
+        Receipt emptyItems = new ReceiptBuilder().build();
+
+        assertNotEquals(ReceiptHasher.contentHash(nullItems), ReceiptHasher.contentHash(emptyItems));
+    }
+
+    private static ReceiptBuilder sampleReceipt() {
+        return new ReceiptBuilder()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withItems("Emils Cheese Pizza", "12.25")
+                .withTotal("18.74");
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.ReceiptProcessor.util;
+
+import com.example.ReceiptProcessor.builder.ReceiptBuilder;
+import com.example.ReceiptProcessor.model.Receipt;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptValidatorTest {
+
+    @Test
+    void validate_validReceipt_returnsNoErrors() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("M&M Corner Market")
+                .withPurchaseDate("2022-03-20")
+                .withPurchaseTime("14:33")
+                .withItems("Gatorade", "2.25")
+                .withTotal("2.25")
+                .build();
+
+        assertTrue(ReceiptValidator.validate(receipt).isEmpty());
+    }
+
+    @Test
+    void validate_nullReceipt_returnsError() {
+        assertEquals(List.of("receipt: must not be null"), ReceiptValidator.validate(null));
+    }
+
+    @Test
+    void validate_invalidHeaderFields_reportsEachField() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target!")
+                .withPurchaseDate("2022-02-30")
+                .withPurchaseTime("24:00")
+                .withItems("Soda", "1.50")
+                .withTotal("1.5")
+                .build();
+
+        List<String> errors = ReceiptValidator.validate(receipt);
+
+        assertEquals(4, errors.size());
+        assertTrue(errors.get(0).startsWith("retailer"));
+        assertTrue(errors.get(1).startsWith("purchaseDate"));
+        assertTrue(errors.get(2).startsWith("purchaseTime"));
+        assertTrue(errors.get(3).startsWith("total"));
+    }
+
+    @Test
+    void validate_singleDigitHourAndNonAsciiLetters_areValid() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Café Müller & Søn")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("9:05")
+                .withItems("Crème brûlée", "6.49")
+                .withTotal("6.49")
+                .build();
+
+        assertEquals(List.of(), ReceiptValidator.validate(receipt));
+        assertEquals(545, receipt.getPurchaseMinute());
+    }
+
+    @Test
+    void validate_invalidItems_reportsItemIndex() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Mountain Dew 12PK", "6.49")
+                .withItemHavingNullPrice("Pizza")
+                .withTotal("6.49")
+                .build();
+
+        assertEquals(List.of("items[1].price: must match ^\\d+\\.\\d{2}$"), ReceiptValidator.validate(receipt));
+    }
+
+    @Test
+    void validate_noItems_returnsError() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withTotal("0.00")
+                .build();
+
+        assertEquals(List.of("items: must contain at least one item"), ReceiptValidator.validate(receipt));
+    }
+
+    @Test
+    void validate_amountAboveLimit_returnsError() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("Yacht", "1000000000.00")
+                .withTotal("1000000000.00")
+                .build();
+
+        assertEquals(List.of("total: must not be more than 999999999.99",
+                "items[0].price: must not be more than 999999999.99"), ReceiptValidator.validate(receipt));
+    }
+
+    @Test
+    void validate_textLongerThanColumn_returnsLengthErrors() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("R".repeat(ReceiptFields.MAX_RETAILER_LENGTH + 1))
+                .withPurchaseDate("2022-01-01")
+                .withPurchaseTime("13:01")
+                .withItems("D".repeat(ReceiptFields.MAX_DESCRIPTION_LENGTH + 1), "6.49")
+                .withTotal("6.49")
+                .build();
+
+        assertEquals(List.of("retailer: must be at most 255 characters",
+                "items[0].shortDescription: must be at most 255 characters"), ReceiptValidator.validate(receipt));
+    }
+
+    /**
+     * Tests for requireValid method
+     */
+    @Test
+    void requireValid_invalidReceipt_throwsWithFieldErrors() {
+        Receipt receipt = ReceiptBuilder.buildReceipt()
+                .withRetailer("Target")
+                .withPurchaseDate("2022-01-32")
+                .withPurchaseTime("13:01")
+                .withItems("Soda", "1.50")
+                .withTotal("1.50")
+                .build();
+
+        InvalidReceiptException exception = assertThrows(InvalidReceiptException.class,
+                () -> ReceiptValidator.requireValid(receipt));
+
+        assertEquals(List.of("purchaseDate: must be a valid date in yyyy-MM-dd format"), exception.getErrors());
+        assertEquals("The receipt is invalid: purchaseDate: must be a valid date in yyyy-MM-dd format",
+                exception.getMessage());
+    }
+}